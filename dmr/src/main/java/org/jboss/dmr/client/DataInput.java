@@ -27,11 +27,135 @@ import java.io.IOException;
 public class DataInput {
     private int pos = 0;
     private byte[] bytes;
+    private Index index;
 
     public DataInput(byte[] bytes) {
         this.bytes = bytes;
     }
 
+    private DataInput(byte[] bytes, int pos, Index index) {
+        this.bytes = bytes;
+        this.pos = pos;
+        this.index = index;
+    }
+
+    /**
+     * Walks the encoded model node starting at the current position and records where each
+     * list, object and property ends. The position is not changed. Model nodes read from an
+     * indexed input decode their children lazily, i.e. when they are accessed for the first time.
+     * <p/>
+     * All lengths are checked against the input, so a truncated or corrupt input fails here rather than
+     * when a lazy value is accessed.
+     *
+     * @return this input
+     * @throws IOException if the input is truncated or corrupt
+     */
+    public DataInput index() throws IOException {
+        Index index = new Index();
+        int start = pos;
+        try {
+            skipValue(index);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        pos = start;
+        this.index = index;
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    int position() {
+        return pos;
+    }
+
+    /**
+     * @return the end of the list, object or property whose content starts at the specified offset
+     * or -1 if there's no such value in the index
+     */
+    int endOf(int offset) {
+        return index != null ? index.endOf(offset) : -1;
+    }
+
+    /**
+     * @return an input which shares the bytes and the index with this input, but is positioned at the specified offset
+     */
+    DataInput at(int offset) {
+        return new DataInput(bytes, offset, index);
+    }
+
+    void seek(int offset) {
+        pos = offset;
+    }
+
+    private void skipValue(Index index) throws IOException {
+        ensure(1);
+        final ModelType type = ModelType.forChar((char) (readByte() & 0xff));
+        int slot;
+        switch (type) {
+            case UNDEFINED: return;
+            case BIG_DECIMAL:
+            case EXPRESSION:
+            case STRING: skipUTF(); return;
+            case BIG_INTEGER:
+            case BYTES: ensure(4); skip(readInt()); return;
+            case BOOLEAN:
+            case TYPE: skip(1); return;
+            case INT: skip(4); return;
+            case DOUBLE:
+            case LONG: skip(8); return;
+            case LIST:
+                ensure(4);
+                slot = index.begin(pos);
+                for (int i = readInt(); i > 0; i--) {
+                    skipValue(index);
+                }
+                index.end(slot, pos);
+                return;
+            case OBJECT:
+                ensure(4);
+                slot = index.begin(pos);
+                for (int i = readInt(); i > 0; i--) {
+                    skipUTF();
+                    skipValue(index);
+                }
+                index.end(slot, pos);
+                return;
+            case PROPERTY:
+                slot = index.begin(pos);
+                skipUTF();
+                skipValue(index);
+                index.end(slot, pos);
+                return;
+            default: throw new IllegalStateException("Invalid type read: " + type);
+        }
+    }
+
+    private void skipUTF() throws IOException {
+        ensure(2);
+        skip(readUnsignedShort());
+    }
+
+    private void skip(int n) throws IOException {
+        // n must be read before: 'pos += readInt()' would drop the bytes consumed by readInt()
+        if (n < 0) {
+            throw new IOException("Invalid length " + n + " at offset " + pos);
+        }
+        ensure(n);
+        pos += n;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (n > bytes.length - pos) {
+            throw new IOException("Unexpected end of input: " + n + " bytes expected at offset " + pos
+                    + ", " + (bytes.length - pos) + " available");
+        }
+    }
+
     public int read() throws IOException {
         if (pos >= bytes.length)
             return -1;
@@ -58,20 +182,15 @@ public class DataInput {
     }
 
     public double readDouble() throws IOException {
-        // See  https://issues.jboss.org/browse/AS7-4126
-        //return IEEE754.toDouble(bytes[pos++], bytes[pos++], bytes[pos++], bytes[pos++], bytes[pos++], bytes[pos++], bytes[pos++], bytes[pos++]);
-        byte doubleBytes[] = new byte[8];
-        readFully(doubleBytes);
-
-        return IEEE754.toDouble(
-                doubleBytes[0],
-                doubleBytes[1],
-                doubleBytes[2],
-                doubleBytes[3],
-                doubleBytes[4],
-                doubleBytes[5],
-                doubleBytes[6],
-                doubleBytes[7]);
+        final byte[] bytes = this.bytes;
+        final int p = pos;
+        pos += 8;
+        if (IEEE754.hasTypedArrays()) {
+            return IEEE754.readDouble(bytes, p);
+        }
+        // See  https://issues.jboss.org/browse/AS7-4126: don't use bytes[pos++] as arguments
+        return IEEE754.toDouble(bytes[p], bytes[p + 1], bytes[p + 2], bytes[p + 3],
+                bytes[p + 4], bytes[p + 5], bytes[p + 6], bytes[p + 7]);
     }
 
     public float readFloat() throws IOException {
@@ -92,17 +211,17 @@ public class DataInput {
 
     public long readLong() throws IOException
     {
-        byte longBytes[] = new byte[8];
-        readFully(longBytes);
-
-        return (((long)longBytes[0] << 56) +
-                ((long)(longBytes[1] & 255) << 48) +
-                ((long)(longBytes[2] & 255) << 40) +
-                ((long)(longBytes[3] & 255) << 32) +
-                ((long)(longBytes[4] & 255) << 24) +
-                ((longBytes[5] & 255) << 16) +
-                ((longBytes[6] & 255) <<  8) +
-                ((longBytes[7] & 255) <<  0));
+        final byte[] bytes = this.bytes;
+        final int p = pos;
+        pos += 8;
+        return (((long)bytes[p] << 56) +
+                ((long)(bytes[p + 1] & 255) << 48) +
+                ((long)(bytes[p + 2] & 255) << 40) +
+                ((long)(bytes[p + 3] & 255) << 32) +
+                ((long)(bytes[p + 4] & 255) << 24) +
+                ((bytes[p + 5] & 255) << 16) +
+                ((bytes[p + 6] & 255) <<  8) +
+                ((bytes[p + 7] & 255) <<  0));
 
     }
 
@@ -114,7 +233,7 @@ public class DataInput {
 
     public String readUTF() throws IOException {
         int bytes = readUnsignedShort();
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(bytes);
 
         while (bytes > 0) {
             bytes -= readUtfChar(sb);
@@ -188,4 +307,49 @@ public class DataInput {
         }
     }
 
+    /**
+     * Start and end offsets of the lists, objects and properties in an encoded model node.
+     * Values are recorded in the order they appear in the stream, so the start offsets are sorted.
+     */
+    static class Index {
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private int size = 0;
+
+        int begin(int start) {
+            if (size == starts.length) {
+                starts = grow(starts);
+                ends = grow(ends);
+            }
+            starts[size] = start;
+            return size++;
+        }
+
+        void end(int slot, int end) {
+            ends[slot] = end;
+        }
+
+        int endOf(int start) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < start) {
+                    low = mid + 1;
+                } else if (starts[mid] > start) {
+                    high = mid - 1;
+                } else {
+                    return ends[mid];
+                }
+            }
+            return -1;
+        }
+
+        private static int[] grow(int[] array) {
+            int[] grown = new int[array.length * 2];
+            System.arraycopy(array, 0, grown, 0, array.length);
+            return grown;
+        }
+    }
+
 }
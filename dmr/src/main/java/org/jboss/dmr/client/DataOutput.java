@@ -25,11 +25,13 @@ import java.io.IOException;
 
 public class DataOutput {
 
+    private static final int INITIAL_SIZE = 256;
+
     private byte[] bytes;
     private int pos;
 
     public DataOutput() {
-        bytes = new byte[50];
+        bytes = new byte[INITIAL_SIZE];
     }
 
     public String getEncoded() {
@@ -38,19 +40,31 @@ public class DataOutput {
 
     public byte[] getBytes() {
         byte[] array = new byte[pos];
-        for (int i = 0; i < pos; i++)
-            array[i] = bytes[i];
-
+        System.arraycopy(bytes, 0, array, 0, pos);
         return array;
     }
 
-    private void growToFit(int size) {
-        if (pos + size >= bytes.length) {
-            byte[] array = new byte[bytes.length + size];
-            for (int i = 0; i < bytes.length; i++) {
-                array[i] = bytes[i];
-            }
+    /**
+     * The number of bytes written so far.
+     */
+    public int size() {
+        return pos;
+    }
 
+    /**
+     * The internal buffer without copying it. Only the first {@link #size()} bytes are valid.
+     */
+    byte[] buffer() {
+        return bytes;
+    }
+
+    /**
+     * Doubles the buffer, so that writing n bytes copies O(n) bytes in total.
+     */
+    private void growToFit(int size) {
+        if (pos + size > bytes.length) {
+            byte[] array = new byte[Math.max(bytes.length << 1, pos + size)];
+            System.arraycopy(bytes, 0, array, 0, pos);
             bytes = array;
         }
     }
@@ -109,6 +123,11 @@ public class DataOutput {
 
     public void writeDouble(double v) throws IOException {
         growToFit(8);
+        if (IEEE754.hasTypedArrays()) {
+            IEEE754.writeDouble(v, this.bytes, pos);
+            pos += 8;
+            return;
+        }
         JsArrayInteger bytes = IEEE754.fromDoubleClosure(v);
         for (int i = 0; i < 8; i++) {
             this.bytes[pos++] = (byte)bytes.get(i);
@@ -117,8 +136,11 @@ public class DataOutput {
 
     public void writeUTF(String s) throws IOException {
         final int length = s.length();
-        final byte[] bytes = new byte[length * 3];
-        int bl = 0;
+        // encode straight into the buffer and patch the length afterwards
+        growToFit(2 + length * 3);
+        final byte[] bytes = this.bytes;
+        final int start = pos + 2;
+        int bl = start;
         char c;
         for (int i = 0; i < length; i ++) {
             c = s.charAt(i);
@@ -133,20 +155,17 @@ public class DataOutput {
                 bytes[bl ++] = (byte)(0x80 | 0x3f & c);
             }
         }
-        writeShort(bl);
-        write(bytes, 0, bl);
+        writeShort(bl - start);
+        pos = bl;
     }
 
     public void write(byte[] bits) {
-        growToFit(bits.length);
-        for (int i = 0; i < bits.length; i++)
-            bytes[pos++] = bits[i];
+        write(bits, 0, bits.length);
     }
 
     public void write(byte[] b, int off, int len) {
         growToFit(len);
-        for (int i = 0; i < len; i ++) {
-            bytes[pos++] = b[off + i];
-        }
+        System.arraycopy(b, off, bytes, pos, len);
+        pos += len;
     }
 }
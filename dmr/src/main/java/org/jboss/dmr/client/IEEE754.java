@@ -18,10 +18,59 @@
 */
 package org.jboss.dmr.client;
 
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArrayInteger;
 
 public class IEEE754 {
 
+    /**
+     * A DataView over 8 bytes used to convert doubles without any intermediate arrays or strings.
+     * Null if the browser doesn't support typed arrays.
+     */
+    private static JavaScriptObject scratch;
+    private static boolean scratchInitialized = false;
+
+    static boolean hasTypedArrays() {
+        if (!scratchInitialized) {
+            scratch = GWT.isScript() ? createScratch() : null;
+            scratchInitialized = true;
+        }
+        return scratch != null;
+    }
+
+    private static native JavaScriptObject createScratch() /*-{
+        return (typeof DataView !== 'undefined') ? new DataView(new ArrayBuffer(8)) : null;
+    }-*/;
+
+    /**
+     * Reads a big endian double from 8 bytes starting at offset. Requires {@link #hasTypedArrays()}.
+     */
+    static double readDouble(byte[] bytes, int offset) {
+        return readDouble(scratch, bytes, offset);
+    }
+
+    /**
+     * Writes a big endian double to 8 bytes starting at offset. Requires {@link #hasTypedArrays()}.
+     */
+    static void writeDouble(double value, byte[] bytes, int offset) {
+        writeDouble(scratch, value, bytes, offset);
+    }
+
+    private static native double readDouble(JavaScriptObject view, byte[] bytes, int offset) /*-{
+        for (var i = 0; i < 8; i++) {
+            view.setInt8(i, bytes[offset + i]);
+        }
+        return view.getFloat64(0);
+    }-*/;
+
+    private static native void writeDouble(JavaScriptObject view, double value, byte[] bytes, int offset) /*-{
+        view.setFloat64(0, value);
+        for (var i = 0; i < 8; i++) {
+            bytes[offset + i] = view.getInt8(i);
+        }
+    }-*/;
+
     public static native JsArrayInteger fromFloat(float v)/*-{
         var ebits = 8;
         var fbits = 23;
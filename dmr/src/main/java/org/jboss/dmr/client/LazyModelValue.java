@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Placeholder for a list, object or property which has not been decoded yet. The value is read from
+ * the indexed input when it is accessed for the first time and then replaces this placeholder in its node.
+ */
+final class LazyModelValue extends ModelValue {
+
+    private ModelNode owner;
+    private DataInput source;
+    private final int start;
+    private ModelValue resolved;
+
+    LazyModelValue(final ModelNode owner, final ModelType type, final DataInput in) {
+        super(type);
+        this.owner = owner;
+        this.source = in;
+        this.start = in.position();
+        in.seek(in.endOf(start));
+    }
+
+    static ModelValue unwrap(final ModelValue value) {
+        return value instanceof LazyModelValue ? ((LazyModelValue) value).resolved() : value;
+    }
+
+    /**
+     * The structure of the input has been validated when it was indexed (see {@link DataInput#index()}). Should
+     * decoding fail nevertheless, the error is reported like an error of the eager decode, i.e. as an
+     * {@link IllegalArgumentException} (see {@link ModelNode#fromBase64(String, boolean)}).
+     */
+    ModelValue resolved() {
+        if (resolved == null) {
+            final DataInput in = source.at(start);
+            try {
+                switch (getType()) {
+                    case LIST: resolved = new ListModelValue(in); break;
+                    case OBJECT: resolved = new ObjectModelValue(in); break;
+                    case PROPERTY: resolved = new PropertyModelValue(in); break;
+                    default: throw new IOException("Invalid lazy type: " + getType());
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Failed to decode " + getType() + " at offset " + start, e);
+            }
+            owner.replaceValue(this, resolved);
+            owner = null;
+            source = null;
+        }
+        return resolved;
+    }
+
+    @Override
+    long asLong() {
+        return resolved().asLong();
+    }
+
+    @Override
+    long asLong(final long defVal) {
+        return resolved().asLong(defVal);
+    }
+
+    @Override
+    int asInt() {
+        return resolved().asInt();
+    }
+
+    @Override
+    int asInt(final int defVal) {
+        return resolved().asInt(defVal);
+    }
+
+    @Override
+    boolean asBoolean() {
+        return resolved().asBoolean();
+    }
+
+    @Override
+    boolean asBoolean(final boolean defVal) {
+        return resolved().asBoolean(defVal);
+    }
+
+    @Override
+    double asDouble() {
+        return resolved().asDouble();
+    }
+
+    @Override
+    double asDouble(final double defVal) {
+        return resolved().asDouble(defVal);
+    }
+
+    @Override
+    byte[] asBytes() {
+        return resolved().asBytes();
+    }
+
+    @Override
+    BigDecimal asBigDecimal() {
+        return resolved().asBigDecimal();
+    }
+
+    @Override
+    BigInteger asBigInteger() {
+        return resolved().asBigInteger();
+    }
+
+    @Override
+    String asString() {
+        return resolved().asString();
+    }
+
+    @Override
+    Property asProperty() {
+        return resolved().asProperty();
+    }
+
+    @Override
+    List<Property> asPropertyList() {
+        return resolved().asPropertyList();
+    }
+
+    @Override
+    ModelNode asObject() {
+        return resolved().asObject();
+    }
+
+    @Override
+    ModelNode getChild(final String name) {
+        return resolved().getChild(name);
+    }
+
+    @Override
+    ModelNode removeChild(final String name) {
+        return resolved().removeChild(name);
+    }
+
+    @Override
+    ModelNode getChild(final int index) {
+        return resolved().getChild(index);
+    }
+
+    @Override
+    ModelNode addChild() {
+        return resolved().addChild();
+    }
+
+    @Override
+    Set<String> getKeys() {
+        return resolved().getKeys();
+    }
+
+    @Override
+    List<ModelNode> asList() {
+        return resolved().asList();
+    }
+
+    @Override
+    ModelType asType() {
+        return resolved().asType();
+    }
+
+    @Override
+    ModelValue protect() {
+        return resolved().protect();
+    }
+
+    @Override
+    ModelValue copy() {
+        return resolved().copy();
+    }
+
+    @Override
+    ModelValue resolve() {
+        return resolved().resolve();
+    }
+
+    @Override
+    void format(final StringBuilder builder, final int indent, final boolean multiLine) {
+        resolved().format(builder, indent, multiLine);
+    }
+
+    @Override
+    void formatAsJSON(final StringBuilder builder, final int indent, final boolean multiLine) {
+        resolved().formatAsJSON(builder, indent, multiLine);
+    }
+
+    @Override
+    public String toString() {
+        return resolved().toString();
+    }
+
+    @Override
+    public String toJSONString(final boolean compact) {
+        return resolved().toJSONString(compact);
+    }
+
+    @Override
+    void writeExternal(final DataOutput out) throws IOException {
+        resolved().writeExternal(out);
+    }
+
+    @Override
+    boolean has(final int index) {
+        return resolved().has(index);
+    }
+
+    @Override
+    boolean has(final String key) {
+        return resolved().has(key);
+    }
+
+    @Override
+    ModelNode findChild(final String name) {
+        return resolved().findChild(name);
+    }
+
+    @Override
+    ModelNode findChild(final int index) {
+        return resolved().findChild(index);
+    }
+
+    @Override
+    ModelNode requireChild(final String name) throws NoSuchElementException {
+        return resolved().requireChild(name);
+    }
+
+    @Override
+    ModelNode requireChild(final int index) throws NoSuchElementException {
+        return resolved().requireChild(index);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof ModelValue && resolved().equals(unwrap((ModelValue) other));
+    }
+
+    @Override
+    public int hashCode() {
+        return resolved().hashCode();
+    }
+}
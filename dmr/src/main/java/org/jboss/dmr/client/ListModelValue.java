@@ -281,6 +281,11 @@ final class ListModelValue extends ModelValue {
         return 0 <= index && index < list.size();
     }
 
+    @Override
+    ModelNode findChild(final int index) {
+        return 0 <= index && index < list.size() ? list.get(index) : null;
+    }
+
     @Override
     ModelNode requireChild(final int index) throws NoSuchElementException {
         try {
@@ -60,6 +60,15 @@ public class ModelNode implements Cloneable, Exportable {
     private static final String SUCCESS = "success";
     private static final String FAILURE_DESCRIPTION = "failure-description";
 
+    /**
+     * The shared, protected node returned by the read-only lookups if a child doesn't exist.
+     */
+    @NoExport
+    public static final ModelNode UNDEFINED = new ModelNode();
+    static {
+        UNDEFINED.protect();
+    }
+
     private boolean protect = false;
     private ModelValue value = ModelValue.UNDEFINED;
 
@@ -450,6 +459,12 @@ public class ModelNode implements Cloneable, Exportable {
         value = child.value;
     }
 
+    void replaceValue(final ModelValue lazy, final ModelValue resolved) {
+        if (value == lazy) {
+            value = resolved;
+        }
+    }
+
     /**
      * Change this node's value to the given value.
      *
@@ -1148,7 +1163,8 @@ public class ModelNode implements Cloneable, Exportable {
      * @return {@code true} if there is a node at the given index and its {@link #getType() type} is not {@link ModelType.UNDEFINED}
      */
     public boolean hasDefined(int index) {
-        return value.has(index) && get(index).isDefined();
+        final ModelNode child = value.findChild(index);
+        return child != null && child.isDefined();
     }
 
     /**
@@ -1160,7 +1176,8 @@ public class ModelNode implements Cloneable, Exportable {
      */
     @Export("hasDefinedKey")
     public boolean hasDefined(String key) {
-        return value.has(key) && get(key).isDefined();
+        final ModelNode child = value.findChild(key);
+        return child != null && child.isDefined();
     }
 
     /**
@@ -1201,6 +1218,100 @@ public class ModelNode implements Cloneable, Exportable {
         return current;
     }
 
+    /**
+     * Get the child of this node with the given name without modifying this node.
+     *
+     * @param name the child name
+     * @return the child or {@code null} if there's no such child
+     */
+    @NoExport
+    public ModelNode getOrNull(final String name) {
+        return value.findChild(name);
+    }
+
+    /**
+     * Recursively get the children of this node with the given names without modifying this node.
+     *
+     * @param names the child names
+     * @return the child or {@code null} if any child along the path does not exist
+     */
+    @NoExport
+    public ModelNode getOrNull(final String... names) {
+        ModelNode current = this;
+        for (final String part : names) {
+            current = current.value.findChild(part);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Recursively get the children of this node with the given names without modifying this node.  Unlike
+     * {@link #get(String...)} nothing is created if a child does not exist.
+     *
+     * @param names the child names
+     * @return the child or the protected {@link #UNDEFINED} node if any child along the path does not exist
+     */
+    @NoExport
+    public ModelNode find(final String... names) {
+        final ModelNode child = getOrNull(names);
+        return child != null ? child : UNDEFINED;
+    }
+
+    /**
+     * Get the value of the child with the given name as a string without modifying this node.
+     *
+     * @param name the child name
+     * @param defVal the value to return if the child does not exist or is undefined
+     * @return the string value
+     */
+    @NoExport
+    public String asString(final String name, final String defVal) {
+        final ModelNode child = value.findChild(name);
+        return child != null && child.isDefined() ? child.asString() : defVal;
+    }
+
+    /**
+     * Get the value of the child with the given name as a {@code long} without modifying this node.
+     *
+     * @param name the child name
+     * @param defVal the value to return if the child does not exist or is undefined
+     * @return the long value
+     */
+    @NoExport
+    public long asLong(final String name, final long defVal) {
+        final ModelNode child = value.findChild(name);
+        return child != null && child.isDefined() ? child.asLong() : defVal;
+    }
+
+    /**
+     * Get the value of the child with the given name as an {@code int} without modifying this node.
+     *
+     * @param name the child name
+     * @param defVal the value to return if the child does not exist or is undefined
+     * @return the int value
+     */
+    @NoExport
+    public int asInt(final String name, final int defVal) {
+        final ModelNode child = value.findChild(name);
+        return child != null && child.isDefined() ? child.asInt() : defVal;
+    }
+
+    /**
+     * Get the value of the child with the given name as a {@code boolean} without modifying this node.
+     *
+     * @param name the child name
+     * @param defVal the value to return if the child does not exist or is undefined
+     * @return the boolean value
+     */
+    @NoExport
+    public boolean asBoolean(final String name, final boolean defVal) {
+        final ModelNode child = value.findChild(name);
+        return child != null && child.isDefined() ? child.asBoolean() : defVal;
+    }
+
     /**
      * Get a human-readable string representation of this model node, formatted nicely (possibly on multiple lines).
      *
@@ -1228,18 +1339,30 @@ public class ModelNode implements Cloneable, Exportable {
 
     @ExportStaticMethod()
     public static ModelNode fromBase64(String encoded) {
+        return fromBase64(encoded, false);
+    }
+
+    /**
+     * Decodes a base64 encoded model node. If <code>lazy</code> is true, the encoded stream is indexed first
+     * and lists, objects and properties are only decoded when they're accessed. Use this for large responses
+     * of which only some parts are read.
+     */
+    @NoExport
+    public static ModelNode fromBase64(String encoded, boolean lazy) {
         ModelNode node = new ModelNode();
         try {
 
+            DataInput in;
             if(hasNativeBase64Support())
             {
                 String s = nativeDecode(encoded);
-                node.readExternal(new DataInput(toBytes(s)));
+                in = new DataInput(toBytes(s));
             }
             else
             {
-                node.readExternal(new DataInput(Base64.decode(encoded)));
+                in = new DataInput(Base64.decode(encoded));
             }
+            node.readExternal(lazy ? in.index() : in);
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
@@ -1257,7 +1380,7 @@ public class ModelNode implements Cloneable, Exportable {
 
         if(hasNativeBase64Support())
         {
-            return nativeEncode(new String(out.getBytes()));
+            return nativeEncode(out.buffer(), out.size());
         }
         else
         {
@@ -1289,12 +1412,40 @@ public class ModelNode implements Cloneable, Exportable {
 
     }-*/;
 
+    /**
+     * Encodes the first <code>length</code> bytes without copying them into an intermediate java.lang.String.
+     * The binary string is assembled in chunks to stay below the argument limit of <code>Function.apply</code>.
+     */
+    private static native String nativeEncode(byte[] bytes, int length) /*-{
+
+        var chunkSize = 8192;
+        var chunks = [];
+        for (var i = 0; i < length; i += chunkSize)
+        {
+            var end = Math.min(i + chunkSize, length);
+            var codes = new Array(end - i);
+            for (var j = i; j < end; j++)
+            {
+                codes[j - i] = bytes[j] & 0xFF;
+            }
+            chunks.push(String.fromCharCode.apply(null, codes));
+        }
+        return btoa(chunks.join(''));
+
+    }-*/;
+
+    /**
+     * Converts a binary string into a byte[]. If the browser supports typed arrays, the result is an
+     * Int8Array of the exact size: it stores the signed values a Java byte[] would hold and
+     * doesn't need to grow while it's filled.
+     */
     public static native byte[] toBytes(String str) /*-{
 
-        var bytes = [];
-        for (var i = 0; i < str.length; ++i)
+        var length = str.length;
+        var bytes = (typeof Int8Array !== 'undefined') ? new Int8Array(length) : new Array(length);
+        for (var i = 0; i < length; ++i)
         {
-            bytes.push(str.charCodeAt(i));
+            bytes[i] = str.charCodeAt(i);
         }
         return bytes;
 
@@ -1382,7 +1533,7 @@ public class ModelNode implements Cloneable, Exportable {
      * @return {@code true} if they are equal, {@code false} otherwise
      */
     public boolean equals(final ModelNode other) {
-        return this == other || other != null && other.value.equals(value);
+        return this == other || other != null && LazyModelValue.unwrap(other.value).equals(LazyModelValue.unwrap(value));
     }
 
     /**
@@ -1455,6 +1606,11 @@ public class ModelNode implements Cloneable, Exportable {
         byte[] b; // used by some of these
         try {
             final ModelType type = ModelType.forChar((char) (in.readByte() & 0xff));
+            if (in.isIndexed() && (type == ModelType.LIST || type == ModelType.OBJECT || type == ModelType.PROPERTY)
+                    && in.endOf(in.position()) != -1) {
+                value = new LazyModelValue(this, type, in);
+                return;
+            }
             switch (type) {
                 case UNDEFINED: value = ModelValue.UNDEFINED; return;
                 case BIG_DECIMAL: value = new BigDecimalModelValue(in); return;
@@ -1486,12 +1642,12 @@ public class ModelNode implements Cloneable, Exportable {
     }
 
     public boolean isFailure() {
-        return hasDefined(OUTCOME) && !get(OUTCOME).asString().equals(SUCCESS);
+        final ModelNode outcome = value.findChild(OUTCOME);
+        return outcome != null && outcome.isDefined() && !outcome.asString().equals(SUCCESS);
     }
 
     public String getFailureDescription() {
-        String desc = hasDefined(FAILURE_DESCRIPTION) ? get(FAILURE_DESCRIPTION).asString() : "No failure-description provided";
-        return desc;
+        return asString(FAILURE_DESCRIPTION, "No failure-description provided");
     }
 
     public void setTag(String name, Object value)
@@ -44,6 +44,6 @@ public class ModelNodeUtil {
 
     public static boolean indicatesSuccess(ModelNode response)
     {
-        return response.get("outcome").asString().equals("success");
+        return response.find("outcome").asString().equals("success");
     }
 }
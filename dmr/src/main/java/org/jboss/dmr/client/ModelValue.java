@@ -322,6 +322,14 @@ abstract class ModelValue implements Cloneable {
         throw new NoSuchElementException("No child '" + name + "' exists");
     }
 
+    ModelNode findChild(final String name) {
+        return null;
+    }
+
+    ModelNode findChild(final int index) {
+        return null;
+    }
+
     ModelNode requireChild(final int index) throws NoSuchElementException {
         throw new NoSuchElementException("No child exists at index [" + index + "]");
     }
@@ -281,6 +281,11 @@ final class ObjectModelValue extends ModelValue {
         return map.containsKey(key);
     }
 
+    @Override
+    ModelNode findChild(final String name) {
+        return map.get(name);
+    }
+
     @Override
     ModelNode requireChild(final String name) throws NoSuchElementException {
         final ModelNode node = map.get(name);
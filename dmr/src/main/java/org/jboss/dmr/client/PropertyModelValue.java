@@ -144,6 +144,16 @@ final class PropertyModelValue extends ModelValue {
         return key.equals(property.getName());
     }
 
+    @Override
+    ModelNode findChild(final String name) {
+        return property.getName().equals(name) ? property.getValue() : null;
+    }
+
+    @Override
+    ModelNode findChild(final int index) {
+        return index == 0 ? property.getValue() : null;
+    }
+
     @Override
     ModelNode requireChild(final String name) throws NoSuchElementException {
         return property.getName().equals(name) ? property.getValue() : super.requireChild(name);
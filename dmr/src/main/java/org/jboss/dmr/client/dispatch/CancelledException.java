@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client.dispatch;
+
+/**
+ * Passed to {@link com.google.gwt.user.client.rpc.AsyncCallback#onFailure(Throwable)} of a read which has been
+ * cancelled because another place has been revealed, see {@link DispatchAsync#enterScope(String)}.
+ * Callbacks are free to ignore it: the view the response was meant for isn't visible anymore.
+ */
+public class CancelledException extends Exception {
+
+    private final String scope;
+
+    public CancelledException(String scope) {
+        super("Request of '" + scope + "' cancelled");
+        this.scope = scope;
+    }
+
+    /**
+     * @return the scope the cancelled request has been issued in
+     */
+    public String getScope() {
+        return scope;
+    }
+}
@@ -1,39 +1,252 @@
 package org.jboss.dmr.client.dispatch;
 
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.Scheduler;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.Property;
 import org.jboss.dmr.client.dispatch.impl.DMRResponse;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 
 /**
+ * Size bounded LRU cache for the responses of read operations.
+ * <p/>
+ * The size of an entry is measured by the length of its encoded response. Entries expire
+ * according to the operation they belong to (see {@link #getTimeToLive(ModelNode)}) and are
+ * invalidated as soon as a write operation touches an overlapping address.
+ * <p/>
+ * Entries are keyed by the serialized operation (<code>operation.toString()</code>), which needs to be
+ * taken before the operation is dispatched (the handler might add operation headers).
+ *
  * @author Heiko Braun
  * @date 8/29/12
  */
 public class DMRCache {
 
-    private static Map<String, DMRResponse> values = new HashMap<String, DMRResponse>();
-    private static int expiryTimeMs = 5*1000;
+    public static final int DEFAULT_BUDGET = 2 * 1024 * 1024;
+
+    static final long DESCRIPTION_TTL = 10 * 60 * 1000;
+    static final long RUNTIME_TTL = 1000;
+    static final long DEFAULT_TTL = 5 * 1000;
+    static final int SWEEP_INTERVAL = 1000;
+
+    private final int budget;
+    private final LinkedHashMap<String, Entry> values;
+    private int bytes = 0;
+    private int hits = 0;
+    private int misses = 0;
+    private boolean sweeping = false;
+    private Diagnostics diagnostics = GWT.isClient() ? GWT.<Diagnostics>create(Diagnostics.class) : null;
 
-    public void put(final String key, DMRResponse response)
-    {
-        values.put(key, response);
-        Scheduler.get().scheduleFixedPeriod(
-                new Scheduler.RepeatingCommand() {
-                    @Override
-                    public boolean execute() {
-                        values.remove(key);
-                        return false;
-                    }
-                }, expiryTimeMs
-        );
+    public DMRCache() {
+        this(DEFAULT_BUDGET);
+    }
+
+    public DMRCache(int budget) {
+        this.budget = budget;
+        this.values = new LinkedHashMap<String, Entry>(16, 0.75f, true); // access order
     }
 
     public DMRResponse get(String key) {
-      return values.get(key);
+        Entry entry = values.get(key);
+        if (entry != null && entry.expires < System.currentTimeMillis()) {
+            remove(key);
+            entry = null;
+        }
+
+        DMRResponse response = null;
+        if (entry != null) {
+            hits++;
+            response = entry.response.copy();
+        } else {
+            misses++;
+        }
+
+        if (diagnostics != null && diagnostics.isEnabled()) {
+            diagnostics.logCache("dmr-cache", hits, misses, values.size(), bytes);
+        }
+        return response;
+    }
+
+    public void put(String key, ModelNode operation, DMRResponse response) {
+        int length = response.getLength();
+        if (length < 0 || length > budget) return;
+
+        remove(key);
+        values.put(key, new Entry(response, addressesOf(operation), length,
+                System.currentTimeMillis() + getTimeToLive(operation)));
+        bytes += length;
+
+        // evict least recently used entries
+        Iterator<Entry> iterator = values.values().iterator();
+        while (bytes > budget && iterator.hasNext()) {
+            bytes -= iterator.next().length;
+            iterator.remove();
+        }
+
+        if (!sweeping && GWT.isClient()) {
+            sweeping = true;
+            Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+                @Override
+                public boolean execute() {
+                    sweep();
+                    sweeping = !values.isEmpty();
+                    return sweeping;
+                }
+            }, SWEEP_INTERVAL);
+        }
+    }
+
+    /**
+     * Removes all entries whose address overlaps with one of the addresses the (write) operation is
+     * addressing, i.e. the addresses of the parents and children of the modified resource.
+     */
+    public void invalidate(ModelNode operation) {
+        List<List<String>> modified = addressesOf(operation);
+        Iterator<Entry> iterator = values.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (overlaps(entry.addresses, modified)) {
+                bytes -= entry.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        values.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the time in ms the response of the specified read operation is valid. Descriptions only change
+     * with the server, whereas runtime values are outdated almost immediately.
+     */
+    protected long getTimeToLive(ModelNode operation) {
+        String op = nameOf(operation);
+        if (COMPOSITE.equals(op)) {
+            long ttl = DESCRIPTION_TTL;
+            for (ModelNode step : stepsOf(operation)) {
+                ttl = Math.min(ttl, getTimeToLive(step));
+            }
+            return ttl;
+        } else if (READ_RESOURCE_DESCRIPTION_OPERATION.equals(op)
+                || READ_OPERATION_DESCRIPTION_OPERATION.equals(op)
+                || READ_OPERATION_NAMES_OPERATION.equals(op)) {
+            return DESCRIPTION_TTL;
+        } else if (READ_ATTRIBUTE_OPERATION.equals(op)
+                || READ_RESOURCE_METRICS.equals(op)
+                || (operation.hasDefined(INCLUDE_RUNTIME) && operation.require(INCLUDE_RUNTIME).asBoolean())) {
+            return RUNTIME_TTL;
+        }
+        return DEFAULT_TTL;
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = values.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expires < now) {
+                bytes -= entry.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = values.remove(key);
+        if (entry != null) {
+            bytes -= entry.length;
+        }
+    }
+
+    private static List<List<String>> addressesOf(ModelNode operation) {
+        List<List<String>> addresses = new ArrayList<List<String>>();
+        if (COMPOSITE.equals(nameOf(operation))) {
+            for (ModelNode step : stepsOf(operation)) {
+                addresses.addAll(addressesOf(step));
+            }
+        } else {
+            List<String> address = new ArrayList<String>();
+            if (operation.hasDefined(ADDRESS)) {
+                for (Property segment : operation.require(ADDRESS).asPropertyList()) {
+                    address.add(segment.getName());
+                    address.add(segment.getValue().asString());
+                }
+            }
+            addresses.add(address);
+        }
+        return addresses;
+    }
+
+    /**
+     * Operations are inspected with has() / require(): get() would add missing children and modify the operation
+     * (and thereby its key).
+     */
+    private static String nameOf(ModelNode operation) {
+        return operation.has(OP) ? operation.require(OP).asString() : null;
+    }
+
+    private static List<ModelNode> stepsOf(ModelNode operation) {
+        return operation.hasDefined(STEPS) ? operation.require(STEPS).asList() : Collections.<ModelNode>emptyList();
+    }
+
+    static boolean overlaps(List<List<String>> cached, List<List<String>> modified) {
+        for (List<String> a : cached) {
+            for (List<String> b : modified) {
+                if (overlap(a, b)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two addresses overlap if one is a parent of (or equal to) the other. Wildcards match any name.
+     */
+    static boolean overlap(List<String> a, List<String> b) {
+        int common = Math.min(a.size(), b.size());
+        for (int i = 0; i < common; i++) {
+            String x = a.get(i);
+            String y = b.get(i);
+            if (!x.equals(y) && !"*".equals(x) && !"*".equals(y)) return false;
+        }
+        return true;
     }
 
     public int size() {
         return values.size();
     }
+
+    public int getBytes() {
+        return bytes;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    static class Entry {
+        final DMRResponse response;
+        final List<List<String>> addresses;
+        final int length;
+        final long expires;
+
+        Entry(DMRResponse response, List<List<String>> addresses, int length, long expires) {
+            this.response = response;
+            this.addresses = addresses;
+            this.length = length;
+            this.expires = expires;
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client.dispatch;
+
+import com.allen_sauer.gwt.log.client.Log;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.storage.client.Storage;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+
+/**
+ * Keeps the responses of description operations in the local storage of the browser, so they survive
+ * the session. Descriptions only change with the server: all entries are bound to a version key (release,
+ * management model version, the principal and its roles, since descriptions include the access control meta data)
+ * and are dropped as soon as the console connects with a different key. Entries expire after {@link #MAX_AGE}
+ * regardless, which covers role mapping changes on the server that the key can't tell.
+ * <p/>
+ * The store is inactive until {@link #activate(String)} has been called.
+ */
+public class DescriptionStore {
+
+    private static final String PREFIX = "hal.descriptions.";
+    private static final String VERSION = PREFIX + "version";
+
+    /**
+     * One day in ms
+     */
+    public static final long MAX_AGE = 24 * 60 * 60 * 1000L;
+
+    private static final DescriptionStore INSTANCE = new DescriptionStore();
+
+    public static DescriptionStore getInstance() {
+        return INSTANCE;
+    }
+
+    private final Storage storage = GWT.isClient() ? Storage.getLocalStorageIfSupported() : null;
+    private boolean active = false;
+    private int hits = 0;
+
+    /**
+     * Activates the store for the given version key. Entries stored for another key are removed.
+     */
+    public void activate(String version) {
+        if(null == storage) return;
+
+        if(!version.equals(storage.getItem(VERSION)))
+        {
+            clear();
+            storage.setItem(VERSION, version);
+        }
+        active = true;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Only pure descriptions are stored: everything else might change while the server is running.
+     */
+    public static boolean isDescription(ModelNode operation) {
+        String op = operation.has(OP) ? operation.require(OP).asString() : "";
+        if(COMPOSITE.equals(op))
+        {
+            if(!operation.hasDefined(STEPS))
+                return false;
+            for(ModelNode step : operation.require(STEPS).asList())
+            {
+                if(!isDescription(step))
+                    return false;
+            }
+            return true;
+        }
+        return READ_RESOURCE_DESCRIPTION_OPERATION.equals(op) || READ_OPERATION_DESCRIPTION_OPERATION.equals(op);
+    }
+
+    public DMRResponse get(String key) {
+        if(!active) return null;
+
+        String value = storage.getItem(PREFIX + key);
+        if(null == value) return null;
+
+        // <stored at>:<method>:<collection response>:<base64 payload>
+        int stamp = value.indexOf(':');
+        int first = value.indexOf(':', stamp + 1);
+        int second = value.indexOf(':', first + 1);
+        if(stamp == -1 || first == -1 || second == -1 || isExpired(value.substring(0, stamp)))
+        {
+            storage.removeItem(PREFIX + key);
+            return null;
+        }
+        hits++;
+        return new DMRResponse(value.substring(stamp + 1, first), value.substring(second + 1), null,
+                Boolean.valueOf(value.substring(first + 1, second)));
+    }
+
+    private static boolean isExpired(String storedAt) {
+        try
+        {
+            long age = System.currentTimeMillis() - Long.parseLong(storedAt);
+            return age < 0 || age > MAX_AGE;
+        }
+        catch (NumberFormatException e)
+        {
+            return true;
+        }
+    }
+
+    public void put(String key, DMRResponse response) {
+        if(!active) return;
+
+        String value = System.currentTimeMillis() + ":" + response.getMethod() + ":" +
+                response.isCollectionResponse() + ":" + response.getEncoded();
+        try
+        {
+            storage.setItem(PREFIX + key, value);
+        }
+        catch (JavaScriptException e)
+        {
+            // quota exceeded: start over rather than keeping a random subset
+            Log.warn("Failed to store description, clearing " + PREFIX + "*: " + e.getMessage());
+            String version = storage.getItem(VERSION);
+            clear();
+            if(version != null) storage.setItem(VERSION, version);
+        }
+    }
+
+    public void clear() {
+        if(null == storage) return;
+
+        List<String> keys = new ArrayList<String>();
+        for(int i = 0; i < storage.getLength(); i++)
+        {
+            String key = storage.key(i);
+            if(key != null && key.startsWith(PREFIX))
+                keys.add(key);
+        }
+        for(String key : keys)
+            storage.removeItem(key);
+    }
+
+    public int getHits() {
+        return hits;
+    }
+}
@@ -14,5 +14,9 @@ public interface Diagnostics {
 
     public void logEvent(String moduleName, String subSystem,String eventGroup, double millis, String type);
 
+    public void logCache(String cache, int hits, int misses, int entries, int bytes);
+
+    public void logCancellation(String scope, int requests, int bytes);
+
     public boolean isEnabled();
 }
@@ -32,4 +32,12 @@ public interface DispatchAsync {
     <A extends Action<R>,R extends Result> DispatchRequest undo(
             A action, R result, AsyncCallback<Void> callback);
 
+    /**
+     * Tags subsequent read operations with the given scope (i.e. the name token of the place being revealed)
+     * and cancels the outstanding reads of all other scopes. The callbacks of cancelled reads receive a
+     * {@link CancelledException}. Only reads which have opted in with
+     * {@link org.jboss.dmr.client.dispatch.impl.DMRAction#setScoped(boolean)} are bound to a scope.
+     */
+    void enterScope(String scope);
+
 }
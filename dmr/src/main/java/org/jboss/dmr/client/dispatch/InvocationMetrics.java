@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client.dispatch;
+
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.Property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Latency histograms, payload sizes and decode times of the management operations, grouped by
+ * operation name and by address template (the address with the resource names replaced by '*').
+ * <p/>
+ * Always enabled: recording an invocation only updates a few counters of two existing entries.
+ *
+ * @see org.jboss.dmr.client.dispatch.impl.DMRHandler
+ */
+public class InvocationMetrics {
+
+    /**
+     * Upper bounds (ms) of the histogram buckets. The last bucket takes everything above.
+     */
+    public static final int[] BUCKETS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    /**
+     * Address keys whose values are part of the template, since they denote a kind of resource rather than an instance.
+     */
+    private static final Set<String> TYPE_KEYS = new HashSet<String>();
+    static {
+        TYPE_KEYS.add("subsystem");
+        TYPE_KEYS.add("core-service");
+    }
+
+    private static final InvocationMetrics INSTANCE = new InvocationMetrics();
+
+    public static InvocationMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, Stats> byOperation = new LinkedHashMap<String, Stats>();
+    private final Map<String, Stats> byAddress = new LinkedHashMap<String, Stats>();
+    private final List<Listener> listeners = new ArrayList<Listener>();
+
+    public void record(String operation, String addressTemplate, double millis,
+                       int bytesSent, int bytesReceived, boolean failed) {
+        stats(byOperation, operation).record(millis, bytesSent, bytesReceived, failed);
+        stats(byAddress, addressTemplate).record(millis, bytesSent, bytesReceived, failed);
+        fireChange();
+    }
+
+    public void recordDecode(String operation, String addressTemplate, double millis) {
+        stats(byOperation, operation).recordDecode(millis);
+        stats(byAddress, addressTemplate).recordDecode(millis);
+        fireChange();
+    }
+
+    private static Stats stats(Map<String, Stats> map, String name) {
+        Stats stats = map.get(name);
+        if(null == stats)
+        {
+            stats = new Stats(name);
+            map.put(name, stats);
+        }
+        return stats;
+    }
+
+    public Collection<Stats> getByOperation() {
+        return byOperation.values();
+    }
+
+    public Collection<Stats> getByAddress() {
+        return byAddress.values();
+    }
+
+    public void reset() {
+        byOperation.clear();
+        byAddress.clear();
+        fireChange();
+    }
+
+    /**
+     * @return all metrics as JSON, i.e. to compare the figures of different installations
+     */
+    public String toJSON() {
+        ModelNode json = new ModelNode();
+        json.get("buckets").setEmptyList();
+        for(int bucket : BUCKETS)
+            json.get("buckets").add(bucket);
+        json.get("operations").set(toModel(byOperation.values()));
+        json.get("addresses").set(toModel(byAddress.values()));
+        return json.toJSONString(false);
+    }
+
+    private static ModelNode toModel(Collection<Stats> values) {
+        ModelNode model = new ModelNode();
+        model.setEmptyObject();
+        for(Stats stats : values)
+        {
+            ModelNode entry = model.get(stats.getName());
+            entry.get("count").set(stats.getCount());
+            entry.get("failures").set(stats.getFailures());
+            entry.get("mean").set(stats.getMean());
+            entry.get("max").set(stats.getMax());
+            entry.get("histogram").setEmptyList();
+            for(int count : stats.histogram)
+                entry.get("histogram").add(count);
+            entry.get("bytes-sent").set(stats.getBytesSent());
+            entry.get("bytes-received").set(stats.getBytesReceived());
+            entry.get("decode-count").set(stats.getDecodeCount());
+            entry.get("decode-mean").set(stats.getDecodeMean());
+        }
+        return model;
+    }
+
+    /**
+     * The address of an operation with the resource names replaced by '*',
+     * i.e. <code>/host=*&#47;server=*&#47;subsystem=datasources/data-source=*</code>
+     */
+    public static String addressTemplate(ModelNode operation) {
+        if(!operation.hasDefined("address"))
+            return "/";
+
+        StringBuilder template = new StringBuilder();
+        for(Property segment : operation.get("address").asPropertyList())
+        {
+            template.append("/").append(segment.getName()).append("=");
+            template.append(TYPE_KEYS.contains(segment.getName()) ? segment.getValue().asString() : "*");
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireChange() {
+        for(Listener l : listeners)
+            l.onChange();
+    }
+
+    public interface Listener {
+        void onChange();
+    }
+
+    public static class Stats {
+        private final String name;
+        private final int[] histogram = new int[BUCKETS.length + 1];
+        private int count = 0;
+        private int failures = 0;
+        private double total = 0;
+        private double max = 0;
+        private long bytesSent = 0;
+        private long bytesReceived = 0;
+        private int decodeCount = 0;
+        private double decodeTotal = 0;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void record(double millis, int sent, int received, boolean failed) {
+            count++;
+            if(failed) failures++;
+            total += millis;
+            max = Math.max(max, millis);
+            bytesSent += Math.max(0, sent);
+            bytesReceived += Math.max(0, received);
+
+            int bucket = 0;
+            while(bucket < BUCKETS.length && millis > BUCKETS[bucket])
+                bucket++;
+            histogram[bucket]++;
+        }
+
+        void recordDecode(double millis) {
+            decodeCount++;
+            decodeTotal += millis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public double getMean() {
+            return count > 0 ? total / count : 0;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * @return the upper bound of the bucket which contains the given percentile (0-100)
+         * or -1 if it's in the last bucket, which is open ended
+         */
+        public int getPercentile(int percentile) {
+            int threshold = (int) Math.ceil(count * percentile / 100.0);
+            int sum = 0;
+            for(int i = 0; i < BUCKETS.length; i++)
+            {
+                sum += histogram[i];
+                if(sum >= threshold)
+                    return BUCKETS[i];
+            }
+            return -1;
+        }
+
+        public int[] getHistogram() {
+            return histogram;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public int getDecodeCount() {
+            return decodeCount;
+        }
+
+        public double getDecodeMean() {
+            return decodeCount > 0 ? decodeTotal / decodeCount : 0;
+        }
+    }
+}
@@ -21,16 +21,35 @@ package org.jboss.dmr.client.dispatch.impl;
 
 import org.jboss.dmr.client.dispatch.Action;
 import org.jboss.dmr.client.dispatch.ActionType;
+import org.jboss.dmr.client.dispatch.DescriptionStore;
 import org.jboss.dmr.client.ModelNode;
 
+import static org.jboss.dmr.client.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.dmr.client.ModelDescriptionConstants.OP;
+import static org.jboss.dmr.client.ModelDescriptionConstants.STEPS;
+
 /**
  * @author Heiko Braun
  * @date 3/17/11
  */
 public class DMRAction implements Action<DMRResponse> {
 
+    /**
+     * Scheduling hint for the dispatcher, see {@link DispatchAsyncImpl#setMaxInFlight(int)}.
+     */
+    public enum Priority {
+        /** Background work like polling or refreshing metrics */
+        LOW,
+        /** Reads, unless specified otherwise */
+        NORMAL,
+        /** Writes: they are never queued */
+        HIGH
+    }
+
     private ModelNode operation;
-    private boolean cachable = true;
+    private Boolean cachable;
+    private Priority priority;
+    private boolean scoped = false;
 
     public DMRAction(ModelNode operation) {
         this.operation = operation;
@@ -61,12 +80,76 @@ public class DMRAction implements Action<DMRResponse> {
         return this.operation;
     }
 
+    /**
+     * Opts in to (or out of) the response cache of the dispatcher. Cached responses don't reflect changes made
+     * outside this console (CLI, other users, server state transitions) until they expire.
+     */
     public void setCachable(boolean cachable) {
         this.cachable = cachable;
     }
 
+    /**
+     * @return the value set explicitly, otherwise true for descriptions only: they don't change while the
+     * server is running
+     */
     public boolean isCachable() {
-        return cachable;
+        if(cachable != null)
+            return cachable;
+        return DescriptionStore.isDescription(operation);
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * @return the priority set explicitly or {@link Priority#NORMAL} for read-only and
+     * {@link Priority#HIGH} for all other actions
+     */
+    public Priority getPriority() {
+        if(priority != null)
+            return priority;
+        return isReadOnly() ? Priority.NORMAL : Priority.HIGH;
+    }
+
+    /**
+     * Binds a read to the place it has been issued in: it's cancelled when another place is revealed,
+     * see {@link org.jboss.dmr.client.dispatch.DispatchAsync#enterScope(String)}. Only reads whose response
+     * merely updates the view of that place should opt in, and their callbacks have to expect a
+     * {@link org.jboss.dmr.client.dispatch.CancelledException}. Disabled by default.
+     */
+    public void setScoped(boolean scoped) {
+        this.scoped = scoped;
+    }
+
+    /**
+     * @return true for read-only actions which have opted in to scoping
+     */
+    public boolean isScoped() {
+        return scoped && isReadOnly();
+    }
+
+    /**
+     * @return true if this action only reads the model, i.e. all (composite) operations are <code>read-*</code>
+     */
+    public boolean isReadOnly() {
+        return isReadOnly(operation);
+    }
+
+    private static boolean isReadOnly(ModelNode operation) {
+        String op = operation.has(OP) ? operation.require(OP).asString() : "";
+        if(COMPOSITE.equals(op))
+        {
+            if(!operation.hasDefined(STEPS))
+                return true;
+            for(ModelNode step : operation.require(STEPS).asList())
+            {
+                if(!isReadOnly(step))
+                    return false;
+            }
+            return true;
+        }
+        return op.startsWith("read-");
     }
 }
 
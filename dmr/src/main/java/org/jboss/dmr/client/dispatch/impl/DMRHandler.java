@@ -21,6 +21,7 @@ package org.jboss.dmr.client.dispatch.impl;
 
 import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.allen_sauer.gwt.log.client.Log;
@@ -40,6 +41,7 @@ import org.jboss.dmr.client.ModelNode;
 import org.jboss.dmr.client.Property;
 import org.jboss.dmr.client.dispatch.ActionHandler;
 import org.jboss.dmr.client.dispatch.Diagnostics;
+import org.jboss.dmr.client.dispatch.InvocationMetrics;
 import org.jboss.dmr.client.dispatch.DispatchRequest;
 
 /**
@@ -53,6 +55,13 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
     private static final String DMR_ENCODED = "application/dmr-encoded";
     private static final String HEADER_CONNECTION = "Connection";
     private static final String KEEP_ALIVE = "Keep-Alive";
+    private static final String OPERATION_HEADERS = "operation-headers";
+
+    /**
+     * Opt-in request batching, see {@link #setBatchRequests(boolean)}.
+     * Mirrors the preference key used by the settings dialog.
+     */
+    private static final String BATCH_REQUESTS_COOKIE = "as7_ui_batchRequests";
 
     /**
      * The read resource description supports the following parameters:
@@ -70,6 +79,12 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
     private boolean trackInvocations = diagnostics.isEnabled();
     private DMREndpointConfig endpointConfig = GWT.create(DMREndpointConfig.class);
     private ResourceAccessLog resourceLog = ResourceAccessLog.INSTANCE;
+    private InvocationMetrics metrics = InvocationMetrics.getInstance();
+
+    private boolean batchRequests = "true".equals(Cookies.getCookie(BATCH_REQUESTS_COOKIE));
+    private List<BatchedOperation> pendingBatch = new ArrayList<BatchedOperation>();
+    private boolean flushScheduled = false;
+    private int openRequests = 0;
 
     @Inject
     public DMRHandler()
@@ -80,6 +95,30 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         postRequestBuilder.setIncludeCredentials(true);
     }
 
+    /**
+     * When enabled, read operations issued within the same event loop turn are collected
+     * and sent as a single composite operation. The step results are handed back to the
+     * original callbacks, so callers don't notice the difference.
+     */
+    public void setBatchRequests(boolean batchRequests)
+    {
+        this.batchRequests = batchRequests;
+    }
+
+    public boolean isBatchRequests()
+    {
+        return batchRequests;
+    }
+
+    /**
+     * @return the number of HTTP requests which have been sent and are neither answered nor cancelled. Batched
+     * operations share one request, so this can be less than the number of pending actions.
+     */
+    public int getOpenRequests()
+    {
+        return openRequests;
+    }
+
     private static native void redirect(String url)/*-{
         $wnd.location = url;
     }-*/;
@@ -104,16 +143,16 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
     private static String getOpToken(ModelNode operation)
     {
         StringBuffer sb = new StringBuffer();
-        sb.append(operation.get(ADDRESS).asString())
+        sb.append(operation.find(ADDRESS).asString())
                 .append(": ")
-                .append(operation.get(OP))
+                .append(operation.find(OP))
                 .append("; ")
-                .append(operation.get(CHILD_TYPE).asString())
+                .append(operation.find(CHILD_TYPE).asString())
                 .append("; ");
 
-        if(operation.get(NAME).isDefined())
+        if(operation.hasDefined(NAME))
         {
-            sb.append(operation.get(NAME).asString());
+            sb.append(operation.find(NAME).asString());
         }
         return sb.toString();
     }
@@ -135,10 +174,85 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
             });
         }
 
+        if(batchRequests && isBatchable(operation))
+        {
+            return enqueue(operation, resultCallback);
+        }
+
         //Request request = executeRequest(resultCallback, GWT.isScript() ? operation : runAsRole(operation));
         // TODO: Remove https://issues.jboss.org/browse/HAL-100
-        Request request = executeRequest(resultCallback, runAsRole(operation));
-        return new DispatchRequestHandle(request);
+        return executeRequest(resultCallback, runAsRole(operation));
+    }
+
+    /**
+     * Only plain read operations are batched: writes keep their own (transactional) request
+     * and descriptions are fetched through GET. Operations which carry their own headers are
+     * sent as they are, since the headers of the composite would apply to all steps.
+     */
+    private static boolean isBatchable(ModelNode operation)
+    {
+        final String op = operation.get(OP).asString();
+        return op.startsWith("read-")
+                && !READ_RESOURCE_DESCRIPTION_OPERATION.equals(op)
+                && !operation.hasDefined(OPERATION_HEADERS);
+    }
+
+    private DispatchRequest enqueue(ModelNode operation, AsyncCallback<DMRResponse> resultCallback)
+    {
+        BatchedOperation batched = new BatchedOperation(operation, resultCallback);
+        pendingBatch.add(batched);
+
+        if(!flushScheduled)
+        {
+            flushScheduled = true;
+            Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+                @Override
+                public void execute() {
+                    flushBatch();
+                }
+            });
+        }
+        return batched;
+    }
+
+    private void flushBatch()
+    {
+        flushScheduled = false;
+
+        final List<BatchedOperation> batch = new ArrayList<BatchedOperation>(pendingBatch.size());
+        for(BatchedOperation batched : pendingBatch)
+        {
+            if(!batched.cancelled)
+                batch.add(batched);
+        }
+        pendingBatch.clear();
+
+        if(batch.isEmpty())
+        {
+            return;
+        }
+        else if(batch.size() == 1)
+        {
+            batch.get(0).send();
+            return;
+        }
+
+        ModelNode composite = new ModelNode();
+        composite.get(OP).set(COMPOSITE);
+        composite.get(ADDRESS).setEmptyList();
+        List<ModelNode> steps = new ArrayList<ModelNode>(batch.size());
+        for(BatchedOperation batched : batch)
+        {
+            steps.add(batched.operation);
+        }
+        composite.get(STEPS).set(steps);
+
+        DispatchRequest request = executeRequest(new BatchCallback(batch), runAsRole(composite));
+        for(BatchedOperation batched : batch)
+        {
+            batched.batch = batch;
+            batched.delegate = request;
+        }
     }
 
     private ModelNode runAsRole(final ModelNode operation) {
@@ -171,7 +285,7 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         {
             //ModelNode address = operation.get(ADDRESS).clone();
             //address.add(operation.get(CHILD_TYPE).toString(), "*");
-            resourceLog.log(Window.Location.getHash(), operation.get(ADDRESS).toString()+" : "+operation.get(OP).asString()+"(child-type="+operation.get(CHILD_TYPE)+")");
+            resourceLog.log(Window.Location.getHash(), operation.get(ADDRESS).toString()+" : "+operation.get(OP).asString()+"(child-type="+operation.find(CHILD_TYPE)+")");
         }
         else
         {
@@ -185,7 +299,7 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         throw new RuntimeException("Not implemented yet.");
     }
 
-    private Request executeRequest(final AsyncCallback<DMRResponse> resultCallback, final ModelNode operation)
+    private DispatchRequest executeRequest(final AsyncCallback<DMRResponse> resultCallback, final ModelNode operation)
     {
         if (idCounter == Long.MAX_VALUE)
         {
@@ -195,13 +309,15 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         // workaround https://issues.jboss.org/browse/WFLY-1732
         final boolean collectionResponse = expectCollectionResponse(operation);
 
-        Request request = null;
+        final String id = String.valueOf(idCounter++);
+        final long start = System.currentTimeMillis();
+        trace(Type.BEGIN, id, operation);
+
+        final DispatchRequestHandle handle = new DispatchRequestHandle();
         try
         {
-            final String id = String.valueOf(idCounter++);
-            trace(Type.BEGIN, id, operation);
-
             final RequestBuilder requestBuilder = chooseRequestBuilder(operation);
+            final int bytesSent = requestBuilder.getRequestData() != null ? requestBuilder.getRequestData().length() : 0;
             trace(Type.SERIALIZED, id, operation);
 
             final RequestCallback requestCallback = new RequestCallback()
@@ -209,69 +325,102 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
                 @Override
                 public void onResponseReceived(Request request, Response response)
                 {
+                    handle.close();
                     trace(Type.RECEIVE, id, operation);
-
-                    int statusCode = response.getStatusCode();
-                    if (200 == statusCode)
-                    {
-                        resultCallback.onSuccess(
-                                new DMRResponse(
-                                        requestBuilder.getHTTPMethod(),
-                                        response.getText(),
-                                        response.getHeader(HEADER_CONTENT_TYPE),
-                                        collectionResponse
-                                )
-                        );
-                    }
-                    else if (401 == statusCode || 0 == statusCode)
-                    {
-                        resultCallback.onFailure(new Exception("Authentication required."));
-                    }
-                    else if (307 == statusCode)
-                    {
-                        String location = response.getHeader("Location");
-                        Log.error("Redirect '" + location + "'. Could not execute " + operation.toString());
-                        redirect(location);
-                    }
-                    else if (503 == statusCode)
-                    {
-                        resultCallback.onFailure(
-                                new Exception("Service temporarily unavailable. Is the server is still booting?"));
-                    }
-                    else
-                    {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("Unexpected HTTP response").append(": ").append(statusCode);
-                        sb.append("\n\n");
-                        sb.append("Request\n");
-                        sb.append(operation.toString());
-                        sb.append("\n\nResponse\n\n");
-                        sb.append(response.getStatusText()).append("\n");
-                        String payload = response.getText().equals("") ? "No details" :
-                                ModelNode.fromBase64(response.getText()).toString();
-                        sb.append(payload);
-                        resultCallback.onFailure(new Exception(sb.toString()));
-                    }
+                    onResponse(response.getStatusCode(), response.getStatusText(), response.getHeader("Location"),
+                            new DMRResponse(
+                                    requestBuilder.getHTTPMethod(),
+                                    response.getText(),
+                                    response.getHeader(HEADER_CONTENT_TYPE),
+                                    collectionResponse
+                            ),
+                            operation, id, start, bytesSent, resultCallback);
                     trace(Type.END, id, operation);
                 }
 
                 @Override
                 public void onError(Request request, Throwable e)
                 {
+                    handle.close();
                     trace(Type.RECEIVE, id, operation);
+                    metrics.record(operation.get(OP).asString(), InvocationMetrics.addressTemplate(operation),
+                            System.currentTimeMillis() - start, bytesSent, 0, true);
                     resultCallback.onFailure(e);
                     trace(Type.END, id, operation);
                 }
             };
             requestBuilder.setCallback(requestCallback);
-            request = requestBuilder.send();
+            handle.open();
+            handle.delegate = requestBuilder.send();
             trace(Type.SEND, id, operation);
         }
         catch (RequestException e)
         {
+            handle.close();
             resultCallback.onFailure(e);
         }
-        return request;
+        return handle;
+    }
+
+    private void onResponse(int statusCode, String statusText, String location, DMRResponse response,
+            final ModelNode operation, final String id, long start, int bytesSent,
+            AsyncCallback<DMRResponse> resultCallback)
+    {
+        final String name = operation.get(OP).asString();
+        final String template = InvocationMetrics.addressTemplate(operation);
+        metrics.record(name, template, System.currentTimeMillis() - start, bytesSent, response.getLength(),
+                200 != statusCode);
+        response.setDecodeListener(new DMRResponse.DecodeListener()
+        {
+            @Override
+            public void onDecoded(long millis)
+            {
+                trace(Type.DESERIALIZED, id, operation);
+                metrics.recordDecode(name, template, millis);
+            }
+        });
+
+        if (200 == statusCode)
+        {
+            resultCallback.onSuccess(response);
+        }
+        else if (500 == statusCode && resultCallback instanceof BatchCallback && response.getLength() > 0)
+        {
+            // a batched composite fails as a whole if any step fails: the steps are routed individually
+            ((BatchCallback) resultCallback).onSteps(response);
+        }
+        else if (401 == statusCode || 0 == statusCode)
+        {
+            resultCallback.onFailure(new Exception("Authentication required."));
+        }
+        else if (307 == statusCode)
+        {
+            Log.error("Redirect '" + location + "'. Could not execute " + operation.toString());
+            redirect(location);
+        }
+        else if (503 == statusCode)
+        {
+            resultCallback.onFailure(
+                    new Exception("Service temporarily unavailable. Is the server is still booting?"));
+        }
+        else
+        {
+            String payload = response.getLength() <= 0 ? "No details" : response.decode().toString();
+            resultCallback.onFailure(unexpectedResponse(statusCode, statusText, operation, payload));
+        }
+    }
+
+    private static Exception unexpectedResponse(int statusCode, String statusText, ModelNode operation, String payload)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Unexpected HTTP response").append(": ").append(statusCode);
+        sb.append("\n\n");
+        sb.append("Request\n");
+        sb.append(operation.toString());
+        sb.append("\n\nResponse\n\n");
+        sb.append(statusText).append("\n");
+        sb.append(payload);
+        return new Exception(sb.toString());
     }
 
 
@@ -296,14 +445,8 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         final String op = operation.get(OP).asString();
         if (READ_RESOURCE_DESCRIPTION_OPERATION.equals(op))
         {
-            String endpoint = endpointConfig.getUrl();
-            if (endpoint.endsWith("/"))
-            {
-                endpoint = endpoint.substring(0, endpoint.length() - 1);
-            }
-            String descriptionUrl = endpoint + descriptionOperationToUrl(operation);
             requestBuilder = new RequestBuilder(RequestBuilder.GET,
-                    com.google.gwt.http.client.URL.encode(descriptionUrl));
+                    com.google.gwt.http.client.URL.encode(descriptionUrl(operation)));
             requestBuilder.setHeader(HEADER_ACCEPT, DMR_ENCODED);
             requestBuilder.setHeader(HEADER_CONTENT_TYPE, DMR_ENCODED);
             requestBuilder.setIncludeCredentials(true);
@@ -317,6 +460,16 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
         return requestBuilder;
     }
 
+    private String descriptionUrl(final ModelNode operation)
+    {
+        String endpoint = endpointConfig.getUrl();
+        if (endpoint.endsWith("/"))
+        {
+            endpoint = endpoint.substring(0, endpoint.length() - 1);
+        }
+        return endpoint + descriptionOperationToUrl(operation);
+    }
+
     private String descriptionOperationToUrl(final ModelNode operation)
     {
         StringBuilder url = new StringBuilder();
@@ -372,18 +525,148 @@ public class DMRHandler implements ActionHandler<DMRAction, DMRResponse> {
     }
 
 
+    /**
+     * Hands the step results of a batched composite back to the original callbacks. The server answers
+     * a composite with a failed step as a whole with HTTP 500, but the step results are still part of the
+     * response: each caller gets the outcome of its own step, i.e. the same outcome as if the operation had
+     * been sent on its own. Steps which have been cancelled or rolled back by the server are re-sent on
+     * their own, so that a single failing read doesn't affect unrelated callers.
+     * <p/>
+     * The steps are taken from the decoded composite, so their encoded length isn't known.
+     */
+    class BatchCallback implements AsyncCallback<DMRResponse>
+    {
+        private final List<BatchedOperation> batch;
+
+        BatchCallback(List<BatchedOperation> batch)
+        {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSuccess(DMRResponse response)
+        {
+            onSteps(response);
+        }
+
+        void onSteps(DMRResponse response)
+        {
+            ModelNode result = response.get().get(RESULT);
+            for(int i = 0; i < batch.size(); i++)
+            {
+                BatchedOperation batched = batch.get(i);
+                if(batched.cancelled) continue;
+
+                String step = "step-" + (i + 1);
+                ModelNode stepResult = result.hasDefined(step) ? result.get(step) : null;
+                String outcome = stepResult != null ? stepResult.find(OUTCOME).asString() : CANCELLED;
+                if(SUCCESS.equals(outcome))
+                {
+                    batched.done = true;
+                    batched.callback.onSuccess(new DMRResponse(
+                            RequestBuilder.POST.toString(), stepResult, expectCollectionResponse(batched.operation)));
+                }
+                else if(FAILED.equals(outcome) && stepResult.hasDefined(FAILURE_DESCRIPTION))
+                {
+                    batched.done = true;
+                    batched.callback.onFailure(unexpectedResponse(500, "Internal Server Error",
+                            batched.operation, stepResult.toString()));
+                }
+                else
+                {
+                    batched.send();
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable caught)
+        {
+            for(BatchedOperation batched : batch)
+            {
+                if(batched.cancelled) continue;
+                batched.done = true;
+                batched.callback.onFailure(caught);
+            }
+        }
+    }
+
+    class BatchedOperation implements DispatchRequest
+    {
+        private final ModelNode operation;
+        private final AsyncCallback<DMRResponse> callback;
+        private List<BatchedOperation> batch;
+        private DispatchRequest delegate;
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        BatchedOperation(ModelNode operation, AsyncCallback<DMRResponse> callback)
+        {
+            this.operation = operation;
+            this.callback = callback;
+        }
+
+        void send()
+        {
+            batch = null;
+            delegate = executeRequest(callback, runAsRole(operation));
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            if(delegate == null) return;
+
+            // a shared request is only cancelled once nobody is waiting for it anymore
+            boolean abandoned = true;
+            if(batch != null)
+            {
+                for(BatchedOperation batched : batch)
+                {
+                    abandoned &= batched.cancelled;
+                }
+            }
+            if(abandoned)
+            {
+                delegate.cancel();
+            }
+        }
+
+        @Override
+        public boolean isPending()
+        {
+            if(cancelled || done) return false;
+            return delegate == null || batch != null || delegate.isPending();
+        }
+    }
+
+    /**
+     * Counts as open request from {@link #open()} until it's answered or cancelled.
+     */
     class DispatchRequestHandle implements DispatchRequest
     {
         private Request delegate;
+        private boolean open = false;
+
+        void open()
+        {
+            if (open) return;
+            open = true;
+            openRequests++;
+        }
 
-        DispatchRequestHandle(Request delegate)
+        void close()
         {
-            this.delegate = delegate;
+            if (!open) return;
+            open = false;
+            openRequests--;
         }
 
         @Override
         public void cancel()
         {
+            close();
             if (delegate != null)
             {
                 delegate.cancel();
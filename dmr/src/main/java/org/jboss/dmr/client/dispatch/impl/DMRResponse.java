@@ -48,6 +48,15 @@ public class DMRResponse implements Result<ModelNode> {
     private String responseText;
     private String contentType;
     private final boolean collectionResponse;
+    private ModelNode decoded;
+    private DecodeListener decodeListener;
+
+    /**
+     * Notified once the response has been decoded.
+     */
+    interface DecodeListener {
+        void onDecoded(long millis);
+    }
 
     public DMRResponse(String method, String responseText, String contentType, boolean collectionResponse) {
         this.method = method;
@@ -56,16 +65,66 @@ public class DMRResponse implements Result<ModelNode> {
         this.collectionResponse = collectionResponse;     // https://issues.jboss.org/browse/WFLY-1732
     }
 
+    /**
+     * A response which has already been decoded, i.e. a single step taken from a batched composite.
+     * Its encoded length is unknown.
+     */
+    public DMRResponse(String method, ModelNode decoded, boolean collectionResponse) {
+        this.method = method;
+        this.decoded = decoded;
+        this.collectionResponse = collectionResponse;
+    }
+
+    /**
+     * @return the length of the encoded response or -1 if the response hasn't been received on its own
+     */
+    public int getLength() {
+        return responseText != null ? responseText.length() : -1;
+    }
+
+    /**
+     * @return a response which can be decoded and modified independently of this one
+     */
+    public DMRResponse copy() {
+        if(responseText == null)
+            return new DMRResponse(method, decoded.clone(), collectionResponse);
+        return new DMRResponse(method, responseText, contentType, collectionResponse);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the base64 encoded payload
+     */
+    public String getEncoded() {
+        return responseText != null ? responseText : decoded.toBase64String();
+    }
+
+    void setDecodeListener(DecodeListener decodeListener) {
+        this.decodeListener = decodeListener;
+    }
+
     public boolean isCollectionResponse() {
         return collectionResponse;
     }
 
+    /**
+     * Decodes the response on first access. Only the parts of the response which are actually
+     * read are decoded (see {@link ModelNode#fromBase64(String, boolean)}) and the decoded node is kept,
+     * so subsequent calls return the same instance.
+     */
     @Override
     public ModelNode get() {
 
+        if(decoded != null)
+            return decoded;
+
+        long start = decodeListener != null ? System.currentTimeMillis() : 0;
         ModelNode response = null;
         try {
-            response = ModelNode.fromBase64(responseText);
+            response = ModelNode.fromBase64(responseText, true);
 
             /*if(response.hasDefined("response-headers"))
             {
@@ -125,9 +184,21 @@ public class DMRResponse implements Result<ModelNode> {
         // TODO: re-enable after refactoring, might as well leverage notification API
         //processor.process(response);
 
+        decoded = response;
+        if(decodeListener != null)
+            decodeListener.onDecoded(System.currentTimeMillis() - start);
         return response;
     }
 
+    /**
+     * Decodes the payload as it was received, i.e. without repackaging GET responses.
+     */
+    ModelNode decode() {
+        if(decoded != null && responseText == null)
+            return decoded;
+        return ModelNode.fromBase64(responseText, false);
+    }
+
     private void inlineAccessControlMetaData(List<ModelNode> accessHeader, ModelNode payload) {
 
         if(accessHeader.isEmpty())
@@ -139,8 +210,8 @@ public class DMRResponse implements Result<ModelNode> {
         // match payload and inline response meta data
         for(ModelNode header : accessHeader)
         {
-            List<Property> relativeAddress = header.get(RELATIVE_ADDRESS).asPropertyList();
-            List<ModelNode> attributeNames = header.get(FILTERED_ATTRIBUTES).asList();
+            List<Property> relativeAddress = header.find(RELATIVE_ADDRESS).asPropertyList();
+            List<ModelNode> attributeNames = header.find(FILTERED_ATTRIBUTES).asList();
 
             ModelNode cursor = null;
 
@@ -160,16 +231,16 @@ public class DMRResponse implements Result<ModelNode> {
                     // TODO: https://issues.jboss.org/browse/WFLY-1741
                     if(target.hasDefined(type))     // qualified response
                     {
-                        cursor = target.get(type).get(id);
+                        cursor = target.find(type, id);
                     }
                     else if(target.hasDefined(id))  // unqualified response
                     {
-                        cursor = target.get(id);
+                        cursor = target.find(id);
                     }
                 }
             }
 
-            if(cursor!=null)
+            if(cursor!=null && cursor.isDefined())
             {
                 //System.out.println("cursor @ "+ cursor);
 
@@ -19,14 +19,29 @@
 
 package org.jboss.dmr.client.dispatch.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.user.client.Cookies;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.inject.Inject;
+import org.jboss.dmr.client.ModelNode;
 import org.jboss.dmr.client.dispatch.Action;
 import org.jboss.dmr.client.dispatch.ActionHandler;
+import org.jboss.dmr.client.dispatch.CancelledException;
+import org.jboss.dmr.client.dispatch.DMRCache;
+import org.jboss.dmr.client.dispatch.DescriptionStore;
+import org.jboss.dmr.client.dispatch.Diagnostics;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.dmr.client.dispatch.DispatchRequest;
 import org.jboss.dmr.client.dispatch.HandlerMapping;
 import org.jboss.dmr.client.dispatch.Result;
+import org.jboss.dmr.client.dispatch.impl.DMRAction.Priority;
 
 /**
  * @author Heiko Braun
@@ -36,21 +51,483 @@ public class DispatchAsyncImpl implements DispatchAsync {
 
     HandlerMapping registry;
 
+    /**
+     * Read operations currently in flight, keyed by their serialized form.
+     */
+    private final Map<String, InFlight> inFlight = new HashMap<String, InFlight>();
+
+    private final DMRCache cache = new DMRCache();
+    private final DescriptionStore descriptions = DescriptionStore.getInstance();
+
+    /**
+     * Browsers allow ~6 connections per host.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 6;
+
+    /**
+     * Mirrors the preference key used by the settings dialog.
+     */
+    private static final String MAX_CONNECTIONS_COOKIE = "as7_ui_maxConnections";
+
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    /**
+     * Actions running in handlers which don't report their HTTP requests.
+     */
+    private int running = 0;
+
+    /**
+     * Reports the HTTP requests of the DMR actions: batched actions share a single request.
+     */
+    private DMRHandler dmrHandler;
+
+    /**
+     * Actions waiting for a free slot, ordered by priority (FIFO within the same priority).
+     */
+    private final List<Scheduled> queue = new LinkedList<Scheduled>();
+
+    private static final int KNOWN_SIZES = 256;
+
+    private String scope;
+
+    /**
+     * Outstanding reads tagged with the scope they have been issued in.
+     */
+    private final List<ScopedRequest> scoped = new ArrayList<ScopedRequest>();
+
+    /**
+     * The length of the last response per read operation, used to estimate what a cancellation saves.
+     */
+    private final Map<String, Integer> responseSizes = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > KNOWN_SIZES;
+        }
+    };
+
+    private int cancelledRequests = 0;
+    private int cancelledBytes = 0;
+    private Diagnostics diagnostics = GWT.isClient() ? GWT.<Diagnostics>create(Diagnostics.class) : null;
+
     @Inject
     public DispatchAsyncImpl(HandlerMapping registry) {
         this.registry = registry;
+
+        String maxConnections = GWT.isClient() ? Cookies.getCookie(MAX_CONNECTIONS_COOKIE) : null;
+        if(maxConnections != null)
+        {
+            try {
+                setMaxInFlight(Integer.parseInt(maxConnections));
+            } catch (NumberFormatException e) {
+                // keep the default
+            }
+        }
+    }
+
+    /**
+     * Limits the number of HTTP requests sent concurrently. Further actions are queued by their
+     * {@link DMRAction#getPriority() priority}: {@link Priority#HIGH high} priority actions are always sent
+     * right away, whereas {@link Priority#LOW low} priority actions leave one slot for the others,
+     * so background work can't occupy all connections.
+     * <p/>
+     * Actions which are batched by the {@link DMRHandler} don't occupy a slot on their own: they count as one
+     * request once the batch is sent. Configurable through the settings dialog.
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        pump();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <A extends Action<R>, R extends Result> DispatchRequest execute(A action, AsyncCallback<R> callback) {
 
         ActionHandler<A,R> handler = registry.resolve(action);
         if(null==handler)
             callback.onFailure(new IllegalStateException("No handler for type "+action.getType()));
 
-        return handler.execute(action, callback);
+        if(action instanceof DMRAction)
+        {
+            DMRAction dmrAction = (DMRAction) action;
+            if(dmrAction.isReadOnly())
+            {
+                String key = dmrAction.getOperation().toString();
+                if(dmrAction.isCachable())
+                {
+                    DMRResponse cached = cache.get(key);
+                    if(cached == null && DescriptionStore.isDescription(dmrAction.getOperation()))
+                    {
+                        cached = descriptions.get(key);
+                        if(cached != null)
+                            cache.put(key, dmrAction.getOperation(), cached.copy());
+                    }
+                    if(cached != null)
+                    {
+                        callback.onSuccess((R) cached);
+                        return COMPLETED;
+                    }
+                }
+                if(scope != null && dmrAction.isScoped())
+                {
+                    ScopedRequest<R> request = new ScopedRequest<R>(scope, key, callback);
+                    scoped.add(request);
+                    request.delegate = executeShared(key, handler, action, request);
+                    return request;
+                }
+                return executeShared(key, handler, action, callback);
+            }
+            else
+            {
+                // reads issued after a write must not piggy-back on requests sent before it
+                inFlight.clear();
+                cache.invalidate(dmrAction.getOperation());
+            }
+        }
+
+        return schedule(priorityOf(action), handler, action, callback);
+    }
+
+    /**
+     * Responses for a place which has been left would only update hidden views: outstanding reads
+     * issued in another scope are cancelled, so they are neither received nor decoded. Their callbacks are
+     * notified with a {@link CancelledException}. Writes and reads which aren't scoped are never cancelled.
+     */
+    @Override
+    public void enterScope(String scope) {
+        if(scope == null || scope.equals(this.scope)) return;
+
+        int requests = 0;
+        int bytes = 0;
+        for(ScopedRequest request : new ArrayList<ScopedRequest>(scoped))
+        {
+            if(!scope.equals(request.scope) && request.isPending())
+            {
+                request.cancelScope();
+                Integer size = responseSizes.get(request.key);
+                requests++;
+                bytes += size != null ? size : 0;
+            }
+        }
+        this.scope = scope;
+
+        if(requests > 0)
+        {
+            cancelledRequests += requests;
+            cancelledBytes += bytes;
+            if(diagnostics != null && diagnostics.isEnabled())
+                diagnostics.logCancellation(scope, cancelledRequests, cancelledBytes);
+        }
+    }
+
+    public int getCancelledRequests() {
+        return cancelledRequests;
+    }
+
+    /**
+     * @return the estimated number of bytes which haven't been transferred due to cancellations, based on
+     * the length of previous responses for the same operations
+     */
+    public int getCancelledBytes() {
+        return cancelledBytes;
+    }
+
+    private static Priority priorityOf(Action action) {
+        return action instanceof DMRAction ? ((DMRAction) action).getPriority() : Priority.NORMAL;
+    }
+
+    /**
+     * Identical read operations which are issued while the first one is still pending
+     * don't cause another request, but are notified when the pending one completes.
+     */
+    @SuppressWarnings("unchecked")
+    private <A extends Action<R>, R extends Result> DispatchRequest executeShared(
+            final String key, ActionHandler<A,R> handler, A action, AsyncCallback<R> callback) {
+
+        Priority priority = priorityOf(action);
+        InFlight<R> pending = inFlight.get(key);
+        if(null==pending)
+        {
+            DMRAction dmrAction = (DMRAction) action;
+            pending = new InFlight<R>(key, dmrAction.getOperation(), dmrAction.isCachable());
+            inFlight.put(key, pending);
+
+            // join first: the handler might respond synchronously
+            DispatchRequest joined = pending.join(callback);
+            pending.request = schedule(priority, handler, action, pending);
+            return joined;
+        }
+        if(pending.request != null)
+            pending.request.raise(priority);
+        return pending.join(callback);
+    }
+
+    private <A extends Action<R>, R extends Result> Scheduled<A,R> schedule(
+            Priority priority, ActionHandler<A,R> handler, A action, AsyncCallback<R> callback) {
+
+        Scheduled<A,R> scheduled = new Scheduled<A,R>(priority, handler, action, callback);
+        boolean overtakes = queue.isEmpty() || queue.get(0).priority.compareTo(priority) < 0;
+        if(Priority.HIGH == priority || (overtakes && requests() < limit(priority)))
+            scheduled.start();
+        else
+            enqueue(scheduled);
+        return scheduled;
+    }
+
+    private int requests() {
+        return running + (dmrHandler != null ? dmrHandler.getOpenRequests() : 0);
+    }
+
+    private int limit(Priority priority) {
+        return Priority.LOW == priority ? Math.max(1, maxInFlight - 1) : maxInFlight;
+    }
+
+    private void enqueue(Scheduled scheduled) {
+        int index = 0;
+        for(Scheduled queued : queue)
+        {
+            if(queued.priority.compareTo(scheduled.priority) < 0) break;
+            index++;
+        }
+        queue.add(index, scheduled);
+        scheduled.queued = true;
+    }
+
+    private void pump() {
+        while(!queue.isEmpty() && requests() < limit(queue.get(0).priority))
+        {
+            Scheduled next = queue.remove(0);
+            next.queued = false;
+            next.start();
+        }
+    }
+
+    /**
+     * An action which is either waiting in the queue or occupies one of the slots until it completes.
+     */
+    class Scheduled<A extends Action<R>, R extends Result> implements DispatchRequest, AsyncCallback<R> {
+
+        private Priority priority;
+        private final ActionHandler<A,R> handler;
+        private final A action;
+        private final AsyncCallback<R> callback;
+        private DispatchRequest request;
+        private boolean queued = false;
+        private boolean started = false;
+        private boolean finished = false;
+
+        Scheduled(Priority priority, ActionHandler<A,R> handler, A action, AsyncCallback<R> callback) {
+            this.priority = priority;
+            this.handler = handler;
+            this.action = action;
+            this.callback = callback;
+        }
+
+        void start() {
+            started = true;
+            if(handler instanceof DMRHandler)
+                dmrHandler = (DMRHandler) handler;
+            else
+                running++;
+            request = handler.execute(action, this);
+        }
+
+        /**
+         * Moves a queued action ahead if another caller needs it with a higher priority.
+         */
+        void raise(Priority priority) {
+            if(queued && this.priority.compareTo(priority) < 0)
+            {
+                queue.remove(this);
+                this.priority = priority;
+                enqueue(this);
+                pump();
+            }
+        }
+
+        private void finish() {
+            if(finished) return;
+            finished = true;
+            if(started)
+            {
+                if(!(handler instanceof DMRHandler))
+                    running--;
+                pump();
+            }
+        }
+
+        @Override
+        public void onSuccess(R result) {
+            if(finished) return;
+            finish();
+            callback.onSuccess(result);
+        }
+
+        @Override
+        public void onFailure(Throwable caught) {
+            if(finished) return;
+            finish();
+            callback.onFailure(caught);
+        }
+
+        @Override
+        public void cancel() {
+            if(queued)
+            {
+                queue.remove(this);
+                queued = false;
+            }
+            else if(started && !finished && request != null)
+            {
+                request.cancel();
+            }
+            finish();
+        }
+
+        @Override
+        public boolean isPending() {
+            return !finished;
+        }
     }
 
+    class ScopedRequest<R extends Result> implements DispatchRequest, AsyncCallback<R> {
+
+        private final String scope;
+        private final String key;
+        private final AsyncCallback<R> callback;
+        private DispatchRequest delegate;
+        private boolean done = false;
+
+        ScopedRequest(String scope, String key, AsyncCallback<R> callback) {
+            this.scope = scope;
+            this.key = key;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSuccess(R result) {
+            done = true;
+            scoped.remove(this);
+            callback.onSuccess(result);
+        }
+
+        @Override
+        public void onFailure(Throwable caught) {
+            done = true;
+            scoped.remove(this);
+            callback.onFailure(caught);
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            scoped.remove(this);
+            if(delegate != null) delegate.cancel();
+        }
+
+        /**
+         * Cancels on behalf of the dispatcher: unlike the caller, the callback doesn't know about it.
+         */
+        void cancelScope() {
+            cancel();
+            callback.onFailure(new CancelledException(scope));
+        }
+
+        @Override
+        public boolean isPending() {
+            return !done;
+        }
+    }
+
+    class InFlight<R extends Result> implements AsyncCallback<R> {
+
+        private final String key;
+        private final ModelNode operation;
+        private final boolean cachable;
+        private final List<AsyncCallback<R>> callbacks = new ArrayList<AsyncCallback<R>>();
+        private Scheduled<?,R> request;
+        private boolean done = false;
+
+        InFlight(String key, ModelNode operation, boolean cachable) {
+            this.key = key;
+            this.operation = operation;
+            this.cachable = cachable;
+        }
+
+        DispatchRequest join(final AsyncCallback<R> callback) {
+            callbacks.add(callback);
+            return new DispatchRequest() {
+                @Override
+                public void cancel() {
+                    callbacks.remove(callback);
+                    if(callbacks.isEmpty())
+                    {
+                        release();
+                        if(request!=null) request.cancel();
+                    }
+                }
+
+                @Override
+                public boolean isPending() {
+                    return !done && callbacks.contains(callback);
+                }
+            };
+        }
+
+        private void release() {
+            done = true;
+            if(inFlight.get(key) == this)
+                inFlight.remove(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onSuccess(R result) {
+            // only cache what is still valid: a write might have been issued in the meantime
+            if(result instanceof DMRResponse && ((DMRResponse) result).getLength() >= 0)
+                responseSizes.put(key, ((DMRResponse) result).getLength());
+            if(cachable && inFlight.get(key) == this && result instanceof DMRResponse)
+            {
+                cache.put(key, operation, (DMRResponse) result);
+                if(DescriptionStore.isDescription(operation))
+                    descriptions.put(key, (DMRResponse) result);
+            }
+            release();
+
+            // the decoded response is kept by DMRResponse: each callback gets its own copy
+            boolean first = true;
+            for(AsyncCallback<R> callback : new ArrayList<AsyncCallback<R>>(callbacks))
+            {
+                if(!first && result instanceof DMRResponse)
+                    callback.onSuccess((R) ((DMRResponse) result).copy());
+                else
+                    callback.onSuccess(result);
+                first = false;
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable caught) {
+            release();
+            for(AsyncCallback<R> callback : new ArrayList<AsyncCallback<R>>(callbacks))
+                callback.onFailure(caught);
+        }
+    }
+
+    private static final DispatchRequest COMPLETED = new DispatchRequest() {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isPending() {
+            return false;
+        }
+    };
+
     @Override
     public <A extends Action<R>, R extends Result> DispatchRequest undo(A action, R result, AsyncCallback<Void> callback) {
         return null;
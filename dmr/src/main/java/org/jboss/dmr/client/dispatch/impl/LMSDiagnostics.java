@@ -40,6 +40,18 @@ public class LMSDiagnostics implements Diagnostics {
             _logEvent(moduleName, subSystem, eventGroup, millis, type);
     }
 
+    public void logCache(String cache, int hits, int misses, int entries, int bytes)
+    {
+        if(isEnabled())
+            _logCache(cache, System.currentTimeMillis(), hits, misses, entries, bytes);
+    }
+
+    public void logCancellation(String scope, int requests, int bytes)
+    {
+        if(isEnabled())
+            _logCancellation(scope, System.currentTimeMillis(), requests, bytes);
+    }
+
     public boolean isEnabled () {
         return _isEnabled();
     }
@@ -85,6 +97,34 @@ public class LMSDiagnostics implements Diagnostics {
 
 
 
+    private static native void _logCache(
+            String cache, double millis, int hits, int misses, int entries, int bytes) /*-{
+        $wnd.__gwtStatsEvent({
+            'moduleName' : cache,
+            'subSystem' : "cache",
+            'evtGroup' : cache,
+            'millis' : millis,
+            'type' : "cacheStats",
+            'hits' : hits,
+            'misses' : misses,
+            'entries' : entries,
+            'bytes' : bytes
+        });
+    }-*/;
+
+    private static native void _logCancellation(
+            String scope, double millis, int requests, int bytes) /*-{
+        $wnd.__gwtStatsEvent({
+            'moduleName' : "dmr-invocation",
+            'subSystem' : "rpc",
+            'evtGroup' : scope,
+            'millis' : millis,
+            'type' : "cancelled",
+            'requests' : requests,
+            'bytes' : bytes
+        });
+    }-*/;
+
     private static native void _logError (String module, double millis, ExceptionData errMsg) /*-{
         $wnd.__gwtStatsEvent({
             'moduleName' : module,
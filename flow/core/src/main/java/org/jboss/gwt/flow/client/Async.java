@@ -22,7 +22,16 @@ import com.google.gwt.core.client.Scheduler;
 
 /**
  * Flow control functions for GWT.
- * Integrates with the default GWT scheduling mechanism.
+ * <p/>
+ * The flows are driven by the functions: {@link Control#proceed()} and {@link Control#abort()} directly advance
+ * the flow, nothing is polled while a function is waiting for I/O. Functions may call the control synchronously
+ * or later on, i.e. from an {@link com.google.gwt.user.client.rpc.AsyncCallback}. Calls to a control of a flow
+ * which has finished already are ignored.
+ * <p/>
+ * Ordering: the first function(s) run within the call which starts the flow, the next one within
+ * {@link Control#proceed()} of the previous one, so code following <code>proceed()</code> runs after the next
+ * function has been started. The {@link Outcome} is always delivered in a deferred command, i.e. never before
+ * the call which started the flow (and the function which finished it) has returned.
  *
  * @author Heiko Braun
  * @date 3/8/13
@@ -31,6 +40,20 @@ public class Async<C>
 {
     private final static Object EMPTY_CONTEXT = new Object();
 
+    private int timeout = 0;
+
+    /**
+     * Flows started by this instance fail if they haven't finished within the given time.
+     *
+     * @param millis the timeout in milliseconds, 0 means no timeout
+     * @return this instance
+     */
+    public Async<C> timeout(int millis)
+    {
+        this.timeout = millis;
+        return this;
+    }
+
     /**
      * Run an array of functions in series, each one running once the previous function has completed.
      * If any functions in the series pass an error to its callback,
@@ -61,48 +84,7 @@ public class Async<C>
     private void _series(C context, final Outcome<C> outcome, final Function<C>... functions)
     {
         final C finalContext = context != null ? context : (C) EMPTY_CONTEXT;
-        final SequentialControl<C> ctrl = new SequentialControl<C>(finalContext, functions);
-
-        // select first function anf start
-        ctrl.proceed();
-        Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand()
-        {
-            @Override
-            public boolean execute()
-            {
-                if (ctrl.isDrained())
-                {
-                    // schedule deferred so that 'return false' executes first!
-                    Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand()
-                    {
-                        @Override
-                        public void execute()
-                        {
-                            outcome.onSuccess(finalContext);
-                        }
-                    });
-                    return false;
-                }
-                else if (ctrl.isAborted())
-                {
-                    // schedule deferred so that 'return false' executes first!
-                    Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand()
-                    {
-                        @Override
-                        public void execute()
-                        {
-                            outcome.onFailure(finalContext);
-                        }
-                    });
-                    return false;
-                }
-                else
-                {
-                    ctrl.nextUnlessPending();
-                    return true;
-                }
-            }
-        });
+        new SequentialControl<C>(finalContext, outcome, functions).start();
     }
 
     /**
@@ -115,41 +97,38 @@ public class Async<C>
      */
     public void parallel(final Outcome outcome, final Function... functions)
     {
-        final CountingControl ctrl = new CountingControl(functions);
-        Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand()
-        {
-            @Override
-            public boolean execute()
-            {
-                if (ctrl.isAborted() || ctrl.allFinished())
-                {
-                    // schedule deferred so that 'return false' executes first!
-                    Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand()
-                    {
-                        @Override
-                        public void execute()
-                        {
-                            if (ctrl.isAborted())
-                            { outcome.onFailure(EMPTY_CONTEXT); }
-                            else
-                            { outcome.onSuccess(EMPTY_CONTEXT); }
-
-                        }
-                    });
-                    return false;
-                }
-                else
-                {
-                    // one after the other until all are active
-                    ctrl.next();
-                    return true;
-                }
-            }
-        });
+        parallel(functions.length, outcome, functions);
+    }
+
+    /**
+     * Same as {@link #parallel(Outcome, Function[])}, but with at most <code>limit</code> functions running at the
+     * same time. The next function is started as soon as one of the running functions has completed.
+     *
+     * @param limit the maximum number of functions running at the same time
+     * @param outcome
+     * @param functions
+     */
+    public void parallel(final int limit, final Outcome outcome, final Function... functions)
+    {
+        new ParallelControl((C) EMPTY_CONTEXT, outcome, Math.max(1, limit), functions).start();
+    }
+
+    /**
+     * Run an array of functions in parallel. The first function to complete decides on the outcome: it succeeds
+     * if the function proceeds and fails if the function aborts. The remaining functions are not cancelled, but
+     * their results are ignored.
+     *
+     * @param outcome
+     * @param functions
+     */
+    public void race(final Outcome outcome, final Function... functions)
+    {
+        new RaceControl((C) EMPTY_CONTEXT, outcome, functions).start();
     }
 
     /**
      * Repeatedly call function, while condition is met. Calls the callback when stopped, or an error occurs.
+     * The function is called again once it has proceeded.
      *
      * @param condition
      * @param outcome
@@ -157,56 +136,106 @@ public class Async<C>
      */
     public void whilst(Precondition condition, final Outcome outcome, final Function function)
     {
-        final GuardedControl ctrl = new GuardedControl(condition);
-        Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand()
+        new GuardedControl((C) EMPTY_CONTEXT, outcome, condition, function).start();
+    }
+
+
+    /**
+     * Common base of all flows: calls the outcome exactly once and takes care of the timeout.
+     */
+    private abstract class AbstractFlow<T>
+    {
+        protected final T context;
+        private final Outcome<T> outcome;
+        protected boolean finished;
+
+        AbstractFlow(final T context, final Outcome<T> outcome)
         {
-            @Override
-            public boolean execute()
+            this.context = context;
+            this.outcome = outcome;
+        }
+
+        void start()
+        {
+            if (timeout > 0)
             {
-                if (!ctrl.shouldProceed())
+                Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand()
                 {
-                    // schedule deferred so that 'return false' executes first!
-                    Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand()
+                    @Override
+                    public boolean execute()
                     {
-                        @Override
-                        public void execute()
-                        {
-                            if (ctrl.isAborted())
-                            { outcome.onFailure(EMPTY_CONTEXT); }
-                            else
-                            { outcome.onSuccess(EMPTY_CONTEXT); }
-                        }
-                    });
-                    return false;
-                }
-                else
+                        finish(false);
+                        return false;
+                    }
+                }, timeout);
+            }
+            run();
+        }
+
+        abstract void run();
+
+        void finish(final boolean success)
+        {
+            if (finished)
+            { return; }
+
+            finished = true;
+            Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand()
+            {
+                @Override
+                public void execute()
                 {
-                    function.execute(ctrl);
-                    return true;
+                    if (success)
+                    { outcome.onSuccess(context); }
+                    else
+                    { outcome.onFailure(context); }
                 }
-            }
-        });
+            });
+        }
     }
 
 
-    private class SequentialControl<C> implements Control<C>
+    /**
+     * Executes one function after the other. Functions which proceed synchronously are executed in a loop
+     * rather than recursively.
+     */
+    private class SequentialControl<T> extends AbstractFlow<T> implements Control<T>
     {
-        private final C context;
-        private final Function<C>[] functions;
-        private Function<C> next;
+        private final Function<T>[] functions;
         private int index;
-        private boolean drained;
-        private boolean aborted;
         private boolean pending;
+        private boolean running;
 
-        SequentialControl(final C context, final Function<C>... functions)
+        SequentialControl(final T context, final Outcome<T> outcome, final Function<T>... functions)
         {
-            this.context = context;
+            super(context, outcome);
             this.functions = functions;
         }
 
         @Override
-        public C getContext()
+        void run()
+        {
+            if (running)
+            { return; }
+
+            running = true;
+            while (!finished && !pending)
+            {
+                if (index >= functions.length)
+                {
+                    finish(true);
+                }
+                else
+                {
+                    pending = true;
+                    functions[index++].execute(this);
+                }
+            }
+            running = false;
+        }
+
+        @Override
+        public T getContext()
         {
             return context;
         }
@@ -214,141 +243,214 @@ public class Async<C>
         @Override
         public void proceed()
         {
-            if (index >= functions.length)
-            {
-                next = null;
-                drained = true;
-            }
-            else
-            {
-                next = functions[index];
-                index++;
-            }
-            this.pending = false;
+            if (finished || !pending)
+            { return; }
+
+            pending = false;
+            run();
         }
 
         @Override
         public void abort()
         {
-            new RuntimeException("").printStackTrace();
-            this.aborted = true;
-            this.pending = false;
+            finish(false);
         }
+    }
 
-        public boolean isAborted()
-        {
-            return aborted;
-        }
 
-        public boolean isDrained()
+    /**
+     * Runs up to <code>limit</code> functions at the same time. Every function gets its own control,
+     * which only counts once.
+     */
+    private class ParallelControl extends AbstractFlow<C>
+    {
+        private final Function[] functions;
+        private final int limit;
+        private int started;
+        private int completed;
+        private boolean running;
+
+        ParallelControl(final C context, final Outcome outcome, final int limit, final Function... functions)
         {
-            return drained;
+            super(context, outcome);
+            this.functions = functions;
+            this.limit = limit;
         }
 
-        public void nextUnlessPending()
+        @Override
+        void run()
         {
-            if (!pending)
+            if (running)
+            { return; }
+
+            running = true;
+            while (!finished && started < functions.length && started - completed < limit)
             {
-                pending = true;
-                next.execute(this);
+                functions[started++].execute(new OneShotControl<C>(context)
+                {
+                    @Override
+                    void onProceed()
+                    {
+                        completed++;
+                        if (completed == functions.length)
+                        { finish(true); }
+                        else
+                        { run(); }
+                    }
+
+                    @Override
+                    void onAbort()
+                    {
+                        finish(false);
+                    }
+                });
             }
+            running = false;
+
+            if (functions.length == 0)
+            { finish(true); }
         }
     }
 
 
-    private class CountingControl implements Control
+    private class RaceControl extends AbstractFlow<C>
     {
         private final Function[] functions;
-        private int index;
-        private int finished;
-        protected boolean aborted;
 
-        CountingControl(Function... functions)
+        RaceControl(final C context, final Outcome outcome, final Function... functions)
         {
+            super(context, outcome);
             this.functions = functions;
         }
 
         @Override
-        public Object getContext()
+        void run()
         {
-            return EMPTY_CONTEXT;
+            for (int i = 0; i < functions.length && !finished; i++)
+            {
+                functions[i].execute(new OneShotControl<C>(context)
+                {
+                    @Override
+                    void onProceed()
+                    {
+                        finish(true);
+                    }
+
+                    @Override
+                    void onAbort()
+                    {
+                        finish(false);
+                    }
+                });
+            }
+
+            if (functions.length == 0)
+            { finish(true); }
         }
+    }
 
-        public void next()
+
+    private class GuardedControl extends AbstractFlow<C> implements Control<C>
+    {
+        private final Precondition condition;
+        private final Function function;
+        private boolean pending;
+        private boolean running;
+
+        GuardedControl(final C context, final Outcome outcome, final Precondition condition, final Function function)
+        {
+            super(context, outcome);
+            this.condition = condition;
+            this.function = function;
+        }
+
+        @Override
+        void run()
         {
-            if (index < functions.length)
+            if (running)
+            { return; }
+
+            running = true;
+            while (!finished && !pending)
             {
-                functions[index].execute(this);
-                index++;
+                if (condition.isMet())
+                {
+                    pending = true;
+                    function.execute(this);
+                }
+                else
+                {
+                    finish(true);
+                }
             }
+            running = false;
         }
 
         @Override
         public void proceed()
         {
-            increment();
-        }
+            if (finished || !pending)
+            { return; }
 
-        private void increment()
-        {
-            ++finished;
+            pending = false;
+            run();
         }
 
         @Override
         public void abort()
         {
-            increment();
-            aborted = true;
+            finish(false);
         }
 
-        public boolean isAborted()
-        {
-            return aborted;
-        }
-
-        public boolean allFinished()
+        @Override
+        public C getContext()
         {
-            return finished >= functions.length;
+            return context;
         }
     }
 
 
-    private class GuardedControl implements Control
+    /**
+     * A control which reacts to the first call of either {@link #proceed()} or {@link #abort()} only.
+     */
+    private abstract static class OneShotControl<T> implements Control<T>
     {
-        private final Precondition condition;
-        private boolean aborted;
+        private final T context;
+        private boolean done;
 
-        GuardedControl(Precondition condition)
+        OneShotControl(final T context)
         {
-            this.condition = condition;
+            this.context = context;
         }
 
+        abstract void onProceed();
+
+        abstract void onAbort();
+
         @Override
         public void proceed()
         {
-            // ignore
-        }
-
-        public boolean shouldProceed()
-        {
-            return condition.isMet() && !aborted;
+            if (!done)
+            {
+                done = true;
+                onProceed();
+            }
         }
 
         @Override
         public void abort()
         {
-            this.aborted = true;
-        }
-
-        public boolean isAborted()
-        {
-            return aborted;
+            if (!done)
+            {
+                done = true;
+                onAbort();
+            }
         }
 
         @Override
-        public Object getContext()
+        public T getContext()
         {
-            return EMPTY_CONTEXT;
+            return context;
         }
     }
 }
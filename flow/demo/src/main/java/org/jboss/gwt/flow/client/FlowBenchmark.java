@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.gwt.flow.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+
+/**
+ * Compares the event driven {@link Async} with the {@link PollingAsync}: starts a number of waterfalls at the same
+ * time, where every step waits for a timer like a call to the management endpoint would, and measures how long it
+ * takes until all flows have finished.
+ * <p/>
+ * Browsers don't expose the CPU time, so both engines are measured the same way: the engine time is the time spent
+ * in the calls which start the flows, in {@link Control#proceed()} and in the commands the engine schedules to check
+ * its flows (only the {@link PollingAsync} has those). Both engines deliver the outcome in a deferred command, which
+ * only runs benchmark code and isn't counted.
+ */
+public class FlowBenchmark
+{
+    public interface Report
+    {
+        void onResult(String result);
+    }
+
+    interface Engine
+    {
+        void waterfall(Outcome<Object> outcome, Function<Object>[] functions);
+    }
+
+    private final int flows;
+    private final int steps;
+    private final int delayMillis;
+
+    // time spent in engine calls made by the benchmark
+    private double engineTime;
+
+    public FlowBenchmark(int flows, int steps, int delayMillis)
+    {
+        this.flows = flows;
+        this.steps = steps;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Runs the polling engine first and the event driven engine afterwards.
+     */
+    public void run(final Report report)
+    {
+        report.onResult("Running " + flows + " waterfalls with " + steps + " steps of " + delayMillis + "ms each");
+        PollingAsync.resetCounters();
+        measure("Polling", new Engine()
+        {
+            @Override
+            public void waterfall(Outcome<Object> outcome, Function<Object>[] functions)
+            {
+                new PollingAsync<Object>().waterfall(new Object(), outcome, functions);
+            }
+        }, report, new Scheduler.ScheduledCommand()
+        {
+            @Override
+            public void execute()
+            {
+                measure("Event driven", new Engine()
+                {
+                    @Override
+                    public void waterfall(Outcome<Object> outcome, Function<Object>[] functions)
+                    {
+                        new Async<Object>().waterfall(new Object(), outcome, functions);
+                    }
+                }, report, null);
+            }
+        });
+    }
+
+    private void measure(final String name, Engine engine, final Report report, final Scheduler.ScheduledCommand next)
+    {
+        final int polls = PollingAsync.polls;
+        final double pollTime = PollingAsync.pollTime;
+        engineTime = 0;
+
+        final double start = Duration.currentTimeMillis();
+        Countdown done = new Countdown(flows, new Scheduler.ScheduledCommand()
+        {
+            @Override
+            public void execute()
+            {
+                double wall = Duration.currentTimeMillis() - start;
+                int scheduled = PollingAsync.polls - polls;
+                double total = engineTime + PollingAsync.pollTime - pollTime;
+                report.onResult(name + ": " + (int) wall + "ms wall, " + (int) total + "ms engine time, " +
+                        scheduled + " engine commands");
+                if (next != null) next.execute();
+            }
+        });
+        for (int i = 0; i < flows; i++)
+        {
+            double started = Duration.currentTimeMillis();
+            engine.waterfall(done, functions());
+            engineTime += Duration.currentTimeMillis() - started;
+        }
+    }
+
+    private Function<Object>[] functions()
+    {
+        Function<Object>[] functions = new Function[steps];
+        for (int i = 0; i < steps; i++)
+        {
+            functions[i] = new Function<Object>()
+            {
+                @Override
+                public void execute(final Control<Object> control)
+                {
+                    Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand()
+                    {
+                        @Override
+                        public boolean execute()
+                        {
+                            double started = Duration.currentTimeMillis();
+                            control.proceed();
+                            engineTime += Duration.currentTimeMillis() - started;
+                            return false;
+                        }
+                    }, delayMillis);
+                }
+            };
+        }
+        return functions;
+    }
+
+
+    /**
+     * Executes the command once all flows have finished.
+     */
+    private static class Countdown implements Outcome<Object>
+    {
+        private int remaining;
+        private final Scheduler.ScheduledCommand done;
+
+        Countdown(int count, Scheduler.ScheduledCommand done)
+        {
+            this.remaining = count;
+            this.done = done;
+        }
+
+        @Override
+        public void onFailure(Object context)
+        {
+            countdown();
+        }
+
+        @Override
+        public void onSuccess(Object context)
+        {
+            countdown();
+        }
+
+        private void countdown()
+        {
+            remaining--;
+            if (remaining == 0)
+            { done.execute(); }
+        }
+    }
+}
@@ -23,7 +23,7 @@ public class FlowDemo implements EntryPoint
     public void onModuleLoad()
     {
         output = new TextArea();
-        output.setVisibleLines(5);
+        output.setVisibleLines(8);
         output.setCharacterWidth(60);
 
         VerticalPanel btns = new VerticalPanel();
@@ -69,6 +69,42 @@ public class FlowDemo implements EntryPoint
             }
         }));
 
+        btns.add(new Button("Parallel (limit 1)", new ClickHandler()
+        {
+            @Override
+            public void onClick(ClickEvent clickEvent)
+            {
+                runParallelLimit();
+            }
+        }));
+
+        btns.add(new Button("Race", new ClickHandler()
+        {
+            @Override
+            public void onClick(ClickEvent clickEvent)
+            {
+                runRace();
+            }
+        }));
+
+        btns.add(new Button("Timeout", new ClickHandler()
+        {
+            @Override
+            public void onClick(ClickEvent clickEvent)
+            {
+                runTimeout();
+            }
+        }));
+
+        btns.add(new Button("Benchmark", new ClickHandler()
+        {
+            @Override
+            public void onClick(ClickEvent clickEvent)
+            {
+                runBenchmark();
+            }
+        }));
+
         RootLayoutPanel.get().add(btns);
     }
 
@@ -184,6 +220,52 @@ public class FlowDemo implements EntryPoint
 
     }
 
+    private void runParallelLimit()
+    {
+        clearOutput();
+
+        Function p1 = new RandomTimedFunction("p.1", false);
+        Function p2 = new RandomTimedFunction("p.2", false);
+        Function p3 = new RandomTimedFunction("p.3", false);
+
+        new Async().parallel(1, new LoggingOutcome("Parallel (limit 1)"), p1, p2, p3);
+    }
+
+    private void runRace()
+    {
+        clearOutput();
+
+        Function r1 = new RandomTimedFunction("r.1", false);
+        Function r2 = new RandomTimedFunction("r.2", false);
+        Function r3 = new RandomTimedFunction("r.3", true);
+
+        new Async().race(new LoggingOutcome("Race"), r1, r2, r3);
+    }
+
+    private void runTimeout()
+    {
+        clearOutput();
+
+        Function t1 = new RandomTimedFunction("t.1", false);
+        Function t2 = new RandomTimedFunction("t.2", false);
+
+        append("Timeout after 1000ms");
+        new Async().timeout(1000).series(new LoggingOutcome("Timeout"), t1, t2);
+    }
+
+    private void runBenchmark()
+    {
+        clearOutput();
+        new FlowBenchmark(50, 5, 20).run(new FlowBenchmark.Report()
+        {
+            @Override
+            public void onResult(String result)
+            {
+                append(result);
+            }
+        });
+    }
+
     private void append(String text)
     {
         StringBuffer sb = new StringBuffer(output.getText()).append("\n");
@@ -197,6 +279,29 @@ public class FlowDemo implements EntryPoint
     }
 
 
+    class LoggingOutcome implements Outcome
+    {
+        final String name;
+
+        LoggingOutcome(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public void onFailure(Object context)
+        {
+            append("<" + name + " failed>");
+        }
+
+        @Override
+        public void onSuccess(Object context)
+        {
+            append("<" + name + " success>");
+        }
+    }
+
+
     class GenericFunction implements Function
     {
         final String name;
@@ -256,7 +361,7 @@ public class FlowDemo implements EntryPoint
         {
             append(counter + "");
             increment();
-
+            control.proceed();
         }
 
         public void increment()
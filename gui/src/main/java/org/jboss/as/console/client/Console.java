@@ -44,6 +44,7 @@ import org.jboss.as.console.client.core.LoadingPanel;
 import org.jboss.as.console.client.core.UIConstants;
 import org.jboss.as.console.client.core.UIDebugConstants;
 import org.jboss.as.console.client.core.UIMessages;
+import org.jboss.as.console.client.core.bootstrap.BootstrapScheduler;
 import org.jboss.as.console.client.core.bootstrap.ChoseProcessor;
 import org.jboss.as.console.client.core.bootstrap.EagerLoadHosts;
 import org.jboss.as.console.client.core.bootstrap.EagerLoadProfiles;
@@ -51,7 +52,9 @@ import org.jboss.as.console.client.core.bootstrap.ExecutionMode;
 import org.jboss.as.console.client.core.bootstrap.LoadCompatMatrix;
 import org.jboss.as.console.client.core.bootstrap.LoadGoogleViz;
 import org.jboss.as.console.client.core.bootstrap.LoadMainApp;
+import org.jboss.as.console.client.core.bootstrap.PreloadSecurityContexts;
 import org.jboss.as.console.client.core.bootstrap.RegisterSubsystems;
+import org.jboss.as.console.client.core.bootstrap.StartupTimeline;
 import org.jboss.as.console.client.core.bootstrap.TrackExecutionMode;
 import org.jboss.as.console.client.core.gin.Composite;
 import org.jboss.as.console.client.core.message.Message;
@@ -60,7 +63,6 @@ import org.jboss.as.console.client.plugins.RuntimeExtensionRegistry;
 import org.jboss.as.console.client.plugins.SubsystemRegistry;
 import org.jboss.as.console.client.shared.Preferences;
 import org.jboss.as.console.client.shared.help.HelpSystem;
-import org.jboss.gwt.flow.client.Async;
 import org.jboss.gwt.flow.client.Outcome;
 
 /**
@@ -84,6 +86,7 @@ public class Console implements EntryPoint {
         // Defer all application initialisation code to onModuleLoad2() so that the
         // UncaughtExceptionHandler can catch any unexpected exceptions.
         Log.setUncaughtExceptionHandler();
+        StartupTimeline.getInstance().mark("module-load");
 
         Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
             @Override
@@ -116,6 +119,7 @@ public class Console implements EntryPoint {
             }
 
             public void onSuccess() {
+                StartupTimeline.getInstance().mark("application-components");
                 DelayedBindRegistry.bind(MODULES);
 
                 // dump prefs
@@ -147,26 +151,31 @@ public class Console implements EntryPoint {
                                 MODULES.getBootstrapContext(),
                                 MODULES.getPlaceManager(),
                                 MODULES.getTokenFormatter()).execute();
+
+                        StartupTimeline.getInstance().mark(StartupTimeline.INTERACTIVE);
+                        Log.info(StartupTimeline.getInstance().toString());
+                        StartupTimeline.getInstance().export();
+
+                        new PreloadSecurityContexts(MODULES.getSecurityFramework()).execute();
                     }
                 };
 
-                // Ordered execution: if any of these fail, the interface wil not be loaded
-                new Async<BootstrapContext>().waterfall(
-                        MODULES.getBootstrapContext(), // shared context
-                        bootstrapOutcome, // outcome
-
-                        // bootstrap functions
+                // Dependency graph: independent steps run at the same time.
+                // If any of the required steps fail, the interface wil not be loaded
+                new BootstrapScheduler(MODULES.getBootstrapContext(), StartupTimeline.getInstance())
                         // Activate once CORS is supported / Keymaker is in place
-                        // new BootstrapServerSetup(),
-                        new LoadGoogleViz(),
-                        new ExecutionMode(MODULES.getDispatchAsync()),
-                        new TrackExecutionMode(MODULES.getAnalytics()),
-                        new LoadCompatMatrix(MODULES.modelVersions()),
-                        new RegisterSubsystems(MODULES.getSubsystemRegistry()),
-                        new ChoseProcessor(),
-                        new EagerLoadProfiles(MODULES.getProfileStore(), MODULES.getCurrentSelectedProfile()),
-                        new EagerLoadHosts(MODULES.getDomainEntityManager())
-                );
+                        // .add("server-setup", new BootstrapServerSetup())
+                        .addOptional("google-viz", new LoadGoogleViz())
+                        .add("compat-matrix", new LoadCompatMatrix(MODULES.modelVersions()))
+                        .add("subsystems", new RegisterSubsystems(MODULES.getSubsystemRegistry()))
+                        .add("execution-mode", new ExecutionMode(MODULES.getDispatchAsync()))
+                        .add("track-execution-mode", new TrackExecutionMode(MODULES.getAnalytics()), "execution-mode")
+                        .add("processor", new ChoseProcessor(), "execution-mode")
+                        .add("profiles", new EagerLoadProfiles(MODULES.getProfileStore(), MODULES.getCurrentSelectedProfile()),
+                                "processor", "compat-matrix", "subsystems")
+                        .add("hosts", new EagerLoadHosts(MODULES.getDomainEntityManager()),
+                                "processor", "compat-matrix", "subsystems")
+                        .run(bootstrapOutcome);
             }
         });
     }
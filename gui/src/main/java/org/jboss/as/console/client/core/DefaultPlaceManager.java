@@ -33,13 +33,17 @@ import org.jboss.as.console.client.rbac.SecurityFramework;
 import org.jboss.as.console.client.rbac.UnauthorisedPresenter;
 import org.jboss.ballroom.client.layout.LHSHighlightEvent;
 import org.jboss.ballroom.client.rbac.SecurityContext;
+import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.gwt.flow.client.Async;
 import org.jboss.gwt.flow.client.Control;
 import org.jboss.gwt.flow.client.Function;
 import org.jboss.gwt.flow.client.Outcome;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Heiko Braun
@@ -47,17 +51,26 @@ import java.util.List;
  */
 public class DefaultPlaceManager extends PlaceManagerImpl {
 
+    /**
+     * Places which open a popup on top of the current page: they don't leave the scope of that page.
+     */
+    private static final Set<String> POPUP_PLACES = new HashSet<String>(Arrays.asList(
+            NameTokens.ToolsPresenter, NameTokens.SettingsPresenter));
+
     private final SecurityFramework securityFramework;
     private final UnauthorisedPresenter unauthPlace;
     private BootstrapContext bootstrap;
     private EventBus eventBus;
+    private DispatchAsync dispatcher;
 
     @Inject
     public DefaultPlaceManager(
             EventBus eventBus,
-            TokenFormatter tokenFormatter, BootstrapContext bootstrap, SecurityFramework securityManager, UnauthorisedPresenter unauthPlace) {
+            TokenFormatter tokenFormatter, BootstrapContext bootstrap, SecurityFramework securityManager,
+            UnauthorisedPresenter unauthPlace, DispatchAsync dispatcher) {
         super(eventBus, tokenFormatter);
         this.bootstrap = bootstrap;
+        this.dispatcher = dispatcher;
         this.eventBus = eventBus;
         this.securityFramework = securityManager;
         this.unauthPlace = unauthPlace;
@@ -102,6 +115,8 @@ public class DefaultPlaceManager extends PlaceManagerImpl {
     @Override
     protected void doRevealPlace(final PlaceRequest request, final boolean updateBrowserUrl) {
 
+        PlaceUsage.getInstance().record(request.getNameToken());
+
         Function<ContextCreation> createContext = new Function<ContextCreation>() {
             @Override
             public void execute(final Control<ContextCreation> control) {
@@ -145,6 +160,9 @@ public class DefaultPlaceManager extends PlaceManagerImpl {
                     @Override
                     public void execute() {
                         final PlaceRequest placeRequest = context.getRequest();
+                        // responses for the place we're leaving are not needed anymore
+                        if(!POPUP_PLACES.contains(placeRequest.getNameToken()))
+                            dispatcher.enterScope(placeRequest.getNameToken());
                         DefaultPlaceManager.super.doRevealPlace(placeRequest, true);
                         eventBus.fireEvent(
                                 new LHSHighlightEvent(placeRequest.getNameToken())
@@ -81,6 +81,7 @@ public class Footer {
         final List<String[]> toolReference = new ArrayList<String[]>();
         toolReference.add(new String[]{"Management Model", "browser"});
         toolReference.add(new String[]{"Expression Resolver", "expressions"});
+        toolReference.add(new String[]{"Invocation Metrics", "invocation-metrics"});
 
         if(diagnostics.isEnabled())
         {
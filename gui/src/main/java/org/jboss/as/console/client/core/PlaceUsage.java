@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.core;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.storage.client.Storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts how often the places are revealed. The counts are kept in the local storage of the browser,
+ * so the most used places are known right after the login.
+ */
+public class PlaceUsage {
+
+    private static final String KEY = "hal.place-usage";
+    private static final int MAX_ENTRIES = 50;
+
+    private static final PlaceUsage INSTANCE = new PlaceUsage();
+
+    public static PlaceUsage getInstance() {
+        return INSTANCE;
+    }
+
+    private final Storage storage = GWT.isClient() ? Storage.getLocalStorageIfSupported() : null;
+    private Map<String, Integer> counts;
+
+    public void record(String nameToken) {
+        Map<String, Integer> counts = counts();
+        Integer count = counts.get(nameToken);
+        counts.put(nameToken, count == null ? 1 : count + 1);
+
+        if(counts.size() > MAX_ENTRIES)
+        {
+            // drop the least used place, but keep the one just visited
+            List<String> tokens = sorted();
+            tokens.remove(nameToken);
+            counts.remove(tokens.get(tokens.size() - 1));
+        }
+
+        if(storage != null)
+            storage.setItem(KEY, serialize(counts));
+    }
+
+    /**
+     * @return the name tokens of the most used places, most used first
+     */
+    public List<String> mostUsed(int max) {
+        List<String> tokens = sorted();
+        return tokens.size() > max ? new ArrayList<String>(tokens.subList(0, max)) : tokens;
+    }
+
+    private List<String> sorted() {
+        final Map<String, Integer> counts = counts();
+        List<String> tokens = new ArrayList<String>(counts.keySet());
+        Collections.sort(tokens, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return counts.get(b).compareTo(counts.get(a));
+            }
+        });
+        return tokens;
+    }
+
+    private Map<String, Integer> counts() {
+        if(counts == null)
+            counts = storage != null ? parse(storage.getItem(KEY)) : new HashMap<String, Integer>();
+        return counts;
+    }
+
+    // <token>=<count>|<token>=<count>...
+    private static Map<String, Integer> parse(String value) {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        if(value == null || value.isEmpty()) return counts;
+
+        for(String entry : value.split("\\|"))
+        {
+            int index = entry.lastIndexOf('=');
+            if(index <= 0) continue;
+            try {
+                counts.put(entry.substring(0, index), Integer.valueOf(entry.substring(index + 1)));
+            } catch (NumberFormatException e) {
+                // ignore corrupt entries
+            }
+        }
+        return counts;
+    }
+
+    private static String serialize(Map<String, Integer> counts) {
+        StringBuilder builder = new StringBuilder();
+        for(Map.Entry<String, Integer> entry : counts.entrySet())
+        {
+            if(builder.length() > 0) builder.append('|');
+            builder.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.core.bootstrap;
+
+import com.allen_sauer.gwt.log.client.Log;
+import org.jboss.as.console.client.core.BootstrapContext;
+import org.jboss.gwt.flow.client.Control;
+import org.jboss.gwt.flow.client.Function;
+import org.jboss.gwt.flow.client.Outcome;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the bootstrap functions as a dependency graph: a function starts as soon as the functions it depends on
+ * have proceeded, independent functions run at the same time. If a required function aborts, the bootstrap fails.
+ * <p/>
+ * Optional functions are off the critical path: the bootstrap doesn't wait for them and ignores their failure.
+ * Required functions can't depend on optional ones.
+ * <p/>
+ * Every function is recorded in the {@link StartupTimeline}.
+ */
+public class BootstrapScheduler {
+
+    private final BootstrapContext context;
+    private final StartupTimeline timeline;
+    private final Map<String, Step> steps = new LinkedHashMap<String, Step>();
+
+    private Outcome<BootstrapContext> outcome;
+    private int pendingRequired;
+    private boolean finished;
+    private boolean running;
+    private boolean dirty;
+
+    public BootstrapScheduler(BootstrapContext context, StartupTimeline timeline) {
+        this.context = context;
+        this.timeline = timeline;
+    }
+
+    public BootstrapScheduler add(String name, Function<BootstrapContext> function, String... dependsOn) {
+        return add(name, function, false, dependsOn);
+    }
+
+    public BootstrapScheduler addOptional(String name, Function<BootstrapContext> function, String... dependsOn) {
+        return add(name, function, true, dependsOn);
+    }
+
+    private BootstrapScheduler add(String name, Function<BootstrapContext> function, boolean optional, String... dependsOn) {
+        if(steps.containsKey(name))
+            throw new IllegalArgumentException("Duplicate bootstrap step "+name);
+
+        List<Step> dependencies = new ArrayList<Step>();
+        for(String dependency : dependsOn)
+        {
+            // functions have to be added after their dependencies, which rules out cycles
+            Step step = steps.get(dependency);
+            if(step == null)
+                throw new IllegalArgumentException("Unknown dependency "+dependency+" of bootstrap step "+name);
+            if(step.optional && !optional)
+                throw new IllegalArgumentException("Required bootstrap step "+name+" depends on optional step "+dependency);
+            dependencies.add(step);
+        }
+
+        steps.put(name, new Step(name, function, optional, dependencies));
+        return this;
+    }
+
+    public void run(Outcome<BootstrapContext> outcome) {
+        this.outcome = outcome;
+        for(Step step : steps.values())
+        {
+            if(!step.optional)
+                pendingRequired++;
+        }
+
+        if(pendingRequired == 0)
+            finish(true);
+        startReady();
+    }
+
+    private void startReady() {
+        if(running)
+        {
+            // called from a function which proceeded synchronously
+            dirty = true;
+            return;
+        }
+
+        running = true;
+        do {
+            dirty = false;
+            for(Step step : steps.values())
+            {
+                if(finished && !step.optional) continue;
+                if(!step.started && step.isReady())
+                    step.start();
+            }
+        } while(dirty);
+        running = false;
+    }
+
+    private void onProceed(Step step) {
+        if(!step.optional && --pendingRequired == 0)
+            finish(true);
+        startReady();
+    }
+
+    private void onAbort(Step step) {
+        if(step.optional)
+        {
+            Log.warn("Optional bootstrap step " + step.name + " failed");
+        }
+        else
+        {
+            finish(false);
+        }
+    }
+
+    private void finish(boolean success) {
+        if(finished) return;
+
+        finished = true;
+        if(success)
+            outcome.onSuccess(context);
+        else
+            outcome.onFailure(context);
+    }
+
+
+    private class Step implements Control<BootstrapContext> {
+
+        final String name;
+        final Function<BootstrapContext> function;
+        final boolean optional;
+        final List<Step> dependencies;
+
+        boolean started;
+        boolean done;
+        boolean proceeded;
+        StartupTimeline.Entry entry;
+
+        Step(String name, Function<BootstrapContext> function, boolean optional, List<Step> dependencies) {
+            this.name = name;
+            this.function = function;
+            this.optional = optional;
+            this.dependencies = dependencies;
+        }
+
+        boolean isReady() {
+            for(Step dependency : dependencies)
+            {
+                if(!dependency.proceeded)
+                    return false;
+            }
+            return true;
+        }
+
+        void start() {
+            started = true;
+            entry = timeline.start(name);
+            function.execute(this);
+        }
+
+        @Override
+        public BootstrapContext getContext() {
+            return context;
+        }
+
+        @Override
+        public void proceed() {
+            if(done) return;
+
+            done = true;
+            proceeded = true;
+            entry.finish();
+            onProceed(this);
+        }
+
+        @Override
+        public void abort() {
+            if(done) return;
+
+            done = true;
+            entry.finish();
+            onAbort(this);
+        }
+    }
+}
@@ -22,6 +22,8 @@ package org.jboss.as.console.client.core.bootstrap;
 import com.allen_sauer.gwt.log.client.Log;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import org.jboss.as.console.client.core.BootstrapContext;
+import org.jboss.as.console.client.shared.Preferences;
+import org.jboss.dmr.client.dispatch.DescriptionStore;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.dmr.client.dispatch.impl.DMRAction;
 import org.jboss.dmr.client.dispatch.impl.DMRResponse;
@@ -96,6 +98,20 @@ public class ExecutionMode implements Function<BootstrapContext> {
         // whoami
         step = new ModelNode();
         step.get(OP).set("whoami");
+        step.get("verbose").set(true);
+        step.get(ADDRESS).setEmptyList();
+        steps.add(step);
+
+        // management model version
+        step = new ModelNode();
+        step.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        step.get(NAME).set("management-major-version");
+        step.get(ADDRESS).setEmptyList();
+        steps.add(step);
+
+        step = new ModelNode();
+        step.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        step.get(NAME).set("management-minor-version");
         step.get(ADDRESS).setEmptyList();
         steps.add(step);
 
@@ -145,10 +161,37 @@ public class ExecutionMode implements Function<BootstrapContext> {
 
                     context.setPrincipal(username);
 
+                    // descriptions stored in previous sessions are valid as long as server and user don't change
+                    ModelNode major = response.get(RESULT).get("step-7");
+                    ModelNode minor = response.get(RESULT).get("step-8");
+                    String runAs = Preferences.has(Preferences.Key.RUN_AS_ROLE) ?
+                            Preferences.get(Preferences.Key.RUN_AS_ROLE) : "";
+                    DescriptionStore.getInstance().activate(releaseVersion.get(RESULT).asString() + "/" +
+                            productVersion.get(RESULT).asString() + "/" +
+                            major.get(RESULT).asString() + "." + minor.get(RESULT).asString() + "/" +
+                            username + "/" + rolesOf(whoami.get(RESULT)) + "/" + runAs);
+
                     System.out.println(context.getProductName() + " " + context.getProductVersion());
                     control.proceed();
                 }
             }
         });
     }
+
+    /**
+     * @return the roles the principal is mapped to, older servers report them as <code>roles</code>
+     */
+    private static String rolesOf(ModelNode whoami) {
+        String attribute = whoami.hasDefined("mapped-roles") ? "mapped-roles" : "roles";
+        if(!whoami.hasDefined(attribute))
+            return "";
+
+        StringBuilder names = new StringBuilder();
+        for(ModelNode role : whoami.get(attribute).asList())
+        {
+            if(names.length() > 0) names.append(",");
+            names.append(role.asString());
+        }
+        return names.toString();
+    }
 }
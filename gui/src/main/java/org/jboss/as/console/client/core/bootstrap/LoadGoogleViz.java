@@ -15,7 +15,7 @@ public class LoadGoogleViz implements Function<BootstrapContext>
 {
 
     @Override
-    public void execute(Control<BootstrapContext> control) {
+    public void execute(final Control<BootstrapContext> control) {
 
         VisualizationUtils.loadVisualizationApi(
                 new Runnable()
@@ -24,11 +24,11 @@ public class LoadGoogleViz implements Function<BootstrapContext>
                     public void run()
                     {
                         System.out.println("Loaded Google Vizualization API");
+                        control.proceed();
                     }
                 }, LineChart.PACKAGE, OrgChart.PACKAGE
         );
 
-        // viz can be loaded in background ...
-        control.proceed();
+        // viz is loaded in background: this is an optional step, the bootstrap doesn't wait for it
     }
 }
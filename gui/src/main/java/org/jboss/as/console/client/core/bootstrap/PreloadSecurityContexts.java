@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.core.bootstrap;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.Command;
+import org.jboss.as.console.client.core.PlaceUsage;
+import org.jboss.as.console.client.rbac.SecurityFramework;
+
+/**
+ * Creates the security contexts of the most used places once the main application is shown,
+ * so that navigating to these places doesn't wait for the access control meta data.
+ */
+public class PreloadSecurityContexts implements Command
+{
+    private static final int MAX_PLACES = 15;
+    private static final int DELAY_MILLIS = 1000;
+
+    private SecurityFramework securityFramework;
+
+    public PreloadSecurityContexts(SecurityFramework securityFramework) {
+        this.securityFramework = securityFramework;
+    }
+
+    @Override
+    public void execute() {
+
+        // give the initial place a head start
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                securityFramework.preloadContexts(PlaceUsage.getInstance().mostUsed(MAX_PLACES));
+                return false;
+            }
+        }, DELAY_MILLIS);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.core.bootstrap;
+
+import com.google.gwt.core.client.Duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records when the bootstrap steps start and finish, relative to the start of the module.
+ * {@link #INTERACTIVE} marks the time when the main application has been revealed.
+ */
+public class StartupTimeline {
+
+    public static final String INTERACTIVE = "interactive";
+
+    private static final StartupTimeline INSTANCE = new StartupTimeline();
+
+    public static StartupTimeline getInstance() {
+        return INSTANCE;
+    }
+
+    private final double origin = Duration.currentTimeMillis();
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public Entry start(String name) {
+        Entry entry = new Entry(name, elapsed());
+        entries.add(entry);
+        return entry;
+    }
+
+    public void mark(String name) {
+        start(name).finish();
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the time from the start of the module until the main application has been revealed, -1 if it hasn't
+     */
+    public int getTimeToInteractive() {
+        for(Entry entry : entries)
+        {
+            if(INTERACTIVE.equals(entry.getName()))
+                return entry.getEnd();
+        }
+        return -1;
+    }
+
+    /**
+     * Publishes the timeline as <code>window.halStartupTimeline</code>, so that page load benchmarks
+     * can read the time to interactive without parsing the log.
+     */
+    public void export() {
+        export(getTimeToInteractive(), toString());
+    }
+
+    private static native void export(int timeToInteractive, String timeline) /*-{
+        $wnd.halStartupTimeline = {
+            timeToInteractive: timeToInteractive,
+            timeline: timeline
+        };
+    }-*/;
+
+    private int elapsed() {
+        return (int) (Duration.currentTimeMillis() - origin);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Startup timeline:");
+        for(Entry entry : entries)
+        {
+            builder.append("\n  ").append(entry.getName()).append(": ")
+                    .append(entry.getStart()).append("ms");
+            if(entry.isFinished())
+                builder.append(" - ").append(entry.getEnd()).append("ms (")
+                        .append(entry.getDuration()).append("ms)");
+            else
+                builder.append(" - pending");
+        }
+        return builder.toString();
+    }
+
+    public class Entry {
+
+        private final String name;
+        private final int start;
+        private int end = -1;
+
+        Entry(String name, int start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        public void finish() {
+            if(end < 0)
+                end = elapsed();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public boolean isFinished() {
+            return end >= 0;
+        }
+
+        public int getDuration() {
+            return isFinished() ? end - start : -1;
+        }
+    }
+}
@@ -94,20 +94,13 @@ import org.jboss.as.console.client.shared.subsys.infinispan.DistributedCachePres
 import org.jboss.as.console.client.shared.subsys.infinispan.InvalidationCachePresenter;
 import org.jboss.as.console.client.shared.subsys.infinispan.LocalCachePresenter;
 import org.jboss.as.console.client.shared.subsys.infinispan.ReplicatedCachePresenter;
-import org.jboss.as.console.client.shared.subsys.infinispan.model.CacheContainerStore;
-import org.jboss.as.console.client.shared.subsys.infinispan.model.LocalCacheStore;
 import org.jboss.as.console.client.shared.subsys.jacorb.JacOrbPresenter;
 import org.jboss.as.console.client.shared.subsys.jca.DataSourcePresenter;
 import org.jboss.as.console.client.shared.subsys.jca.JcaPresenter;
 import org.jboss.as.console.client.shared.subsys.jca.ResourceAdapterPresenter;
-import org.jboss.as.console.client.shared.subsys.jca.model.DataSourceStore;
-import org.jboss.as.console.client.shared.subsys.jca.model.DomainDriverStrategy;
-import org.jboss.as.console.client.shared.subsys.jca.model.DriverRegistry;
-import org.jboss.as.console.client.shared.subsys.jca.model.StandaloneDriverStrategy;
 import org.jboss.as.console.client.shared.subsys.jgroups.JGroupsPresenter;
 import org.jboss.as.console.client.shared.subsys.jmx.JMXPresenter;
 import org.jboss.as.console.client.shared.subsys.jpa.JpaPresenter;
-import org.jboss.as.console.client.shared.subsys.logging.HandlerListManager;
 import org.jboss.as.console.client.shared.subsys.logging.LoggingPresenter;
 import org.jboss.as.console.client.shared.subsys.mail.MailPresenter;
 import org.jboss.as.console.client.shared.subsys.messaging.MsgDestinationsPresenter;
@@ -120,9 +113,6 @@ import org.jboss.as.console.client.shared.subsys.security.SecurityDomainsPresent
 import org.jboss.as.console.client.shared.subsys.security.SecuritySubsystemPresenter;
 import org.jboss.as.console.client.shared.subsys.threads.ThreadsPresenter;
 import org.jboss.as.console.client.shared.subsys.web.WebPresenter;
-import org.jboss.as.console.client.shared.subsys.ws.DomainEndpointStrategy;
-import org.jboss.as.console.client.shared.subsys.ws.EndpointRegistry;
-import org.jboss.as.console.client.shared.subsys.ws.StandaloneEndpointStrategy;
 import org.jboss.as.console.client.shared.subsys.ws.WebServicePresenter;
 import org.jboss.as.console.client.standalone.ServerMgmtApplicationPresenter;
 import org.jboss.as.console.client.standalone.StandaloneServerPresenter;
@@ -139,7 +129,6 @@ import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.dmr.client.dispatch.HandlerMapping;
 import org.jboss.dmr.client.dispatch.impl.DMRHandler;
 
-
 /**
  * Overall module configuration.
  *
@@ -151,7 +140,6 @@ import org.jboss.dmr.client.dispatch.impl.DMRHandler;
 @GinExtension("org.jboss.as.console.App")
 public interface CoreUI {
 
-
     SubsystemRegistry getSubsystemRegistry();
     RuntimeExtensionRegistry getRuntimeLHSItemExtensionRegistry();
 
@@ -202,21 +190,18 @@ public interface CoreUI {
     AsyncProvider<MainLayoutPresenter> getMainLayoutPresenter();
     AsyncProvider<ToolsPresenter> getToolsPresenter();
 
-
     AsyncProvider<BrowserPresenter> getBrowserPresenter();
     //AsyncProvider<DebugPresenter> getDebugPresenter();
 
     AsyncProvider<SettingsPresenter> getSettingsPresenter();
     AsyncProvider<SettingsPresenterWidget> getSettingsPresenterWidget();
 
-
     // ----------------------------------------------------------------------
     AsyncProvider<ServerMgmtApplicationPresenter> getServerManagementAppPresenter();
     AsyncProvider<StandaloneDeploymentPresenter> getDeploymentBrowserPresenter();
 
     DeploymentStore getDeploymentStore();
 
-
     // ----------------------------------------------------------------------
     // domain config below
     AsyncProvider<ProfileMgmtPresenter> getProfileMgmtPresenter();
@@ -231,7 +216,6 @@ public interface CoreUI {
     ServerGroupStore getServerGroupStore();
     HostInformationStore getHostInfoStore();
 
-
     AsyncProvider<DomainDeploymentPresenter> getDeploymentsPresenter();
 
     AsyncProvider<HostMgmtPresenter> getHostMgmtPresenter();
@@ -240,11 +224,6 @@ public interface CoreUI {
     // ----------------------------------------------------------------------
     // shared subsystems
     AsyncProvider<DataSourcePresenter> getDataSourcePresenter();
-    DataSourceStore getDataSourceStore();
-
-    DomainDriverStrategy getDomainDriverStrategy();
-    StandaloneDriverStrategy getStandloneDriverStrategy();
-    DriverRegistry getDriverRegistry();
 
     AsyncProvider<EJB3Presenter> getEJB3Presenter();
     AsyncProvider<MsgDestinationsPresenter> getMsgDestinationsPresenter();
@@ -252,7 +231,6 @@ public interface CoreUI {
     AsyncProvider<MsgClusteringPresenter> getMsgClusteringPresenter();
 
     AsyncProvider<LoggingPresenter> getLoggingPresenter();
-    HandlerListManager getHandlerListManager();
 
     AsyncProvider<ScannerPresenter> getScannerPresenter();
     AsyncProvider<ConfigAdminPresenter> getConfigAdminPresenter();
@@ -262,9 +240,7 @@ public interface CoreUI {
 
     // Infinispan
     AsyncProvider<CacheContainerPresenter> getCacheContainerPresenter();
-    CacheContainerStore getCacheContainerStore();
     AsyncProvider<LocalCachePresenter> getLocalCachePresenter();
-    LocalCacheStore getLocalCacheStore();
     AsyncProvider<InvalidationCachePresenter> getInvalidationCachePresenter();
     AsyncProvider<DistributedCachePresenter> getDistributedCachePresenter();
     AsyncProvider<ReplicatedCachePresenter> getReplicatedCachePresenter();
@@ -285,10 +261,6 @@ public interface CoreUI {
     AsyncProvider<WebServicePresenter> getWebServicePresenter();
     AsyncProvider<WebServiceRuntimePresenter> getWebServiceRuntimePresenter();
 
-    EndpointRegistry getEndpointRegistry();
-    DomainEndpointStrategy getDomainEndpointStrategy();
-    StandaloneEndpointStrategy getStandaloneEndpointStrategy();
-
     AsyncProvider<ResourceAdapterPresenter> getResourceAdapterPresenter();
     AsyncProvider<JndiPresenter> getJndiPresenter();
 
@@ -334,8 +306,8 @@ public interface CoreUI {
 
     // mbui workbench
 
-    Provider<ApplicationPresenter> getWorkbenchPresenter();
-    Provider<PreviewPresenter> getPreviewPresenter();
+    AsyncProvider<ApplicationPresenter> getWorkbenchPresenter();
+    AsyncProvider<PreviewPresenter> getPreviewPresenter();
 
     AccessControlRegistry getAccessControlRegistry();
     SecurityFramework getSecurityFramework();
@@ -113,6 +113,7 @@ import org.jboss.as.console.client.shared.help.HelpSystem;
 import org.jboss.as.console.client.shared.model.SubsystemStore;
 import org.jboss.as.console.client.shared.model.SubsystemStoreImpl;
 import org.jboss.as.console.client.shared.runtime.RuntimeBaseAddress;
+import org.jboss.as.console.client.shared.schedule.MetricsPoller;
 import org.jboss.as.console.client.shared.runtime.ds.DataSourceMetricPresenter;
 import org.jboss.as.console.client.shared.runtime.ds.DataSourceMetricView;
 import org.jboss.as.console.client.shared.runtime.env.EnvironmentPresenter;
@@ -275,6 +276,7 @@ public class CoreUIModule extends AbstractPresenterModule {
         bind(ExpressionResolver.class).to(DefaultExpressionResolver.class).in(Singleton.class);
         bind(Baseadress.class).in(Singleton.class);
         bind(RuntimeBaseAddress.class).in(Singleton.class);
+        bind(MetricsPoller.class).in(Singleton.class);
 
         // mobile:
         // bindConstant().annotatedWith(GaAccount.class).to("UA-36590267-1");
@@ -282,6 +284,7 @@ public class CoreUIModule extends AbstractPresenterModule {
         bindConstant().annotatedWith(GaAccount.class).to("UA-35829315-1");
 
         bind(GoogleAnalytics.class).toProvider(AnalyticsProvider.class).in(Singleton.class);
+        // all other singletons are created on first use: keep eager bindings to the ones needed before the login
         bind(NavigationTracker.class).asEagerSingleton();
 
         bind(ModelVersions.class).in(Singleton.class);
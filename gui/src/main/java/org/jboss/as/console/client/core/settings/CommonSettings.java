@@ -34,4 +34,10 @@ public interface CommonSettings {
     boolean isSecurityCache();
     void setSecurityCache(boolean b);
 
+    boolean isBatchRequests();
+    void setBatchRequests(boolean b);
+
+    int getMaxConnections();
+    void setMaxConnections(int max);
+
 }
@@ -104,6 +104,22 @@ public class SettingsPresenterWidget
                         Preferences.get(Preferences.Key.SECURITY_CONTEXT, "true")
                 )
         );
+
+        settings.setBatchRequests(
+                Boolean.valueOf(
+                        Preferences.get(Preferences.Key.BATCH_REQUESTS, "false")
+                )
+        );
+
+        try {
+            settings.setMaxConnections(
+                    Integer.parseInt(
+                            Preferences.get(Preferences.Key.MAX_CONNECTIONS, "6")
+                    )
+            );
+        } catch (NumberFormatException e) {
+            settings.setMaxConnections(6);
+        }
         return settings;
     }
 
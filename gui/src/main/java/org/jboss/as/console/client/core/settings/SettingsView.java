@@ -38,6 +38,7 @@ import org.jboss.as.console.client.shared.help.StaticHelpPanel;
 import org.jboss.ballroom.client.widgets.forms.CheckBoxItem;
 import org.jboss.ballroom.client.widgets.forms.ComboBoxItem;
 import org.jboss.ballroom.client.widgets.forms.Form;
+import org.jboss.ballroom.client.widgets.forms.NumberBoxItem;
 import org.jboss.ballroom.client.widgets.window.DefaultWindow;
 import org.jboss.ballroom.client.widgets.window.DialogueOptions;
 import org.jboss.ballroom.client.widgets.window.Feedback;
@@ -73,11 +74,15 @@ public class SettingsView extends PopupViewImpl implements SettingsPresenterWidg
 
         CheckBoxItem enableAnalytics = new CheckBoxItem(Preferences.Key.ANALYTICS.getToken(), Preferences.Key.ANALYTICS.getTitle());
 
+        CheckBoxItem batchRequests = new CheckBoxItem(Preferences.Key.BATCH_REQUESTS.getToken(), Preferences.Key.BATCH_REQUESTS.getTitle());
+
+        NumberBoxItem maxConnections = new NumberBoxItem(Preferences.Key.MAX_CONNECTIONS.getToken(), Preferences.Key.MAX_CONNECTIONS.getTitle());
+
         ProductConfig productConfig = GWT.create(ProductConfig.class);
         if (productConfig.getProfile() == COMMUNITY) {
-            form.setFields(localeItem, enableAnalytics);
+            form.setFields(localeItem, enableAnalytics, batchRequests, maxConnections);
         } else {
-            form.setFields(localeItem);
+            form.setFields(localeItem, batchRequests, maxConnections);
         }
 
         CheckBoxItem enableSecurityContextCache = new CheckBoxItem(Preferences.Key.SECURITY_CONTEXT.getToken(), Preferences.Key.SECURITY_CONTEXT.getTitle());
@@ -138,6 +143,7 @@ public class SettingsView extends PopupViewImpl implements SettingsPresenterWidg
 
         html.appendHtmlConstant("<li>").appendEscaped("Analytics: We track browser and operating system information in order to improve the user interface. ");
         html.appendEscaped("You can disable the analytics feature at anytime.");
+        html.appendHtmlConstant("<li>").appendEscaped("Batch Requests: Combine the read operations of a page into a single request to the server.");
         //html.appendHtmlConstant("<li>").appendEscaped("Security Cache: If disabled the security context will be re-created everytime you access a dialog (performance hit).");
         html.appendHtmlConstant("</ul>");
         StaticHelpPanel help = new StaticHelpPanel(html.toSafeHtml());
@@ -34,6 +34,13 @@ import java.util.Map;
 public interface HostInformationStore {
     void getHosts(AsyncCallback<List<Host>> callback);
     void loadHostsAndServerInstances(AsyncCallback<List<HostInfo>> callback);
+
+    /**
+     * The topology is loaded incrementally: stores which modify hosts, server configs or server groups
+     * have to call this, so the next {@link #loadHostsAndServerInstances(AsyncCallback)} reads everything again.
+     */
+    void invalidateTopology();
+
     void loadServerInstances(String serverGroup, AsyncCallback<List<ServerInstance>> callback);
     void getServerConfigurations(String name, AsyncCallback<List<Server>> callback);
     void getServerConfiguration(String host, String server, final AsyncCallback<Server> callback);
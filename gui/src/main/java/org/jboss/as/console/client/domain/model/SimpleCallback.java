@@ -23,6 +23,7 @@ import com.allen_sauer.gwt.log.client.Log;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import org.jboss.as.console.client.Console;
 import org.jboss.as.console.client.core.message.Message;
+import org.jboss.dmr.client.dispatch.CancelledException;
 
 /**
  * @author Heiko Braun
@@ -32,6 +33,13 @@ public abstract class SimpleCallback<T> implements AsyncCallback<T> {
 
     @Override
     public void onFailure(Throwable caught) {
+        if(caught instanceof CancelledException)
+        {
+            // the place this request has been issued in has been left
+            Log.debug(caught.getMessage());
+            return;
+        }
+
         Log.error("Unknown error", caught);
         //LMSDiagnostics.logError("dmr-invocation", System.currentTimeMillis(), caught.getMessage());
         Console.getMessageCenter().notify(
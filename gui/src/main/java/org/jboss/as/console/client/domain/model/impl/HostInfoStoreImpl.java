@@ -19,6 +19,7 @@
 
 package org.jboss.as.console.client.domain.model.impl;
 
+import com.allen_sauer.gwt.log.client.Log;
 import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.user.client.Command;
 import com.google.gwt.user.client.rpc.AsyncCallback;
@@ -68,6 +69,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
     private EntityAdapter<Server> serverAdapter;
     private EntityAdapter<Jvm> jvmAdapter;
     private EntityAdapter<PropertyRecord> propertyAdapter;
+    private TopologyLoader topologyLoader;
 
     @Inject
     public HostInfoStoreImpl(DispatchAsync dispatcher, BeanFactory factory, ApplicationMetaData propertyMeta) {
@@ -77,6 +79,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
         serverAdapter = new EntityAdapter<Server>(Server.class, propertyMeta);
         jvmAdapter = new EntityAdapter<Jvm>(Jvm.class, propertyMeta);
         propertyAdapter = new EntityAdapter<PropertyRecord>(PropertyRecord.class, propertyMeta);
+        topologyLoader = new TopologyLoader(dispatcher, factory, serverAdapter);
     }
 
     @Override
@@ -95,7 +98,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
             @Override
             public void onSuccess(DMRResponse result) {
                 ModelNode response = result.get();
-                List<Property> hostModels = response.get("result").asPropertyList();
+                List<Property> hostModels = response.find("result").asPropertyList();
 
                 List<Host> records = new LinkedList<Host>();
                 for(Property hostModel : hostModels)
@@ -105,7 +108,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
 
                     // controller
                     ModelNode hostValues = hostModel.getValue();
-                    boolean isController = hostValues.get("domain-controller").hasDefined("local");
+                    boolean isController = hostValues.find("domain-controller").hasDefined("local");
                     record.setController(isController);
                     records.add(record);
                 }
@@ -116,8 +119,40 @@ public class HostInfoStoreImpl implements HostInformationStore {
         });
     }
 
+    @Override
+    public void invalidateTopology() {
+        topologyLoader.reset();
+    }
+
     @Override
     public void loadHostsAndServerInstances(final AsyncCallback<List<HostInfo>> callback)
+    {
+        topologyLoader.loadTopology(new AsyncCallback<List<HostInfo>>()
+        {
+            @Override
+            public void onFailure(Throwable caught)
+            {
+                if (caught instanceof TopologyLoader.UnsupportedException)
+                {
+                    // i.e. a host controller which doesn't support wildcard addresses
+                    Log.warn("Failed to load topology in one go, falling back to per host requests: " + caught.getMessage());
+                    loadHostsAndServerInstancesPerHost(callback);
+                }
+                else
+                {
+                    callback.onFailure(caught);
+                }
+            }
+
+            @Override
+            public void onSuccess(List<HostInfo> result)
+            {
+                callback.onSuccess(result);
+            }
+        });
+    }
+
+    private void loadHostsAndServerInstancesPerHost(final AsyncCallback<List<HostInfo>> callback)
     {
         getHosts(new SimpleCallback<List<Host>>()
         {
@@ -138,7 +173,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
                         for (final Host host : hosts)
                         {
                             numRequests++;
-                            getServerInstances(host.getName(), new SimpleCallback<List<ServerInstance>>()
+                            getServerInstancesPerServer(host.getName(), new SimpleCallback<List<ServerInstance>>()
                             {
                                 @Override
                                 public void onFailure(final Throwable caught)
@@ -261,24 +296,24 @@ public class HostInfoStoreImpl implements HostInformationStore {
                 else
                 {
 
-                    List<Property> serverGroupsModel = overalResult.get("step-2").get(RESULT).asPropertyList();
+                    List<Property> serverGroupsModel = overalResult.find("step-2", RESULT).asPropertyList();
 
                     Map<String,String> group2profile = new HashMap<String,String>();
 
                     for(Property group : serverGroupsModel)
                     {
-                        group2profile.put(group.getName(), group.getValue().get("profile").asString());
+                        group2profile.put(group.getName(), group.getValue().find("profile").asString());
                     }
 
 
-                    List<ModelNode> serverConfigModel = overalResult.get("step-1").get(RESULT).asList();
+                    List<ModelNode> serverConfigModel = overalResult.find("step-1", RESULT).asList();
 
                     List<Server> records = new LinkedList<Server>();
                     for(ModelNode item : serverConfigModel)
                     {
                         ModelNode model = item.asProperty().getValue();
                         Server server = serverAdapter.fromDMR(model);
-                        server.setStarted(model.get("status").asString().equals("STARTED"));
+                        server.setStarted(model.find("status").asString().equals("STARTED"));
                         server.setProfile(group2profile.get(server.getGroup()));
                         records.add(server);
                     }
@@ -318,10 +353,10 @@ public class HostInfoStoreImpl implements HostInformationStore {
             public void onSuccess(DMRResponse result) {
 
                 ModelNode response = result.get();
-                ModelNode model = response.get("result").asObject();
+                ModelNode model = response.find("result").asObject();
 
                 Server server = serverAdapter.fromDMR(model);
-                server.setStarted(model.get("status").asString().equals("STARTED"));
+                server.setStarted(model.find("status").asString().equals("STARTED"));
 
                 callback.onSuccess(server);
             }
@@ -346,7 +381,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
             public void onSuccess(DMRResponse result) {
 
                 ModelNode response = result.get();
-                List<ModelNode> payload = response.get("result").asList();
+                List<ModelNode> payload = response.find("result").asList();
 
                 List<String> records = new ArrayList<String>(payload.size());
 
@@ -362,7 +397,27 @@ public class HostInfoStoreImpl implements HostInformationStore {
 
 
     @Override
-    public void getServerInstances(final String host, final AsyncCallback<List<ServerInstance>> callbackReference) {
+    public void getServerInstances(final String host, final AsyncCallback<List<ServerInstance>> callback) {
+
+        topologyLoader.loadServerInstances(host, new AsyncCallback<List<ServerInstance>>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                if (caught instanceof TopologyLoader.UnsupportedException) {
+                    Log.warn("Failed to load server instances in one go, falling back to per server requests: " + caught.getMessage());
+                    getServerInstancesPerServer(host, callback);
+                } else {
+                    callback.onFailure(caught);
+                }
+            }
+
+            @Override
+            public void onSuccess(List<ServerInstance> result) {
+                callback.onSuccess(result);
+            }
+        });
+    }
+
+    private void getServerInstancesPerServer(final String host, final AsyncCallback<List<ServerInstance>> callbackReference) {
 
 
         final Command cmd = new Command() {
@@ -470,14 +525,14 @@ public class HostInfoStoreImpl implements HostInformationStore {
                                     else
                                     {
 
-                                        ModelNode instanceModel = compositeResponse.get("step-1").get(RESULT);
+                                        ModelNode instanceModel = compositeResponse.find("step-1", RESULT);
                                         instance.setRunning(handle.isStarted());
 
                                         //instance.setProfile(instanceModel.get("profile-name").asString());
 
                                         if(instanceModel.hasDefined("server-state"))
                                         {
-                                            String state = instanceModel.get("server-state").asString();
+                                            String state = instanceModel.find("server-state").asString();
                                             if(state.equals("reload-required"))
                                             {
                                                 instance.setFlag(ServerFlag.RELOAD_REQUIRED);
@@ -494,7 +549,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
 
                                         if(compositeResponse.hasDefined("step-2"))
                                         {
-                                            interfaces = compositeResponse.get("step-2").get(RESULT).asPropertyList();
+                                            interfaces = compositeResponse.find("step-2", RESULT).asPropertyList();
 
                                             for(Property intf : interfaces)
                                             {
@@ -502,7 +557,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
                                                 {
                                                     instance.getInterfaces().put(
                                                             intf.getName(),
-                                                            intf.getValue().get("resolved-address").asString()
+                                                            intf.getValue().find("resolved-address").asString()
                                                     );
                                                 }
                                             }
@@ -512,13 +567,13 @@ public class HostInfoStoreImpl implements HostInformationStore {
                                         List<Property> sockets = Collections.EMPTY_LIST;
                                         if(compositeResponse.hasDefined("step-3"))
                                         {
-                                            sockets = compositeResponse.get("step-3").get(RESULT).asPropertyList();
+                                            sockets = compositeResponse.find("step-3", RESULT).asPropertyList();
 
                                             for(Property socket : sockets)
                                             {
                                                 instance.getSocketBindings().put(
                                                         socket.getName(),
-                                                        socket.getValue().get("port-offset").asString()
+                                                        socket.getValue().find("port-offset").asString()
                                                 );
 
                                             }
@@ -649,7 +704,7 @@ public class HostInfoStoreImpl implements HostInformationStore {
 
                     if(payload.hasDefined("server-state"))
                     {
-                        String state = payload.get("server-state").asString();
+                        String state = payload.find("server-state").asString();
                         if(state.equals("reload-required"))
                         {
                             instance.setFlag(ServerFlag.RELOAD_REQUIRED);
@@ -764,15 +819,17 @@ public class HostInfoStoreImpl implements HostInformationStore {
         dispatcher.execute(new DMRAction(serverConfig), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                topologyLoader.reset();
 
                 callback.onFailure(caught);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                topologyLoader.reset();
                 ModelNode response = result.get();
 
-                String outcome = response.get("outcome").asString();
+                String outcome = response.find("outcome").asString();
 
                 Boolean wasSuccessful = outcome.equals("success") ? Boolean.TRUE : Boolean.FALSE;
                 callback.onSuccess(wasSuccessful);
@@ -794,11 +851,13 @@ public class HostInfoStoreImpl implements HostInformationStore {
         dispatcher.execute(new DMRAction(operation), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                topologyLoader.reset();
                 callback.onFailure(caught);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                topologyLoader.reset();
                 ModelNode response = result.get();
                 callback.onSuccess(response.get(OUTCOME).asString().equals(SUCCESS));
             }
@@ -816,11 +875,13 @@ public class HostInfoStoreImpl implements HostInformationStore {
         dispatcher.execute(new DMRAction(serverConfig), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                topologyLoader.reset();
                 callback.onFailure(caught);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                topologyLoader.reset();
                 ModelNode response = result.get();
                 Boolean wasSuccessful = !response.isFailure();
                 callback.onSuccess(wasSuccessful);
@@ -899,8 +960,8 @@ public class HostInfoStoreImpl implements HostInformationStore {
                         PropertyRecord record = factory.property().as();
                         record.setKey(prop.getName());
                         ModelNode payload = prop.getValue().asObject();
-                        record.setValue(payload.get("value").asString());
-                        record.setBootTime(payload.get("boot-time").asBoolean());
+                        record.setValue(payload.find("value").asString());
+                        record.setBootTime(payload.find("boot-time").asBoolean());
 
                         records.add(record);
                     }
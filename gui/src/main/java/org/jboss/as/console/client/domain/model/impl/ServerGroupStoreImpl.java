@@ -22,6 +22,7 @@ package org.jboss.as.console.client.domain.model.impl;
 import com.allen_sauer.gwt.log.client.Log;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import org.jboss.as.console.client.Console;
+import org.jboss.as.console.client.domain.model.HostInformationStore;
 import org.jboss.as.console.client.domain.model.ServerGroupRecord;
 import org.jboss.as.console.client.domain.model.ServerGroupStore;
 import org.jboss.as.console.client.domain.model.SimpleCallback;
@@ -56,15 +57,18 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
     private BeanFactory factory;
     private ApplicationMetaData propertyMetaData;
     private EntityAdapter<Jvm> jvmAdapter;
+    private HostInformationStore hostInfoStore;
 
     @Inject
     public ServerGroupStoreImpl(
             DispatchAsync dispatcher,
             BeanFactory factory,
-            ApplicationMetaData propertyMetaData) {
+            ApplicationMetaData propertyMetaData,
+            HostInformationStore hostInfoStore) {
         this.dispatcher = dispatcher;
         this.factory = factory;
         this.propertyMetaData = propertyMetaData;
+        this.hostInfoStore = hostInfoStore;
         jvmAdapter = new EntityAdapter<Jvm>(Jvm.class, propertyMetaData);
     }
 
@@ -173,8 +177,8 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
         ServerGroupRecord record = factory.serverGroup().as();
 
         record.setName(groupName);
-        record.setProfileName(model.get("profile").asString());
-        record.setSocketBinding(model.get("socket-binding-group").asString());
+        record.setProfileName(model.find("profile").asString());
+        record.setSocketBinding(model.find("socket-binding-group").asString());
 
         Jvm jvm = ModelAdapter.model2JVM(factory, model);
 
@@ -271,11 +275,13 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
         dispatcher.execute(new DMRAction(operation), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                hostInfoStore.invalidateTopology();
                 callback.onFailure(caught);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                hostInfoStore.invalidateTopology();
                 ModelNode response = result.get();
                 callback.onSuccess(response.get(OUTCOME).asString().equals(SUCCESS));
             }
@@ -295,12 +301,14 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
         dispatcher.execute(new DMRAction(group), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                hostInfoStore.invalidateTopology();
                 Log.error("Failed to create server group: " + caught);
                 callback.onSuccess(Boolean.FALSE);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                hostInfoStore.invalidateTopology();
                 ModelNode response = result.get();
                 String outcome = response.get("outcome").asString();
 
@@ -319,12 +327,14 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
         dispatcher.execute(new DMRAction(group), new AsyncCallback<DMRResponse>() {
             @Override
             public void onFailure(Throwable caught) {
+                hostInfoStore.invalidateTopology();
                 Log.error("Failed to remove server group: " + caught);
                 callback.onSuccess(Boolean.FALSE);
             }
 
             @Override
             public void onSuccess(DMRResponse result) {
+                hostInfoStore.invalidateTopology();
                 ModelNode response = result.get();
                 String outcome = response.get("outcome").asString();
 
@@ -408,8 +418,8 @@ public class ServerGroupStoreImpl implements ServerGroupStore {
                     PropertyRecord record = factory.property().as();
                     record.setKey(prop.getName());
                     ModelNode payload = prop.getValue().asObject();
-                    record.setValue(payload.get("value").asString());
-                    record.setBootTime(payload.get("boot-time").asBoolean());
+                    record.setValue(payload.find("value").asString());
+                    record.setBootTime(payload.find("boot-time").asBoolean());
 
                     records.add(record);
                 }
@@ -0,0 +1,527 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.domain.model.impl;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import org.jboss.as.console.client.domain.model.Server;
+import org.jboss.as.console.client.domain.model.ServerFlag;
+import org.jboss.as.console.client.domain.model.ServerInstance;
+import org.jboss.as.console.client.domain.topology.HostInfo;
+import org.jboss.as.console.client.shared.BeanFactory;
+import org.jboss.as.console.client.widgets.forms.EntityAdapter;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.ModelType;
+import org.jboss.dmr.client.Property;
+import org.jboss.dmr.client.dispatch.DispatchAsync;
+import org.jboss.dmr.client.dispatch.impl.DMRAction;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+
+/**
+ * Loads hosts, server configurations and server instances of the domain in a single request, using wildcard
+ * addresses (<code>host=*&#47;server-config=*</code>, <code>host=*&#47;server=*</code>, ...).
+ * <p/>
+ * Once the topology is known, a refresh only reads a fingerprint of all servers first (status, state, group and port
+ * offset) and then reloads the hosts whose servers have changed. A changed profile of a server group reloads
+ * everything. Stores which modify hosts, server configs or groups call {@link #reset()}.
+ *
+ * @see HostInfoStoreImpl
+ */
+class TopologyLoader {
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * The server config attributes which make up the fingerprint
+     */
+    private static final String[] CONFIG_ATTRIBUTES = {"status", "group", "socket-binding-port-offset"};
+
+    /**
+     * Failures of host controllers which don't support (wildcard) reads of the topology: no resource definition or
+     * no such operation at the address
+     */
+    private static final String[] UNSUPPORTED = {"JBAS014883", "JBAS014884", "WFLYCTL0030", "WFLYCTL0031"};
+
+    // steps per host pattern
+    private static final int HOST = 0;
+    private static final int SERVER_CONFIGS = 1;
+    private static final int SERVERS = 2;
+    private static final int INTERFACES = 3;
+    private static final int SOCKET_BINDINGS = 4;
+    private static final int STEPS_PER_HOST = 5;
+
+    private final DispatchAsync dispatcher;
+    private final BeanFactory factory;
+    private final EntityAdapter<Server> serverAdapter;
+
+    // last known topology
+    private final Map<String, HostInfo> hosts = new HashMap<String, HostInfo>();
+    private final Map<String, String> fingerprints = new HashMap<String, String>();
+    private String groups = null;
+
+    TopologyLoader(DispatchAsync dispatcher, BeanFactory factory, EntityAdapter<Server> serverAdapter) {
+        this.dispatcher = dispatcher;
+        this.factory = factory;
+        this.serverAdapter = serverAdapter;
+    }
+
+    /**
+     * Loads the topology of the whole domain. Only hosts which have changed since the last call are read again.
+     */
+    void loadTopology(final AsyncCallback<List<HostInfo>> callback) {
+        if (hosts.isEmpty()) {
+            load(Collections.singleton(WILDCARD), callback);
+            return;
+        }
+
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(COMPOSITE);
+        operation.get(ADDRESS).setEmptyList();
+
+        List<ModelNode> steps = new ArrayList<ModelNode>();
+        steps.add(read(READ_RESOURCE_OPERATION, WILDCARD, "server-config", null));
+        steps.add(read(READ_ATTRIBUTE_OPERATION, WILDCARD, "server", "server-state"));
+        ModelNode hostNames = new ModelNode();
+        hostNames.get(OP).set(READ_CHILDREN_NAMES_OPERATION);
+        hostNames.get(ADDRESS).setEmptyList();
+        hostNames.get(CHILD_TYPE).set("host");
+        steps.add(hostNames);
+        steps.add(readGroups());
+        operation.get(STEPS).set(steps);
+
+        dispatcher.execute(new DMRAction(operation, false), new AsyncCallback<DMRResponse>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                callback.onFailure(failure(caught.getMessage(), caught));
+            }
+
+            @Override
+            public void onSuccess(DMRResponse result) {
+                ModelNode response = result.get();
+                if (response.isFailure()) {
+                    // start over
+                    reset();
+                    load(Collections.singleton(WILDCARD), callback);
+                    return;
+                }
+
+                ModelNode steps = response.find(RESULT);
+                if (!groupFingerprint(steps.find("step-4", RESULT)).equals(groups)) {
+                    // the profile of a group has changed: affects the servers of all hosts
+                    load(Collections.singleton(WILDCARD), callback);
+                    return;
+                }
+                Map<String, String> current = fingerprints(steps.find("step-1", RESULT),
+                        steps.find("step-2", RESULT));
+
+                Set<String> changed = new HashSet<String>();
+                Set<String> existing = new HashSet<String>();
+                for (ModelNode name : steps.find("step-3", RESULT).asList()) {
+                    String host = name.asString();
+                    existing.add(host);
+                    String fingerprint = current.containsKey(host) ? current.get(host) : "";
+                    if (!hosts.containsKey(host) || !fingerprint.equals(fingerprints.get(host)))
+                        changed.add(host);
+                }
+                hosts.keySet().retainAll(existing);
+                fingerprints.keySet().retainAll(existing);
+
+                if (changed.isEmpty())
+                    callback.onSuccess(snapshot());
+                else if (changed.size() > existing.size() / 2)
+                    load(Collections.singleton(WILDCARD), callback);
+                else
+                    load(changed, callback);
+            }
+        });
+    }
+
+    /**
+     * Loads the server instances of one host in a single request.
+     */
+    void loadServerInstances(final String host, final AsyncCallback<List<ServerInstance>> callback) {
+        dispatcher.execute(new DMRAction(topologyOperation(Collections.singleton(host)), false),
+                new AsyncCallback<DMRResponse>() {
+                    @Override
+                    public void onFailure(Throwable caught) {
+                        callback.onFailure(failure(caught.getMessage(), caught));
+                    }
+
+                    @Override
+                    public void onSuccess(DMRResponse result) {
+                        ModelNode response = result.get();
+                        if (response.isFailure()) {
+                            callback.onFailure(failure("Failed to load server instances of " + host
+                                    + ": " + response.getFailureDescription(), null));
+                            return;
+                        }
+
+                        Map<String, HostInfo> parsed = parse(response.find(RESULT), Collections.singleton(host));
+                        HostInfo info = parsed.get(host);
+                        callback.onSuccess(info != null ? info.getServerInstances() : new LinkedList<ServerInstance>());
+                    }
+                });
+    }
+
+    /**
+     * Forgets the known topology: the next call of {@link #loadTopology(AsyncCallback)} reads everything
+     */
+    void reset() {
+        hosts.clear();
+        fingerprints.clear();
+        groups = null;
+    }
+
+    /**
+     * @return an {@link UnsupportedException} if the host controller doesn't support reading the topology in one
+     * go, the failure as is otherwise (authentication, authorization, network)
+     */
+    private static Throwable failure(String message, Throwable cause) {
+        if (message != null) {
+            for (String code : UNSUPPORTED) {
+                if (message.contains(code))
+                    return new UnsupportedException(message);
+            }
+        }
+        return cause != null ? cause : new RuntimeException(message);
+    }
+
+    private void load(final Collection<String> hostPatterns, final AsyncCallback<List<HostInfo>> callback) {
+        dispatcher.execute(new DMRAction(topologyOperation(hostPatterns), false), new AsyncCallback<DMRResponse>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                callback.onFailure(failure(caught.getMessage(), caught));
+            }
+
+            @Override
+            public void onSuccess(DMRResponse result) {
+                ModelNode response = result.get();
+                if (response.isFailure()) {
+                    reset();
+                    callback.onFailure(failure("Failed to load topology: " + response.getFailureDescription(), null));
+                    return;
+                }
+
+                ModelNode steps = response.find(RESULT);
+                Map<String, HostInfo> parsed = parse(steps, hostPatterns);
+                if (hostPatterns.contains(WILDCARD)) reset();
+                hosts.putAll(parsed);
+                groups = groupFingerprint(steps.find("step-1", RESULT));
+
+                for (int i = 0; i < hostPatterns.size(); i++) {
+                    int offset = 2 + i * STEPS_PER_HOST;
+                    fingerprints.putAll(fingerprints(steps.find("step-" + (offset + SERVER_CONFIGS), RESULT),
+                            steps.find("step-" + (offset + SERVERS), RESULT)));
+                }
+                for (String host : parsed.keySet()) {
+                    // hosts without servers
+                    if (!fingerprints.containsKey(host)) fingerprints.put(host, "");
+                }
+
+                callback.onSuccess(snapshot());
+            }
+        });
+    }
+
+    /**
+     * Step 1 reads the server groups, followed by {@link #STEPS_PER_HOST} steps for every host pattern
+     */
+    private ModelNode topologyOperation(Collection<String> hostPatterns) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(COMPOSITE);
+        operation.get(ADDRESS).setEmptyList();
+
+        List<ModelNode> steps = new ArrayList<ModelNode>();
+        steps.add(readGroups());
+
+        for (String host : hostPatterns) {
+            ModelNode hostOp = new ModelNode();
+            hostOp.get(OP).set(READ_RESOURCE_OPERATION);
+            hostOp.get(ADDRESS).add("host", host);
+            steps.add(hostOp);
+
+            steps.add(read(READ_RESOURCE_OPERATION, host, "server-config", null));
+            steps.add(read(READ_RESOURCE_OPERATION, host, "server", null));
+            steps.add(read(READ_RESOURCE_OPERATION, host, "interface", null));
+            steps.add(read(READ_RESOURCE_OPERATION, host, "socket-binding-group", null));
+        }
+
+        operation.get(STEPS).set(steps);
+        return operation;
+    }
+
+    private ModelNode readGroups() {
+        ModelNode groups = new ModelNode();
+        groups.get(OP).set(READ_CHILDREN_RESOURCES_OPERATION);
+        groups.get(ADDRESS).setEmptyList();
+        groups.get(CHILD_TYPE).set("server-group");
+        return groups;
+    }
+
+    /**
+     * Reads <code>host=&lt;host>/server-config=*</code>, <code>host=&lt;host>/server=*</code> or one of the
+     * runtime resources of the servers (<code>host=&lt;host>/server=*&#47;&lt;type>=*</code>).
+     */
+    private ModelNode read(String operationName, String host, String type, String attribute) {
+        ModelNode op = new ModelNode();
+        op.get(OP).set(operationName);
+        op.get(ADDRESS).add("host", host);
+        if ("server-config".equals(type) || "server".equals(type)) {
+            op.get(ADDRESS).add(type, WILDCARD);
+        } else {
+            op.get(ADDRESS).add("server", WILDCARD);
+            op.get(ADDRESS).add(type, WILDCARD);
+        }
+        op.get(INCLUDE_RUNTIME).set(true);
+        if (attribute != null) op.get(NAME).set(attribute);
+        return op;
+    }
+
+    private Map<String, HostInfo> parse(ModelNode steps, Collection<String> hostPatterns) {
+        Map<String, String> group2profile = new HashMap<String, String>();
+        for (Property group : steps.find("step-1", RESULT).asPropertyList()) {
+            group2profile.put(group.getName(), group.getValue().find("profile").asString());
+        }
+
+        Map<String, HostInfo> result = new HashMap<String, HostInfo>();
+        int offset = 2;
+        for (String hostPattern : hostPatterns) {
+            parseHosts(hostPattern, steps.find("step-" + (offset + HOST)), result);
+
+            // running servers, by host and name
+            Map<String, ModelNode> servers = new HashMap<String, ModelNode>();
+            for (ModelNode item : results(steps.find("step-" + (offset + SERVERS)))) {
+                servers.put(key(segment(item, 0), segment(item, 1)), item.find(RESULT));
+            }
+
+            Map<String, Map<String, String>> interfaces = new HashMap<String, Map<String, String>>();
+            for (ModelNode item : results(steps.find("step-" + (offset + INTERFACES)))) {
+                ModelNode model = item.find(RESULT);
+                if (model.hasDefined("resolved-address"))
+                    runtimeValues(interfaces, item).put(name(item), model.find("resolved-address").asString());
+            }
+
+            Map<String, Map<String, String>> sockets = new HashMap<String, Map<String, String>>();
+            for (ModelNode item : results(steps.find("step-" + (offset + SOCKET_BINDINGS)))) {
+                runtimeValues(sockets, item).put(name(item), item.find(RESULT).find("port-offset").asString());
+            }
+
+            for (ModelNode item : results(steps.find("step-" + (offset + SERVER_CONFIGS)))) {
+                String host = segment(item, 0);
+                ModelNode model = item.find(RESULT);
+
+                Server handle = serverAdapter.fromDMR(model);
+                handle.setStarted(model.find("status").asString().equals("STARTED"));
+                handle.setProfile(group2profile.get(handle.getGroup()));
+
+                String key = key(host, handle.getName());
+                ServerInstance instance = createInstance(host, handle, servers.get(key));
+                if (interfaces.containsKey(key)) instance.setInterfaces(interfaces.get(key));
+                if (sockets.containsKey(key)) instance.setSocketBindings(sockets.get(key));
+
+                HostInfo info = result.get(host);
+                if (info == null) {
+                    // not part of the host step
+                    info = new HostInfo(host, false);
+                    info.setServerInstances(new LinkedList<ServerInstance>());
+                    result.put(host, info);
+                }
+                info.getServerInstances().add(instance);
+            }
+            offset += STEPS_PER_HOST;
+        }
+
+        for (HostInfo info : result.values()) {
+            Collections.sort(info.getServerInstances(), new Comparator<ServerInstance>() {
+                @Override
+                public int compare(ServerInstance a, ServerInstance b) {
+                    return a.getName().compareTo(b.getName());
+                }
+            });
+        }
+        return result;
+    }
+
+    private void parseHosts(String hostPattern, ModelNode step, Map<String, HostInfo> result) {
+        if (WILDCARD.equals(hostPattern)) {
+            for (ModelNode item : results(step)) {
+                addHost(segment(item, 0), item.find(RESULT), result);
+            }
+        } else if (SUCCESS.equals(step.find(OUTCOME).asString())) {
+            addHost(hostPattern, step.find(RESULT), result);
+        }
+    }
+
+    private void addHost(String name, ModelNode model, Map<String, HostInfo> result) {
+        HostInfo info = new HostInfo(name, model.find("domain-controller").hasDefined("local"));
+        info.setServerInstances(new LinkedList<ServerInstance>());
+        result.put(name, info);
+    }
+
+    private ServerInstance createInstance(String host, Server handle, ModelNode server) {
+        ServerInstance instance = factory.serverInstance().as();
+        instance.setName(handle.getName());
+        instance.setServer(handle.getName());
+        instance.setGroup(handle.getGroup());
+        instance.setProfile(handle.getProfile());
+        instance.setHost(host);
+        instance.setInterfaces(new HashMap<String, String>());
+        instance.setSocketBindings(new HashMap<String, String>());
+
+        // the server resource only exists for running servers
+        instance.setRunning(server != null && handle.isStarted());
+        if (server != null && server.hasDefined("server-state")) {
+            String state = server.find("server-state").asString();
+            if (state.equals("reload-required")) {
+                instance.setFlag(ServerFlag.RELOAD_REQUIRED);
+            } else if (state.equals("restart-required")) {
+                instance.setFlag(ServerFlag.RESTART_REQUIRED);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * The status, group and port offset of all server configs and the state of all servers of a host,
+     * as a comparable string
+     */
+    private Map<String, String> fingerprints(ModelNode configs, ModelNode servers) {
+        Map<String, TreeMap<String, String>> values = new HashMap<String, TreeMap<String, String>>();
+        collect(values, configs, "", CONFIG_ATTRIBUTES);
+        collect(values, servers, "/", "server-state");
+
+        Map<String, String> result = new HashMap<String, String>();
+        for (Map.Entry<String, TreeMap<String, String>> entry : values.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toString());
+        }
+        return result;
+    }
+
+    private void collect(Map<String, TreeMap<String, String>> values, ModelNode items, String prefix,
+                         String... attributes) {
+        if (items.getType() != ModelType.LIST) return;
+
+        for (ModelNode item : items.asList()) {
+            if (!SUCCESS.equals(item.find(OUTCOME).asString())) continue;
+
+            String host = segment(item, 0);
+            ModelNode result = item.find(RESULT);
+            StringBuilder fingerprint = new StringBuilder();
+            for (String attribute : attributes) {
+                ModelNode value = result.getType() == ModelType.OBJECT ? result.find(attribute) : result;
+                if (fingerprint.length() > 0) fingerprint.append(",");
+                fingerprint.append(value.isDefined() ? value.asString() : "");
+            }
+
+            TreeMap<String, String> hostValues = values.get(host);
+            if (hostValues == null) {
+                hostValues = new TreeMap<String, String>();
+                values.put(host, hostValues);
+            }
+            hostValues.put(prefix + segment(item, 1), fingerprint.toString());
+        }
+    }
+
+    /**
+     * The profile of every server group, as a comparable string
+     */
+    private String groupFingerprint(ModelNode groups) {
+        TreeMap<String, String> profiles = new TreeMap<String, String>();
+        if (groups.getType() == ModelType.OBJECT) {
+            for (Property group : groups.asPropertyList()) {
+                profiles.put(group.getName(), group.getValue().find("profile").asString());
+            }
+        }
+        return profiles.toString();
+    }
+
+    /**
+     * The successful results of a step with a wildcard address: a list of address / outcome / result
+     */
+    private List<ModelNode> results(ModelNode step) {
+        List<ModelNode> results = new ArrayList<ModelNode>();
+        ModelNode items = step.find(RESULT);
+        if (items.getType() != ModelType.LIST) return results;
+
+        for (ModelNode item : items.asList()) {
+            if (SUCCESS.equals(item.find(OUTCOME).asString())) results.add(item);
+        }
+        return results;
+    }
+
+    /**
+     * @return the value of the address segment at the given index
+     */
+    private String segment(ModelNode item, int index) {
+        return item.find(ADDRESS).asList().get(index).asProperty().getValue().asString();
+    }
+
+    private Map<String, String> runtimeValues(Map<String, Map<String, String>> values, ModelNode item) {
+        String key = key(segment(item, 0), segment(item, 1));
+        Map<String, String> serverValues = values.get(key);
+        if (serverValues == null) {
+            serverValues = new HashMap<String, String>();
+            values.put(key, serverValues);
+        }
+        return serverValues;
+    }
+
+    private String name(ModelNode item) {
+        return segment(item, item.find(ADDRESS).asList().size() - 1);
+    }
+
+    private String key(String host, String server) {
+        return host + "/" + server;
+    }
+
+    private List<HostInfo> snapshot() {
+        List<HostInfo> result = new ArrayList<HostInfo>();
+        for (HostInfo cached : hosts.values()) {
+            // callers may modify the lists
+            HostInfo info = new HostInfo(cached.getName(), cached.isController());
+            info.setServerInstances(new ArrayList<ServerInstance>(cached.getServerInstances()));
+            result.add(info);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * The host controller doesn't support reading the topology in one go
+     */
+    static class UnsupportedException extends RuntimeException {
+        UnsupportedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.google.gwt.user.client.ui.TabPanel;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 import org.jboss.as.console.client.widgets.ContentDescription;
+import org.jboss.as.console.client.widgets.tables.VirtualScrollPager;
 import org.jboss.ballroom.client.widgets.ContentGroupLabel;
 import org.jboss.ballroom.client.widgets.ContentHeaderLabel;
 import org.jboss.ballroom.client.widgets.tables.DefaultPager;
@@ -39,6 +40,7 @@ public class MultipleToOneLayout {
     private List<NamedWidget> details = new ArrayList<NamedWidget>();
     private Widget detailTools;
     private boolean isPlain;
+    private boolean virtualScrolling;
 
     private Widget headlineWidget = null;
     private Widget masterFooter = null;
@@ -168,11 +170,20 @@ public class MultipleToOneLayout {
 
             master.widget.getElement().setAttribute("role", "application");
 
-            panel.add(master.widget);
+            if(virtualScrolling)
+            {
+                VirtualScrollPager pager = new VirtualScrollPager();
+                pager.setDisplay(master.widget);
+                panel.add(pager);
+            }
+            else
+            {
+                panel.add(master.widget);
 
-            DefaultPager pager = new DefaultPager();
-            pager.setDisplay(master.widget);
-            panel.add(pager);
+                DefaultPager pager = new DefaultPager();
+                pager.setDisplay(master.widget);
+                panel.add(pager);
+            }
 
             if(masterFooter!=null)
             {
@@ -224,6 +235,15 @@ public class MultipleToOneLayout {
         return this;
     }
 
+    /**
+     * Shows the master table in a scroll panel, which renders only the visible rows, instead of a paged table.
+     * Meant for tables with thousands of rows.
+     */
+    public MultipleToOneLayout setVirtualScrolling(boolean b) {
+        this.virtualScrolling = b;
+        return this;
+    }
+
     public MultipleToOneLayout setMasterFooter(Widget widget) {
         this.masterFooter = widget;
         return this;
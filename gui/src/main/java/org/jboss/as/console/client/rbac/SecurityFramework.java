@@ -4,6 +4,7 @@ import com.google.gwt.user.client.rpc.AsyncCallback;
 import org.jboss.ballroom.client.rbac.SecurityContext;
 import org.jboss.ballroom.client.rbac.SecurityService;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -47,6 +48,14 @@ public interface SecurityFramework extends SecurityService {
      */
     boolean hasContext(String id);
 
+    /**
+     * Creates the security contexts of several places in the background, reading the access control
+     * meta data of all places at once. Places which already have a context are skipped.
+     *
+     * @param ids the name tokens of the places
+     */
+    void preloadContexts(Collection<String> ids);
+
     /**
      * Removes a context and forces re-creation
      * @param id
@@ -15,12 +15,19 @@ import org.jboss.dmr.client.Property;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.dmr.client.dispatch.impl.DMRAction;
 import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+import org.jboss.gwt.flow.client.Async;
+import org.jboss.gwt.flow.client.Control;
+import org.jboss.gwt.flow.client.Function;
+import org.jboss.gwt.flow.client.Outcome;
 import org.useware.kernel.gui.behaviour.FilteringStatementContext;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +57,9 @@ public class SecurityFrameworkImpl implements SecurityFramework {
     private static final String ACCESS_CONTROL = "access-control";
     private static final String TRIM_DESCRIPTIONS = "trim-descriptions";
 
+    private static final int PRELOAD_BATCH_SIZE = 20;
+    private static final int PRELOAD_CONCURRENCY = 2;
+
     private final AccessControlRegistry accessControlReg;
     private final DispatchAsync dispatcher;
     private final CoreGUIContext statementContext;
@@ -104,41 +114,8 @@ public class SecurityFrameworkImpl implements SecurityFramework {
 
         for(String resource : requiredResources)
         {
-
-            ModelNode step = AddressMapping.fromString(resource).asResource(
-                    new FilteringStatementContext(
-                            statementContext,
-                            new FilteringStatementContext.Filter() {
-                                @Override
-                                public String filter(String key) {
-                                    if("selected.entity".equals(key))
-                                        return "*";
-                                    else
-                                        return null;
-                                }
-
-                                @Override
-                                public String[] filterTuple(String key) {
-                                    return null;
-                                }
-                            }
-                    ) {
-
-                    }
-            );
-
             step2address.put("step-" + (steps.size() + 1), resource);   // we need this for later retrieval
-
-            step.get(OP).set(READ_RESOURCE_DESCRIPTION_OPERATION);
-            //step.get(RECURSIVE).set(true);
-
-            if(accessControlReg.isRecursive(id))
-                step.get("recursive-depth").set(2); // Workaround for Beta2 : some browsers choke on two big payload size
-
-            step.get(ACCESS_CONTROL).set(TRIM_DESCRIPTIONS); // reduces the payload size
-            step.get(OPERATIONS).set(true);
-            steps.add(step);
-
+            steps.add(createStep(resource, accessControlReg.isRecursive(id)));
         }
 
         operation.get(STEPS).set(steps);
@@ -176,83 +153,287 @@ public class SecurityFrameworkImpl implements SecurityFramework {
 
                     ModelNode overalResult = response.get(RESULT);
 
-                    SecurityContextImpl context = new SecurityContextImpl(
-                            id,
-                            requiredResources,
-                            Facet.valueOf(accessControlReg.getFacet(id).toUpperCase()));
-
-                    // retrieve access constraints for each required resource and update the security context
+                    // retrieve access constraints for each required resource
+                    Map<String, ModelNode> payloads = new HashMap<String, ModelNode>();
                     for(int i=1; i<=steps.size();i++)
                     {
                         String step = "step-"+i;
                         if(overalResult.hasDefined(step))
-                        {
-                            String resourceAddress = step2address.get(step);
-                            ModelNode stepResult = overalResult.get(step).get(RESULT);
+                            payloads.put(step2address.get(step), selectPayload(overalResult.get(step).get(RESULT)));
+                    }
+
+                    SecurityContext context = createContext(id, requiredResources, payloads);
+
+                    Log.info("Context creation time (" + id + "): " + (System.currentTimeMillis() - start) + "ms");
+
+                    callback.onSuccess(context);
+
+                } catch (Throwable e) {
+                    callback.onFailure(new RuntimeException("Failed to parse access control meta data", e));
+                }
+
+            }
+        });
 
-                            ModelNode payload = null;
-                            if(stepResult.getType() == ModelType.LIST)
+
+    }
+
+    /**
+     * Creates the security contexts of the given places in the background, so that revealing these places
+     * doesn't need to wait for the access control meta data. The resources of all places are read at once:
+     * every resource is read only once, no matter how many places require it, using a few composite operations
+     * of at most {@link #PRELOAD_BATCH_SIZE} steps. Places which already have a context are skipped, places
+     * which fail to load are left to {@link #createSecurityContext(String, AsyncCallback)}.
+     *
+     * @param ids the name tokens of the places
+     */
+    @Override
+    public void preloadContexts(Collection<String> ids) {
+
+        final Set<String> tokens = accessControlReg.getTokens();
+        final Map<String, Set<String>> id2resources = new LinkedHashMap<String, Set<String>>();
+        final Map<String, ModelNode> stepsByKey = new LinkedHashMap<String, ModelNode>();
+
+        for(String id : ids)
+        {
+            if(hasContext(id) || !tokens.contains(id)) continue;
+
+            Set<String> resources = accessControlReg.getResources(id);
+            if(resources.isEmpty()) continue;
+
+            // copy, the parsing adds child resources to the registered set
+            id2resources.put(id, new HashSet<String>(resources));
+            boolean recursive = accessControlReg.isRecursive(id);
+            for(String resource : resources)
+            {
+                String key = preloadKey(resource, recursive);
+                if(!stepsByKey.containsKey(key))
+                    stepsByKey.put(key, createStep(resource, recursive));
+            }
+        }
+
+        if(stepsByKey.isEmpty()) return;
+
+        final long start = System.currentTimeMillis();
+        final Map<String, ModelNode> payloads = new HashMap<String, ModelNode>();
+        final Set<String> failed = new HashSet<String>();
+
+        List<String> keys = new ArrayList<String>(stepsByKey.keySet());
+        List<Function> batches = new ArrayList<Function>();
+        for(int i = 0; i < keys.size(); i += PRELOAD_BATCH_SIZE)
+        {
+            final List<String> batchKeys = keys.subList(i, Math.min(i + PRELOAD_BATCH_SIZE, keys.size()));
+            batches.add(new Function() {
+                @Override
+                public void execute(final Control control) {
+                    final ModelNode operation = new ModelNode();
+                    operation.get(OP).set(COMPOSITE);
+                    operation.get(ADDRESS).setEmptyList();
+                    List<ModelNode> steps = new ArrayList<ModelNode>(batchKeys.size());
+                    for(String key : batchKeys)
+                        steps.add(stepsByKey.get(key));
+                    operation.get(STEPS).set(steps);
+
+                    DMRAction action = new DMRAction(operation);
+                    action.setPriority(DMRAction.Priority.LOW);
+                    dispatcher.execute(action, new AsyncCallback<DMRResponse>() {
+                        @Override
+                        public void onFailure(Throwable caught) {
+                            failed.addAll(batchKeys);
+                            control.proceed();
+                        }
+
+                        @Override
+                        public void onSuccess(DMRResponse dmrResponse) {
+                            try
                             {
-                                List<ModelNode> nodes = stepResult.asList(); // TODO: Should be optimized
-                                boolean instanceReference = !nodes.isEmpty();
-                                for(ModelNode node : nodes)
+                                ModelNode response = dmrResponse.get();
+                                if(response.isFailure())
                                 {
-                                    // matching the wildcard response
-                                    List<ModelNode> tokens = node.get(ADDRESS).asList();
-                                    if(instanceReference)
-                                    {
-                                        // chose an instance declaration
-                                        if(!tokens.get(tokens.size()-1).asString().contains("*"))
-                                        {
-                                            System.out.println("Using reference: "+node.get(ADDRESS).asString());
-                                            payload = node;
-                                            break;
-                                        }
-
-                                    }
-                                    else
+                                    failed.addAll(batchKeys);
+                                }
+                                else
+                                {
+                                    ModelNode overalResult = response.get(RESULT);
+                                    for(int i = 0; i < batchKeys.size(); i++)
                                     {
-                                        // chose the wildcard declaration
-                                        if(tokens.get(tokens.size()-1).asString().contains("*"))
-                                        {
-                                            System.out.println("Using reference: "+node.get(ADDRESS).asString());
-                                            payload = node;
-                                            break;
-                                        }
+                                        String step = "step-" + (i + 1);
+                                        if(overalResult.hasDefined(step))
+                                            payloads.put(batchKeys.get(i), selectPayload(overalResult.get(step).get(RESULT)));
                                     }
                                 }
-
-                                // TODO: Fallback needed?
-                                if(payload == null)
-                                    payload = nodes.get(0);
-
                             }
-                            else
+                            catch (RuntimeException e)
+                            {
+                                Log.error("Failed to parse the preloaded access control meta data", e);
+                                failed.addAll(batchKeys);
+                            }
+                            finally
                             {
-                                payload = stepResult;
+                                control.proceed();
                             }
+                        }
+                    });
+                }
+            });
+        }
+
+        Outcome outcome = new Outcome() {
+            @Override
+            public void onFailure(Object context) {
+                onSuccess(context);
+            }
+
+            @Override
+            public void onSuccess(Object context) {
+                int created = 0;
+                for(Map.Entry<String, Set<String>> entry : id2resources.entrySet())
+                {
+                    String id = entry.getKey();
+                    if(hasContext(id)) continue; // created on demand in the meantime
 
-                            // break down into root resource and children
-                            parseAccessControlChildren(resourceAddress, requiredResources, context, payload);
+                    boolean recursive = accessControlReg.isRecursive(id);
+                    Map<String, ModelNode> contextPayloads = new HashMap<String, ModelNode>();
+                    boolean complete = true;
+                    for(String resource : entry.getValue())
+                    {
+                        String key = preloadKey(resource, recursive);
+                        if(failed.contains(key))
+                        {
+                            complete = false;
+                            break;
                         }
+                        if(payloads.containsKey(key))
+                            contextPayloads.put(resource, payloads.get(key));
                     }
+                    if(!complete) continue;
+
+                    try {
+                        createContext(id, accessControlReg.getResources(id), contextPayloads);
+                        created++;
+                    } catch (Throwable e) {
+                        Log.warn("Failed to preload security context for " + id, e);
+                    }
+                }
+                Log.info("Preloaded " + created + " security contexts (" + stepsByKey.size() + " resources): " +
+                        (System.currentTimeMillis() - start) + "ms");
+            }
+        };
 
-                    context.seal(); // makes it immutable
+        new Async().parallel(PRELOAD_CONCURRENCY, outcome, batches.toArray(new Function[batches.size()]));
+    }
 
-                    contextMapping.put(id, context);
+    private static String preloadKey(String resource, boolean recursive) {
+        return recursive ? resource + "#recursive" : resource;
+    }
 
-                    Log.info("Context creation time (" + id + "): " + (System.currentTimeMillis() - start) + "ms");
+    private ModelNode createStep(String resource, boolean recursive) {
+
+        ModelNode step = AddressMapping.fromString(resource).asResource(
+                new FilteringStatementContext(
+                        statementContext,
+                        new FilteringStatementContext.Filter() {
+                            @Override
+                            public String filter(String key) {
+                                if("selected.entity".equals(key))
+                                    return "*";
+                                else
+                                    return null;
+                            }
 
-                    callback.onSuccess(context);
+                            @Override
+                            public String[] filterTuple(String key) {
+                                return null;
+                            }
+                        }
+                ) {
 
-                } catch (Throwable e) {
-                    callback.onFailure(new RuntimeException("Failed to parse access control meta data", e));
                 }
+        );
+
+        step.get(OP).set(READ_RESOURCE_DESCRIPTION_OPERATION);
+        //step.get(RECURSIVE).set(true);
+
+        if(recursive)
+            step.get("recursive-depth").set(2); // Workaround for Beta2 : some browsers choke on two big payload size
+
+        step.get(ACCESS_CONTROL).set(TRIM_DESCRIPTIONS); // reduces the payload size
+        step.get(OPERATIONS).set(true);
+        return step;
+    }
+
+    /**
+     * Wildcard addresses return a list of descriptions: chose an instance declaration if there is one,
+     * the wildcard declaration otherwise.
+     */
+    private static ModelNode selectPayload(ModelNode stepResult) {
+
+        ModelNode payload = null;
+        if(stepResult.getType() == ModelType.LIST)
+        {
+            List<ModelNode> nodes = stepResult.asList(); // TODO: Should be optimized
+            boolean instanceReference = !nodes.isEmpty();
+            for(ModelNode node : nodes)
+            {
+                // matching the wildcard response
+                List<ModelNode> tokens = node.get(ADDRESS).asList();
+                if(instanceReference)
+                {
+                    // chose an instance declaration
+                    if(!tokens.get(tokens.size()-1).asString().contains("*"))
+                    {
+                        Log.debug("Using reference: "+node.get(ADDRESS).asString());
+                        payload = node;
+                        break;
+                    }
+
+                }
+                else
+                {
+                    // chose the wildcard declaration
+                    if(tokens.get(tokens.size()-1).asString().contains("*"))
+                    {
+                        Log.debug("Using reference: "+node.get(ADDRESS).asString());
+                        payload = node;
+                        break;
+                    }
+                }
+            }
+
+            // TODO: Fallback needed?
+            if(payload == null)
+                payload = nodes.get(0);
+
+        }
+        else
+        {
+            payload = stepResult;
+        }
+        return payload;
+    }
+
+    private SecurityContext createContext(String id, Set<String> requiredResources, Map<String, ModelNode> payloads) {
 
+        SecurityContextImpl context = new SecurityContextImpl(
+                id,
+                requiredResources,
+                Facet.valueOf(accessControlReg.getFacet(id).toUpperCase()));
+
+        // update the security context, the resources might grow while parsing
+        for(String resourceAddress : new ArrayList<String>(requiredResources))
+        {
+            ModelNode payload = payloads.get(resourceAddress);
+            if(payload != null)
+            {
+                // break down into root resource and children
+                parseAccessControlChildren(resourceAddress, requiredResources, context, payload);
             }
-        });
+        }
 
+        context.seal(); // makes it immutable
 
+        contextMapping.put(id, context);
+        return context;
     }
 
     private static void parseAccessControlChildren(final String resourceAddress, Set<String> requiredResources, SecurityContextImpl context, ModelNode payload) {
@@ -36,7 +36,9 @@ public class Preferences
         LOCALE("locale", "Locale", "en"),
         ANALYTICS("analytics", "Analytics Enabled?", "true"),
         RUN_AS_ROLE("run_as_role", "Run as role", null),
-        SECURITY_CONTEXT("securityCache", "Cache Security Context?", "true");
+        SECURITY_CONTEXT("securityCache", "Cache Security Context?", "true"),
+        BATCH_REQUESTS("batchRequests", "Batch Requests?", "false"),
+        MAX_CONNECTIONS("maxConnections", "Concurrent Requests", "6");
 
 
         private String token;
@@ -107,7 +107,11 @@ public class LoadJVMMetricsCmd extends AddressableModelCmd implements AsyncComma
 
         composite.get(STEPS).set(steps);
 
-        dispatcher.execute(new DMRAction(composite), new SimpleCallback<DMRResponse>() {
+        // metrics are refreshed in the background: don't compete with interactive requests
+        DMRAction action = new DMRAction(composite);
+        action.setPriority(DMRAction.Priority.LOW);
+
+        dispatcher.execute(action, new SimpleCallback<DMRResponse>() {
 
             @Override
             public void onFailure(Throwable caught) {
@@ -1,53 +1,200 @@
 package org.jboss.as.console.client.shared.runtime;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * A single sample of a runtime metric. Numeric values are kept as primitives: integral values as long,
+ * fractional ones as double. Values added as strings are kept as text and are never parsed.
+ *
  * @author Heiko Braun
  * @date 11/3/11
  */
 public class Metric {
 
-    private List<String> values = new LinkedList<String>();
+    private static final byte INTEGRAL = 0;
+    private static final byte FRACTIONAL = 1;
+    private static final byte TEXT = 2;
+    private static final byte UNDEFINED = 3;
+
+    private byte[] kinds;
+    private long[] longs;
+    private double[] doubles;
+    private String[] texts;
+    private int size;
 
     public Metric(String... values) {
+        init(values.length);
         for(String s : values)
             add(s);
     }
 
     public Metric(int... values) {
+        init(values.length);
         for(int i : values)
-            add(String.valueOf(i));
+            add(i);
     }
 
     public Metric(long... values) {
+        init(values.length);
         for(long l : values)
-            add(String.valueOf(l));
+            add(l);
+    }
+
+    public Metric(double... values) {
+        init(values.length);
+        for(double d : values)
+            add(d);
+    }
+
+    private void init(int capacity) {
+        kinds = new byte[capacity];
+        longs = new long[capacity];
     }
 
+    /**
+     * Adds a value which is kept as text, i.e. a query string. Numeric values are added
+     * through {@link #add(long)} or {@link #add(double)}.
+     */
     public void add(String value)
     {
-        values.add(value);
+        if(value == null)
+        {
+            append(UNDEFINED);
+            return;
+        }
+
+        int index = append(TEXT);
+        if(texts == null)
+            texts = new String[kinds.length];
+        texts[index] = value;
+    }
+
+    public void add(long value)
+    {
+        int index = append(INTEGRAL);
+        longs[index] = value;
+    }
+
+    public void add(double value)
+    {
+        int index = append(FRACTIONAL);
+        if(doubles == null)
+            doubles = new double[kinds.length];
+        doubles[index] = value;
+    }
+
+    private int append(byte kind) {
+        if(size == kinds.length)
+        {
+            int capacity = size + 4;
+            kinds = grow(kinds, capacity);
+            longs = grow(longs, capacity);
+            if(doubles != null) doubles = grow(doubles, capacity);
+            if(texts != null) texts = grow(texts, capacity);
+        }
+        kinds[size] = kind;
+        return size++;
     }
 
     public String get(int i)
     {
-        return values.get(i);
+        checkIndex(i);
+        switch (kinds[i])
+        {
+            case INTEGRAL:
+                return String.valueOf(longs[i]);
+            case FRACTIONAL:
+                return String.valueOf(doubles[i]);
+            case TEXT:
+                return texts[i];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return the value as double or {@link Double#NaN} if the value has been added as text
+     */
+    public double getDouble(int i)
+    {
+        checkIndex(i);
+        switch (kinds[i])
+        {
+            case INTEGRAL:
+                return longs[i];
+            case FRACTIONAL:
+                return doubles[i];
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * @return the value as long, fractional values are truncated
+     * @throws NumberFormatException if the value has been added as text
+     */
+    public long getLong(int i)
+    {
+        checkIndex(i);
+        switch (kinds[i])
+        {
+            case INTEGRAL:
+                return longs[i];
+            case FRACTIONAL:
+                return (long) doubles[i];
+            default:
+                throw new NumberFormatException("Metric value at index "+i+" is not numeric: "+get(i));
+        }
     }
 
+    /**
+     * @return the values as text, prefer {@link #get(int)}, {@link #getLong(int)} or {@link #getDouble(int)}
+     */
     public List<String> getValues() {
-        return values;
+        List<String> list = new ArrayList<String>(size);
+        for(int i=0; i<size; i++)
+            list.add(get(i));
+        return list;
+    }
+
+    private void checkIndex(int i) {
+        if(i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Index: "+i+", Size: "+size);
+    }
+
+    private static byte[] grow(byte[] array, int capacity) {
+        byte[] grown = new byte[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static long[] grow(long[] array, int capacity) {
+        long[] grown = new long[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        double[] grown = new double[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static String[] grow(String[] array, int capacity) {
+        String[] grown = new String[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
     }
 
     @Override
     public String toString() {
         return "Metric{" +
-                "values=" + values +
+                "values=" + getValues() +
                 '}';
     }
 
     public int numSamples() {
-        return getValues().size();
+        return size;
     }
 }
@@ -0,0 +1,187 @@
+package org.jboss.as.console.client.shared.runtime;
+
+/**
+ * Fixed size store for the samples of a {@link Sampler}. The recent samples are kept in a ring buffer
+ * of primitives, older samples are downsampled: every <code>bucketSize</code> samples are reduced to their
+ * peak, which is kept in a second ring buffer. The memory used doesn't grow, no matter how long a view is sampling.
+ * <p/>
+ * Indexes run from the oldest to the latest entry.
+ */
+public class TimeSeries {
+
+    public static final int DEFAULT_CAPACITY = 360;
+    public static final int DEFAULT_BUCKET_SIZE = 10;
+
+    private final int columns;
+    private final int bucketSize;
+
+    private final Ring recent;
+    private final Ring history;
+
+    // the bucket which is currently filled
+    private final double[] bucket;
+    private long bucketStart;
+    private int bucketCount;
+
+    private long count;
+
+    public TimeSeries(int columns) {
+        this(columns, DEFAULT_CAPACITY, DEFAULT_BUCKET_SIZE);
+    }
+
+    public TimeSeries(int columns, int capacity, int bucketSize) {
+        if(columns < 1 || capacity < 1 || bucketSize < 1)
+            throw new IllegalArgumentException("Illegal time series dimensions");
+
+        this.columns = columns;
+        this.bucketSize = bucketSize;
+        this.recent = new Ring(columns, capacity);
+        this.history = new Ring(columns, capacity);
+        this.bucket = new double[columns];
+    }
+
+    /**
+     * Adds a sample. Columns which are missing from the metric or not numeric are recorded as <code>NaN</code>.
+     */
+    public void add(long timestamp, Metric metric) {
+        if(bucketCount == 0)
+            bucketStart = timestamp;
+
+        int slot = recent.next(timestamp);
+        for(int c=0; c<columns; c++)
+        {
+            double value = c < metric.numSamples() ? metric.getDouble(c) : Double.NaN;
+            recent.values[slot + c] = value;
+            bucket[c] = bucketCount == 0 ? value : max(bucket[c], value);
+        }
+
+        if(++bucketCount == bucketSize)
+        {
+            int historySlot = history.next(bucketStart);
+            System.arraycopy(bucket, 0, history.values, historySlot, columns);
+            bucketCount = 0;
+        }
+        count++;
+    }
+
+    public void clear() {
+        recent.clear();
+        history.clear();
+        bucketCount = 0;
+        count = 0;
+    }
+
+    /**
+     * @return the number of samples added since the series has been created or cleared
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the number of recent samples
+     */
+    public int size() {
+        return recent.size;
+    }
+
+    public long getTimestamp(int i) {
+        return recent.timestamp(i);
+    }
+
+    public double getValue(int i, int column) {
+        return recent.value(i, column);
+    }
+
+    /**
+     * @return the number of downsampled entries
+     */
+    public int historySize() {
+        return history.size;
+    }
+
+    /**
+     * @return the timestamp of the first sample within the downsampled entry
+     */
+    public long getHistoryTimestamp(int i) {
+        return history.timestamp(i);
+    }
+
+    /**
+     * @return the peak of the samples within the downsampled entry
+     */
+    public double getHistoryValue(int i, int column) {
+        return history.value(i, column);
+    }
+
+    /**
+     * @return the highest value of the column across the recent and the downsampled samples,
+     * <code>NaN</code> if there is none
+     */
+    public double getPeak(int column) {
+        double peak = Double.NaN;
+        for(int i=0; i<recent.size; i++)
+            peak = max(peak, recent.value(i, column));
+        for(int i=0; i<history.size; i++)
+            peak = max(peak, history.value(i, column));
+        return peak;
+    }
+
+    // NaN is ignored rather than propagated
+    private static double max(double a, double b) {
+        if(Double.isNaN(a)) return b;
+        if(Double.isNaN(b)) return a;
+        return a > b ? a : b;
+    }
+
+
+    private static class Ring {
+
+        final int columns;
+        final int capacity;
+        final long[] timestamps;
+        final double[] values;
+        int head; // the next slot to write
+        int size;
+
+        Ring(int columns, int capacity) {
+            this.columns = columns;
+            this.capacity = capacity;
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity * columns];
+        }
+
+        /**
+         * @return the offset of the values for the new entry
+         */
+        int next(long timestamp) {
+            int slot = head;
+            timestamps[slot] = timestamp;
+            head = (head + 1) % capacity;
+            if(size < capacity)
+                size++;
+            return slot * columns;
+        }
+
+        long timestamp(int i) {
+            return timestamps[index(i)];
+        }
+
+        double value(int i, int column) {
+            if(column < 0 || column >= columns)
+                throw new IndexOutOfBoundsException("Column: "+column+", Columns: "+columns);
+            return values[index(i) * columns + column];
+        }
+
+        private int index(int i) {
+            if(i < 0 || i >= size)
+                throw new IndexOutOfBoundsException("Index: "+i+", Size: "+size);
+            return (head - size + i + capacity) % capacity;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
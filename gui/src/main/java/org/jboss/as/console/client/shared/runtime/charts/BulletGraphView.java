@@ -9,6 +9,7 @@ import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.Sampler;
+import org.jboss.as.console.client.shared.runtime.TimeSeries;
 import org.thechiselgroup.choosel.protovis.client.PV;
 import org.thechiselgroup.choosel.protovis.client.PVBulletLayout;
 import org.thechiselgroup.choosel.protovis.client.PVMark;
@@ -35,8 +36,10 @@ public class BulletGraphView implements Sampler {
     private Column[] columns;
     private int ROW_OFFSET = 1;
     private JsArrayGeneric<Bullet> bullets;
+    private TimeSeries series;
     private ProtovisWidget graphWidget;
     private HorizontalPanel container;
+    private boolean renderPending;
 
     public BulletGraphView(String title, String metricName) {
         this.title = title;
@@ -48,6 +51,7 @@ public class BulletGraphView implements Sampler {
 
     public Sampler setColumns(Column[] columns) {
         this.columns = columns;
+        this.series = new TimeSeries(columns.length);
         return this;
     }
 
@@ -146,16 +150,22 @@ public class BulletGraphView implements Sampler {
     @Override
     public void addSample(Metric metric) {
 
+        // the graph shows the latest sample, marked with the peak of the series
+        series.add(System.currentTimeMillis(), metric);
+        bullets = JsUtils.createJsArrayGeneric();
         distinctColumnStrategy(metric);
 
-
-        Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
-            @Override
-            public void execute() {
-                render();
-            }
-        });
-
+        if(!renderPending)
+        {
+            renderPending = true;
+            Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+                @Override
+                public void execute() {
+                    renderPending = false;
+                    render();
+                }
+            });
+        }
 
     }
 
@@ -168,18 +178,18 @@ public class BulletGraphView implements Sampler {
         {
 
             int dataIndex = row - ROW_OFFSET;
-            String actualValue = metric.get(dataIndex);
-
-            if(null==actualValue)
-                throw new RuntimeException("Metric value at index "+dataIndex+" is null");
+            double value = metric.getDouble(dataIndex);
 
             // with comparison column
             if(c.isBaseline())
             {
                 // skip the baseline itself
             }
+            else if(Double.isNaN(value))
+            {
+                // the value couldn't be read: no bullet
+            }
             else {
-                Double value = Double.valueOf(actualValue);
                 String label = percentage(baseline, value) +"% "+c.getLabel();
 
                 if(c.getComparisonColumn()!=null && baseline>0)
@@ -189,8 +199,7 @@ public class BulletGraphView implements Sampler {
                                     label, metricName,
                                     new double[] {baseline},
                                     new double[] {value},
-                                    new double[] {}
-                                    //new double[] { Double.valueOf(metric.get(getComparisonIndex(c))) }
+                                    new double[] {series.getPeak(dataIndex)}
                             )
                     );
                 }
@@ -202,7 +211,7 @@ public class BulletGraphView implements Sampler {
                                     label, metricName,
                                     new double[] {baseline},
                                     new double[] {value},
-                                    new double[] {  }
+                                    new double[] {series.getPeak(dataIndex)}
                             )
                     );
                 }
@@ -225,7 +234,7 @@ public class BulletGraphView implements Sampler {
             throw new RuntimeException("Illegal baseline index "+baselineIndex+" on number of samples "+metric.numSamples());
 
         return baselineIndex >= 0 ?
-                Double.valueOf(metric.get(baselineIndex)) : -1;
+                metric.getDouble(baselineIndex) : -1;
     }
 
     static long percentage(double total, double actual)
@@ -252,11 +261,12 @@ public class BulletGraphView implements Sampler {
     @Override
     public void clearSamples() {
         this.bullets =  JsUtils.createJsArrayGeneric();
+        series.clear();
     }
 
     @Override
     public long numSamples() {
-        return 1;
+        return series.count();
     }
 
 
@@ -2,12 +2,14 @@ package org.jboss.as.console.client.shared.runtime.ds;
 
 import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import com.google.gwt.core.client.Scheduler;
 import com.google.inject.Inject;
 import com.google.web.bindery.event.shared.EventBus;
+import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.gwtplatform.mvp.client.Presenter;
 import com.gwtplatform.mvp.client.View;
 import com.gwtplatform.mvp.client.annotations.NameToken;
@@ -21,6 +23,7 @@ import org.jboss.as.console.client.domain.model.SimpleCallback;
 import org.jboss.as.console.client.shared.BeanFactory;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.RuntimeBaseAddress;
+import org.jboss.as.console.client.shared.schedule.MetricsPoller;
 import org.jboss.as.console.client.shared.state.DomainEntityManager;
 import org.jboss.as.console.client.shared.state.ServerSelectionChanged;
 import org.jboss.as.console.client.shared.subsys.RevealStrategy;
@@ -30,8 +33,6 @@ import org.jboss.as.console.client.widgets.forms.EntityAdapter;
 import org.jboss.as.console.spi.AccessControl;
 import org.jboss.dmr.client.ModelNode;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
-import org.jboss.dmr.client.dispatch.impl.DMRAction;
-import org.jboss.dmr.client.dispatch.impl.DMRResponse;
 
 /**
  * @author Heiko Braun
@@ -41,7 +42,18 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
         DataSourceMetricPresenter.MyProxy>
         implements ServerSelectionChanged.ChangeListener {
 
+    private static final String[] POOL_ATTRIBUTES = {
+            "AvailableCount", "ActiveCount", "MaxUsedCount"
+    };
+
+    private static final String[] CACHE_ATTRIBUTES = {
+            "PreparedStatementCacheCurrentSize", "PreparedStatementCacheHitCount", "PreparedStatementCacheMissCount"
+    };
+
     private final PlaceManager placeManager;
+    private final MetricsPoller poller;
+    private final List<HandlerRegistration> dsSubscriptions = new ArrayList<HandlerRegistration>();
+    private final List<HandlerRegistration> xaSubscriptions = new ArrayList<HandlerRegistration>();
     private DispatchAsync dispatcher;
     private RevealStrategy revealStrategy;
     private DataSource selectedDS;
@@ -77,10 +89,11 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
             EventBus eventBus, MyView view, MyProxy proxy,
             PlaceManager placeManager,  DispatchAsync dispatcher,
             ApplicationMetaData metaData, RevealStrategy revealStrategy,
-            DomainEntityManager domainManager, BeanFactory factory) {
+            DomainEntityManager domainManager, BeanFactory factory, MetricsPoller poller) {
         super(eventBus, view, proxy);
 
         this.placeManager = placeManager;
+        this.poller = poller;
 
         this.dispatcher = dispatcher;
         this.revealStrategy = revealStrategy;
@@ -105,6 +118,8 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
 
     public void refreshDatasources() {
 
+        unsubscribe(dsSubscriptions);
+        unsubscribe(xaSubscriptions);
         getView().clearSamples();
         getView().setDatasources(Collections.EMPTY_LIST, true);
         getView().setDatasources(Collections.EMPTY_LIST, false);
@@ -140,6 +155,13 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
         refreshDatasources();
     }
 
+    @Override
+    protected void onHide() {
+        super.onHide();
+        unsubscribe(dsSubscriptions);
+        unsubscribe(xaSubscriptions);
+    }
+
     @Override
     protected void revealInParent() {
         revealStrategy.revealInRuntimeParent(this);
@@ -150,6 +172,7 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
         if(!currentSelection.isEnabled())
         {
             Console.error(Console.MESSAGES.subsys_jca_err_ds_notEnabled(currentSelection.getName()));
+            unsubscribe(xa ? xaSubscriptions : dsSubscriptions);
             getView().clearSamples();
             return;
         }
@@ -166,12 +189,7 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
         }
     }
 
-    private void loadMetrics(boolean isXA) {
-        loadDSPoolMetrics(isXA);
-        loadDSCacheMetrics(isXA);
-    }
-
-    private void loadDSPoolMetrics(final boolean isXA) {
+    private void loadMetrics(final boolean isXA) {
 
         DataSource target = isXA ? selectedXA : selectedDS;
         if(null==target)
@@ -179,89 +197,65 @@ public class DataSourceMetricPresenter extends Presenter<DataSourceMetricPresent
 
         getView().clearSamples();
 
-        String subresource = isXA ? "xa-data-source": "data-source";
-        String name = target.getName();
-
-        ModelNode operation = new ModelNode();
-        operation.get(ADDRESS).set(RuntimeBaseAddress.get());
-        operation.get(ADDRESS).add("subsystem", "datasources");
-        operation.get(ADDRESS).add(subresource, name);
-        operation.get(ADDRESS).add("statistics", "pool");
+        // the addresses follow the selected data source
+        List<HandlerRegistration> subscriptions = isXA ? xaSubscriptions : dsSubscriptions;
+        if(!subscriptions.isEmpty())
+        {
+            poller.refresh();
+            return;
+        }
 
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
+        subscriptions.add(poller.subscribe(new StatisticsSubscriber(isXA, "pool", POOL_ATTRIBUTES) {
+            @Override
+            public void onMetrics(ModelNode values) {
+                getView().setDSPoolMetric(MetricsPoller.toMetric(values, POOL_ATTRIBUTES), isXA);
+            }
+        }));
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
+        subscriptions.add(poller.subscribe(new StatisticsSubscriber(isXA, "jdbc", CACHE_ATTRIBUTES) {
             @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode response = dmrResponse.get();
-
-                if(response.isFailure())
-                {
-                    Console.error(Console.MESSAGES.failed("Datasource Metrics"), response.getFailureDescription());
-                }
-                else
-                {
-                    ModelNode result = response.get(RESULT).asObject();
-
-                    long avail = result.get("AvailableCount").asLong();
-                    long active = result.get("ActiveCount").asLong();
-                    long max = result.get("MaxUsedCount").asLong();
-
-                    Metric poolMetric = new Metric(
-                            avail,active,max
-                    );
-
-                    getView().setDSPoolMetric(poolMetric, isXA);
-                }
+            public void onMetrics(ModelNode values) {
+                getView().setDSCacheMetric(MetricsPoller.toMetric(values, CACHE_ATTRIBUTES), isXA);
             }
-        });
+        }));
     }
 
-    private void loadDSCacheMetrics(final boolean isXA) {
+    private void unsubscribe(List<HandlerRegistration> subscriptions) {
+        for(HandlerRegistration subscription : subscriptions)
+            subscription.removeHandler();
+        subscriptions.clear();
+    }
 
-        DataSource target = isXA ? selectedXA : selectedDS;
-        if(null==target)
-            throw new RuntimeException("DataSource selection is null!");
+    /**
+     * Reads the statistics of the currently selected (xa) data source.
+     */
+    private abstract class StatisticsSubscriber implements MetricsPoller.Subscriber {
 
-        getView().clearSamples();
+        private final boolean isXA;
+        private final String statistics;
+        private final String[] attributes;
 
-        String subresource = isXA ? "xa-data-source": "data-source";
-        String name = target.getName();
+        StatisticsSubscriber(boolean isXA, String statistics, String[] attributes) {
+            this.isXA = isXA;
+            this.statistics = statistics;
+            this.attributes = attributes;
+        }
 
-        ModelNode operation = new ModelNode();
-        operation.get(ADDRESS).set(RuntimeBaseAddress.get());
-        operation.get(ADDRESS).add("subsystem", "datasources");
-        operation.get(ADDRESS).add(subresource, name);
-        operation.get(ADDRESS).add("statistics", "jdbc");
+        @Override
+        public ModelNode getAddress() {
+            DataSource target = isXA ? selectedXA : selectedDS;
 
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
+            ModelNode address = new ModelNode();
+            address.set(RuntimeBaseAddress.get());
+            address.add("subsystem", "datasources");
+            address.add(isXA ? "xa-data-source": "data-source", target.getName());
+            address.add("statistics", statistics);
+            return address;
+        }
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
-            @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode response = dmrResponse.get();
-
-                if(response.isFailure())
-                {
-                    Console.error(Console.MESSAGES.failed("Datasource Metrics"), response.getFailureDescription());
-                }
-                else
-                {
-                    ModelNode result = response.get(RESULT).asObject();
-
-                    long size = result.get("PreparedStatementCacheCurrentSize").asLong();
-                    long hit = result.get("PreparedStatementCacheHitCount").asLong();
-                    long miss = result.get("PreparedStatementCacheMissCount").asLong();
-
-                    Metric metric = new Metric(
-                            size,hit,miss
-                    );
-
-                    getView().setDSCacheMetric(metric, isXA);
-                }
-            }
-        });
+        @Override
+        public String[] getAttributes() {
+            return attributes;
+        }
     }
 }
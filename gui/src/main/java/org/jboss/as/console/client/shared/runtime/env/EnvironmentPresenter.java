@@ -131,7 +131,10 @@ public class EnvironmentPresenter extends Presenter<EnvironmentPresenter.MyView,
         operation.get(OP).set(READ_ATTRIBUTE_OPERATION);
         operation.get(NAME).set("system-properties");
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>()
+        // only fills the view: not needed once another place has been revealed
+        DMRAction action = new DMRAction(operation);
+        action.setScoped(true);
+        dispatcher.execute(action, new SimpleCallback<DMRResponse>()
         {
             @Override
             public void onSuccess(DMRResponse result)
@@ -3,6 +3,7 @@ package org.jboss.as.console.client.shared.runtime.jms;
 import com.google.gwt.core.client.Scheduler;
 import com.google.inject.Inject;
 import com.google.web.bindery.event.shared.EventBus;
+import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.gwtplatform.mvp.client.Presenter;
 import com.gwtplatform.mvp.client.View;
 import com.gwtplatform.mvp.client.annotations.NameToken;
@@ -19,6 +20,7 @@ import org.jboss.dmr.client.dispatch.impl.DMRAction;
 import org.jboss.dmr.client.dispatch.impl.DMRResponse;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.RuntimeBaseAddress;
+import org.jboss.as.console.client.shared.schedule.MetricsPoller;
 import org.jboss.as.console.client.shared.state.DomainEntityManager;
 import org.jboss.as.console.client.shared.state.ServerSelectionChanged;
 import org.jboss.as.console.client.shared.subsys.RevealStrategy;
@@ -41,7 +43,20 @@ import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMSMetricPresenter.MyProxy>
         implements ServerSelectionChanged.ChangeListener {
 
+    private static final String[] QUEUE_ATTRIBUTES = {
+            "message-count", "delivering-count", "messages-added", "scheduled-count", "consumer-count"
+    };
+
+    private static final String[] TOPIC_ATTRIBUTES = {
+            "message-count", "delivering-count", "messages-added",
+            "durable-message-count", "non-durable-message-count",
+            "subscription-count", "durable-subscription-count", "non-durable-subscription-count"
+    };
+
     private DispatchAsync dispatcher;
+    private MetricsPoller poller;
+    private HandlerRegistration queueSubscription;
+    private HandlerRegistration topicSubscription;
     private RevealStrategy revealStrategy;
     private JMSEndpoint selectedTopic;
     private BeanFactory factory;
@@ -83,10 +98,11 @@ public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMS
             EventBus eventBus, MyView view, MyProxy proxy,
             DispatchAsync dispatcher,
             ApplicationMetaData metaData, RevealStrategy revealStrategy,
-            DomainEntityManager domainManager, BeanFactory factory) {
+            DomainEntityManager domainManager, BeanFactory factory, MetricsPoller poller) {
         super(eventBus, view, proxy);
 
         this.dispatcher = dispatcher;
+        this.poller = poller;
         this.revealStrategy = revealStrategy;
         this.domainManager = domainManager;
         this.factory = factory;
@@ -122,7 +138,7 @@ public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMS
 
     public void refresh() {
 
-
+        unsubscribe();
         getView().clearSamples();
         getView().setTopics(Collections.EMPTY_LIST);
         getView().setQueues(Collections.EMPTY_LIST);
@@ -146,50 +162,43 @@ public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMS
 
         getView().clearSamples();
 
-        ModelNode operation = new ModelNode();
-        operation.get(ADDRESS).set(RuntimeBaseAddress.get());
-        operation.get(ADDRESS).add("subsystem", "messaging");
-        operation.get(ADDRESS).add("hornetq-server", "default");
-        operation.get(ADDRESS).add("jms-queue", selectedQueue.getName());
-
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
+        // the address follows the selected queue
+        if(queueSubscription!=null)
+        {
+            poller.refresh();
+            return;
+        }
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
+        queueSubscription = poller.subscribe(new MetricsPoller.Subscriber() {
             @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode response = dmrResponse.get();
-
-                if(response.isFailure())
-                {
-                    Console.error("Error loading metrics", response.getFailureDescription());
-                }
-                else
-                {
-                    ModelNode result = response.get(RESULT).asObject();
-
-                    long messageCount = result.get("message-count").asLong();
-                    long messagesAdded = result.get("messages-added").asLong();
-                    long delivering = result.get("delivering-count").asLong();
-
-                    Metric queueInflight = new Metric(
-                            messageCount,
-                            delivering
-                    );
-
-                    Metric queueProcessed = new Metric(
-                            messagesAdded,
-                            result.get("scheduled-count").asLong()
-                    );
+            public ModelNode getAddress() {
+                return endpointAddress("jms-queue", selectedQueue.getName());
+            }
 
-                    Metric queueConsumer = new Metric(
-                            result.get("consumer-count").asLong()
-                    );
+            @Override
+            public String[] getAttributes() {
+                return QUEUE_ATTRIBUTES;
+            }
 
-                    getView().setQueueInflight(queueInflight);
-                    getView().setQueueProcessed(queueProcessed);
-                    getView().setQueueConsumer(queueConsumer);
-                }
+            @Override
+            public void onMetrics(ModelNode values) {
+                Metric queueInflight = MetricsPoller.toMetric(values,
+                        "message-count",
+                        "delivering-count"
+                );
+
+                Metric queueProcessed = MetricsPoller.toMetric(values,
+                        "messages-added",
+                        "scheduled-count"
+                );
+
+                Metric queueConsumer = MetricsPoller.toMetric(values,
+                        "consumer-count"
+                );
+
+                getView().setQueueInflight(queueInflight);
+                getView().setQueueProcessed(queueProcessed);
+                getView().setQueueConsumer(queueConsumer);
             }
         });
     }
@@ -201,57 +210,72 @@ public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMS
 
         getView().clearSamples();
 
-        ModelNode operation = new ModelNode();
-        operation.get(ADDRESS).set(RuntimeBaseAddress.get());
-        operation.get(ADDRESS).add("subsystem", "messaging");
-        operation.get(ADDRESS).add("hornetq-server", "default");
-        operation.get(ADDRESS).add("jms-topic", selectedTopic.getName());
+        // the address follows the selected topic
+        if(topicSubscription!=null)
+        {
+            poller.refresh();
+            return;
+        }
 
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
-
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
+        topicSubscription = poller.subscribe(new MetricsPoller.Subscriber() {
             @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode response = dmrResponse.get();
-
-                if(response.isFailure())
-                {
-                    Console.error("Error loading metrics", response.getFailureDescription());
-                }
-                else
-                {
-                    ModelNode result = response.get(RESULT).asObject();
-
-                    long messageCount = result.get("message-count").asLong();
-                    long delivering = result.get("delivering-count").asLong();
-
-                    Metric topicInflight = new Metric(
-                            messageCount,
-                            delivering
-                    );
-
-                    Metric topicProcessed = new Metric(
-                            result.get("messages-added").asLong(),
-                            result.get("durable-message-count").asLong(),
-                            result.get("non-durable-message-count").asLong()
-
-                    );
+            public ModelNode getAddress() {
+                return endpointAddress("jms-topic", selectedTopic.getName());
+            }
 
-                    Metric topicSubscriptions = new Metric(
-                            result.get("subscription-count").asLong(),
-                            result.get("durable-subscription-count").asLong(),
-                            result.get("non-durable-subscription-count").asLong()
-                    );
+            @Override
+            public String[] getAttributes() {
+                return TOPIC_ATTRIBUTES;
+            }
 
-                    getView().setTopicInflight(topicInflight);
-                    getView().setTopicProcessed(topicProcessed);
-                    getView().setTopicSubscriptions(topicSubscriptions);
-                }
+            @Override
+            public void onMetrics(ModelNode values) {
+                Metric topicInflight = MetricsPoller.toMetric(values,
+                        "message-count",
+                        "delivering-count"
+                );
+
+                Metric topicProcessed = MetricsPoller.toMetric(values,
+                        "messages-added",
+                        "durable-message-count",
+                        "non-durable-message-count"
+                );
+
+                Metric topicSubscriptions = MetricsPoller.toMetric(values,
+                        "subscription-count",
+                        "durable-subscription-count",
+                        "non-durable-subscription-count"
+                );
+
+                getView().setTopicInflight(topicInflight);
+                getView().setTopicProcessed(topicProcessed);
+                getView().setTopicSubscriptions(topicSubscriptions);
             }
         });
     }
 
+    private static ModelNode endpointAddress(String type, String name) {
+        ModelNode address = new ModelNode();
+        address.set(RuntimeBaseAddress.get());
+        address.add("subsystem", "messaging");
+        address.add("hornetq-server", "default");
+        address.add(type, name);
+        return address;
+    }
+
+    private void unsubscribe() {
+        if(queueSubscription!=null)
+        {
+            queueSubscription.removeHandler();
+            queueSubscription = null;
+        }
+        if(topicSubscription!=null)
+        {
+            topicSubscription.removeHandler();
+            topicSubscription = null;
+        }
+    }
+
     @Override
     protected void onBind() {
         super.onBind();
@@ -266,6 +290,12 @@ public class JMSMetricPresenter extends Presenter<JMSMetricPresenter.MyView, JMS
         refresh();
     }
 
+    @Override
+    protected void onHide() {
+        super.onHide();
+        unsubscribe();
+    }
+
     @Override
     protected void revealInParent() {
         revealStrategy.revealInRuntimeParent(this);
@@ -42,6 +42,10 @@ import org.jboss.as.console.client.shared.state.DomainEntityManager;
 import org.jboss.as.console.client.shared.state.ServerSelectionChanged;
 import org.jboss.as.console.client.shared.subsys.RevealStrategy;
 import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.Property;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 
@@ -127,22 +131,28 @@ public class JndiPresenter extends Presenter<JndiPresenter.MyView, JndiPresenter
                 ModelNode result = dmrResponse.get();
                 ModelNode model = result.get(RESULT);
 
-                CellTree cellTree = null;
-                JndiTreeParser parser = new JndiTreeParser();
+                // the contexts and the applications go into the same tree, parsed in one go
+                List<Property> contexts = new ArrayList<Property>();
                 if(model.hasDefined("java: contexts"))
-                    cellTree = parser.parse(model.get("java: contexts").asPropertyList());
+                    contexts.addAll(model.get("java: contexts").asPropertyList());
 
                 if(model.hasDefined("applications")) {
                     ModelNode tempParent = new ModelNode();
                     ModelNode apps = model.get("applications");
                     tempParent.get("applications").set(apps);
-                    cellTree = parser.parse(tempParent.asPropertyList());
+                    contexts.addAll(tempParent.asPropertyList());
                 }
 
-                if(cellTree != null)
+                if(!contexts.isEmpty())
+                {
+                    JndiTreeParser parser = new JndiTreeParser();
+                    CellTree cellTree = parser.parse(contexts);
                     getView().setJndiTree(cellTree, parser.getSelectionModel());
+                }
                 else
+                {
                     Console.error(Console.MESSAGES.subsys_naming_failedToLoadJNDIView());
+                }
             }
         });
     }
@@ -19,6 +19,7 @@
 package org.jboss.as.console.client.shared.runtime.naming;
 
 import com.google.gwt.cell.client.AbstractCell;
+import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import com.google.gwt.user.cellview.client.CellTree;
 import com.google.gwt.user.cellview.client.HasKeyboardSelectionPolicy;
@@ -29,8 +30,9 @@ import com.google.gwt.view.client.TreeViewModel;
 import org.jboss.as.console.client.widgets.tree.DefaultCellTree;
 import org.jboss.dmr.client.Property;
 
+import java.util.LinkedList;
 import java.util.List;
-import java.util.Stack;
+import java.util.ListIterator;
 
 /**
  * really awkward jndi parsing routine.
@@ -40,11 +42,12 @@ import java.util.Stack;
  * @date 7/21/11
  */
 public class JndiTreeParser {
-    private Stack<JndiEntry> stack = new Stack<JndiEntry>();
+    private static final int SLICE = 500;
+
     private JndiEntry root = new JndiEntry("JNDI", "", null);
     private TreeViewModel treeModel = new JndiTreeModel(root);
 
-    private static Command finishCmd = null;
+    private Command finishCmd = null;
     private SingleSelectionModel<JndiEntry> selectionModel = new SingleSelectionModel<JndiEntry>();
     private DefaultCellTree cellTree;
 
@@ -58,71 +61,97 @@ public class JndiTreeParser {
         return selectionModel;
     }
 
+    /**
+     * Builds the entries in incremental commands, so that large JNDI trees don't block the browser.
+     * The tree shows the entries once all of them have been built, so a parser must be used for a
+     * single call only.
+     * <p/>
+     * The properties are walked depth first, like the recursive parser did: siblings keep their order,
+     * including the ones nested in a <code>children</code> property.
+     */
     public CellTree parse(List<Property> model) {
-        stack.push(root);
-        parseSiblings(model, "");
+        final LinkedList<Pending> stack = new LinkedList<Pending>();
+        push(model, root, "", stack);
+
+        Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                for (int i = 0; i < SLICE && !stack.isEmpty(); i++)
+                    parse(stack.removeFirst(), stack);
+
+                if (stack.isEmpty()) {
+                    assert finishCmd != null;
+                    finishCmd.execute();
+                    return false;
+                }
+                return true;
+            }
+        });
         return cellTree;
     }
 
-    private void parseSiblings(List<Property> siblings, String parentURI) {
-        boolean skipped = false;
-        for (Property sibling : siblings) {
-            try {
-                List<Property> children = sibling.getValue().asPropertyList();
-                skipped = createChild(sibling, parentURI);
-                parseSiblings(children, skipped ? parentURI : parentURI + "/" + sibling.getName());
-            } catch (IllegalArgumentException e) {
-                continue;
-            }
+    private void parse(Pending pending, LinkedList<Pending> stack) {
+        List<Property> children;
+        try {
+            children = pending.property.getValue().asPropertyList();
+        } catch (IllegalArgumentException e) {
+            return;     // an attribute, not a context or binding
         }
 
-        dec(skipped);
+        String name = pending.property.getName();
+        if (name.equals("children")) {
+            // skipped: the children belong to the parent
+            push(children, pending.parent, pending.parentURI, stack);
+        } else {
+            JndiEntry entry = createChild(pending.property, pending.parent, pending.parentURI);
+            push(children, entry, pending.parentURI + "/" + name, stack);
+        }
     }
 
-    private void dec(boolean skipped) {
-        if (!skipped)
-            stack.pop();
-
-        if (stack.empty()) {
-            assert finishCmd!=null;
-            finishCmd.execute();
-        }
+    /**
+     * Pushes the properties in reverse order, so that the first one is parsed next.
+     */
+    private static void push(List<Property> properties, JndiEntry parent, String parentURI, LinkedList<Pending> stack) {
+        for (ListIterator<Property> iterator = properties.listIterator(properties.size()); iterator.hasPrevious(); )
+            stack.addFirst(new Pending(iterator.previous(), parent, parentURI));
     }
 
     /**
      * create actual children
-     *
-     * @param sibling
-     * @return
      */
-    private boolean createChild(Property sibling, String parentURI) {
-        boolean skipped = sibling.getName().equals("children");
-
-        if (!skipped) {
-            //dump(sibling);
-            String dataType = null;
-            String uri = "";
-            if (sibling.getValue().hasDefined("class-name")) {
-                dataType = sibling.getValue().get("class-name").asString();
-                uri = parentURI + "/" + sibling.getName();
-
-                int idx = uri.indexOf(':');
-                if (idx > 0) {
-                    int idx2 = uri.lastIndexOf('/', idx);
-                    if (idx2 >= 0 && (idx2 + 1) < uri.length())
-                        uri = uri.substring(idx2 + 1);
-                }
+    private JndiEntry createChild(Property sibling, JndiEntry parent, String parentURI) {
+        String dataType = null;
+        String uri = "";
+        if (sibling.getValue().hasDefined("class-name")) {
+            dataType = sibling.getValue().get("class-name").asString();
+            uri = parentURI + "/" + sibling.getName();
+
+            int idx = uri.indexOf(':');
+            if (idx > 0) {
+                int idx2 = uri.lastIndexOf('/', idx);
+                if (idx2 >= 0 && (idx2 + 1) < uri.length())
+                    uri = uri.substring(idx2 + 1);
             }
+        }
 
-            JndiEntry next = new JndiEntry(sibling.getName(), uri, dataType);
-            if (sibling.getValue().hasDefined("value"))
-                next.setValue(sibling.getValue().get("value").asString());
+        JndiEntry next = new JndiEntry(sibling.getName(), uri, dataType);
+        if (sibling.getValue().hasDefined("value"))
+            next.setValue(sibling.getValue().get("value").asString());
 
-            stack.peek().getChildren().add(next);
-            stack.push(next);
-        }
+        parent.getChildren().add(next);
+        return next;
+    }
 
-        return skipped;
+    private static class Pending {
+        final Property property;
+        final JndiEntry parent;
+        final String parentURI;
+
+        Pending(Property property, JndiEntry parent, String parentURI) {
+            this.property = property;
+            this.parent = parent;
+            this.parentURI = parentURI;
+        }
     }
 
     /*
@@ -173,12 +202,12 @@ public class JndiTreeParser {
                 JndiEntry entry = (JndiEntry)value;
                 dataProvider.setList(entry.getChildren());
             } else {
-                setFinish(new Command() {
+                finishCmd = new Command() {
                     @Override
                     public void execute() {
                         dataProvider.setList(rootEntry.getChildren());
                     }
-                });
+                };
             }
 
             return new DefaultNodeInfo<JndiEntry>(dataProvider, new JndiEntryCell(), selectionModel, null);
@@ -196,11 +225,6 @@ public class JndiTreeParser {
                 return false;
         }
     }
-
-
-    private static void setFinish(Command cmd) {
-        finishCmd = cmd;
-    }
 }
 
 
@@ -11,6 +11,7 @@ import org.jboss.as.console.client.shared.help.MetricHelpPanel;
 import org.jboss.as.console.client.shared.help.StaticHelpPanel;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.Sampler;
+import org.jboss.as.console.client.shared.runtime.TimeSeries;
 import org.jboss.as.console.client.shared.runtime.charts.Column;
 import org.jboss.as.console.client.shared.runtime.charts.StackedBar;
 
@@ -25,6 +26,7 @@ import java.util.List;
 public class PlainColumnView implements Sampler {
 
     private Column[] columns = null;
+    private TimeSeries series;
     private FlexTable grid;
     private String title;
     private int ROW_OFFSET = 1;
@@ -49,6 +51,7 @@ public class PlainColumnView implements Sampler {
 
     public PlainColumnView setColumns(Column... columns) {
         this.columns = columns;
+        this.series = new TimeSeries(columns.length);
         return this;
     }
 
@@ -130,6 +133,8 @@ public class PlainColumnView implements Sampler {
 
     @Override
     public void addSample(Metric metric) {
+        series.add(System.currentTimeMillis(), metric);
+
         int row=ROW_OFFSET;
         int baselineIndex = getBaseLineIndex();
 
@@ -137,27 +142,35 @@ public class PlainColumnView implements Sampler {
         if(baselineIndex>metric.numSamples())
             throw new RuntimeException("Illegal baseline index "+baselineIndex+" on number of samples "+metric.numSamples());
 
-        Long baseline = baselineIndex >= 0 ?
-                Long.valueOf(metric.get(baselineIndex)) : -1;
+        // NaN if the baseline couldn't be read
+        double baseline = baselineIndex >= 0 ?
+                metric.getDouble(baselineIndex) : -1;
 
         for(Column c : columns)
         {
             int dataIndex = row - ROW_OFFSET;
             String actualValue = metric.get(dataIndex);
 
+            // the value couldn't be read
             if(null==actualValue)
-                throw new RuntimeException("Metric value at index "+dataIndex+" is null");
+                actualValue = "n/a";
 
             grid.setText(row, 1, actualValue );
+            grid.getCellFormatter().getElement(row, 1).setTitle(peakOf(dataIndex));
 
-            if(c.getComparisonColumn()!=null && baseline>0)
+            double value = metric.getDouble(dataIndex);
+            if(c.getComparisonColumn()!=null && baseline>0 && !Double.isNaN(value))
             {
-                stacks.get(dataIndex).setRatio(baseline, Double.valueOf(actualValue));
+                stacks.get(dataIndex).setRatio(baseline, value);
             }
-            else if(c.getComparisonColumn()!=null && baseline<0)
+            else if(c.getComparisonColumn()!=null && baselineIndex<0)
             {
                 throw new RuntimeException("Comparison column specified, but no baseline set!");
             }
+            else if(c.getComparisonColumn()!=null)
+            {
+                stacks.get(dataIndex).setRatio(0,0);
+            }
             row++;
         }
 
@@ -189,6 +202,7 @@ public class PlainColumnView implements Sampler {
 
             // clear the 'Actual' value
             grid.setText(row, 1, "");
+            grid.getCellFormatter().getElement(row, 1).setTitle("");
 
             // cleanup stackbar if used
             if(c.getComparisonColumn()!=null )
@@ -202,11 +216,19 @@ public class PlainColumnView implements Sampler {
 
             row++;
         }
+        series.clear();
+    }
+
+    private String peakOf(int column) {
+        double peak = series.getPeak(column);
+        if(Double.isNaN(peak))
+            return "";  // text values
+        return "Peak: " + (peak == (long) peak ? String.valueOf((long) peak) : String.valueOf(peak));
     }
 
     @Override
     public long numSamples() {
-        return 1;
+        return series.count();
     }
 
     @Override
@@ -122,7 +122,10 @@ public class TXLogPresenter extends Presenter<TXLogPresenter.MyView, TXLogPresen
         operation.get(CHILD_TYPE).set("transactions");
         operation.get(INCLUDE_RUNTIME).set(true);
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
+        // only fills the view: not needed once another place has been revealed
+        DMRAction action = new DMRAction(operation);
+        action.setScoped(true);
+        dispatcher.execute(action, new SimpleCallback<DMRResponse>() {
             @Override
             public void onSuccess(DMRResponse dmrResponse) {
                 ModelNode result = dmrResponse.get();
@@ -168,6 +168,7 @@ public class TXLogView extends SuspendableViewImpl implements TXLogPresenter.MyV
                 .setDescription(Console.MESSAGES.transaction_log_description())
                 .setTopLevelTools(probe.asWidget())
                 .setMaster("Transactions", table)
+                .setVirtualScrolling(true)
                 .setMasterTools(tools)
                 .addDetail("Log Entry", formPanel.build())
                 .addDetail("Participants", participantsPanel.asWidget());
@@ -3,18 +3,16 @@ package org.jboss.as.console.client.shared.runtime.tx;
 import com.google.gwt.core.client.Scheduler;
 import com.google.inject.Inject;
 import com.google.web.bindery.event.shared.EventBus;
+import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.gwtplatform.mvp.client.Presenter;
 import com.gwtplatform.mvp.client.annotations.NameToken;
 import com.gwtplatform.mvp.client.annotations.ProxyCodeSplit;
 import com.gwtplatform.mvp.client.proxy.Place;
 import com.gwtplatform.mvp.client.proxy.Proxy;
 import org.jboss.as.console.client.core.NameTokens;
-import org.jboss.as.console.client.domain.model.SimpleCallback;
 import org.jboss.as.console.client.plugins.RuntimeGroup;
+import org.jboss.as.console.client.shared.schedule.MetricsPoller;
 import org.jboss.as.console.spi.AccessControl;
-import org.jboss.dmr.client.dispatch.DispatchAsync;
-import org.jboss.dmr.client.dispatch.impl.DMRAction;
-import org.jboss.dmr.client.dispatch.impl.DMRResponse;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.RuntimeBaseAddress;
 import org.jboss.as.console.client.shared.state.ServerSelectionChanged;
@@ -22,7 +20,6 @@ import org.jboss.as.console.client.shared.subsys.RevealStrategy;
 import org.jboss.as.console.client.shared.subsys.tx.model.TransactionManager;
 import org.jboss.as.console.client.widgets.forms.AddressBinding;
 import org.jboss.as.console.client.widgets.forms.ApplicationMetaData;
-import org.jboss.as.console.client.widgets.forms.EntityAdapter;
 import org.jboss.as.console.spi.RuntimeExtension;
 import org.jboss.dmr.client.ModelNode;
 
@@ -35,10 +32,22 @@ import static org.jboss.dmr.client.ModelDescriptionConstants.*;
 public class TXMetricPresenter extends Presenter<TXMetricPresenter.MyView, TXMetricPresenter.MyProxy>
         implements TXMetricManagement , ServerSelectionChanged.ChangeListener {
 
-    private DispatchAsync dispatcher;
+    private static final String[] TX_ATTRIBUTES = {
+            "number-of-transactions",
+            "number-of-committed-transactions",
+            "number-of-aborted-transactions",
+            "number-of-timed-out-transactions"
+    };
+
+    private static final String[] ROLLBACK_ATTRIBUTES = {
+            "number-of-application-rollbacks",
+            "number-of-resource-rollbacks"
+    };
+
+    private MetricsPoller poller;
     private AddressBinding addressBinding;
-    private EntityAdapter<TransactionManager> entityAdapter;
     private RevealStrategy revealStrategy;
+    private HandlerRegistration subscription;
 
     @ProxyCodeSplit
     @NameToken(NameTokens.TXMetrics)
@@ -62,15 +71,14 @@ public class TXMetricPresenter extends Presenter<TXMetricPresenter.MyView, TXMet
     @Inject
     public TXMetricPresenter(
             EventBus eventBus, MyView view, MyProxy proxy,
-            DispatchAsync dispatcher,
+            MetricsPoller poller,
             ApplicationMetaData metaData, RevealStrategy revealStrategy) {
         super(eventBus, view, proxy);
 
-        this.dispatcher = dispatcher;
+        this.poller = poller;
         this.revealStrategy = revealStrategy;
 
         this.addressBinding = metaData.getBeanMetaData(TransactionManager.class).getAddress();
-        this.entityAdapter = new EntityAdapter<TransactionManager>(TransactionManager.class, metaData);
     }
 
     @Override
@@ -97,6 +105,16 @@ public class TXMetricPresenter extends Presenter<TXMetricPresenter.MyView, TXMet
         refresh();
     }
 
+    @Override
+    protected void onHide() {
+        super.onHide();
+        if(subscription!=null)
+        {
+            subscription.removeHandler();
+            subscription = null;
+        }
+    }
+
     @Override
     protected void revealInParent() {
         revealStrategy.revealInRuntimeParent(this);
@@ -107,34 +125,36 @@ public class TXMetricPresenter extends Presenter<TXMetricPresenter.MyView, TXMet
 
         getView().clearSamples();
 
-        ModelNode operation = addressBinding.asResource(RuntimeBaseAddress.get());
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
+        if(subscription!=null)
+        {
+            poller.refresh();
+            return;
+        }
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
+        subscription = poller.subscribe(new MetricsPoller.Subscriber() {
             @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode result = dmrResponse.get();
-
-                TransactionManager metrics = entityAdapter.fromDMR(result.get(RESULT));
-
-                getView().setTxMetric(new Metric(
-                        metrics.getNumTransactions(),
-                        metrics.getNumCommittedTransactions(),
-                        metrics.getNumAbortedTransactions(),
-                        metrics.getNumTimeoutTransactions()
-                        ));
-
-                getView().setRollbackMetric(new Metric(
-                        metrics.getNumApplicationRollback(),
-                        metrics.getNumResourceRollback()
-                ));
-
+            public ModelNode getAddress() {
+                return addressBinding.asResource(RuntimeBaseAddress.get()).get(ADDRESS);
+            }
 
-                //provideRandomMetrics();
+            @Override
+            public String[] getAttributes() {
+                return concat(TX_ATTRIBUTES, ROLLBACK_ATTRIBUTES);
+            }
 
+            @Override
+            public void onMetrics(ModelNode values) {
+                getView().setTxMetric(MetricsPoller.toMetric(values, TX_ATTRIBUTES));
+                getView().setRollbackMetric(MetricsPoller.toMetric(values, ROLLBACK_ATTRIBUTES));
             }
         });
     }
 
+    private static String[] concat(String[] a, String[] b) {
+        String[] result = new String[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
 }
@@ -77,7 +77,7 @@ public class HeapChartView implements Sampler {
         long[] converted = new long[metric.numSamples()];
         for(int i=0; i<metric.numSamples();i++)
         {
-            converted[i] = toMB(Long.valueOf(metric.get(i)).longValue());
+            converted[i] = toMB(metric.getLong(i));
         }
         sampler.addSample(new Metric(converted));
     }
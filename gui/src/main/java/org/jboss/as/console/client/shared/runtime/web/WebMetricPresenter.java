@@ -3,6 +3,7 @@ package org.jboss.as.console.client.shared.runtime.web;
 import com.google.gwt.core.client.Scheduler;
 import com.google.inject.Inject;
 import com.google.web.bindery.event.shared.EventBus;
+import com.google.web.bindery.event.shared.HandlerRegistration;
 import com.gwtplatform.mvp.client.Presenter;
 import com.gwtplatform.mvp.client.View;
 import com.gwtplatform.mvp.client.annotations.NameToken;
@@ -15,10 +16,9 @@ import org.jboss.as.console.client.domain.model.SimpleCallback;
 import org.jboss.as.console.client.shared.BeanFactory;
 import org.jboss.as.console.spi.AccessControl;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
-import org.jboss.dmr.client.dispatch.impl.DMRAction;
-import org.jboss.dmr.client.dispatch.impl.DMRResponse;
 import org.jboss.as.console.client.shared.runtime.Metric;
 import org.jboss.as.console.client.shared.runtime.RuntimeBaseAddress;
+import org.jboss.as.console.client.shared.schedule.MetricsPoller;
 import org.jboss.as.console.client.shared.state.ServerSelectionChanged;
 import org.jboss.as.console.client.shared.subsys.RevealStrategy;
 import org.jboss.as.console.client.shared.subsys.web.LoadConnectorCmd;
@@ -29,8 +29,6 @@ import org.jboss.dmr.client.ModelNode;
 import java.util.Collections;
 import java.util.List;
 
-import static org.jboss.dmr.client.ModelDescriptionConstants.*;
-
 /**
  * @author Heiko Braun
  * @date 12/9/11
@@ -43,6 +41,12 @@ public class WebMetricPresenter extends Presenter<WebMetricPresenter.MyView, Web
     private HttpConnector selectedConnector;
     private BeanFactory factory;
     private final LoadConnectorCmd cmd;
+    private final MetricsPoller poller;
+    private HandlerRegistration subscription;
+
+    private static final String[] CONNECTOR_ATTRIBUTES = {
+            "requestCount", "errorCount", "processingTime", "maxTime"
+    };
 
     @ProxyCodeSplit
     @NameToken(NameTokens.WebMetricPresenter)
@@ -64,13 +68,14 @@ public class WebMetricPresenter extends Presenter<WebMetricPresenter.MyView, Web
             EventBus eventBus, MyView view, MyProxy proxy,
             DispatchAsync dispatcher,
             ApplicationMetaData metaData, RevealStrategy revealStrategy,
-            BeanFactory factory) {
+            BeanFactory factory, MetricsPoller poller) {
         super(eventBus, view, proxy);
 
         this.dispatcher = dispatcher;
         this.revealStrategy = revealStrategy;
         this.factory = factory;
         this.cmd = new LoadConnectorCmd(dispatcher, factory);
+        this.poller = poller;
     }
 
     public void setSelectedConnector(HttpConnector selection) {
@@ -112,40 +117,53 @@ public class WebMetricPresenter extends Presenter<WebMetricPresenter.MyView, Web
 
         getView().clearSamples();
 
-        ModelNode operation = new ModelNode();
-        operation.get(ADDRESS).set(RuntimeBaseAddress.get());
-        operation.get(ADDRESS).add("subsystem", "web");
-        operation.get(ADDRESS).add("connector", selectedConnector.getName());
+        // the address follows the selected connector
+        if(subscription!=null)
+        {
+            poller.refresh();
+            return;
+        }
 
-        operation.get(OP).set(READ_RESOURCE_OPERATION);
-        operation.get(INCLUDE_RUNTIME).set(true);
+        subscription = poller.subscribe(new MetricsPoller.Subscriber() {
+            @Override
+            public ModelNode getAddress() {
+                ModelNode address = new ModelNode();
+                address.set(RuntimeBaseAddress.get());
+                address.add("subsystem", "web");
+                address.add("connector", selectedConnector.getName());
+                return address;
+            }
 
-        dispatcher.execute(new DMRAction(operation), new SimpleCallback<DMRResponse>() {
             @Override
-            public void onSuccess(DMRResponse dmrResponse) {
-                ModelNode response = dmrResponse.get();
+            public String[] getAttributes() {
+                return CONNECTOR_ATTRIBUTES;
+            }
 
-                if(response.isFailure())
+            @Override
+            public void onMetrics(ModelNode values) {
+                if(!values.hasDefined(CONNECTOR_ATTRIBUTES[0]))
                 {
-                    Console.error(Console.MESSAGES.failed("Web Metrics"), response.getFailureDescription());
+                    Console.error(Console.MESSAGES.failed("Web Metrics"));
+                    return;
                 }
-                else
-                {
-                    ModelNode result = response.get(RESULT).asObject();
 
-                    Metric metric = new Metric(
-                            result.get("requestCount").asLong(),
-                            result.get("errorCount").asLong(),
-                            result.get("processingTime").asLong(),
-                            result.get("maxTime").asLong()
-                    );
+                Metric metric = MetricsPoller.toMetric(values, CONNECTOR_ATTRIBUTES);
 
-                    getView().setConnectorMetric(metric);
-                }
+                getView().setConnectorMetric(metric);
             }
         });
     }
 
+    @Override
+    protected void onHide() {
+        super.onHide();
+        if(subscription!=null)
+        {
+            subscription.removeHandler();
+            subscription = null;
+        }
+    }
+
     @Override
     protected void onBind() {
         super.onBind();
@@ -0,0 +1,406 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.shared.schedule;
+
+import com.allen_sauer.gwt.log.client.Log;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.inject.Inject;
+import com.google.web.bindery.event.shared.HandlerRegistration;
+import org.jboss.as.console.client.shared.runtime.Metric;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.dispatch.DispatchAsync;
+import org.jboss.dmr.client.dispatch.impl.DMRAction;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+
+/**
+ * Polls the runtime metrics for all views at once. Views subscribe to a set of attributes of a resource
+ * and receive the current values at every tick. The attributes of all subscriptions are read in a single
+ * composite operation, attributes required by several views are read only once. An address which fails
+ * to be read is polled on its own until it succeeds again, so it doesn't affect the other views.
+ * <p/>
+ * The interval adapts: it grows while the responses are slow or the server can't be reached and shrinks back
+ * to the base interval once they are fast again. No metrics are read while the browser tab is hidden and polling stops when the last
+ * subscription is removed.
+ */
+public class MetricsPoller {
+
+    public static final int BASE_INTERVAL = 5000;
+    public static final int MAX_INTERVAL = 60000;
+
+    /**
+     * A view interested in metrics.
+     */
+    public interface Subscriber {
+
+        /**
+         * Resolved at every tick, so the address can follow the selected server.
+         */
+        ModelNode getAddress();
+
+        String[] getAttributes();
+
+        /**
+         * @param values the values of the attributes by name, missing if the attribute couldn't be read
+         */
+        void onMetrics(ModelNode values);
+    }
+
+    private final DispatchAsync dispatcher;
+    private final List<Subscriber> subscribers = new ArrayList<Subscriber>();
+
+    private int interval = BASE_INTERVAL;
+    private boolean scheduled;
+    private boolean inFlight;
+    private boolean refreshRequested;
+    private int generation;
+
+    private final Set<String> isolated = new HashSet<String>();
+    // the address each subscriber has been polled at last
+    private final Map<Subscriber, String> keys = new HashMap<Subscriber, String>();
+    private int pending;
+    private boolean anySuccess;
+    private long tickStart;
+
+    @Inject
+    public MetricsPoller(DispatchAsync dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Adds a subscription and reads its metrics right away.
+     *
+     * @return the registration used to unsubscribe
+     */
+    public HandlerRegistration subscribe(final Subscriber subscriber) {
+        subscribers.add(subscriber);
+        refresh();
+
+        return new HandlerRegistration() {
+            @Override
+            public void removeHandler() {
+                subscribers.remove(subscriber);
+
+                // forget a failing address once nobody polls it anymore
+                String key = keys.remove(subscriber);
+                if(key != null && !keys.containsValue(key))
+                    isolated.remove(key);
+            }
+        };
+    }
+
+    /**
+     * Reads the metrics of all subscriptions right away, instead of waiting for the next tick.
+     */
+    public void refresh() {
+        if(inFlight)
+        {
+            refreshRequested = true;
+            return;
+        }
+        schedule(0);
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    private void schedule(int delay) {
+
+        // a new schedule supersedes the pending one
+        final int current = ++generation;
+        scheduled = true;
+
+        final Scheduler.RepeatingCommand tick = new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                if(current == generation)
+                {
+                    scheduled = false;
+                    poll();
+                }
+                return false;
+            }
+        };
+
+        if(delay == 0)
+            Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+                @Override
+                public void execute() {
+                    tick.execute();
+                }
+            });
+        else
+            Scheduler.get().scheduleFixedDelay(tick, delay);
+    }
+
+    private void poll() {
+
+        if(subscribers.isEmpty())
+            return; // stopped, the next subscription starts again
+
+        if(isHidden())
+        {
+            // nobody is watching: skip the tick, but notice soon when the tab is shown again
+            schedule(BASE_INTERVAL);
+            return;
+        }
+
+        // merge the subscriptions by address, attributes required by several subscribers are read once
+        Map<String, Group> groups = new LinkedHashMap<String, Group>();
+        for(Subscriber subscriber : subscribers)
+        {
+            ModelNode address = subscriber.getAddress();
+            String key = address.toString();
+            Group group = groups.get(key);
+            if(group == null)
+            {
+                group = new Group(key, address);
+                groups.put(key, group);
+            }
+            group.add(subscriber);
+            keys.put(subscriber, key);
+        }
+
+        // addresses which have been left behind, i.e. by selecting another resource
+        isolated.retainAll(groups.keySet());
+
+        inFlight = true;
+        pending = 0;
+        anySuccess = false;
+        tickStart = System.currentTimeMillis();
+
+        List<Group> merged = new ArrayList<Group>(groups.size());
+        for(Group group : groups.values())
+        {
+            if(isolated.contains(group.key))
+                read(Collections.singletonList(group));
+            else
+                merged.add(group);
+        }
+        if(!merged.isEmpty())
+            read(merged);
+    }
+
+    /**
+     * Reads the attributes of the given groups in a single composite operation.
+     */
+    private void read(final List<Group> groups) {
+
+        List<ModelNode> steps = new ArrayList<ModelNode>();
+        for(Group group : groups)
+        {
+            group.stepIds.clear();
+            for(String attribute : group.attributes)
+            {
+                ModelNode step = new ModelNode();
+                step.get(ADDRESS).set(group.address);
+                step.get(OP).set(READ_ATTRIBUTE_OPERATION);
+                step.get(NAME).set(attribute);
+                steps.add(step);
+                group.stepIds.put(attribute, "step-" + steps.size());
+            }
+        }
+
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(COMPOSITE);
+        operation.get(ADDRESS).setEmptyList();
+        operation.get(STEPS).set(steps);
+
+        pending++;
+
+        DMRAction action = new DMRAction(operation, false);
+        action.setPriority(DMRAction.Priority.LOW);
+        try {
+            dispatcher.execute(action, new AsyncCallback<DMRResponse>() {
+                @Override
+                public void onFailure(Throwable caught) {
+                    try {
+                        failed(groups, caught);
+                    } finally {
+                        done();
+                    }
+                }
+
+                @Override
+                public void onSuccess(DMRResponse dmrResponse) {
+                    try {
+                        ModelNode response = dmrResponse.get();
+                        if(response.isFailure())
+                        {
+                            failed(groups, new RuntimeException(response.getFailureDescription()));
+                        }
+                        else
+                        {
+                            anySuccess = true;
+                            deliver(groups, response.find(RESULT));
+                        }
+                    } finally {
+                        done();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            try {
+                failed(groups, e);
+            } finally {
+                done();
+            }
+        }
+    }
+
+    /**
+     * A single failing step fails the whole composite. Merged groups are read again one by one, so a failing
+     * address doesn't starve the others. Groups failing on their own are isolated: they are read separately
+     * until they succeed again.
+     */
+    private void failed(List<Group> groups, Throwable caught) {
+        if(groups.size() > 1)
+        {
+            for(Group group : groups)
+                read(Collections.singletonList(group));
+        }
+        else
+        {
+            Group group = groups.get(0);
+            if(isolated.add(group.key))
+                Log.error("Failed to poll metrics of " + group.address, caught);
+        }
+    }
+
+    private void deliver(List<Group> groups, ModelNode results) {
+        for(Group group : groups)
+        {
+            isolated.remove(group.key);
+
+            for(Subscriber subscriber : group.subscribers)
+            {
+                if(!subscribers.contains(subscriber)) continue; // unsubscribed in the meantime
+
+                ModelNode values = new ModelNode();
+                values.setEmptyObject();
+                for(String attribute : subscriber.getAttributes())
+                {
+                    ModelNode value = results.find(group.stepIds.get(attribute), RESULT);
+                    if(value.isDefined())
+                        values.get(attribute).set(value);
+                }
+
+                try {
+                    subscriber.onMetrics(values);
+                } catch (Throwable e) {
+                    Log.error("Failed to process metrics", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Turns the values passed to {@link Subscriber#onMetrics(ModelNode)} into a metric. Attributes which
+     * couldn't be read are undefined within the metric, rather than being reported as zero.
+     */
+    public static Metric toMetric(ModelNode values, String... attributes) {
+        Metric metric = new Metric(new long[0]);
+        for(String attribute : attributes)
+        {
+            if(values.hasDefined(attribute))
+                metric.add(values.get(attribute).asLong());
+            else
+                metric.add((String) null);
+        }
+        return metric;
+    }
+
+    /**
+     * Called once per request, the tick is over when all requests (including the retries) are done.
+     */
+    private void done() {
+        pending--;
+        if(pending > 0) return;
+
+        if(anySuccess)
+            next(adapt(System.currentTimeMillis() - tickStart));
+        else
+            next(Math.min(interval * 2, MAX_INTERVAL)); // the server isn't reachable, back off
+    }
+
+    /**
+     * Slow responses double the interval, fast responses halve it, down to the base interval.
+     */
+    private int adapt(long responseTime) {
+        if(responseTime > interval / 4)
+            return Math.min(interval * 2, MAX_INTERVAL);
+        else
+            return Math.max(interval / 2, BASE_INTERVAL);
+    }
+
+    private void next(int nextInterval) {
+        inFlight = false;
+        interval = nextInterval;
+
+        if(refreshRequested)
+        {
+            refreshRequested = false;
+            schedule(0);
+        }
+        else if(!scheduled)
+        {
+            schedule(interval);
+        }
+    }
+
+    /**
+     * The subscribers of one address and the union of their attributes.
+     */
+    private static class Group {
+
+        private final String key;
+        private final ModelNode address;
+        private final List<Subscriber> subscribers = new ArrayList<Subscriber>();
+        private final Set<String> attributes = new LinkedHashSet<String>();
+        private final Map<String, String> stepIds = new HashMap<String, String>();
+
+        Group(String key, ModelNode address) {
+            this.key = key;
+            this.address = address;
+        }
+
+        void add(Subscriber subscriber) {
+            subscribers.add(subscriber);
+            Collections.addAll(attributes, subscriber.getAttributes());
+        }
+    }
+
+    private static native boolean isHidden() /*-{
+        return $doc.hidden === true || $doc.webkitHidden === true || $doc.mozHidden === true;
+    }-*/;
+}
@@ -32,6 +32,7 @@ import org.jboss.as.console.client.shared.subsys.Baseadress;
 import org.jboss.as.console.client.shared.subsys.messaging.model.Queue;
 import org.jboss.as.console.client.widgets.forms.FormToolStrip;
 import org.jboss.as.console.client.widgets.forms.items.JndiNamesItem;
+import org.jboss.as.console.client.widgets.tables.VirtualScrollPager;
 import org.jboss.ballroom.client.widgets.forms.CheckBoxItem;
 import org.jboss.ballroom.client.widgets.forms.Form;
 import org.jboss.ballroom.client.widgets.forms.ListItem;
@@ -155,8 +156,11 @@ public class QueueList {
         queueTable.addColumn(nameColumn, "Name");
         queueTable.addColumn(jndiNameColumn, "JNDI");
 
-        layout.add(queueTable);
-        queueTable.getElement().setAttribute("style", "margin-bottom:15px;");
+        // servers may have thousands of queues: render only the visible ones
+        VirtualScrollPager pager = new VirtualScrollPager(250);
+        pager.setDisplay(queueTable);
+        layout.add(pager);
+        pager.getElement().setAttribute("style", "margin-bottom:15px;");
 
         // ----
 
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.tools;
+
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.i18n.client.NumberFormat;
+import com.google.gwt.user.client.ui.Grid;
+import com.google.gwt.user.client.ui.HTML;
+import com.google.gwt.user.client.ui.TextArea;
+import com.google.gwt.user.client.ui.VerticalPanel;
+import com.google.gwt.user.client.ui.Widget;
+import org.jboss.ballroom.client.widgets.tools.ToolButton;
+import org.jboss.ballroom.client.widgets.tools.ToolStrip;
+import org.jboss.ballroom.client.widgets.window.DefaultWindow;
+import org.jboss.dmr.client.dispatch.InvocationMetrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Shows the {@link InvocationMetrics} by operation and address template, slowest first.
+ */
+public class InvocationMetricsView {
+
+    private static final String[] COLUMNS = {"Name", "Count", "Failed", "Mean (ms)", "p95 (ms)", "Max (ms)",
+            "Sent", "Received", "Decode (ms)"};
+
+    private InvocationMetrics metrics = InvocationMetrics.getInstance();
+    private NumberFormat format = NumberFormat.getFormat("0.0");
+    private Grid operations;
+    private Grid addresses;
+
+    public InvocationMetricsView() {
+        this.operations = new Grid(1, COLUMNS.length);
+        this.addresses = new Grid(1, COLUMNS.length);
+
+        metrics.addListener(new InvocationMetrics.Listener() {
+            @Override
+            public void onChange() {
+                // only while the panel is shown
+                if(operations.isAttached()) update();
+            }
+        });
+    }
+
+    private void update() {
+        fill(operations, metrics.getByOperation());
+        fill(addresses, metrics.getByAddress());
+    }
+
+    private void fill(Grid grid, Collection<InvocationMetrics.Stats> values) {
+        List<InvocationMetrics.Stats> sorted = new ArrayList<InvocationMetrics.Stats>(values);
+        Collections.sort(sorted, new Comparator<InvocationMetrics.Stats>() {
+            @Override
+            public int compare(InvocationMetrics.Stats a, InvocationMetrics.Stats b) {
+                return Double.compare(b.getMean(), a.getMean());
+            }
+        });
+
+        grid.resizeRows(sorted.size() + 1);
+        for(int col = 0; col < COLUMNS.length; col++)
+            grid.setHTML(0, col, "<b>" + COLUMNS[col] + "</b>");
+
+        int row = 1;
+        for(InvocationMetrics.Stats stats : sorted)
+        {
+            int p95 = stats.getPercentile(95);
+            grid.setText(row, 0, stats.getName());
+            grid.setText(row, 1, String.valueOf(stats.getCount()));
+            grid.setText(row, 2, String.valueOf(stats.getFailures()));
+            grid.setText(row, 3, format.format(stats.getMean()));
+            grid.setText(row, 4, p95 == -1 ? ">" + InvocationMetrics.BUCKETS[InvocationMetrics.BUCKETS.length - 1] : "<=" + p95);
+            grid.setText(row, 5, format.format(stats.getMax()));
+            grid.setText(row, 6, String.valueOf(stats.getBytesSent()));
+            grid.setText(row, 7, String.valueOf(stats.getBytesReceived()));
+            grid.setText(row, 8, format.format(stats.getDecodeMean()));
+            row++;
+        }
+    }
+
+    public Widget asWidget() {
+
+        VerticalPanel panel = new VerticalPanel();
+        panel.setStyleName("fill-layout-width");
+
+        ToolStrip tools = new ToolStrip();
+        tools.addToolButtonRight(new ToolButton("Export", new ClickHandler() {
+            @Override
+            public void onClick(ClickEvent clickEvent) {
+                export();
+            }
+        }));
+        tools.addToolButtonRight(new ToolButton("Reset", new ClickHandler() {
+            @Override
+            public void onClick(ClickEvent clickEvent) {
+                metrics.reset();
+                update();
+            }
+        }));
+
+        panel.add(tools);
+        panel.add(new HTML("<h3>Operations</h3>"));
+        panel.add(operations);
+        panel.add(new HTML("<h3>Addresses</h3>"));
+        panel.add(addresses);
+
+        update();
+
+        return panel;
+    }
+
+    private void export() {
+        DefaultWindow window = new DefaultWindow("Invocation Metrics (JSON)");
+        window.setWidth(480);
+        window.setHeight(360);
+
+        TextArea json = new TextArea();
+        json.setText(metrics.toJSON());
+        json.setReadOnly(true);
+        json.setStyleName("fill-layout");
+        window.setWidget(json);
+
+        window.setModal(false);
+        window.center();
+        json.selectAll();
+    }
+}
@@ -37,6 +37,7 @@ public class ToolsPresenter extends Presenter<ToolsPresenter.MyView, ToolsPresen
     private String requestedTool;
     private DefaultWindow window;
     private RunAsRoleTool runAsRoleTool;
+    private DefaultWindow metricsWindow;
 
     @ProxyCodeSplit
     @NameToken(NameTokens.ToolsPresenter)
@@ -130,6 +131,25 @@ public class ToolsPresenter extends Presenter<ToolsPresenter.MyView, ToolsPresen
             }
             //RevealRootPopupContentEvent.fire(this, debug);
         }
+        else if("invocation-metrics".equals(requestedTool))
+        {
+            if(metricsWindow == null)
+            {
+                metricsWindow = new DefaultWindow("Invocation Metrics");
+                metricsWindow.setWidth(640);
+                metricsWindow.setHeight(480);
+
+                InvocationMetricsView panel = new InvocationMetricsView();
+                metricsWindow.setWidget(new ScrollPanel(panel.asWidget()));
+
+                metricsWindow.setModal(false);
+                metricsWindow.center();
+            }
+            else
+            {
+                metricsWindow.show();
+            }
+        }
         else if ("run-as-role".equals(requestedTool)) {
             if (runAsRoleTool == null) {
                 runAsRoleTool = new RunAsRoleTool();
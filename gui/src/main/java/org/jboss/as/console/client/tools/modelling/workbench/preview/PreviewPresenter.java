@@ -26,7 +26,7 @@ import com.gwtplatform.mvp.client.Presenter;
 import com.gwtplatform.mvp.client.View;
 import com.gwtplatform.mvp.client.annotations.NameToken;
 import com.gwtplatform.mvp.client.annotations.NoGatekeeper;
-import com.gwtplatform.mvp.client.annotations.ProxyStandard;
+import com.gwtplatform.mvp.client.annotations.ProxyCodeSplit;
 import com.gwtplatform.mvp.client.proxy.ProxyPlace;
 import com.gwtplatform.mvp.client.proxy.RevealContentEvent;
 import org.jboss.as.console.client.Console;
@@ -162,7 +162,7 @@ public class PreviewPresenter extends Presenter<PreviewPresenter.MyView, Preview
         void show(Widget widget);
     }
 
-    @ProxyStandard
+    @ProxyCodeSplit
     @NameToken(preview)
     @NoGatekeeper
     public interface MyProxy extends ProxyPlace<PreviewPresenter>
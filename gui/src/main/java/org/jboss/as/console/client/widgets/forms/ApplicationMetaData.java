@@ -38,4 +38,6 @@ public interface ApplicationMetaData {
     <T> EntityFactory<T> getFactory(Class<T> type);
 
     FormMetaData getFormMetaData(Class<?> type);
+
+    BindingPlan getBindingPlan(Class<?> type);
 }
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.widgets.forms;
+
+import org.jboss.dmr.client.ModelType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The precompiled property bindings of an entity type, as used by the {@link EntityAdapter}.
+ * Every {@link Step} carries the split detyped name, the type code and the accessors of a property,
+ * so that converting an entity doesn't need any string splitting or map lookups.
+ * <p/>
+ * The plans are emitted by the <code>ApplicationMetaDataGenerator</code>.
+ * {@link #of(BeanMetaData, Mutator)} builds them at runtime for other {@link ApplicationMetaData} implementations.
+ *
+ * @see ApplicationMetaData#getBindingPlan(Class)
+ */
+public class BindingPlan {
+
+    public static final int STRING = 0;
+    public static final int BOOLEAN = 1;
+    public static final int LONG = 2;
+    public static final int INTEGER = 3;
+    public static final int DOUBLE = 4;
+    public static final int FLOAT = 5;
+    public static final int LIST = 6;
+    public static final int OTHER = 7;
+
+    private final List<Step> pending = new ArrayList<Step>();
+    private Step[] steps;
+
+    public void add(PropertyBinding binding, String[] path, int type, Setter setter, Getter getter) {
+        pending.add(new Step(binding, path, type, setter, getter));
+        steps = null;
+    }
+
+    public Step[] getSteps() {
+        if (steps == null) {
+            steps = pending.toArray(new Step[pending.size()]);
+        }
+        return steps;
+    }
+
+    public static BindingPlan of(BeanMetaData beanMetaData, Mutator mutator) {
+        BindingPlan plan = new BindingPlan();
+        for (PropertyBinding binding : beanMetaData.getProperties()) {
+            plan.add(binding, binding.getDetypedName().split("/"), typeOf(binding.getJavaTypeName()),
+                    mutator.setter(binding.getJavaName()), mutator.getter(binding.getJavaName()));
+        }
+        return plan;
+    }
+
+    public static int typeOf(String javaTypeName) {
+        if ("java.lang.String".equals(javaTypeName)) return STRING;
+        if ("java.lang.Boolean".equals(javaTypeName)) return BOOLEAN;
+        if ("java.lang.Long".equals(javaTypeName)) return LONG;
+        if ("java.lang.Integer".equals(javaTypeName)) return INTEGER;
+        if ("java.lang.Double".equals(javaTypeName)) return DOUBLE;
+        if ("java.lang.Float".equals(javaTypeName)) return FLOAT;
+        if ("java.util.List".equals(javaTypeName)) return LIST;
+        return OTHER;
+    }
+
+    public static class Step {
+        public final PropertyBinding binding;
+        public final String javaName;
+        public final String[] path;
+        public final int type;
+        public final ModelType modelType;
+        public final boolean key;
+        public final boolean expression;
+        public final Setter setter;
+        public final Getter getter;
+
+        Step(PropertyBinding binding, String[] path, int type, Setter setter, Getter getter) {
+            this.binding = binding;
+            this.javaName = binding.getJavaName();
+            this.path = path;
+            this.type = type;
+            this.modelType = modelTypeOf(type);
+            this.key = binding.isKey();
+            this.expression = binding.doesSupportExpression();
+            this.setter = setter;
+            this.getter = getter;
+        }
+
+        /**
+         * @return the model type used when writing the property, <code>null</code> if there is none
+         */
+        private static ModelType modelTypeOf(int type) {
+            switch (type) {
+                case STRING: return ModelType.STRING;
+                case INTEGER: return ModelType.INT;
+                case LONG: return ModelType.LONG;
+                case BOOLEAN: return ModelType.BOOLEAN;
+                case DOUBLE: return ModelType.DOUBLE;
+                case LIST: return ModelType.LIST;
+                default: return null;
+            }
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package org.jboss.as.console.client.widgets.forms;
 
 import com.allen_sauer.gwt.log.client.Log;
-import org.jboss.as.console.client.Console;
 import org.jboss.as.console.client.shared.expr.ExpressionAdapter;
 import org.jboss.as.console.client.shared.properties.PropertyRecord;
-import org.jboss.ballroom.client.rbac.SecurityContext;
-import org.jboss.ballroom.client.rbac.SecurityService;
 import org.jboss.ballroom.client.widgets.forms.FormItem;
 import org.jboss.dmr.client.ModelNode;
 import org.jboss.dmr.client.ModelType;
@@ -39,6 +36,8 @@ public class EntityAdapter<T> {
     private final Class<?> type;
     private ApplicationMetaData metaData;
     private KeyAssignment keyAssignment = null;
+    private EntityFactory<?> factory;
+    private BindingPlan bindingPlan;
 
     public EntityAdapter(Class<?> type, ApplicationMetaData metaData) {
         this.type = type;
@@ -106,7 +105,8 @@ public class EntityAdapter<T> {
         if (isBaseTypeAdapter()) return convertToBaseType(dmr);
 
         ModelNode actualPayload = null;
-        EntityFactory<?> factory = metaData.getFactory(getType());
+        if(null==factory)
+            factory = metaData.getFactory(getType());
 
         if(null==factory)
             throw new IllegalArgumentException("No factory method for " + getType());
@@ -148,19 +148,15 @@ public class EntityAdapter<T> {
             throw new IllegalArgumentException("Unknown ModelType "+dmr.getType()+": "+dmr);
         }
 
-        BeanMetaData beanMetaData = metaData.getBeanMetaData(getType());
-        Mutator mutator = metaData.getMutator(getType());
-
         //final List<ModelNode> filteredDMRNames = actualPayload.hasDefined("_filtered-attributes") ?
         //                actualPayload.get("_filtered-attributes").asList() : Collections.EMPTY_LIST;
 
         //final Set<String> filteredJavaNames = new HashSet<String>(filteredDMRNames.size());
         //final Set<String> readonlyJavaNames = new HashSet<String>();
 
-        SecurityContext securityContext = getSecurityContext();
-
-        for(PropertyBinding propBinding : beanMetaData.getProperties())
+        for(BindingPlan.Step step : getBindingPlan().getSteps())
         {
+            PropertyBinding propBinding = step.binding;
 
             // RBAC: We need turn the filtered dmr names into java property names to compatible with the ballroom Form API
             /*for(ModelNode item : filteredDMRNames)
@@ -177,142 +173,105 @@ public class EntityAdapter<T> {
             //    readonlyJavaNames.add(propBinding.getJavaName());
 
 
-
-            String[] splitDetypedName = propBinding.getDetypedName().split("/");
-            ModelNode propValue = actualPayload.get(splitDetypedName);
+            ModelNode propValue = actualPayload.find(step.path);
             Object value = null;
 
-            try
-            {
-
-
-                /**
-                 * EXPRESSIONS
-                 */
+            /**
+             * EXPRESSIONS
+             */
 
-                if(propBinding.doesSupportExpression())
+            if(step.expression)
+            {
+                if(propValue.isDefined()
+                        && propValue.getType() == ModelType.EXPRESSION)
                 {
-                    if(propValue.isDefined()
-                            && propValue.getType() == ModelType.EXPRESSION)
-                    {
-                        String exprValue = actualPayload.get(propBinding.getDetypedName()).asString();
+                    ExpressionAdapter.setExpressionValue(entity, step.javaName, propValue.asString());
 
-                        ExpressionAdapter.setExpressionValue(entity, propBinding.getJavaName(), exprValue);
-
-                        continue; // expression have precedence over real values
+                    continue; // expression have precedence over real values
 
-                    }
                 }
+            }
 
-                /**
-                 * KEYS
-                 */
-
-                if(propBinding.isKey())
-                {
-                    // key resolution strategy:
-                    // a, external KeyAssignment with fallback to property name (for property types)
-                    // b, external KeyAssignment
-                    // c, resolution of a matching property
-                    // d, failure
-
-                    if(keyDelegation!=null)
-                    {
-                        value = keyDelegation.valueForKey(propBinding.getJavaName());
-                    }
-                    else if(keyAssignment!=null)
-                    {
-                        // typically keys are
-                        value = keyAssignment.valueForKey(propBinding.getJavaName());
-                    }
-                    else if(dmr.hasDefined(propBinding.getDetypedName()))
-                    {
-                        // keys are required to be strings (part of the address..)
-                        value = actualPayload.get(propBinding.getDetypedName()).asString();
-                    }
-                    else
-                    {
-                        Log.warn("Key property declared, but no key assignment available: " + propBinding);
-                    }
-                }
+            /**
+             * KEYS
+             */
 
-                /**
-                 * VALUES
-                 */
+            if(step.key)
+            {
+                // key resolution strategy:
+                // a, external KeyAssignment with fallback to property name (for property types)
+                // b, external KeyAssignment
+                // c, resolution of a matching property
+                // d, failure
 
-                else if("java.lang.Boolean".equals(propBinding.getJavaTypeName()))
-                {
-                    if(propValue.isDefined())
-                        value = propValue.asBoolean();
-                    else
-                        value = false;
-                }
-                else if("java.lang.Long".equals(propBinding.getJavaTypeName()))
+                if(keyDelegation!=null)
                 {
-                    if(propValue.isDefined())
-                        value = propValue.asLong();
-                    else
-                        // need to make sure to use the proper type otherwise ClassCastExceptions occur down the line (after boxing)
-                        value = -1L;
-                }
-                else if("java.lang.Integer".equals(propBinding.getJavaTypeName()))
-                {
-                    if(propValue.isDefined())
-                        value = propValue.asInt();
-                    else
-                        value = -1;
+                    value = keyDelegation.valueForKey(step.javaName);
                 }
-                else if("java.lang.Double".equals(propBinding.getJavaTypeName()))
+                else if(keyAssignment!=null)
                 {
-                    if(propValue.isDefined())
-                        value = propValue.asDouble();
-                    else
-                        value = -1.0;
+                    // typically keys are
+                    value = keyAssignment.valueForKey(step.javaName);
                 }
-                else if("java.lang.Float".equals(propBinding.getJavaTypeName()))
+                else if(dmr.hasDefined(propBinding.getDetypedName()))
                 {
-                    if(propValue.isDefined())
-                        value = propValue.asDouble();
-                    else
-                        value = -1.0;
+                    // keys are required to be strings (part of the address..)
+                    value = actualPayload.find(propBinding.getDetypedName()).asString();
                 }
-                else if("java.lang.String".equals(propBinding.getJavaTypeName()))
+                else
                 {
-                    // default
-                    if(propValue.isDefined())
-                        value = propValue.asString();
-                    else
-                        value = "";
-                }
-                else if ("java.util.List".equals(propBinding.getJavaTypeName()))
-                {
-                    ModelNode list = actualPayload.get(splitDetypedName);
-                    if (list.isDefined() && propValue.isDefined() && !list.asList().isEmpty()) {
-                        if (list.asList().get(0).getType().equals(ModelType.PROPERTY)) {
-                            value = propBinding.getEntityAdapterForList().fromDMRPropertyList(list.asPropertyList());
-                        } else {
-                            value = propBinding.getEntityAdapterForList().fromDMRList(list.asList());
-                        }
-                    }
-                    else
-                    {
-                        value = new LinkedList();
-                    }
+                    Log.warn("Key property declared, but no key assignment available: " + propBinding);
                 }
+            }
 
-                // invoke the mutator
-                if(value!=null)
-                    mutator.setValue(entity, propBinding.getJavaName(), value);
+            /**
+             * VALUES
+             */
 
-            }
-            catch (RuntimeException e)
+            else
             {
-                //  System.out.println("Error on property binding: '"+propBinding.toString()+"'");
-                //  System.out.println(dmr);
-                throw e;
+                boolean defined = propValue.isDefined();
+                switch (step.type)
+                {
+                    case BindingPlan.BOOLEAN:
+                        value = defined ? propValue.asBoolean() : false;
+                        break;
+                    case BindingPlan.LONG:
+                        // need to make sure to use the proper type otherwise ClassCastExceptions occur down the line (after boxing)
+                        value = defined ? propValue.asLong() : -1L;
+                        break;
+                    case BindingPlan.INTEGER:
+                        value = defined ? propValue.asInt() : -1;
+                        break;
+                    case BindingPlan.DOUBLE:
+                    case BindingPlan.FLOAT:
+                        value = defined ? propValue.asDouble() : -1.0;
+                        break;
+                    case BindingPlan.STRING:
+                        value = defined ? propValue.asString() : "";
+                        break;
+                    case BindingPlan.LIST:
+                        List<ModelNode> items = defined ? propValue.asList() : null;
+                        if (items != null && !items.isEmpty()) {
+                            if (items.get(0).getType().equals(ModelType.PROPERTY)) {
+                                value = propBinding.getEntityAdapterForList().fromDMRPropertyList(propValue.asPropertyList());
+                            } else {
+                                value = propBinding.getEntityAdapterForList().fromDMRList(items);
+                            }
+                        }
+                        else
+                        {
+                            value = new LinkedList();
+                        }
+                        break;
+                    default:
+                        break;
+                }
             }
 
-
+            // invoke the setter
+            if(value!=null)
+                step.setter.invoke(entity, value);
         }
 
         // pass the RBAC meta data along for further Form processing
@@ -324,9 +283,14 @@ public class EntityAdapter<T> {
         return entity;
     }
 
-    private SecurityContext getSecurityContext() {
-        SecurityService securityFacilities = Console.MODULES.getSecurityFramework();
-        return securityFacilities.getSecurityContext();
+    private BindingPlan getBindingPlan() {
+        if(null==bindingPlan)
+        {
+            bindingPlan = metaData.getBindingPlan(getType());
+            if(null==bindingPlan)
+                bindingPlan = BindingPlan.of(metaData.getBeanMetaData(getType()), metaData.getMutator(getType()));
+        }
+        return bindingPlan;
     }
 
     /**
@@ -373,32 +337,26 @@ public class EntityAdapter<T> {
     {
 
         ModelNode operation = new ModelNode();
-        List<PropertyBinding> properties = metaData.getBeanMetaData(getType()).getProperties();
-        Mutator mutator = metaData.getMutator(getType());
 
-        for(PropertyBinding property : properties)
+        for(BindingPlan.Step step : getBindingPlan().getSteps())
         {
-            String[] splitDetypedName = property.getDetypedName().split("/");
-
             /**
              * KEYS
              */
-            //      if(property.isKey()) continue;
+            //      if(step.key) continue;
 
-            Object propertyValue = mutator.getValue(entity, property.getJavaName());
+            Object propertyValue = step.getter.invoke(entity);
 
             /**
              * EXPRESSIONS
              */
-            if(property.doesSupportExpression())
+            if(step.expression)
             {
-                String exprValue = ExpressionAdapter.getExpressionValue(
-                        entity, property.getJavaName()
-                );
+                String exprValue = ExpressionAdapter.getExpressionValue(entity, step.javaName);
 
                 if(exprValue!=null)
                 {
-                    operation.get(splitDetypedName).setExpression(exprValue);
+                    operation.get(step.path).setExpression(exprValue);
                     continue; // expression have precedence over real values
                 }
             }
@@ -409,16 +367,18 @@ public class EntityAdapter<T> {
             if(propertyValue!=null)
             {
                 try {
-                    ModelType modelType = resolveModelType(property.getJavaTypeName());
-                    if ((modelType == ModelType.LIST) && (property.getListType() == PropertyBinding.class)) {
-                        operation.get(splitDetypedName).set(modelType, property.getEntityAdapterForList().fromEntityPropertyList((List) propertyValue));
+                    ModelType modelType = step.modelType;
+                    if (modelType == null) {
+                        throw new RuntimeException("Failed to resolve ModelType for '"+ step.binding.getJavaTypeName()+"'");
+                    } else if ((modelType == ModelType.LIST) && (step.binding.getListType() == PropertyBinding.class)) {
+                        operation.get(step.path).set(modelType, step.binding.getEntityAdapterForList().fromEntityPropertyList((List) propertyValue));
                     } else if (modelType == ModelType.LIST) {
-                        operation.get(splitDetypedName).set(modelType, property.getEntityAdapterForList().fromEntityList((List) propertyValue));
+                        operation.get(step.path).set(modelType, step.binding.getEntityAdapterForList().fromEntityList((List) propertyValue));
                     } else {
-                        operation.get(splitDetypedName).set(modelType, propertyValue);
+                        operation.get(step.path).set(modelType, propertyValue);
                     }
                 } catch (RuntimeException e) {
-                    throw new RuntimeException("Failed to get value "+property.getJavaName(), e);
+                    throw new RuntimeException("Failed to get value "+step.javaName, e);
                 }
             }
         }
@@ -426,29 +386,6 @@ public class EntityAdapter<T> {
         return operation;
     }
 
-    private ModelType resolveModelType(String javaTypeName) {
-
-        ModelType type = null;
-
-        if("java.lang.String".equals(javaTypeName))
-            type = ModelType.STRING;
-        else if("java.lang.Integer".equals(javaTypeName))
-            type = ModelType.INT;
-        else if("java.lang.Long".equals(javaTypeName))
-            type = ModelType.LONG;
-        else if("java.lang.Boolean".equals(javaTypeName))
-            type = ModelType.BOOLEAN;
-        else if("java.lang.Double".equals(javaTypeName))
-            type = ModelType.DOUBLE;
-        else if("java.util.List".equals(javaTypeName)) {
-            type = ModelType.LIST;
-        } else {
-            throw new RuntimeException("Failed to resolve ModelType for '"+ javaTypeName+"'");
-        }
-
-        return type;
-    }
-
     public ModelNode fromBaseTypeList(List<?> baseTypeValues, Class<?> baseType) {
         ModelNode node = new ModelNode();
         if (baseTypeValues.isEmpty()) {
@@ -689,7 +626,7 @@ public class EntityAdapter<T> {
 
         if(model.hasDefined(elementName))
         {
-            List<ModelNode> items = model.get(elementName).asList();
+            List<ModelNode> items = model.getOrNull(elementName).asList();
             for(ModelNode item : items)
                 strings.add(item.asString());
 
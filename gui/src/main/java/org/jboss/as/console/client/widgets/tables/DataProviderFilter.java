@@ -1,8 +1,8 @@
 package org.jboss.as.console.client.widgets.tables;
 
-import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.event.dom.client.KeyUpEvent;
 import com.google.gwt.event.dom.client.KeyUpHandler;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.HorizontalPanel;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.TextBox;
@@ -17,21 +17,46 @@ import java.util.List;
 
 /**
  * <b>Caveat</b>: You need to provide set the data provider list before creating the filter instance.
+ * <p/>
+ * Filters created with an {@link Indexer} build a prefix index of the keys once per {@link #snapshot()},
+ * so a keystroke doesn't need to look at every row. Filters created with a {@link Predicate} apply it to the
+ * rows. In both cases a query which extends the previous one only searches the previous matches, and the
+ * input is debounced.
  *
  * @author Heiko Braun
  * @date 7/31/12
  */
 public class DataProviderFilter<T> {
 
+    private static final int DEBOUNCE_MILLIS = 150;
+
     private ListDataProvider<T> delegate;
     private ArrayList<T> origValues = new ArrayList<T>();
-    private Predicate predicate;
+    private Predicate<T> predicate;
+    private Indexer<T> indexer;
+    private FilterIndex<T> index;
     private TextBox filter;
+    private Timer debounce;
+
+    // the last query and its result
+    private String lastPrefix;
+    private List<T> lastMatches;
 
+    /**
+     * A predicate has to match a subset of its previous matches when the prefix grows,
+     * like any prefix match does.
+     */
     public interface Predicate<T> {
         boolean apply(String prefix, T candiate);
     }
 
+    /**
+     * Provides the keys of an item. An item matches if any of its keys starts with the prefix.
+     */
+    public interface Indexer<T> {
+        String[] keysOf(T candidate);
+    }
+
     /**
      *  initialized the filter by calling {@link #snapshot()}
      * @param delegate
@@ -40,7 +65,18 @@ public class DataProviderFilter<T> {
     public DataProviderFilter(ListDataProvider<T> delegate, Predicate<T> predicate) {
         this.delegate = delegate;
         this.predicate = predicate;
-        this.filter = new TextBox();
+
+        snapshot();
+    }
+
+    /**
+     *  initialized the filter by calling {@link #snapshot()}, which builds the index
+     * @param delegate
+     * @param indexer
+     */
+    public DataProviderFilter(ListDataProvider<T> delegate, Indexer<T> indexer) {
+        this.delegate = delegate;
+        this.indexer = indexer;
 
         snapshot();
     }
@@ -73,7 +109,10 @@ public class DataProviderFilter<T> {
         clearFilter();
 
         // clear input
-        filter.setText("");
+        if(debounce!=null)
+            debounce.cancel();
+        if(filter!=null)
+            filter.setText("");
     }
 
     /**
@@ -84,34 +123,39 @@ public class DataProviderFilter<T> {
         // backup original
         this.origValues.clear();
         this.origValues.addAll(delegate.getList());
+
+        this.index = indexer != null ? new FilterIndex<T>(origValues, indexer) : null;
+        this.lastPrefix = null;
+        this.lastMatches = null;
     }
 
     public Widget asWidget() {
 
-
+        filter = new TextBox();
         filter.setMaxLength(30);
         filter.setVisibleLength(20);
         filter.getElement().setAttribute("style", "width:120px;");
 
+        debounce = new Timer() {
+            @Override
+            public void run() {
+                String prefix = filter.getText();
+
+                if (prefix != null && !prefix.equals("")) {
+                    // filter by prefix
+                    if(!prefix.equals(lastPrefix))
+                        filterByPrefix(prefix);
+                } else if(lastPrefix != null) {
+                    clearFilter();
+                }
+            }
+        };
+
         filter.addKeyUpHandler(new KeyUpHandler() {
             @Override
             public void onKeyUp(KeyUpEvent keyUpEvent) {
-
-                Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
-
-                    @Override
-                    public void execute() {
-                        String prefix = filter.getText();
-
-                        if (prefix != null && !prefix.equals("")) {
-                            // filter by prefix
-                            filterByPrefix(prefix);
-                        } else {
-                            clearFilter();
-                        }
-                    }
-
-                });
+                // filter once the user pauses typing
+                debounce.schedule(DEBOUNCE_MILLIS);
             }
         });
         HorizontalPanel panel = new HorizontalPanel();
@@ -127,13 +171,7 @@ public class DataProviderFilter<T> {
 
         clearSelection();
 
-        final List<T> next  = new ArrayList<T>();
-        for(T item : origValues)
-        {
-            if(predicate.apply(prefix, item))
-                next.add(item);
-        }
-
+        List<T> next = match(prefix);
 
         delegate.getList().clear(); // cannot call setList() as that breaks the sort handler
         delegate.getList().addAll(next);
@@ -141,8 +179,40 @@ public class DataProviderFilter<T> {
 
     }
 
+    /**
+     * @return the snapshot values matching the prefix
+     */
+    List<T> match(String prefix) {
+
+        List<T> next;
+        if(index!=null)
+        {
+            next = index.query(prefix);
+        }
+        else
+        {
+            // a longer prefix only narrows the previous result
+            List<T> candidates = lastPrefix != null && prefix.startsWith(lastPrefix) ?
+                    lastMatches : origValues;
+
+            next = new ArrayList<T>();
+            for(T item : candidates)
+            {
+                if(predicate.apply(prefix, item))
+                    next.add(item);
+            }
+        }
+
+        lastPrefix = prefix;
+        lastMatches = next;
+        return next;
+    }
+
     public void clearFilter() {
 
+        lastPrefix = null;
+        lastMatches = null;
+
         delegate.getList().clear(); // cannot call setList() as that breaks the sort handler
         delegate.getList().addAll(origValues);
         delegate.flush();
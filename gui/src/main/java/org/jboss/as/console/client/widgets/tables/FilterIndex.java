@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.widgets.tables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Prefix index over the keys of a list of items, used by the {@link DataProviderFilter}.
+ * The keys are sorted once per snapshot, a query is a binary search for the range of keys starting
+ * with the prefix. When the prefix grows, the search is narrowed to the range of the previous query.
+ */
+class FilterIndex<T> {
+
+    private final List<T> items;
+    private final String[] keys;
+    private final int[] rows;
+
+    // the range of keys matching the last query
+    private String lastPrefix;
+    private int lastFrom;
+    private int lastTo;
+
+    FilterIndex(List<T> items, DataProviderFilter.Indexer<T> indexer) {
+        this.items = items;
+
+        final List<String> keyList = new ArrayList<String>(items.size());
+        List<Integer> rowList = new ArrayList<Integer>(items.size());
+        for(int row=0; row<items.size(); row++)
+        {
+            String[] itemKeys = indexer.keysOf(items.get(row));
+            if(itemKeys == null) continue;
+            for(String key : itemKeys)
+            {
+                if(key == null) continue;
+                keyList.add(key);
+                rowList.add(row);
+            }
+        }
+
+        Integer[] order = new Integer[keyList.size()];
+        for(int i=0; i<order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return keyList.get(a).compareTo(keyList.get(b));
+            }
+        });
+
+        this.keys = new String[order.length];
+        this.rows = new int[order.length];
+        for(int i=0; i<order.length; i++)
+        {
+            keys[i] = keyList.get(order[i]);
+            rows[i] = rowList.get(order[i]);
+        }
+    }
+
+    /**
+     * @return the items having a key which starts with the prefix, in their original order
+     */
+    List<T> query(String prefix) {
+
+        int from = 0;
+        int to = keys.length;
+        if(lastPrefix != null && prefix.startsWith(lastPrefix))
+        {
+            // narrow the previous range
+            from = lastFrom;
+            to = lastTo;
+        }
+
+        from = lowerBound(prefix, from, to);
+        int end = from;
+        while(end < to && keys[end].startsWith(prefix))
+            end++;
+
+        lastPrefix = prefix;
+        lastFrom = from;
+        lastTo = end;
+
+        if(end == from)
+            return Collections.emptyList();
+
+        List<T> result = new ArrayList<T>(end - from);
+        if(end - from > items.size() / 8)
+        {
+            // large result: mark the rows, cheaper than sorting them
+            boolean[] matched = new boolean[items.size()];
+            for(int i=from; i<end; i++)
+                matched[rows[i]] = true;
+            for(int row=0; row<matched.length; row++)
+            {
+                if(matched[row])
+                    result.add(items.get(row));
+            }
+        }
+        else
+        {
+            // an item might match with several keys
+            int[] matches = new int[end - from];
+            System.arraycopy(rows, from, matches, 0, matches.length);
+            Arrays.sort(matches);
+
+            int previous = -1;
+            for(int row : matches)
+            {
+                if(row != previous)
+                    result.add(items.get(row));
+                previous = row;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    private int lowerBound(String prefix, int from, int to) {
+        int low = from;
+        int high = to;
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if(keys[mid].compareTo(prefix) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.widgets.tables;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.event.dom.client.ScrollEvent;
+import com.google.gwt.event.dom.client.ScrollHandler;
+import com.google.gwt.user.cellview.client.AbstractCellTable;
+import com.google.gwt.user.cellview.client.AbstractPager;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.HTML;
+import com.google.gwt.user.client.ui.ScrollPanel;
+import com.google.gwt.user.client.ui.Widget;
+import com.google.gwt.view.client.HasRows;
+import com.google.gwt.view.client.Range;
+
+/**
+ * A pager which shows the display in a scroll panel of fixed height and renders only the rows around the
+ * scroll position. Spacers above and below the display make the scroll bar cover all rows.
+ * <p/>
+ * The visible range is built in slices: the first slice is rendered right away, the remaining rows of the
+ * viewport are appended in incremental commands. Scrolling restarts the process at the new position.
+ * <p/>
+ * The pager only changes the visible range of the display, so a {@link com.google.gwt.view.client.ListDataProvider}
+ * works as usual:
+ * <pre>
+ *     VirtualScrollPager pager = new VirtualScrollPager();
+ *     pager.setDisplay(table);
+ *     layout.add(pager);    // instead of the table
+ * </pre>
+ */
+public class VirtualScrollPager extends AbstractPager {
+
+    private static final int DEFAULT_HEIGHT = 400;
+    private static final int ESTIMATED_ROW_HEIGHT = 25;
+    private static final int OVERSCAN = 10;
+    private static final int SLICE = 20;
+
+    private final ScrollPanel scroll;
+    private final FlowPanel content;
+    private final HTML topSpacer;
+    private final HTML bottomSpacer;
+    private final int height;
+
+    private int rowHeight = ESTIMATED_ROW_HEIGHT;
+    private boolean updatePending;
+    private int generation;
+
+    public VirtualScrollPager() {
+        this(DEFAULT_HEIGHT);
+    }
+
+    /**
+     * @param height the height of the viewport in pixels
+     */
+    public VirtualScrollPager(int height) {
+        this.height = height;
+
+        topSpacer = new HTML();
+        bottomSpacer = new HTML();
+        content = new FlowPanel();
+        content.add(topSpacer);
+        content.add(bottomSpacer);
+
+        scroll = new ScrollPanel(content);
+        scroll.setHeight(height + "px");
+        scroll.addScrollHandler(new ScrollHandler() {
+            @Override
+            public void onScroll(ScrollEvent event) {
+                scheduleUpdate();
+            }
+        });
+
+        initWidget(scroll);
+    }
+
+    /**
+     * Moves the display into the viewport. The display has to be a widget.
+     */
+    @Override
+    public void setDisplay(HasRows display) {
+        HasRows previous = getDisplay();
+        if(previous instanceof Widget)
+            content.remove((Widget) previous);
+
+        if(display instanceof Widget)
+            content.insert((Widget) display, 1);
+
+        super.setDisplay(display);
+        if(display != null)
+            scheduleUpdate();
+    }
+
+    @Override
+    protected void onRangeOrRowCountChanged() {
+        HasRows display = getDisplay();
+        if(display == null) return;
+
+        Range range = display.getVisibleRange();
+        int rowCount = display.getRowCount();
+        if(range.getStart() > 0 && range.getStart() >= rowCount)
+        {
+            // the rows have been replaced by fewer ones
+            scroll.scrollToTop();
+            scheduleUpdate();
+        }
+        updateSpacers(range, rowCount);
+    }
+
+    private void scheduleUpdate() {
+        if(updatePending) return;
+        updatePending = true;
+        Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                updatePending = false;
+                update();
+            }
+        });
+    }
+
+    private void update() {
+        final HasRows display = getDisplay();
+        if(display == null) return;
+
+        measureRowHeight(display);
+
+        int rowCount = display.getRowCount();
+        int viewportRows = height / rowHeight + 1;
+        final int start = Math.max(0, Math.min(scroll.getVerticalScrollPosition() / rowHeight - OVERSCAN,
+                rowCount - viewportRows - OVERSCAN));
+        final int length = viewportRows + 2 * OVERSCAN;
+
+        // nothing to do as long as the viewport is covered by the current range
+        Range range = display.getVisibleRange();
+        int first = scroll.getVerticalScrollPosition() / rowHeight;
+        if(range.getLength() == length && first >= range.getStart()
+                && first + viewportRows <= range.getStart() + range.getLength())
+            return;
+
+        final int current = ++generation;
+        display.setVisibleRange(start, Math.min(SLICE, length));
+        if(length > SLICE)
+        {
+            Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand() {
+                @Override
+                public boolean execute() {
+                    if(current != generation || getDisplay() != display)
+                        return false;
+
+                    int next = Math.min(length, display.getVisibleRange().getLength() + SLICE);
+                    display.setVisibleRange(start, next);
+                    return next < length;
+                }
+            });
+        }
+    }
+
+    private void updateSpacers(Range range, int rowCount) {
+        int rendered = Math.min(range.getLength(), Math.max(0, rowCount - range.getStart()));
+        int below = Math.max(0, rowCount - range.getStart() - rendered);
+        topSpacer.getElement().getStyle().setHeight(range.getStart() * rowHeight, Style.Unit.PX);
+        bottomSpacer.getElement().getStyle().setHeight(below * rowHeight, Style.Unit.PX);
+    }
+
+    private void measureRowHeight(HasRows display) {
+        if(display instanceof AbstractCellTable && display.getRowCount() > 0)
+        {
+            AbstractCellTable table = (AbstractCellTable) display;
+            if(table.getVisibleItemCount() > 0)
+            {
+                int measured = table.getRowElement(0).getOffsetHeight();
+                if(measured > 0)
+                    rowHeight = measured;
+            }
+        }
+    }
+}
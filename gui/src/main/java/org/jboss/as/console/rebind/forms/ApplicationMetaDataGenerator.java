@@ -30,6 +30,7 @@ import com.google.gwt.user.rebind.SourceWriter;
 import org.jboss.as.console.client.widgets.forms.Address;
 import org.jboss.as.console.client.widgets.forms.AddressBinding;
 import org.jboss.as.console.client.widgets.forms.Binding;
+import org.jboss.as.console.client.widgets.forms.BindingPlan;
 import org.jboss.as.console.client.widgets.forms.FormItem;
 
 import java.io.PrintWriter;
@@ -145,6 +146,7 @@ public class ApplicationMetaDataGenerator extends Generator{
         sourceWriter.println("private static Map<Class<?>, AddressBinding> addressing= new HashMap<Class<?>, AddressBinding>();");
         sourceWriter.println("private static Map<Class<?>, Mutator> mutators = new HashMap<Class<?>, Mutator>();");
         sourceWriter.println("private static Map<Class<?>, EntityFactory> factories = new HashMap<Class<?>, EntityFactory>();");
+        sourceWriter.println("private static Map<Class<?>, BindingPlan> plans = new HashMap<Class<?>, BindingPlan>();");
         sourceWriter.println("private static "+BEAN_FACTORY_NAME+" beanFactory = com.google.gwt.core.client.GWT.create("+BEAN_FACTORY_NAME+".class);");
     }
 
@@ -372,6 +374,12 @@ public class ApplicationMetaDataGenerator extends Generator{
         sourceWriter.outdent();
         sourceWriter.println("}");
 
+        sourceWriter.println("public BindingPlan getBindingPlan(Class<?> type) {");
+        sourceWriter.indent();
+        sourceWriter.println("return plans.get(type);");
+        sourceWriter.outdent();
+        sourceWriter.println("}");
+
         sourceWriter.println("public <T> EntityFactory<T> getFactory(Class<T> type) {");
         sourceWriter.indent();
         sourceWriter.println("return factories.get(type);");
@@ -420,6 +428,12 @@ public class ApplicationMetaDataGenerator extends Generator{
                         sourceWriter.println("Mutator mut_"+idx+" = new Mutator<"+beanTypeClass.getName()+">();");
                         sourceWriter.println("mutators.put("+beanTypeClass.getName()+".class , mut_"+idx+");");
 
+                        // -----------------------------
+                        // BindingPlan
+
+                        sourceWriter.println("BindingPlan plan_"+idx+" = new BindingPlan();");
+                        sourceWriter.println("plans.put("+beanTypeClass.getName()+".class , plan_"+idx+");");
+
                         // -----------------------------
                         // PropertyBinding
 
@@ -458,7 +472,9 @@ public class ApplicationMetaDataGenerator extends Generator{
 
 
                             sourceWriter.println("acceptedValues = " + makeStringArrayString(formDecl.acceptedValues()) + ";");
-                            sourceWriter.println("registry.get("+beanTypeClass.getName()+".class).add(");
+                            sourceWriter.println("{");
+                            sourceWriter.indent();
+                            sourceWriter.println("PropertyBinding binding = ");
                             sourceWriter.indent();
                             sourceWriter.println("new PropertyBinding(\"" + bindDecl.getJavaName() + "\", \"" + bindDecl.getDetypedName() +
                                     "\", \"" + bindDecl.getJavaTypeName() +
@@ -467,28 +483,38 @@ public class ApplicationMetaDataGenerator extends Generator{
                                     ", \"" + formDecl.defaultValue() + "\", label, " +
                                     formDecl.required() + ", \"" + formDecl.formItemTypeForEdit() +
                                     "\", \"" + formDecl.formItemTypeForAdd() + "\", subgroup, tabName, " +
-                                    formDecl.order() + ", acceptedValues)");
+                                    formDecl.order() + ", acceptedValues);");
                             sourceWriter.outdent();
-                            sourceWriter.println(");");
+                            sourceWriter.println("registry.get("+beanTypeClass.getName()+".class).add(binding);");
 
 
                             // create and register setters
-                            sourceWriter.println("mut_"+idx+".register(\"" + bindDecl.getJavaName() + "\", new Setter<"+beanTypeClass.getName()+">() {\n" +
+                            sourceWriter.println("Setter<"+beanTypeClass.getName()+"> setter = new Setter<"+beanTypeClass.getName()+">() {\n" +
                                     "public void invoke("+bindDecl.getBeanClassName()+" entity, Object value) {\n" +
                                     "entity.set"+bindDecl.getPropertyName()+"(("+bindDecl.getJavaTypeName()+")value);\n"+
                                     "}\n"+
-                                    "});\n");
+                                    "};");
+                            sourceWriter.println("mut_"+idx+".register(\"" + bindDecl.getJavaName() + "\", setter);");
 
                             // create and register getters
 
                             String prefix = "get";
                             if(bindDecl.getJavaTypeName().equals("java.lang.Boolean")) prefix = "is";
 
-                            sourceWriter.println("mut_"+idx+".register(\"" + bindDecl.getJavaName() + "\", new Getter<"+beanTypeClass.getName()+">() {\n" +
+                            sourceWriter.println("Getter<"+beanTypeClass.getName()+"> getter = new Getter<"+beanTypeClass.getName()+">() {\n" +
                                     "public Object invoke("+bindDecl.getBeanClassName()+" entity) {\n" +
                                     "   return entity."+prefix+bindDecl.getPropertyName()+"();\n"+
                                     "}\n"+
-                                    "});\n");
+                                    "};");
+                            sourceWriter.println("mut_"+idx+".register(\"" + bindDecl.getJavaName() + "\", getter);");
+
+                            // pre-split path and type code, resolved at compile time
+                            sourceWriter.println("plan_"+idx+".add(binding, " +
+                                    makeStringArrayString(bindDecl.getDetypedName().split("/")) + ", " +
+                                    BindingPlan.typeOf(bindDecl.getJavaTypeName()) + ", setter, getter);");
+
+                            sourceWriter.outdent();
+                            sourceWriter.println("}");
 
                         }
 
@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The servlet 3 parts of the async mode. Kept apart from the {@link XmlHttpProxyServlet}, so that the servlet
+ * still loads in servlet 2.5 containers (i.e. the Jetty of the GWT hosted mode) as long as the async mode is off.
+ */
+class AsyncProxySupport {
+
+    private AsyncProxySupport() {}
+
+    /**
+     * Releases the request thread and proxies the call on the executor.
+     *
+     * @return false if the request doesn't support async processing and has to be processed by the caller
+     */
+    static boolean dispatch(final XmlHttpProxyServlet servlet, final ProxyExecutor executor, long timeout,
+                            String user, HttpServletRequest req, HttpServletResponse res, final String method)
+            throws IOException {
+
+        if (!req.isAsyncSupported()) return false;
+
+        final AsyncContext async = req.startAsync(req, res);
+        final AtomicBoolean done = new AtomicBoolean(false);
+        async.setTimeout(timeout);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                // the call keeps running, but the guarded response discards whatever it writes from now on
+                synchronized (done) {
+                    if (done.compareAndSet(false, true)) {
+                        HttpServletResponse response = (HttpServletResponse) event.getAsyncContext().getResponse();
+                        if (!response.isCommitted()) response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+                        event.getAsyncContext().complete();
+                    }
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {}
+
+            @Override
+            public void onError(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+
+        try {
+            executor.execute(user, new Runnable() {
+                @Override
+                public void run() {
+                    if (done.get()) return;
+                    try {
+                        servlet.process((HttpServletRequest) async.getRequest(),
+                                new GuardedResponse((HttpServletResponse) async.getResponse(), done), method);
+                    } finally {
+                        synchronized (done) {
+                            if (done.compareAndSet(false, true)) async.complete();
+                        }
+                    }
+                }
+            });
+        } catch (ServiceUnavailableException e) {
+            if (done.compareAndSet(false, true)) {
+                res.setHeader("Retry-After", e.getRetryAfter());
+                res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                async.complete();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Once the request has timed out (or completed), the response belongs to the container again:
+     * headers and payload written by a call which is still running are dropped.
+     */
+    private static class GuardedResponse extends HttpServletResponseWrapper {
+
+        private final AtomicBoolean done;
+        private ServletOutputStream out;
+        private PrintWriter writer;
+
+        GuardedResponse(HttpServletResponse response, AtomicBoolean done) {
+            super(response);
+            this.done = done;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                final ServletOutputStream delegate = super.getOutputStream();
+                out = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        synchronized (done) {
+                            if (!done.get()) delegate.write(b);
+                        }
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        synchronized (done) {
+                            if (!done.get()) delegate.write(b, off, len);
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        synchronized (done) {
+                            if (!done.get()) delegate.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        synchronized (done) {
+                            if (!done.get()) delegate.close();
+                        }
+                    }
+                };
+            }
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null)
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            return writer;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            synchronized (done) {
+                if (!done.get()) super.setStatus(sc);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void setStatus(int sc, String sm) {
+            synchronized (done) {
+                if (!done.get()) super.setStatus(sc, sm);
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            synchronized (done) {
+                if (!done.get()) super.sendError(sc);
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            synchronized (done) {
+                if (!done.get()) super.sendError(sc, msg);
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            synchronized (done) {
+                if (!done.get()) super.sendRedirect(location);
+            }
+        }
+
+        @Override
+        public void setContentType(String type) {
+            synchronized (done) {
+                if (!done.get()) super.setContentType(type);
+            }
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            synchronized (done) {
+                if (!done.get()) super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            synchronized (done) {
+                if (!done.get()) super.setCharacterEncoding(charset);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            synchronized (done) {
+                if (!done.get()) super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            synchronized (done) {
+                if (!done.get()) super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            synchronized (done) {
+                if (!done.get()) super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            synchronized (done) {
+                if (!done.get()) super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            synchronized (done) {
+                if (!done.get()) super.setDateHeader(name, date);
+            }
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            synchronized (done) {
+                if (!done.get()) super.addDateHeader(name, date);
+            }
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            synchronized (done) {
+                if (!done.get()) super.addCookie(cookie);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            synchronized (done) {
+                if (!done.get()) super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset() {
+            synchronized (done) {
+                if (!done.get()) super.reset();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            synchronized (done) {
+                if (!done.get()) super.resetBuffer();
+            }
+        }
+    }
+}
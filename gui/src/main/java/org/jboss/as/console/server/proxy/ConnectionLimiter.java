@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Bounds the number of concurrent connections to the management endpoint. It doesn't manage the connections
+ * itself: a permit is held while a request is sent to the endpoint and its response is read.<p/>
+ *
+ * The sockets are kept by the keep-alive cache of {@link java.net.HttpURLConnection}: a connection
+ * goes back to the cache once its response has been read completely and closed, which is what
+ * {@link Streams#drain(java.io.InputStream)} is for. The cache keeps up to <code>http.maxConnections</code>
+ * (default 5) idle sockets per destination. That cache belongs to the JVM, so the limiter leaves it alone: if the
+ * limit is higher, the connections above the cache size are closed after use rather than kept alive.<p/>
+ *
+ * Requests that don't get a permit within the timeout are rejected with a {@link ServiceUnavailableException}.
+ */
+public class ConnectionLimiter {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 16;
+    public static final long DEFAULT_TIMEOUT = 30000;
+
+    /**
+     * Size of the keep-alive cache unless <code>http.maxConnections</code> is set
+     */
+    private static final int DEFAULT_KEEP_ALIVE = 5;
+
+    private static Logger logger = Logger.getLogger(ConnectionLimiter.class.getName());
+
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final long timeout;
+
+    public ConnectionLimiter() {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_TIMEOUT);
+    }
+
+    public ConnectionLimiter(int maxConnections, long timeout) {
+        this.maxConnections = maxConnections;
+        this.timeout = timeout;
+        this.permits = new Semaphore(maxConnections, true);
+
+        int keepAlive = Integer.getInteger("http.maxConnections", DEFAULT_KEEP_ALIVE);
+        if (maxConnections > keepAlive)
+            logger.info("Proxy allows " + maxConnections + " connections, but only " + keepAlive +
+                    " are kept alive (http.maxConnections)");
+    }
+
+    public void acquire() throws IOException {
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS))
+                throw new ServiceUnavailableException(String.valueOf(Math.max(1, timeout / 1000)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(null);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+}
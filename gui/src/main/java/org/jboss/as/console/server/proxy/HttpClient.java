@@ -22,6 +22,7 @@ package org.jboss.as.console.server.proxy;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.HttpRetryException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -40,6 +41,11 @@ import java.util.logging.Logger;
  */
 public class HttpClient {
 
+    /**
+     * Request bodies starting at this size are streamed to the server
+     */
+    public static final int STREAMING_THRESHOLD = 1024 * 1024;
+
     private static Logger logger;
     private String proxyHost = null;
     private int proxyPort = -1;
@@ -249,6 +255,9 @@ public class HttpClient {
     public int getResponseCode() {
         try {
             return this.urlConnection.getResponseCode();
+        } catch (HttpRetryException e) {
+            // authentication challenge on a streamed request
+            return e.responseCode();
         } catch (IOException e) {
             throw new RuntimeException("No response code", e);
         }
@@ -271,7 +280,7 @@ public class HttpClient {
                     HttpClient redirectClient =
                             new HttpClient(proxyHost,proxyPort, urlConnection.getHeaderField("Location"),
                                     headers, urlConnection.getRequestMethod(), callback, authHeader);
-                    redirectClient.getInputStream().close();
+                    Streams.drain(redirectClient.getInputStream());
                 }
             }
             catch (Throwable e)
@@ -325,7 +334,7 @@ public class HttpClient {
                 out.flush();
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            HttpClient.getLogger().severe("Unable to post to " + urlConnection.getURL() + " : " + e);
         }finally {
             if(out!=null)
                 try {
@@ -339,6 +348,44 @@ public class HttpClient {
         return (this.getInputStream());
     }
 
+    /**
+     * Streams the request body to the connection and returns the InputStream.<p/>
+     *
+     * Bodies of at least {@link #STREAMING_THRESHOLD} bytes (i.e. deployments) are not buffered at all,
+     * smaller ones are buffered by the {@link HttpURLConnection} as before.
+     *
+     * @param body the request body
+     * @param contentLength the length of the body or -1 if unknown
+     * @param contentType allows you to set the contentType of the request.
+     * @return InputStream input stream from URLConnection
+     */
+    public InputStream doPost(InputStream body, int contentLength, String contentType) {
+        this.urlConnection.setDoOutput(true);
+        if (contentType != null) this.urlConnection.setRequestProperty( "Content-type", contentType );
+        if (contentLength >= STREAMING_THRESHOLD) this.urlConnection.setFixedLengthStreamingMode(contentLength);
+
+        OutputStream out = null;
+        try {
+            out = this.getOutputStream();
+            if(out!=null)
+            {
+                Streams.pipe(body, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            HttpClient.getLogger().severe("Unable to post to " + urlConnection.getURL() + " : " + e);
+        }finally {
+            if(out!=null)
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    //
+                }
+        }
+
+        return (this.getInputStream());
+    }
+
     public String getContentEncoding() {
         if (this.urlConnection == null) return null;
         return (this.urlConnection.getContentEncoding());
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes the proxied calls of the async mode of the {@link XmlHttpProxyServlet}.<p/>
+ *
+ * The number of threads is fixed and every user can only occupy a limited number of them: further calls of the
+ * same user wait until one of the user's calls has finished, so a single user running long operations (deployments,
+ * reload) can't block everybody else. Calls are rejected with a {@link ServiceUnavailableException} once the
+ * number of waiting calls exceeds the queue size.
+ */
+public class ProxyExecutor implements ProxyExecutorMBean {
+
+    public static final int DEFAULT_MAX_THREADS = 8;
+    public static final int DEFAULT_MAX_QUEUE = 100;
+    public static final int DEFAULT_USER_LIMIT = 4;
+
+    private static Logger logger = Logger.getLogger(ProxyExecutor.class.getName());
+
+    private final int maxThreads;
+    private final int maxQueue;
+    private final int userLimit;
+    private final ThreadPoolExecutor executor;
+
+    // guarded by this
+    private final Map<String, UserCalls> users = new HashMap<String, UserCalls>();
+    private int waiting = 0;
+    private long submitted = 0;
+    private long rejected = 0;
+    private long completed = 0;
+    private long queueTime = 0;
+    private long upstreamTime = 0;
+    private long maxUpstreamTime = 0;
+
+    private ObjectName objectName = null;
+
+    public ProxyExecutor(final String name, int maxThreads, int maxQueue, int userLimit) {
+        this.maxThreads = maxThreads;
+        this.maxQueue = maxQueue;
+        this.userLimit = userLimit;
+
+        // unbounded, since admission is controlled by execute()
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "console-proxy-" + name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Executes the call as soon as there is a thread available and the user is below its limit.
+     *
+     * @throws ServiceUnavailableException if too many calls are waiting already
+     */
+    public void execute(String user, Runnable call) throws ServiceUnavailableException {
+        Call next = new Call(user, call);
+        synchronized (this) {
+            if (waiting >= maxQueue) {
+                rejected++;
+                throw new ServiceUnavailableException("2");
+            }
+
+            UserCalls calls = users.get(user);
+            if (calls == null) {
+                calls = new UserCalls();
+                users.put(user, calls);
+            }
+
+            submitted++;
+            waiting++;
+            if (calls.running < userLimit) {
+                calls.running++;
+                dispatch(next);
+            } else {
+                calls.pending.add(next);
+            }
+        }
+    }
+
+    // called while holding the lock
+    private void dispatch(Call call) {
+        try {
+            executor.execute(call);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            logger.warning("Proxy call of " + call.user + " rejected: " + e.getMessage());
+        }
+    }
+
+    private synchronized void onStart(Call call, long now) {
+        waiting--;
+        queueTime += now - call.created;
+    }
+
+    private synchronized void onFinish(Call call, long duration) {
+        completed++;
+        upstreamTime += duration;
+        maxUpstreamTime = Math.max(maxUpstreamTime, duration);
+
+        UserCalls calls = users.get(call.user);
+        calls.running--;
+        Call next = calls.pending.poll();
+        if (next != null) {
+            calls.running++;
+            dispatch(next);
+        } else if (calls.running == 0) {
+            users.remove(call.user);
+        }
+    }
+
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName candidate = new ObjectName("jboss.as.console:type=proxy,name=" + ObjectName.quote(name));
+            if (!server.isRegistered(candidate)) {
+                server.registerMBean(this, candidate);
+                objectName = candidate;
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to register proxy metrics for " + name, e);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception e) {
+                // ignore
+            }
+            objectName = null;
+        }
+    }
+
+    /**
+     * Waits for the calls which are still running after {@link #shutdown()} to finish.
+     *
+     * @return false if the timeout elapsed before
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    @Override
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    @Override
+    public int getUserLimit() {
+        return userLimit;
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return waiting;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public synchronized long getSubmitted() {
+        return submitted;
+    }
+
+    @Override
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    @Override
+    public synchronized double getMeanQueueTime() {
+        long started = submitted - waiting;
+        return started > 0 ? (double) queueTime / started : 0;
+    }
+
+    @Override
+    public synchronized double getMeanUpstreamLatency() {
+        return completed > 0 ? (double) upstreamTime / completed : 0;
+    }
+
+    @Override
+    public synchronized long getMaxUpstreamLatency() {
+        return maxUpstreamTime;
+    }
+
+    @Override
+    public synchronized void resetStatistics() {
+        submitted = waiting;
+        rejected = 0;
+        completed = 0;
+        queueTime = 0;
+        upstreamTime = 0;
+        maxUpstreamTime = 0;
+    }
+
+    private static class UserCalls {
+        int running = 0;
+        LinkedList<Call> pending = new LinkedList<Call>();
+    }
+
+    private class Call implements Runnable {
+        final String user;
+        final Runnable delegate;
+        final long created = System.currentTimeMillis();
+
+        Call(String user, Runnable delegate) {
+            this.user = user;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long start = System.currentTimeMillis();
+            onStart(this, start);
+            try {
+                delegate.run();
+            } catch (Throwable t) {
+                logger.log(Level.SEVERE, "Proxy call of " + user + " failed", t);
+            } finally {
+                onFinish(this, System.currentTimeMillis() - start);
+            }
+        }
+    }
+}
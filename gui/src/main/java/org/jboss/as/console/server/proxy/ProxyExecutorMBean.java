@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+/**
+ * JMX view of the {@link ProxyExecutor}, registered as
+ * <code>jboss.as.console:type=proxy,name=&lt;servlet name&gt;</code>
+ */
+public interface ProxyExecutorMBean {
+
+    int getMaxThreads();
+
+    int getMaxQueue();
+
+    int getUserLimit();
+
+    /**
+     * @return the number of calls waiting for a thread, including the ones held back by the user limit
+     */
+    int getQueueDepth();
+
+    int getActiveCount();
+
+    long getSubmitted();
+
+    long getRejected();
+
+    long getCompleted();
+
+    /**
+     * @return the mean time (ms) calls waited for a thread
+     */
+    double getMeanQueueTime();
+
+    /**
+     * @return the mean duration (ms) of the proxied calls, from the request to the management endpoint
+     * until the response has been passed on
+     */
+    double getMeanUpstreamLatency();
+
+    long getMaxUpstreamLatency();
+
+    void resetStatistics();
+}
@@ -25,7 +25,10 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -55,22 +58,19 @@ public class XmlHttpProxy {
     int proxyPort = -1;
     private Object config;
     private static String USAGE = "Usage:  -url service_URL  -id service_key [-url or -id required] -xslurl xsl_url [optional] -format json|xml [optional] -callback[optional] -config [optional] -resources base_directory_containing XSL stylesheets [optional]";
-    private String authHeader;
+    // one instance serves concurrent requests
+    private final ThreadLocal<String> authHeader = new ThreadLocal<String>();
+    private ConnectionLimiter limiter = null;
 
     public XmlHttpProxy() {}
 
-    private String contentType = "application/json";
-
     private Map<String, Cookie> cookies = new HashMap<String, Cookie>();
 
-    int status = -1;
-
-    public String getContentType() {
-        return contentType;
-    }
-
-    public int getStatus() {
-        return status;
+    /**
+     * Bounds the number of connections to the service. Without a limiter the number of connections is unbounded.
+     */
+    public void setConnectionLimiter(ConnectionLimiter limiter) {
+        this.limiter = limiter;
     }
 
     public interface CookieCallback
@@ -78,6 +78,27 @@ public class XmlHttpProxy {
         Map<String, Cookie> getCookies();
     }
 
+    /**
+     * An output stream which is told about the status and content type of the proxied response
+     * before the payload is written, i.e. before the response is committed. Binary payloads
+     * can only be interpreted by the client if the content type is passed along unchanged.
+     */
+    public static abstract class ResponseOutputStream extends FilterOutputStream
+    {
+        public ResponseOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        public abstract void onResponseHeaders(int status, String contentType);
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+        }
+    }
+
     public XmlHttpProxy(String proxyHost, int proxyPort) {
         this.proxyHost = proxyHost;
         this.proxyPort = proxyPort;
@@ -110,7 +131,7 @@ public class XmlHttpProxy {
                                String method,
                                String userName,
                                String password, String authHeader) throws IOException, MalformedURLException {
-        this.authHeader = authHeader;
+        this.authHeader.set(authHeader);
         doProcess(urlString, out, xslInputStream, paramsMap, headers,method, null,null, userName,password);
     }
     /**
@@ -131,10 +152,31 @@ public class XmlHttpProxy {
                        String postContentType,
                        String userName,
                        String password, String authHeader) throws IOException, MalformedURLException {
-        this.authHeader = authHeader;
+        this.authHeader.set(authHeader);
         doProcess(urlString, out, xslInputStream, paramsMap, headers, XmlHttpProxy.POST, postData, postContentType, userName, password);
     }
 
+    /**
+     * Same as {@link #doPost(String, java.io.OutputStream, java.io.InputStream, java.util.Map, java.util.Map, byte[], String, String, String, String)},
+     * but streams the body instead of buffering it first.
+     *
+     * @param postData - the request body
+     * @param contentLength - the length of the request body or -1 if unknown
+     */
+    public void doPost(String urlString,
+                       OutputStream out,
+                       InputStream xslInputStream,
+                       Map paramsMap,
+                       Map headers,
+                       InputStream postData,
+                       int contentLength,
+                       String postContentType,
+                       String userName,
+                       String password, String authHeader) throws IOException, MalformedURLException {
+        this.authHeader.set(authHeader);
+        doProcess(urlString, out, xslInputStream, paramsMap, headers, XmlHttpProxy.POST, postData, contentLength, postContentType, userName, password);
+    }
+
     /**
      * This method will go out and make the call and it will apply an XSLT Transformation with the
      * set of parameters provided.
@@ -160,6 +202,110 @@ public class XmlHttpProxy {
                           String userName,
                           String password) throws IOException, MalformedURLException {
 
+        doProcess(urlString, out, xslInputStream, paramsMap, headers, method,
+                postData != null ? new ByteArrayInputStream(postData) : null,
+                postData != null ? postData.length : -1, postContentType, userName, password);
+    }
+
+    /**
+     * @param postData - the request body. A doPost will be used if this is parameter is not null.
+     * @param contentLength - the length of the request body or -1 if unknown
+     * @see #doProcess(String, java.io.OutputStream, java.io.InputStream, java.util.Map, java.util.Map, String, byte[], String, String, String)
+     */
+    public void doProcess(String urlString,
+                          OutputStream out,
+                          InputStream xslInputStream,
+                          Map paramsMap,
+                          Map headers,
+                          String method,
+                          InputStream postData,
+                          int contentLength,
+                          String postContentType,
+                          String userName,
+                          String password) throws IOException, MalformedURLException {
+
+        if (limiter == null) {
+            exchange(urlString, out, xslInputStream, paramsMap, headers, method, postData, contentLength,
+                    postContentType, userName, password);
+            return;
+        }
+
+        // The permit only covers the exchange with the service, a slow client must not hold it: small bodies
+        // are read before (the connection would buffer them anyway) and the response is buffered until it has
+        // been read completely. Larger bodies, i.e. deployments, are still streamed.
+        if (postData != null && contentLength >= 0 && contentLength < HttpClient.STREAMING_THRESHOLD) {
+            postData = new ByteArrayInputStream(readBody(postData, contentLength));
+        }
+        BufferedResponse response = new BufferedResponse();
+
+        limiter.acquire();
+        try {
+            exchange(urlString, response, xslInputStream, paramsMap, headers, method, postData, contentLength,
+                    postContentType, userName, password);
+        } finally {
+            limiter.release();
+        }
+        response.writeTo(out);
+    }
+
+    private static byte[] readBody(InputStream in, int contentLength) throws IOException {
+        byte[] body = new byte[contentLength];
+        int offset = 0;
+        while (offset < contentLength) {
+            int read = in.read(body, offset, contentLength - offset);
+            if (read == -1)
+                throw new EOFException("Request body ended after " + offset + " of " + contentLength + " bytes");
+            offset += read;
+        }
+        return body;
+    }
+
+    /**
+     * Keeps the proxied response until the connection to the service has been given back.
+     */
+    static class BufferedResponse extends ResponseOutputStream
+    {
+        private int status = -1;
+        private String contentType;
+
+        BufferedResponse()
+        {
+            super(new ByteArrayOutputStream());
+        }
+
+        @Override
+        public void onResponseHeaders(int status, String contentType)
+        {
+            this.status = status;
+            this.contentType = contentType;
+        }
+
+        void writeTo(OutputStream target) throws IOException
+        {
+            if (status != -1 && target instanceof ResponseOutputStream) {
+                ((ResponseOutputStream)target).onResponseHeaders(status, contentType);
+            }
+            try {
+                ((ByteArrayOutputStream)out).writeTo(target);
+                target.flush();
+            } finally {
+                target.close();
+            }
+        }
+    }
+
+    private void exchange(String urlString,
+                          OutputStream out,
+                          InputStream xslInputStream,
+                          Map paramsMap,
+                          Map headers,
+                          String method,
+                          InputStream postData,
+                          int contentLength,
+                          String postContentType,
+                          String userName,
+                          String password) throws IOException, MalformedURLException {
+
         if (paramsMap == null) {
             paramsMap = new HashMap();
         }
@@ -189,14 +335,14 @@ public class XmlHttpProxy {
         }
         else
         {
-            httpclient = new HttpClient(proxyHost, proxyPort, urlString, headers, method, callback, authHeader);
+            httpclient = new HttpClient(proxyHost, proxyPort, urlString, headers, method, callback, authHeader.get());
         }
 
         // post data determines whether we are going to do a get or a post
         if (postData == null) {
             in = httpclient.getInputStream();
         } else {
-            in = httpclient.doPost(postData, postContentType);
+            in = httpclient.doPost(postData, contentLength, postContentType);
         }
 
         // Set-Cookie header
@@ -250,6 +396,12 @@ public class XmlHttpProxy {
 
         if(responseCode != 200)
         {
+            if(401== responseCode || 403==responseCode || 307==responseCode || 503==responseCode)
+            {
+                // the body is not used, but has to be consumed to reuse the connection
+                Streams.drain(in);
+            }
+
             if(401== responseCode || 403==responseCode)
             {
                 // authentication required
@@ -300,25 +452,22 @@ public class XmlHttpProxy {
                 ce = "UTF-8";
             }
         }
-        // get the content type
-        this.contentType = httpclient.getContentType();
-        this.status = httpclient.getResponseCode();
+        // get the content type: local, since one instance serves concurrent requests
+        String contentType = httpclient.getContentType();
+        int status = httpclient.getResponseCode();
 
         // write out the content type
         //http://www.ietf.org/rfc/rfc4627.txt
+        if (out instanceof ResponseOutputStream) {
+            ((ResponseOutputStream)out).onResponseHeaders(status, contentType);
+        }
 
         try {
 
             // response stream
 
-            byte[] buffer = new byte[1024];
-            int read = 0;
             if (xslInputStream == null) {
-                while (true) {
-                    read = in.read(buffer);
-                    if (read <= 0) break;
-                    out.write(buffer, 0, read );
-                }
+                if (in != null) Streams.pipe(in, out);
             } else {
                 transform(in, xslInputStream, paramsMap, out, ce);
             }
@@ -27,8 +27,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -73,6 +71,14 @@ import java.util.logging.Logger;
  *
  * <p/>
  *
+ * Async mode (servlet 3 containers, requires <code>&lt;async-supported>true&lt;/async-supported></code>):
+ * the request thread is released while the call is proxied by a {@link ProxyExecutor} with
+ * a fixed number of threads and a limit per user. Configured by the init params
+ * <code>async=true</code>, <code>async.threads</code>, <code>async.queue</code>, <code>async.userLimit</code>
+ * and <code>async.timeout</code> (ms). See {@link ProxyExecutorMBean} for the metrics.
+ *
+ * <p/>
+ *
  * gwt-proxy.properties:<br>
  * <pre>
  *    service.id=domain-api
@@ -91,6 +97,16 @@ public class XmlHttpProxyServlet extends HttpServlet
     private static String XHP_LAST_MODIFIED = "xhp_last_modified_key";
     private static String DEFAULT_CONFIG = "gwt-proxy.properties";
 
+    /**
+     * Shared by all proxy servlets of the web application
+     */
+    private static String XHP_CONNECTION_LIMITER = "xhp_connection_limiter_key";
+
+    /**
+     * The configuration is checked for updates at most once within this interval (ms)
+     */
+    private static long CONFIG_CHECK_INTERVAL = 5000;
+
     private static boolean allowXDomain = false;
     private static boolean requireSession = false;
     private static boolean createSession = false;
@@ -99,7 +115,8 @@ public class XmlHttpProxyServlet extends HttpServlet
     private Logger logger = null;
     private XmlHttpProxy xhp = null;
     private ServletContext ctx;
-    private List<Map<String,Object>> services = null;
+    private volatile List<Map<String,Object>> services = null;
+    private volatile long nextConfigCheck = 0;
     private String resourcesDir = "/resources/";
     private String classpathResourcesDir = "/META-INF/resources/";
     private String headerToken = "jmaki-";
@@ -110,7 +127,8 @@ public class XmlHttpProxyServlet extends HttpServlet
 
     private static String setCookie;
     private String configResource = null;
-    private String authHeader;
+    private ProxyExecutor executor = null;
+    private long asyncTimeout = 0;
 
     public XmlHttpProxyServlet() {
         if (rDebug) {
@@ -185,6 +203,36 @@ public class XmlHttpProxyServlet extends HttpServlet
             xhp = new XmlHttpProxy();
         }
 
+        // bounded connections to the service, shared by all instances
+        synchronized (ctx) {
+            ConnectionLimiter limiter = (ConnectionLimiter)ctx.getAttribute(XHP_CONNECTION_LIMITER);
+            if (limiter == null) {
+                int maxConnections = ConnectionLimiter.DEFAULT_MAX_CONNECTIONS;
+                String maxConnectionsString = ctx.getInitParameter("proxyMaxConnections");
+                if (maxConnectionsString != null) {
+                    try {
+                        maxConnections = Integer.parseInt(maxConnectionsString);
+                    } catch (NumberFormatException nfe) {
+                        throw new ServletException("XmlHttpProxyServlet: intialization error. The proxyMaxConnections must be a number");
+                    }
+                }
+                limiter = new ConnectionLimiter(maxConnections, ConnectionLimiter.DEFAULT_TIMEOUT);
+                ctx.setAttribute(XHP_CONNECTION_LIMITER, limiter);
+            }
+            xhp.setConnectionLimiter(limiter);
+        }
+
+        // async mode: proxied calls don't hold a request thread
+        if ("true".equals(config.getInitParameter("async"))) {
+            executor = new ProxyExecutor(config.getServletName(),
+                    intParameter(config, "async.threads", ProxyExecutor.DEFAULT_MAX_THREADS),
+                    intParameter(config, "async.queue", ProxyExecutor.DEFAULT_MAX_QUEUE),
+                    intParameter(config, "async.userLimit", ProxyExecutor.DEFAULT_USER_LIMIT));
+            executor.register(config.getServletName());
+            asyncTimeout = intParameter(config, "async.timeout", 10 * 60 * 1000);
+            getLogger().info("XmlHttpProxyServlet: intialization. Async mode enabled.");
+        }
+
         // config override
         String servletName = config.getServletName();
         String configName = config.getInitParameter("config.name");
@@ -192,9 +240,28 @@ public class XmlHttpProxyServlet extends HttpServlet
         //System.out.println("Configure "+servletName + " through "+configResource);
     }
 
+    private static int intParameter(ServletConfig config, String name, int defaultValue) throws ServletException {
+        String value = config.getInitParameter(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new ServletException("XmlHttpProxyServlet: intialization error. The " + name + " must be a number");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        super.destroy();
+    }
+
     private void getServices(HttpServletResponse res)
     {
-        services = new ArrayList<Map<String,Object>>();
+        List<Map<String,Object>> services = new ArrayList<Map<String,Object>>();
 
         InputStream is = XmlHttpProxyServlet.class.getClassLoader()
                 .getResourceAsStream(configResource);
@@ -209,6 +276,7 @@ public class XmlHttpProxyServlet extends HttpServlet
             serviceConfig.put(ProxyConfig.URL, bundle.getString("service.url"));
             serviceConfig.put(ProxyConfig.PASSTHROUGH, Boolean.valueOf(bundle.getString("service.passthrough")));
             services.add(serviceConfig);
+            this.services = services;
 
         } catch (IOException e) {
             throw new RuntimeException("Failed to load proxy configuration");
@@ -233,31 +301,45 @@ public class XmlHttpProxyServlet extends HttpServlet
         doProcess(req,res, XmlHttpProxy.PUT);
     }
 
-    public void doProcess(HttpServletRequest req, HttpServletResponse res, String method)
+    public void doProcess(HttpServletRequest req, final HttpServletResponse res, String method)
     {
+        if (executor != null)
+        {
+            try
+            {
+                if (AsyncProxySupport.dispatch(this, executor, asyncTimeout, userOf(req), req, res, method))
+                    return;
+            }
+            catch (Exception ex)
+            {
+                getLogger().severe("XmlHttpProxyServlet: failed to process request asynchronously: " + ex);
+                res.setStatus(500);
+                return;
+            }
+        }
+        process(req, res, method);
+    }
 
-        boolean isPost = XmlHttpProxy.POST.equals(method);
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        byte[] bodyContent = null;
-
-        OutputStream out = null;
-        PrintWriter writer = null;
+    /**
+     * Calls of the same user are subject to the user limit of the async mode. Only identities established by the
+     * container count: the credentials passed through to the management endpoint are supplied by the client and
+     * haven't been verified yet, so anonymous calls are limited per session or address.
+     */
+    private String userOf(HttpServletRequest req)
+    {
+        if (req.getUserPrincipal() != null) return req.getUserPrincipal().getName();
 
-        try {
+        HttpSession session = req.getSession(false);
+        return session != null ? session.getId() : req.getRemoteAddr();
+    }
 
-            BufferedInputStream in = new BufferedInputStream(req.getInputStream());
-            int next = in.read();
-            while (next > -1) {
-                bos.write(next);
-                next = in.read();
-            }
+    void process(HttpServletRequest req, final HttpServletResponse res, String method)
+    {
 
-            bodyContent = bos.toByteArray();
+        boolean isPost = XmlHttpProxy.POST.equals(method);
 
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        OutputStream out = null;
+        PrintWriter writer = null;
 
         try
         {
@@ -279,7 +361,7 @@ public class XmlHttpProxyServlet extends HttpServlet
                 }
             }
             // check if the services have been loaded or if they need to be reloaded
-            if (services == null || configUpdated()) {
+            if (services == null || configCheckDue() && configUpdated()) {
                 getServices(res);
             }
             String urlString = null;
@@ -297,7 +379,7 @@ public class XmlHttpProxyServlet extends HttpServlet
             }
             // get the headers to pass through
             Map headers = null;
-            authHeader = null;
+            String authHeader = null;
 
             // Forward all request headers starting with the header token jmaki-
             // and chop off the jmaki-
@@ -326,11 +408,12 @@ public class XmlHttpProxyServlet extends HttpServlet
                     if (headers == null) headers = new HashMap();
 
                     String value = "";
-                    // handle multi-value headers
+                    // handle multi-value headers: media ranges are separated by ',' since
+                    // ';' separates the parameters (i.e. "application/dmr-encoded;q=0.9")
                     Enumeration vnum = req.getHeaders(name);
                     while (vnum.hasMoreElements()) {
                         value += (String)vnum.nextElement();
-                        if (vnum.hasMoreElements()) value += ";";
+                        if (vnum.hasMoreElements()) value += ",";
                     }
                     headers.put(name,value);
                 }
@@ -469,7 +552,16 @@ public class XmlHttpProxyServlet extends HttpServlet
                 urlString = processURL(urlString, req, res);
             }
 
-            out = res.getOutputStream();
+            // status and content type have to be set before the (binary) payload commits the response
+            out = new XmlHttpProxy.ResponseOutputStream(res.getOutputStream())
+            {
+                @Override
+                public void onResponseHeaders(int status, String contentType)
+                {
+                    res.setStatus(status);
+                    if (contentType != null) res.setContentType(contentType);
+                }
+            };
 
             if (!isPost)
             {
@@ -477,14 +569,11 @@ public class XmlHttpProxyServlet extends HttpServlet
             }
             else
             {
-                if (bodyContent == null)
-                    getLogger().info("XmlHttpProxyServlet attempting to post to url " + urlString + " with no body content");
-                xhp.doPost(urlString, out, xslInputStream, paramsMap, headers, bodyContent, req.getContentType(), userName, password, authHeader);
+                // the body is streamed to the service rather than being read upfront
+                xhp.doPost(urlString, out, xslInputStream, paramsMap, headers, req.getInputStream(),
+                        req.getContentLength(), req.getContentType(), userName, password, authHeader);
             }
 
-            res.setContentType(xhp.getContentType());
-            res.setStatus(xhp.getStatus());
-
         }
         catch (Exception iox)
         {
@@ -565,6 +654,16 @@ public class XmlHttpProxyServlet extends HttpServlet
         return serviceURL;
     }
 
+    /**
+     * The parsed configuration is cached: looking up the configuration file on every request is too expensive.
+     */
+    private boolean configCheckDue() {
+        long now = System.currentTimeMillis();
+        if (now < nextConfigCheck) return false;
+        nextConfigCheck = now + CONFIG_CHECK_INTERVAL;
+        return true;
+    }
+
     /**
      * Check to see if the configuration file has been updated so that it may be reloaded.
      */
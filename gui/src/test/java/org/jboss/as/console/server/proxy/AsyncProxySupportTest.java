@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs asynchronous calls against a fake container: the response records what it receives and the test fires
+ * the timeout of the async context itself. The proxied call is held until the test lets it write its response.
+ */
+public class AsyncProxySupportTest {
+
+    private static final long TIMEOUT = 10;
+
+    private final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<AsyncListener>();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private AsyncContext async;
+    private ProxyExecutor executor;
+
+    private final XmlHttpProxyServlet servlet = new XmlHttpProxyServlet() {
+        @Override
+        void process(HttpServletRequest req, HttpServletResponse res, String method) {
+            started.countDown();
+            try {
+                proceed.await();
+                res.setStatus(HttpServletResponse.SC_OK);
+                res.setContentType("application/dmr-encoded");
+                res.setContentLength(7);
+                res.setIntHeader("X-Count", 1);
+                res.setDateHeader("Expires", 0);
+                res.addCookie(new Cookie("JSESSIONID", "late"));
+                res.getOutputStream().write("payload".getBytes());
+                res.getOutputStream().flush();
+                res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "late");
+                res.sendRedirect("/console");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                finished.countDown();
+            }
+        }
+    };
+
+    @Before
+    public void setUp() {
+        response = fake(HttpServletResponse.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getOutputStream".equals(name)) {
+                    return new ServletOutputStream() {
+                        @Override
+                        public void write(int b) {
+                            payload.write(b);
+                        }
+                    };
+                }
+                if ("getCharacterEncoding".equals(name)) return "UTF-8";
+                received.add(name + (args != null ? Arrays.toString(args) : ""));
+                return defaultValue(method.getReturnType());
+            }
+        });
+        async = fake(AsyncContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getRequest".equals(name)) return request;
+                if ("getResponse".equals(name)) return response;
+                if ("addListener".equals(name)) listeners.add((AsyncListener) args[0]);
+                if ("complete".equals(name)) completions.incrementAndGet();
+                return defaultValue(method.getReturnType());
+            }
+        });
+        request = fake(HttpServletRequest.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("isAsyncSupported".equals(name)) return true;
+                if ("startAsync".equals(name)) return async;
+                return defaultValue(method.getReturnType());
+            }
+        });
+        executor = new ProxyExecutor("test", 1, 1, 1);
+    }
+
+    @Test
+    public void completeInTime() throws Exception {
+        assertTrue(AsyncProxySupport.dispatch(servlet, executor, 1000, "admin", request, response, XmlHttpProxy.POST));
+        proceed.countDown();
+        awaitCall();
+
+        assertTrue(received.contains("setStatus[200]"));
+        assertTrue(received.contains("sendError[500, late]"));
+        assertEquals("payload", payload.toString());
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    public void discardAfterTimeout() throws Exception {
+        assertTrue(AsyncProxySupport.dispatch(servlet, executor, 1000, "admin", request, response, XmlHttpProxy.POST));
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+        // the container gives up while the call is still running
+        for (AsyncListener listener : listeners) {
+            listener.onTimeout(new AsyncEvent(async));
+        }
+        assertEquals(Arrays.asList("isCommitted", "sendError[504]"), received);
+        assertEquals(1, completions.get());
+
+        // whatever the call writes from now on is dropped
+        proceed.countDown();
+        awaitCall();
+        assertEquals(Arrays.asList("isCommitted", "sendError[504]"), received);
+        assertEquals(0, payload.size());
+        assertEquals(1, completions.get());
+    }
+
+    private void awaitCall() throws InterruptedException {
+        assertTrue(finished.await(TIMEOUT, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    private static <T> T fake(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(AsyncProxySupportTest.class.getClassLoader(),
+                new Class[] {type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
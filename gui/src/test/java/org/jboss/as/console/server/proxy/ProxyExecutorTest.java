@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.server.proxy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs proxied calls against a stub management endpoint, which holds every call until the test releases it
+ * and tracks the number of concurrent calls per user. Results are collected through futures, so all assertions
+ * run on the test thread. The timeouts only keep a broken executor from hanging the build.
+ */
+public class ProxyExecutorTest {
+
+    private static final long TIMEOUT = 10;
+
+    private HttpServer server;
+    private String url;
+    private final BlockingQueue<String> arrivals = new LinkedBlockingQueue<String>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger concurrentAdmin = new AtomicInteger();
+    private final AtomicInteger maxConcurrentAdmin = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/management", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String user = exchange.getRequestHeaders().getFirst("Authorization");
+                boolean admin = "admin".equals(user);
+                if (admin) {
+                    int current = concurrentAdmin.incrementAndGet();
+                    synchronized (maxConcurrentAdmin) {
+                        maxConcurrentAdmin.set(Math.max(maxConcurrentAdmin.get(), current));
+                    }
+                }
+                try {
+                    InputStream in = exchange.getRequestBody();
+                    while (in.read() != -1) {
+                        // consume
+                    }
+                    arrivals.add(user);
+                    release.await();
+                    byte[] body = "{\"outcome\" => \"success\"}".getBytes();
+                    exchange.getResponseHeaders().add("Content-Type", "application/dmr-encoded");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (admin) concurrentAdmin.decrementAndGet();
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/management";
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void userLimit() throws Exception {
+        ProxyExecutor executor = new ProxyExecutor("test", 4, 100, 2);
+        XmlHttpProxy proxy = new XmlHttpProxy();
+        proxy.setConnectionLimiter(new ConnectionLimiter(8, 5000));
+
+        List<FutureTask<Integer>> calls = new ArrayList<FutureTask<Integer>>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(execute(executor, proxy, "admin"));
+        }
+        calls.add(execute(executor, proxy, "operator"));
+
+        // two calls of admin are held by the endpoint, the others wait for them: operator is not blocked
+        List<String> held = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            String user = arrivals.poll(TIMEOUT, TimeUnit.SECONDS);
+            assertNotNull("call " + (i + 1) + " didn't reach the endpoint", user);
+            held.add(user);
+        }
+        assertTrue(held.contains("operator"));
+        assertEquals(2, maxConcurrentAdmin.get());
+
+        release.countDown();
+        for (FutureTask<Integer> call : calls) {
+            assertEquals(200, call.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+        }
+        assertEquals(2, maxConcurrentAdmin.get());
+
+        // the statistics are updated after the call has returned its result
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(7, executor.getCompleted());
+        assertEquals(7, executor.getSubmitted());
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void rejectWhenQueueIsFull() throws Exception {
+        ProxyExecutor executor = new ProxyExecutor("test", 1, 2, 1);
+        XmlHttpProxy proxy = new XmlHttpProxy();
+
+        List<FutureTask<Integer>> calls = new ArrayList<FutureTask<Integer>>();
+        calls.add(execute(executor, proxy, "admin"));
+        assertNotNull(arrivals.poll(TIMEOUT, TimeUnit.SECONDS));
+
+        // one running, two waiting
+        calls.add(execute(executor, proxy, "admin"));
+        calls.add(execute(executor, proxy, "admin"));
+        try {
+            execute(executor, proxy, "admin");
+            fail("ServiceUnavailableException expected");
+        } catch (ServiceUnavailableException e) {
+            assertEquals(1, executor.getRejected());
+        }
+
+        release.countDown();
+        for (FutureTask<Integer> call : calls) {
+            assertEquals(200, call.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void slowClientDoesNotHoldAConnection() throws Exception {
+        final XmlHttpProxy proxy = new XmlHttpProxy();
+        proxy.setConnectionLimiter(new ConnectionLimiter(1, 1000));
+        release.countDown();
+
+        // the first client doesn't take its response until the second call is done
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch taken = new CountDownLatch(1);
+        FutureTask<Integer> slow = new FutureTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return post(proxy, new Response() {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writing.countDown();
+                        try {
+                            taken.await();
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                        super.write(b, off, len);
+                    }
+                }, "admin");
+            }
+        });
+        new Thread(slow).start();
+        assertTrue(writing.await(TIMEOUT, TimeUnit.SECONDS));
+
+        assertEquals(200, post(proxy, new Response(), "operator"));
+        taken.countDown();
+        assertEquals(200, slow.get(TIMEOUT, TimeUnit.SECONDS).intValue());
+    }
+
+    private FutureTask<Integer> execute(ProxyExecutor executor, final XmlHttpProxy proxy, final String user)
+            throws ServiceUnavailableException {
+        FutureTask<Integer> call = new FutureTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return post(proxy, new Response(), user);
+            }
+        });
+        executor.execute(user, call);
+        return call;
+    }
+
+    private int post(XmlHttpProxy proxy, Response response, String user) throws IOException {
+        byte[] body = "{\"operation\" => \"read-resource\"}".getBytes();
+        proxy.doPost(url, response, null, null, null, body, "application/dmr-encoded", null, null, user);
+        return response.status;
+    }
+
+    /**
+     * Records the status of the proxied response
+     */
+    static class Response extends XmlHttpProxy.ResponseOutputStream {
+
+        int status = -1;
+
+        Response() {
+            super(new ByteArrayOutputStream());
+        }
+
+        @Override
+        public void onResponseHeaders(int code, String contentType) {
+            status = code;
+        }
+    }
+}
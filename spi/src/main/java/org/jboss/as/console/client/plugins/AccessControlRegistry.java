@@ -11,4 +11,9 @@ public interface AccessControlRegistry {
     public Set<String> getResources(String token);
     public String getFacet(String token);
     public boolean isRecursive(String token);
+
+    /**
+     * @return the tokens of all places with access control meta data
+     */
+    public Set<String> getTokens();
 }
@@ -30,6 +30,10 @@ public class ResourceMapping {
         return token2address.get(token);
     }
 
+    public Set<String> getTokens() {
+        return new HashSet<String>(mappings.keySet());
+    }
+
     public String getFacet(String token) {
         return mappings.get(token)!=null ? mappings.get(token).facet : "configuration";
     }
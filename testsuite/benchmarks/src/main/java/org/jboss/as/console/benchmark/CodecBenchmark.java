@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.benchmark;
+
+import org.jboss.dmr.client.DataInput;
+import org.jboss.dmr.client.DataOutput;
+import org.jboss.dmr.client.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.RESULT;
+
+/**
+ * The DMR codec of the client: base64 and binary encoding, cloning and the JSON representation.
+ * The decoding benchmarks read the keys of the result, so lazily decoded nodes do some work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * Size of the encoded payload in kilobytes
+     */
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private ModelNode node;
+    private String base64;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        node = Payloads.ofSize(size);
+        base64 = node.toBase64String();
+
+        DataOutput out = new DataOutput();
+        node.writeExternal(out);
+        binary = out.getBytes();
+    }
+
+    @Benchmark
+    public Object fromBase64() {
+        return ModelNode.fromBase64(base64).get(RESULT).keys();
+    }
+
+    @Benchmark
+    public Object fromBase64Lazy() {
+        return ModelNode.fromBase64(base64, true).get(RESULT).keys();
+    }
+
+    @Benchmark
+    public String toBase64String() {
+        return node.toBase64String();
+    }
+
+    @Benchmark
+    public ModelNode readExternal() throws IOException {
+        ModelNode decoded = new ModelNode();
+        decoded.readExternal(new DataInput(binary));
+        return decoded;
+    }
+
+    @Benchmark
+    public byte[] writeExternal() throws IOException {
+        DataOutput out = new DataOutput();
+        node.writeExternal(out);
+        return out.getBytes();
+    }
+
+    @Benchmark
+    public ModelNode cloneNode() {
+        return node.clone();
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return node.toJSONString(true);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.benchmark;
+
+import org.jboss.dmr.client.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.RESULT;
+
+/**
+ * The current DMR codec against the previous implementation ({@link LegacyCodec}) on responses recorded
+ * from real servers.
+ * <p/>
+ * This compares the code which runs on the JVM only. In script mode the client encodes and decodes
+ * using typed arrays, a <code>DataView</code> and <code>btoa</code>/<code>atob</code>, which can't be
+ * measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CodecComparisonBenchmark {
+
+    @Param({"ds-deletion", "as7-912", "large"})
+    public String payload;
+
+    private String base64;
+    private ModelNode node;
+
+    @Setup
+    public void setup() throws IOException {
+        base64 = Payloads.recorded(payload);
+        node = ModelNode.fromBase64(base64);
+        if (!node.equals(LegacyCodec.decode(base64)) || !node.equals(LegacyCodec.decode(node.toBase64String()))) {
+            throw new IllegalStateException("The codecs don't agree on " + payload);
+        }
+    }
+
+    @Benchmark
+    public Object decode() {
+        return ModelNode.fromBase64(base64).get(RESULT).keys();
+    }
+
+    @Benchmark
+    public Object decodeBaseline() {
+        return LegacyCodec.decode(base64).get(RESULT).keys();
+    }
+
+    @Benchmark
+    public String encode() {
+        return node.toBase64String();
+    }
+
+    @Benchmark
+    public String encodeBaseline() {
+        return LegacyCodec.encode(node);
+    }
+}
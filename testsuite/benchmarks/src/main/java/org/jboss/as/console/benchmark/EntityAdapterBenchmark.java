@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.benchmark;
+
+import org.jboss.as.console.client.ReflectionMetaData;
+import org.jboss.as.console.client.model.BeanFactoryImpl;
+import org.jboss.as.console.client.shared.subsys.jca.model.DataSource;
+import org.jboss.as.console.client.widgets.forms.EntityAdapter;
+import org.jboss.dmr.client.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.dmr.client.ModelDescriptionConstants.RESULT;
+
+/**
+ * Maps the datasources of a profile to entities and a change of a datasource back to DMR,
+ * using the reflection based meta data of the smoke testsuite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityAdapterBenchmark {
+
+    /**
+     * Size of the encoded payload in kilobytes
+     */
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private EntityAdapter<DataSource> adapter;
+    private List<ModelNode> datasources;
+    private Map<String, Object> changeset;
+    private ModelNode address;
+
+    @Setup
+    public void setup() {
+        adapter = new EntityAdapter<DataSource>(DataSource.class, new ReflectionMetaData(new BeanFactoryImpl()));
+        datasources = Payloads.ofSize(size).get(RESULT).asList();
+
+        changeset = new HashMap<String, Object>();
+        changeset.put("jndiName", "java:jboss/datasources/Changed");
+        changeset.put("connectionUrl", "jdbc:h2:mem:changed;DB_CLOSE_DELAY=-1");
+        changeset.put("username", "admin");
+        changeset.put("enabled", Boolean.FALSE);
+        changeset.put("password", "secret");
+        changeset.put("backgroundValidationMillis", 30000L);
+
+        address = new ModelNode();
+        address.get(ADDRESS).add("profile", "default").add("subsystem", "datasources").add("data-source", "ExampleDS");
+    }
+
+    @Benchmark
+    public List<DataSource> fromDMRList() {
+        return adapter.fromDMRList(datasources);
+    }
+
+    @Benchmark
+    public ModelNode fromChangeset() {
+        return adapter.fromChangeset(changeset, address);
+    }
+}
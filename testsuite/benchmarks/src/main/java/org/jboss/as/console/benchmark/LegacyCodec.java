@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.benchmark;
+
+import org.jboss.dmr.client.Base64;
+import org.jboss.dmr.client.DataInput;
+import org.jboss.dmr.client.DataOutput;
+import org.jboss.dmr.client.ModelNode;
+
+import java.io.IOException;
+
+/**
+ * The JVM code path of the DMR codec before the typed-array changes, kept as the baseline of the
+ * {@link CodecComparisonBenchmark}. The streams override every method which has been changed since:
+ * the output grows by the requested size only and encodes strings into a scratch array, the input
+ * allocates an array per long and doesn't size the string builders.
+ * <p/>
+ * Doubles and floats go through JSNI and can't be used on the JVM, neither here nor in the current codec.
+ */
+final class LegacyCodec {
+
+    private LegacyCodec() {}
+
+    static String encode(ModelNode node) {
+        Output out = new Output();
+        try {
+            node.writeExternal(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.encodeBytes(out.getBytes());
+    }
+
+    static ModelNode decode(String encoded) {
+        ModelNode node = new ModelNode();
+        try {
+            node.readExternal(new Input(Base64.decode(encoded)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return node;
+    }
+
+    static class Output extends DataOutput {
+
+        private byte[] bytes = new byte[50];
+        private int pos;
+
+        @Override
+        public String getEncoded() {
+            return Base64.encodeBytes(bytes, 0, pos);
+        }
+
+        @Override
+        public byte[] getBytes() {
+            byte[] array = new byte[pos];
+            for (int i = 0; i < pos; i++)
+                array[i] = bytes[i];
+
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return pos;
+        }
+
+        private void growToFit(int size) {
+            if (pos + size >= bytes.length) {
+                byte[] array = new byte[bytes.length + size];
+                for (int i = 0; i < bytes.length; i++) {
+                    array[i] = bytes[i];
+                }
+
+                bytes = array;
+            }
+        }
+
+        @Override
+        public void writeBoolean(boolean v) throws IOException {
+            growToFit(1);
+            bytes[pos++] = v ? (byte)1 : (byte)0;
+        }
+
+        @Override
+        public void writeByte(int v) throws IOException {
+            growToFit(1);
+            bytes[pos++] = (byte)v;
+        }
+
+        @Override
+        public void writeShort(int v) throws IOException {
+            growToFit(2);
+            bytes[pos++] = (byte)(v >>> 8);
+            bytes[pos++] = (byte)(v & 0xFF);
+        }
+
+        @Override
+        public void writeChar(int v) throws IOException {
+            growToFit(2);
+            bytes[pos++] = (byte)(v >>> 8);
+            bytes[pos++] = (byte)(v & 0xFF);
+        }
+
+        @Override
+        public void writeInt(int v) throws IOException {
+            growToFit(4);
+            bytes[pos++] = (byte) (v >>> 24);
+            bytes[pos++] = (byte)((v >>> 16) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 8) & 0xFF);
+            bytes[pos++] = (byte) (v & 0xFF);
+        }
+
+        @Override
+        public void writeLong(long v) throws IOException {
+            growToFit(8);
+            bytes[pos++] = (byte) (v >>> 56);
+            bytes[pos++] = (byte)((v >>> 48) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 40) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 32) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 24) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 16) & 0xFF);
+            bytes[pos++] = (byte)((v >>> 8) & 0xFF);
+            bytes[pos++] = (byte) (v & 0xFF);
+        }
+
+        @Override
+        public void writeFloat(float v) throws IOException {
+            throw new UnsupportedOperationException("JSNI");
+        }
+
+        @Override
+        public void writeDouble(double v) throws IOException {
+            throw new UnsupportedOperationException("JSNI");
+        }
+
+        @Override
+        public void writeUTF(String s) throws IOException {
+            final int length = s.length();
+            final byte[] bytes = new byte[length * 3];
+            int bl = 0;
+            char c;
+            for (int i = 0; i < length; i ++) {
+                c = s.charAt(i);
+                if (c > 0 && c <= 0x7f) {
+                    bytes[bl ++] = (byte) c;
+                } else if (c <= 0x07ff) {
+                    bytes[bl ++] = (byte)(0xc0 | 0x1f & c >> 6);
+                    bytes[bl ++] = (byte)(0x80 | 0x3f & c);
+                } else {
+                    bytes[bl ++] = (byte)(0xe0 | 0x0f & c >> 12);
+                    bytes[bl ++] = (byte)(0x80 | 0x3f & c >> 6);
+                    bytes[bl ++] = (byte)(0x80 | 0x3f & c);
+                }
+            }
+            writeShort(bl);
+            write(bytes, 0, bl);
+        }
+
+        @Override
+        public void write(byte[] bits) {
+            growToFit(bits.length);
+            for (int i = 0; i < bits.length; i++)
+                bytes[pos++] = bits[i];
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            growToFit(len);
+            for (int i = 0; i < len; i ++) {
+                bytes[pos++] = b[off + i];
+            }
+        }
+    }
+
+    static class Input extends DataInput {
+
+        Input(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            byte longBytes[] = new byte[8];
+            readFully(longBytes);
+
+            return (((long)longBytes[0] << 56) +
+                    ((long)(longBytes[1] & 255) << 48) +
+                    ((long)(longBytes[2] & 255) << 40) +
+                    ((long)(longBytes[3] & 255) << 32) +
+                    ((long)(longBytes[4] & 255) << 24) +
+                    ((longBytes[5] & 255) << 16) +
+                    ((longBytes[6] & 255) <<  8) +
+                    ((longBytes[7] & 255) <<  0));
+        }
+
+        @Override
+        public double readDouble() throws IOException {
+            throw new UnsupportedOperationException("JSNI");
+        }
+
+        @Override
+        public String readUTF() throws IOException {
+            int bytes = readUnsignedShort();
+            StringBuilder sb = new StringBuilder();
+
+            while (bytes > 0) {
+                bytes -= readUtfChar(sb);
+            }
+
+            return sb.toString();
+        }
+
+        private int readUtfChar(StringBuilder sb) throws IOException {
+            int a = readUnsignedByte();
+            if (a < 0x80) {
+                sb.append((char) a);
+                return 1;
+            } else if (a < 0xc0) {
+                sb.append('?');
+                return 1;
+            } else if (a < 0xe0) {
+                int b = readUnsignedByte();
+                if ((b & 0xc0) != 0x80) {
+                    sb.append('?');
+                    sb.append((char) b);
+                } else {
+                    sb.append((char) ((a & 0x1F) << 6 | b & 0x3F));
+                }
+                return 2;
+            } else if (a < 0xf0) {
+                int b = readUnsignedByte();
+                if ((b & 0xc0) != 0x80) {
+                    sb.append('?');
+                    sb.append((char) b);
+                    return 2;
+                }
+                int c = readUnsignedByte();
+                if ((c & 0xc0) != 0x80) {
+                    sb.append('?').append('?');
+                    sb.append((char) c);
+                } else {
+                    sb.append((char) ((a & 0x0F) << 12 | (b & 0x3F) << 6 | c & 0x3F));
+                }
+                return 3;
+            } else {
+                sb.append('?');
+                return 1;
+            }
+        }
+    }
+}
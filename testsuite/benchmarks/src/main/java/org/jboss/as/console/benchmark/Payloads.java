@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.benchmark;
+
+import org.jboss.as.console.client.simulator.ManagementModel;
+import org.jboss.as.console.client.simulator.SyntheticDomain;
+import org.jboss.dmr.client.ModelNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+
+/**
+ * Management responses of a given size: the datasources of a profile, as returned by
+ * <code>read-children-resources(child-type=data-source)</code>. And the responses recorded from
+ * real servers, which are part of the smoke tests.
+ */
+final class Payloads {
+
+    private static final int SAMPLE = 100;
+
+    private Payloads() {}
+
+    /**
+     * @param kilobytes the approximate size of the base64 encoded response
+     */
+    static ModelNode ofSize(int kilobytes) {
+        int bytesPerDatasource = datasources(SAMPLE).toBase64String().length() / SAMPLE;
+        return datasources(Math.max(1, kilobytes * 1024 / bytesPerDatasource));
+    }
+
+    static ModelNode datasources(int count) {
+        ManagementModel model = new SyntheticDomain().hosts(0).servers(0).datasources(count).build();
+
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_CHILDREN_RESOURCES_OPERATION);
+        operation.get(ADDRESS).add("profile", "default").add("subsystem", "datasources");
+        operation.get(CHILD_TYPE).set("data-source");
+        return model.execute(operation);
+    }
+
+    /**
+     * @param name the name of a recorded response: <code>as7-912</code>, <code>ds-deletion</code> or
+     *             <code>large</code>, which are 250 results of <code>as7-912</code> in one response
+     * @return the base64 encoded response
+     */
+    static String recorded(String name) throws IOException {
+        if ("large".equals(name)) {
+            ModelNode result = ModelNode.fromBase64(recorded("as7-912")).get(RESULT);
+            ModelNode large = new ModelNode();
+            large.get(OUTCOME).set(SUCCESS);
+            for (int i = 0; i < 250; i++) {
+                large.get(RESULT, "server-" + i).set(result);
+            }
+            return large.toBase64String();
+        }
+
+        InputStream in = Payloads.class.getResourceAsStream("/org/jboss/dmr/client/" + name + "-response.b64");
+        if (in == null) {
+            throw new IllegalArgumentException("No recorded response " + name);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+        try {
+            StringBuilder builder = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.append(line).append('\n');
+            }
+            return builder.toString();
+        } finally {
+            reader.close();
+        }
+    }
+}
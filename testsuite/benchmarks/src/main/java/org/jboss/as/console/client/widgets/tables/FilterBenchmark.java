@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.widgets.tables;
+
+import com.google.gwt.view.client.ListDataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typing a JNDI name into the filter of a table with 10k rows. Every benchmark types the whole query,
+ * one prefix per keystroke, the scores are per keystroke. {@link #scan} is the baseline: the predicate
+ * is applied to every row on every keystroke. {@link #snapshot} is the cost of building the index,
+ * paid once per {@link DataProviderFilter#snapshot()}.
+ * <p/>
+ * Lives in the package of the filter, because {@link DataProviderFilter#match(String)} and the
+ * {@link FilterIndex} are package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final int ROWS = 10000;
+    private static final String QUERY = "java:jboss/exported/jms/queue/q-0421";
+    private static final int KEYSTROKES = 36;
+
+    private static final DataProviderFilter.Predicate<String> PREDICATE = new DataProviderFilter.Predicate<String>() {
+        @Override
+        public boolean apply(String prefix, String candiate) {
+            return candiate.startsWith(prefix);
+        }
+    };
+
+    private static final DataProviderFilter.Indexer<String> INDEXER = new DataProviderFilter.Indexer<String>() {
+        @Override
+        public String[] keysOf(String candidate) {
+            return new String[] {candidate};
+        }
+    };
+
+    private List<String> rows;
+    private String[] prefixes;
+    private DataProviderFilter<String> narrowing;
+    private DataProviderFilter<String> indexed;
+
+    @Setup
+    public void setup() {
+        if(QUERY.length() != KEYSTROKES)
+            throw new IllegalStateException("One keystroke per character of the query");
+
+        rows = new ArrayList<String>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String kind = i % 2 == 0 ? "queue/q-" : "topic/t-";
+            rows.add("java:jboss/exported/jms/" + kind + String.format("%05d", i / 2));
+        }
+
+        prefixes = new String[KEYSTROKES];
+        for (int i = 0; i < KEYSTROKES; i++)
+            prefixes[i] = QUERY.substring(0, i + 1);
+
+        narrowing = new DataProviderFilter<String>(new ListDataProvider<String>(rows), PREDICATE);
+        indexed = new DataProviderFilter<String>(new ListDataProvider<String>(rows), INDEXER);
+
+        // both filters have to agree with the baseline
+        for (String prefix : prefixes) {
+            List<String> expected = scan(prefix);
+            if(!expected.equals(narrowing.match(prefix)) || !expected.equals(indexed.match(prefix)))
+                throw new IllegalStateException("Filters disagree on " + prefix);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void scan(Blackhole bh) {
+        for (String prefix : prefixes)
+            bh.consume(scan(prefix));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void narrowedScan(Blackhole bh) {
+        // the first keystroke doesn't extend the last query and starts over with all rows
+        for (String prefix : prefixes)
+            bh.consume(narrowing.match(prefix));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void index(Blackhole bh) {
+        for (String prefix : prefixes)
+            bh.consume(indexed.match(prefix));
+    }
+
+    @Benchmark
+    public FilterIndex<String> snapshot() {
+        return new FilterIndex<String>(rows, INDEXER);
+    }
+
+    private List<String> scan(String prefix) {
+        List<String> next = new ArrayList<String>();
+        for (String row : rows) {
+            if (PREDICATE.apply(prefix, row))
+                next.add(row);
+        }
+        return next;
+    }
+}
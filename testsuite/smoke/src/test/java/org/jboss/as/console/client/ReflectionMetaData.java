@@ -24,6 +24,7 @@ import org.jboss.as.console.client.shared.BeanFactory;
 import org.jboss.as.console.client.widgets.forms.AddressBinding;
 import org.jboss.as.console.client.widgets.forms.ApplicationMetaData;
 import org.jboss.as.console.client.widgets.forms.BeanMetaData;
+import org.jboss.as.console.client.widgets.forms.BindingPlan;
 import org.jboss.as.console.client.widgets.forms.EntityFactory;
 import org.jboss.as.console.client.widgets.forms.FormMetaData;
 import org.jboss.as.console.client.widgets.forms.Getter;
@@ -239,6 +240,11 @@ public class ReflectionMetaData implements ApplicationMetaData {
         return mutators.get(type);
     }
 
+    @Override
+    public BindingPlan getBindingPlan(Class<?> type) {
+        return BindingPlan.of(getBeanMetaData(type), getMutator(type));
+    }
+
     @Override
     public FormMetaData getFormMetaData(Class<?> type) {
         throw new RuntimeException("Not yet implemented!");
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import org.jboss.as.console.client.domain.model.Host;
+import org.jboss.as.console.client.domain.model.HostInformationStore;
+import org.jboss.as.console.client.domain.model.Server;
+import org.jboss.as.console.client.domain.model.ServerInstance;
+import org.jboss.as.console.client.domain.profiles.CurrentProfileSelection;
+import org.jboss.as.console.client.shared.deployment.DeploymentStore;
+import org.jboss.as.console.client.shared.deployment.model.ContentRepository;
+import org.jboss.as.console.client.shared.subsys.jca.model.DataSource;
+import org.jboss.as.console.client.shared.subsys.jca.model.DataSourceStore;
+import org.jboss.as.console.client.simulator.SimulatorDMRHandler;
+import org.jboss.as.console.client.simulator.SyntheticDomain;
+import org.jboss.dmr.client.dispatch.HandlerMapping;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the stores against a large domain served by the {@link SimulatorDMRHandler}. The times include
+ * encoding and decoding the DMR payloads, but no network. Every call has to reach the handler: none of the
+ * measured reads is cachable, so the dispatcher must not answer them from its cache.
+ * <p/>
+ * The average time, the number of requests and the size of the responses per call are logged at
+ * <code>FINE</code>.
+ */
+public class StoreBenchmarkTest {
+
+    private static final int HOSTS = 20;
+    private static final int SERVERS = 10;
+    private static final int DATASOURCES = 100;
+    private static final int DEPLOYMENTS = 50;
+    private static final int ITERATIONS = 20;
+
+    private static final Logger log = Logger.getLogger(StoreBenchmarkTest.class.getName());
+
+    private static SimulatorDMRHandler handler;
+    private static Injector injector;
+
+    interface Call<T> {
+        void execute(AsyncCallback<T> callback);
+    }
+
+    @BeforeClass
+    public static void init() {
+        handler = new SimulatorDMRHandler(new SyntheticDomain()
+                .hosts(HOSTS).servers(SERVERS).datasources(DATASOURCES).deployments(DEPLOYMENTS).build());
+        injector = Guice.createInjector(Modules.override(new TestModule()).with(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(HandlerMapping.class).toInstance(new TestHandlerRegistry(handler));
+            }
+        }));
+        injector.getInstance(CurrentProfileSelection.class).setName("default");
+    }
+
+    @Test
+    public void hosts() {
+        final HostInformationStore store = injector.getInstance(HostInformationStore.class);
+        List<Host> hosts = measure("HostInformationStore.getHosts", new Call<List<Host>>() {
+            @Override
+            public void execute(AsyncCallback<List<Host>> callback) {
+                store.getHosts(callback);
+            }
+        });
+        assertEquals(HOSTS, hosts.size());
+    }
+
+    @Test
+    public void serverConfigurations() {
+        final HostInformationStore store = injector.getInstance(HostInformationStore.class);
+        List<Server> servers = measure("HostInformationStore.getServerConfigurations", new Call<List<Server>>() {
+            @Override
+            public void execute(AsyncCallback<List<Server>> callback) {
+                store.getServerConfigurations("master", callback);
+            }
+        });
+        assertEquals(SERVERS, servers.size());
+    }
+
+    @Test
+    public void serverInstances() {
+        final HostInformationStore store = injector.getInstance(HostInformationStore.class);
+        List<ServerInstance> instances = measure("HostInformationStore.getServerInstances", new Call<List<ServerInstance>>() {
+            @Override
+            public void execute(AsyncCallback<List<ServerInstance>> callback) {
+                store.getServerInstances("slave-1", callback);
+            }
+        });
+        assertEquals(SERVERS, instances.size());
+    }
+
+    @Test
+    public void dataSources() {
+        final DataSourceStore store = injector.getInstance(DataSourceStore.class);
+        List<DataSource> dataSources = measure("DataSourceStore.loadDataSources", new Call<List<DataSource>>() {
+            @Override
+            public void execute(AsyncCallback<List<DataSource>> callback) {
+                store.loadDataSources(callback);
+            }
+        });
+        assertEquals(DATASOURCES, dataSources.size());
+    }
+
+    @Test
+    public void contentRepository() {
+        final DeploymentStore store = injector.getInstance(DeploymentStore.class);
+        ContentRepository repository = measure("DeploymentStore.loadContentRepository", new Call<ContentRepository>() {
+            @Override
+            public void execute(AsyncCallback<ContentRepository> callback) {
+                store.loadContentRepository(callback);
+            }
+        });
+        assertEquals(DEPLOYMENTS, repository.getDeployments().size());
+    }
+
+    private <T> T measure(String name, Call<T> call) {
+        final Object[] result = new Object[1];
+        AsyncCallback<T> callback = new AsyncCallback<T>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                throw new RuntimeException(caught);
+            }
+
+            @Override
+            public void onSuccess(T value) {
+                result[0] = value;
+            }
+        };
+
+        call.execute(callback);     // warm up
+        long requests = handler.getRequests();
+        long bytes = handler.getResponseBytes();
+        long start = System.nanoTime();
+        for(int i = 0; i < ITERATIONS; i++)
+            call.execute(callback);
+        long nanos = System.nanoTime() - start;
+
+        long sent = handler.getRequests() - requests;
+
+        log.fine(name + ": " + (nanos / ITERATIONS / 1000) + "us, "
+                + (sent / ITERATIONS) + " request(s), "
+                + ((handler.getResponseBytes() - bytes) / ITERATIONS / 1024) + "kB per call");
+
+        assertNotNull(name + " didn't call back", result[0]);
+        assertTrue(name + " has been answered from the cache", sent >= ITERATIONS);
+        return (T) result[0];
+    }
+}
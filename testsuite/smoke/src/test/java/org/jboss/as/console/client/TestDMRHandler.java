@@ -36,13 +36,23 @@ public class TestDMRHandler implements ActionHandler<DMRAction, DMRResponse> {
     private static final String DOMAIN_API_URL = "http://localhost:9990/management";
     private static final String APPLICATION_DMR_ENCODED = "application/dmr-encoded";
 
+    private final String url;
+
+    public TestDMRHandler() {
+        this(DOMAIN_API_URL);
+    }
+
+    public TestDMRHandler(String url) {
+        this.url = url;
+    }
+
     @Override
     public DispatchRequest execute(DMRAction action, AsyncCallback<DMRResponse> callback) {
 
 
         try {
-            DispatchResult result = new SimpleDispatcher(DOMAIN_API_URL).execute(action.getOperation());
-            callback.onSuccess(new DMRResponse(result.getResponseText(), APPLICATION_DMR_ENCODED) );
+            DispatchResult result = new SimpleDispatcher(url).execute(action.getOperation());
+            callback.onSuccess(new DMRResponse("POST", result.getResponseText(), APPLICATION_DMR_ENCODED, false));
 
         } catch (Exception e) {
             callback.onFailure(e);
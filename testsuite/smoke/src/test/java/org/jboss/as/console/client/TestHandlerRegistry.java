@@ -19,6 +19,8 @@
 
 package org.jboss.as.console.client;
 
+import org.jboss.as.console.client.simulator.SimulatorDMRHandler;
+import org.jboss.as.console.client.simulator.SyntheticDomain;
 import org.jboss.dmr.client.dispatch.Action;
 import org.jboss.dmr.client.dispatch.ActionHandler;
 import org.jboss.dmr.client.dispatch.ActionType;
@@ -28,6 +30,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
+ * Dispatches the DMR operations to a live server if the system property <code>management.endpoint</code> is set
+ * (i.e. <code>-Dmanagement.endpoint=http://localhost:9990/management</code>). Otherwise the operations are executed
+ * by the {@link SimulatorDMRHandler}, using the default {@link SyntheticDomain}.
+ *
  * @author Heiko Braun
  * @date 4/12/11
  */
@@ -36,7 +42,18 @@ public class TestHandlerRegistry implements HandlerMapping {
     private Map<ActionType, ActionHandler> registry = new HashMap<ActionType, ActionHandler>();
 
     public TestHandlerRegistry() {
-        register(ActionType.DMR, new TestDMRHandler());
+        this(defaultHandler());
+    }
+
+    public TestHandlerRegistry(ActionHandler dmrHandler) {
+        register(ActionType.DMR, dmrHandler);
+    }
+
+    private static ActionHandler defaultHandler() {
+        String endpoint = System.getProperty("management.endpoint");
+        if(endpoint != null && endpoint.length() > 0)
+            return new TestDMRHandler(endpoint);
+        return new SimulatorDMRHandler(new SyntheticDomain().build());
     }
 
     @Override
@@ -29,12 +29,11 @@ import org.jboss.as.console.client.domain.model.impl.ProfileStoreImpl;
 import org.jboss.as.console.client.domain.model.impl.ServerGroupStoreImpl;
 import org.jboss.as.console.client.domain.profiles.CurrentProfileSelection;
 import org.jboss.as.console.client.model.BeanFactoryImpl;
+import org.jboss.as.console.client.shared.deployment.DeploymentStore;
 import org.jboss.as.console.client.shared.BeanFactory;
 import org.jboss.dmr.client.dispatch.DispatchAsync;
 import org.jboss.dmr.client.dispatch.HandlerMapping;
 import org.jboss.dmr.client.dispatch.impl.DispatchAsyncImpl;
-import org.jboss.as.console.client.shared.model.DeploymentStore;
-import org.jboss.as.console.client.shared.model.DeploymentStoreImpl;
 import org.jboss.as.console.client.shared.model.SubsystemStore;
 import org.jboss.as.console.client.shared.model.SubsystemStoreImpl;
 import org.jboss.as.console.client.shared.subsys.Baseadress;
@@ -61,7 +60,7 @@ public class TestModule extends AbstractModule {
         bind(ProfileStore.class).to(ProfileStoreImpl.class).in(Singleton.class);
         bind(SubsystemStore.class).to(SubsystemStoreImpl.class).in(Singleton.class);
         bind(ServerGroupStore.class).to(ServerGroupStoreImpl.class).in(Singleton.class);
-        bind(DeploymentStore.class).to(DeploymentStoreImpl.class).in(Singleton.class);
+        bind(DeploymentStore.class).in(Singleton.class);
         bind(HostInformationStore.class).to(HostInfoStoreImpl.class).in(Singleton.class);
         bind(DataSourceStore.class).to(DataSourceStoreImpl.class).in(Singleton.class);
 
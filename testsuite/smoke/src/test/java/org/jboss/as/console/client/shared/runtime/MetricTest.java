@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.shared.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricTest {
+
+    @Test
+    public void integralValuesKeepTheirPrecision() {
+        long large = Long.MAX_VALUE - 1;
+        Metric metric = new Metric(large, 42L);
+
+        assertEquals(large, metric.getLong(0));
+        assertEquals(String.valueOf(large), metric.get(0));
+        assertEquals(42, metric.getLong(1));
+    }
+
+    @Test
+    public void mixedValues() {
+        Metric metric = new Metric(10L);
+        metric.add(2.5);
+        metric.add("select * from Foo");
+        metric.add((String) null);
+
+        assertEquals(4, metric.numSamples());
+        assertEquals(10, metric.getLong(0));
+        assertEquals(2.5, metric.getDouble(1), 0);
+        assertEquals("2.5", metric.get(1));
+        assertEquals(2, metric.getLong(1));
+        assertEquals("select * from Foo", metric.get(2));
+        assertTrue(Double.isNaN(metric.getDouble(2)));
+        assertNull(metric.get(3));
+    }
+
+    @Test
+    public void textIsDisplayedAsGiven() {
+        Metric metric = new Metric("1e3", "3.10", "NaN");
+
+        assertEquals("1e3", metric.get(0));
+        assertEquals("3.10", metric.get(1));
+        assertEquals("NaN", metric.get(2));
+        assertTrue(Double.isNaN(metric.getDouble(0)));
+    }
+
+    @Test
+    public void fractionalNaNIsDisplayed() {
+        Metric metric = new Metric(Double.NaN);
+
+        assertEquals("NaN", metric.get(0));
+        assertTrue(Double.isNaN(metric.getDouble(0)));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void textIsNotNumeric() {
+        new Metric("42").getLong(0);
+    }
+
+    @Test
+    public void growsBeyondTheInitialCapacity() {
+        Metric metric = new Metric(new long[0]);
+        for(int i=0; i<10; i++)
+        {
+            if(i % 2 == 0)
+                metric.add((long) i);
+            else
+                metric.add("text" + i);
+        }
+
+        assertEquals(10, metric.numSamples());
+        assertEquals(8, metric.getLong(8));
+        assertEquals("text9", metric.get(9));
+    }
+}
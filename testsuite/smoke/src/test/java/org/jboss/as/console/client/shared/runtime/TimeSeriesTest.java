@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+
+package org.jboss.as.console.client.shared.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeSeriesTest {
+
+    @Test
+    public void recentSamplesAreBounded() {
+        TimeSeries series = new TimeSeries(2, 3, 10);
+        for(int i=1; i<=5; i++)
+            series.add(i * 1000, new Metric((long) i, (long) i * 10));
+
+        assertEquals(5, series.count());
+        assertEquals(3, series.size());
+        assertEquals(3000, series.getTimestamp(0));
+        assertEquals(3, series.getValue(0, 0), 0);
+        assertEquals(50, series.getValue(2, 1), 0);
+    }
+
+    @Test
+    public void historyKeepsThePeakOfEachBucket() {
+        TimeSeries series = new TimeSeries(1, 2, 3);
+        long[] values = {1, 7, 2, 4, 3, 5, 9};
+        for(int i=0; i<values.length; i++)
+            series.add(i, new Metric(values[i]));
+
+        // buckets [1,7,2] and [4,3,5], 9 is still pending
+        assertEquals(2, series.historySize());
+        assertEquals(0, series.getHistoryTimestamp(0));
+        assertEquals(7, series.getHistoryValue(0, 0), 0);
+        assertEquals(5, series.getHistoryValue(1, 0), 0);
+
+        // 7 has left the recent samples, but not the history
+        assertEquals(2, series.size());
+        assertEquals(9, series.getPeak(0), 0);
+        series.add(7, new Metric(0L));
+        series.add(8, new Metric(0L));
+        series.add(9, new Metric(0L));
+        assertEquals(9, series.getPeak(0), 0);
+    }
+
+    @Test
+    public void textAndMissingColumnsAreIgnored() {
+        TimeSeries series = new TimeSeries(3);
+        Metric metric = new Metric(4L);
+        metric.add("select * from Foo");
+        series.add(0, metric);
+
+        assertEquals(4, series.getPeak(0), 0);
+        assertTrue(Double.isNaN(series.getPeak(1)));
+        assertTrue(Double.isNaN(series.getPeak(2)));
+    }
+
+    @Test
+    public void clear() {
+        TimeSeries series = new TimeSeries(1, 2, 1);
+        series.add(0, new Metric(1L));
+        series.add(1, new Metric(2L));
+        series.clear();
+
+        assertEquals(0, series.count());
+        assertEquals(0, series.size());
+        assertEquals(0, series.historySize());
+        assertTrue(Double.isNaN(series.getPeak(0)));
+    }
+}
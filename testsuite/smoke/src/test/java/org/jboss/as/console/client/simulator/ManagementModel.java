@@ -0,0 +1,405 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.simulator;
+
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.Property;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+
+/**
+ * An in-memory management model, which executes the generic operations like the management endpoint does:
+ * <code>read-resource</code>, <code>read-attribute</code>, <code>read-children-*</code>, <code>add</code>,
+ * <code>remove</code>, <code>write-attribute</code>, <code>undefine-attribute</code> and <code>composite</code>,
+ * including wildcard addresses.
+ * <p/>
+ * Other operations can be registered using {@link #register(String, OperationHandler)}. Responses recorded against
+ * a live server (see {@link RecordingDMRHandler}) are loaded with {@link #replay(Reader)}: they take precedence
+ * over the model.
+ * <p/>
+ * Runtime attributes are stored like any other attribute, i.e. <code>include-runtime</code> is ignored.
+ */
+public class ManagementModel {
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * Executes an operation on an existing resource.
+     */
+    public interface OperationHandler {
+        ModelNode execute(Resource resource, ModelNode operation) throws OperationFailedException;
+    }
+
+    private final Resource root = new Resource();
+    private final Map<String, OperationHandler> handlers = new HashMap<String, OperationHandler>();
+    private final Map<String, ModelNode> recorded = new HashMap<String, ModelNode>();
+
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Adds the resources along the address which don't exist yet.
+     *
+     * @param address <code>type, name, type, name, ...</code>
+     * @return the resource at the address
+     */
+    public Resource add(String... address) {
+        Resource resource = root;
+        for(int i = 0; i + 1 < address.length; i += 2)
+        {
+            Resource child = resource.getChild(address[i], address[i + 1]);
+            resource = child != null ? child : resource.addChild(address[i], address[i + 1]);
+        }
+        return resource;
+    }
+
+    public void register(String operationName, OperationHandler handler) {
+        handlers.put(operationName, handler);
+    }
+
+    /**
+     * Answers the operation with the response, regardless of the state of the model.
+     */
+    public void record(ModelNode operation, ModelNode response) {
+        recorded.put(keyOf(operation), response);
+    }
+
+    /**
+     * Loads the responses written by a {@link RecordingDMRHandler}: one line per request,
+     * containing the base64 encoded operation and response separated by a blank.
+     */
+    public void replay(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while((line = lines.readLine()) != null)
+        {
+            int index = line.indexOf(' ');
+            if(index <= 0) continue;
+            record(ModelNode.fromBase64(line.substring(0, index)), ModelNode.fromBase64(line.substring(index + 1)));
+        }
+    }
+
+    public ModelNode execute(ModelNode operation) {
+        ModelNode response = recorded.get(keyOf(operation));
+        if(response != null)
+            return response.clone();
+
+        String name = operation.get(OP).asString();
+        if(COMPOSITE.equals(name))
+            return composite(operation);
+
+        List<Property> address = operation.hasDefined(ADDRESS) ?
+                operation.get(ADDRESS).asPropertyList() : Collections.<Property>emptyList();
+        try {
+            if(isWildcard(address))
+            {
+                ModelNode result = new ModelNode().setEmptyList();
+                for(List<Property> resolved : resolve(root, address, 0))
+                {
+                    ModelNode item = new ModelNode();
+                    item.get(ADDRESS).set(toAddress(resolved));
+                    item.get(OUTCOME).set(SUCCESS);
+                    item.get(RESULT).set(invoke(name, find(resolved), operation));
+                    result.add(item);
+                }
+                return success(result);
+            }
+            return success(invoke(name, find(address), operation));
+        } catch (OperationFailedException e) {
+            return failed(e.getMessage());
+        }
+    }
+
+    private ModelNode composite(ModelNode operation) {
+        ModelNode result = new ModelNode().setEmptyObject();
+        String failure = null;
+        List<ModelNode> steps = operation.hasDefined(STEPS) ?
+                operation.get(STEPS).asList() : Collections.<ModelNode>emptyList();
+        for(int i = 0; i < steps.size(); i++)
+        {
+            ModelNode stepResponse = execute(steps.get(i));
+            result.get("step-" + (i + 1)).set(stepResponse);
+            if(failure == null && FAILED.equals(stepResponse.get(OUTCOME).asString()))
+                failure = "Operation step-" + (i + 1) + " failed: " + stepResponse.get(FAILURE_DESCRIPTION).asString();
+        }
+
+        ModelNode response = failure != null ? failed(failure) : success(result);
+        if(failure != null)
+            response.get(RESULT).set(result);
+        return response;
+    }
+
+    private ModelNode invoke(String name, Resource resource, ModelNode operation) throws OperationFailedException {
+        if(ADD.equals(name))
+            return add(operation);
+
+        if(resource == null)
+            throw new OperationFailedException("Resource " + operation.get(ADDRESS).asString() + " does not exist");
+
+        OperationHandler handler = handlers.get(name);
+        if(handler != null)
+            return handler.execute(resource, operation);
+
+        if(READ_RESOURCE_OPERATION.equals(name))
+        {
+            return resource.toModel(recursionDepth(operation));
+        }
+        else if(READ_ATTRIBUTE_OPERATION.equals(name))
+        {
+            String attribute = operation.get(NAME).asString();
+            if(!resource.getAttributes().has(attribute))
+                throw new OperationFailedException("Unknown attribute " + attribute);
+            return resource.getAttributes().get(attribute).clone();
+        }
+        else if(READ_CHILDREN_TYPES_OPERATION.equals(name))
+        {
+            ModelNode result = new ModelNode().setEmptyList();
+            for(String type : resource.getChildTypes())
+                result.add(type);
+            return result;
+        }
+        else if(READ_CHILDREN_NAMES_OPERATION.equals(name))
+        {
+            ModelNode result = new ModelNode().setEmptyList();
+            for(String child : resource.getChildren(operation.get(CHILD_TYPE).asString()).keySet())
+                result.add(child);
+            return result;
+        }
+        else if(READ_CHILDREN_RESOURCES_OPERATION.equals(name))
+        {
+            int depth = recursionDepth(operation);
+            ModelNode result = new ModelNode().setEmptyObject();
+            for(Map.Entry<String, Resource> child : resource.getChildren(operation.get(CHILD_TYPE).asString()).entrySet())
+                result.get(child.getKey()).set(child.getValue().toModel(depth));
+            return result;
+        }
+        else if(WRITE_ATTRIBUTE_OPERATION.equals(name))
+        {
+            resource.getAttributes().get(operation.get(NAME).asString()).set(operation.get(VALUE));
+            return new ModelNode();
+        }
+        else if("undefine-attribute".equals(name))
+        {
+            resource.getAttributes().get(operation.get(NAME).asString()).clear();
+            return new ModelNode();
+        }
+        else if(REMOVE.equals(name))
+        {
+            List<Property> address = operation.get(ADDRESS).asPropertyList();
+            Property last = address.get(address.size() - 1);
+            find(address.subList(0, address.size() - 1)).removeChild(last.getName(), last.getValue().asString());
+            return new ModelNode();
+        }
+        throw new OperationFailedException("Operation " + name + " is not supported by the simulator");
+    }
+
+    private ModelNode add(ModelNode operation) throws OperationFailedException {
+        List<Property> address = operation.hasDefined(ADDRESS) ?
+                operation.get(ADDRESS).asPropertyList() : Collections.<Property>emptyList();
+        if(address.isEmpty())
+            throw new OperationFailedException("Cannot add the root resource");
+
+        Property last = address.get(address.size() - 1);
+        Resource parent = find(address.subList(0, address.size() - 1));
+        if(parent == null)
+            throw new OperationFailedException("Parent of " + operation.get(ADDRESS).asString() + " does not exist");
+        if(parent.getChild(last.getName(), last.getValue().asString()) != null)
+            throw new OperationFailedException("Duplicate resource " + operation.get(ADDRESS).asString());
+
+        Resource resource = parent.addChild(last.getName(), last.getValue().asString());
+        for(Property parameter : operation.asPropertyList())
+        {
+            String key = parameter.getName();
+            if(!OP.equals(key) && !ADDRESS.equals(key) && !OPERATION_HEADERS.equals(key))
+                resource.getAttributes().get(key).set(parameter.getValue());
+        }
+        return new ModelNode();
+    }
+
+    private Resource find(List<Property> address) {
+        Resource resource = root;
+        for(Property segment : address)
+        {
+            resource = resource.getChild(segment.getName(), segment.getValue().asString());
+            if(resource == null) return null;
+        }
+        return resource;
+    }
+
+    private List<List<Property>> resolve(Resource resource, List<Property> address, int index) {
+        List<List<Property>> resolved = new ArrayList<List<Property>>();
+        if(index == address.size())
+        {
+            resolved.add(new ArrayList<Property>());
+            return resolved;
+        }
+
+        Property segment = address.get(index);
+        String name = segment.getValue().asString();
+        for(Map.Entry<String, Resource> child : resource.getChildren(segment.getName()).entrySet())
+        {
+            if(!WILDCARD.equals(name) && !name.equals(child.getKey()))
+                continue;
+
+            for(List<Property> tail : resolve(child.getValue(), address, index + 1))
+            {
+                tail.add(0, new Property(segment.getName(), new ModelNode().set(child.getKey())));
+                resolved.add(tail);
+            }
+        }
+        return resolved;
+    }
+
+    private static boolean isWildcard(List<Property> address) {
+        for(Property segment : address)
+        {
+            if(WILDCARD.equals(segment.getValue().asString()))
+                return true;
+        }
+        return false;
+    }
+
+    private static ModelNode toAddress(List<Property> address) {
+        ModelNode node = new ModelNode().setEmptyList();
+        for(Property segment : address)
+            node.add(segment.getName(), segment.getValue().asString());
+        return node;
+    }
+
+    private static int recursionDepth(ModelNode operation) {
+        if(operation.hasDefined("recursive-depth"))
+            return operation.get("recursive-depth").asInt();
+        return operation.hasDefined(RECURSIVE) && operation.get(RECURSIVE).asBoolean() ? Integer.MAX_VALUE : 0;
+    }
+
+    private static String keyOf(ModelNode operation) {
+        ModelNode key = operation.clone();
+        if(key.has(OPERATION_HEADERS))
+            key.remove(OPERATION_HEADERS);
+        return key.toString();
+    }
+
+    private static ModelNode success(ModelNode result) {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(result);
+        return response;
+    }
+
+    private static ModelNode failed(String description) {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set(description);
+        response.get(ROLLED_BACK).set(true);
+        return response;
+    }
+
+
+    /**
+     * A resource of the model: the attributes and the children grouped by their type.
+     */
+    public static class Resource {
+
+        private final ModelNode attributes = new ModelNode().setEmptyObject();
+        private final Map<String, Map<String, Resource>> children = new LinkedHashMap<String, Map<String, Resource>>();
+
+        public ModelNode getAttributes() {
+            return attributes;
+        }
+
+        public Resource attribute(String name, String value) {
+            attributes.get(name).set(value);
+            return this;
+        }
+
+        public Resource attribute(String name, int value) {
+            attributes.get(name).set(value);
+            return this;
+        }
+
+        public Resource attribute(String name, boolean value) {
+            attributes.get(name).set(value);
+            return this;
+        }
+
+        public Resource attribute(String name, ModelNode value) {
+            attributes.get(name).set(value);
+            return this;
+        }
+
+        public List<String> getChildTypes() {
+            return new ArrayList<String>(children.keySet());
+        }
+
+        public Map<String, Resource> getChildren(String type) {
+            Map<String, Resource> named = children.get(type);
+            return named != null ? named : Collections.<String, Resource>emptyMap();
+        }
+
+        public Resource getChild(String type, String name) {
+            return getChildren(type).get(name);
+        }
+
+        public Resource addChild(String type, String name) {
+            Map<String, Resource> named = children.get(type);
+            if(named == null)
+            {
+                named = new LinkedHashMap<String, Resource>();
+                children.put(type, named);
+            }
+            Resource child = new Resource();
+            named.put(name, child);
+            return child;
+        }
+
+        public void removeChild(String type, String name) {
+            Map<String, Resource> named = children.get(type);
+            if(named != null)
+                named.remove(name);
+        }
+
+        ModelNode toModel(int depth) {
+            ModelNode model = attributes.clone();
+            for(Map.Entry<String, Map<String, Resource>> type : children.entrySet())
+            {
+                ModelNode typeNode = model.get(type.getKey()).setEmptyObject();
+                for(Map.Entry<String, Resource> child : type.getValue().entrySet())
+                {
+                    if(depth > 0)
+                        typeNode.get(child.getKey()).set(child.getValue().toModel(depth - 1));
+                    else
+                        typeNode.get(child.getKey());
+                }
+            }
+            return model;
+        }
+    }
+}
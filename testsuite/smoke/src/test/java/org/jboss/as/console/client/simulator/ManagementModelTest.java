@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.simulator;
+
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.Property;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+import static org.junit.Assert.*;
+
+public class ManagementModelTest {
+
+    @Test
+    public void readDefaultDomain() {
+        ManagementModel model = new SyntheticDomain().build();
+
+        ModelNode hosts = model.execute(operation(READ_CHILDREN_RESOURCES_OPERATION, "child-type", "host"));
+        assertEquals(SUCCESS, hosts.get(OUTCOME).asString());
+        List<Property> hostList = hosts.get(RESULT).asPropertyList();
+        assertEquals(1, hostList.size());
+        assertEquals("master", hostList.get(0).getName());
+        assertTrue(hostList.get(0).getValue().get("domain-controller").hasDefined("local"));
+
+        ModelNode names = model.execute(operation(READ_CHILDREN_NAMES_OPERATION, "child-type", "server-config", "host", "master"));
+        assertEquals("server-one", names.get(RESULT).asList().get(0).asString());
+        assertEquals(3, names.get(RESULT).asList().size());
+
+        ModelNode resource = model.execute(operation(READ_RESOURCE_OPERATION, null, null, "host", "master", "server-config", "server-three"));
+        assertEquals("other-server-group", resource.get(RESULT, "group").asString());
+    }
+
+    @Test
+    public void wildcards() {
+        ManagementModel model = new SyntheticDomain().hosts(4).servers(5).build();
+
+        ModelNode response = model.execute(operation(READ_RESOURCE_OPERATION, null, null, "host", "*", "server", "*"));
+        List<ModelNode> servers = response.get(RESULT).asList();
+        assertEquals(4 * 5 - 1, servers.size());     // server-three on the master is stopped
+        assertEquals("master", servers.get(0).get(ADDRESS).asPropertyList().get(0).getValue().asString());
+        assertEquals("running", servers.get(0).get(RESULT, "server-state").asString());
+    }
+
+    @Test
+    public void compositeWithFailure() {
+        ManagementModel model = new SyntheticDomain().build();
+
+        ModelNode composite = new ModelNode();
+        composite.get(OP).set(COMPOSITE);
+        composite.get(ADDRESS).setEmptyList();
+        composite.get(STEPS).add(operation(READ_ATTRIBUTE_OPERATION, NAME, "release-version"));
+        composite.get(STEPS).add(operation(READ_RESOURCE_OPERATION, null, null, "host", "unknown"));
+
+        ModelNode response = model.execute(composite);
+        assertEquals(FAILED, response.get(OUTCOME).asString());
+        assertEquals("8.0.0.Final", response.get(RESULT, "step-1", RESULT).asString());
+        assertEquals(FAILED, response.get(RESULT, "step-2", OUTCOME).asString());
+    }
+
+    @Test
+    public void addAndRemove() {
+        ManagementModel model = new SyntheticDomain().build();
+        String[] address = {"profile", "default", "subsystem", "datasources", "data-source", "myDS"};
+
+        ModelNode add = operation(ADD, "jndi-name", "java:/myDS", address);
+        assertEquals(SUCCESS, model.execute(add).get(OUTCOME).asString());
+        assertEquals(FAILED, model.execute(add).get(OUTCOME).asString());
+        assertEquals("java:/myDS", model.execute(operation(READ_ATTRIBUTE_OPERATION, NAME, "jndi-name", address))
+                .get(RESULT).asString());
+
+        assertEquals(SUCCESS, model.execute(operation(REMOVE, null, null, address)).get(OUTCOME).asString());
+        assertEquals(FAILED, model.execute(operation(READ_RESOURCE_OPERATION, null, null, address)).get(OUTCOME).asString());
+    }
+
+    @Test
+    public void replay() throws Exception {
+        ModelNode operation = operation("read-operation-names", null, null);
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).add("read-resource");
+
+        ManagementModel model = new ManagementModel();
+        model.replay(new StringReader(operation.toBase64String() + " " + response.toBase64String() + "\n"));
+
+        assertEquals("read-resource", model.execute(operation).get(RESULT).asList().get(0).asString());
+    }
+
+    private static ModelNode operation(String name, String parameter, String value, String... address) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(name);
+        operation.get(ADDRESS).setEmptyList();
+        for(int i = 0; i + 1 < address.length; i += 2)
+            operation.get(ADDRESS).add(address[i], address[i + 1]);
+        if(parameter != null)
+            operation.get(parameter).set(value);
+        return operation;
+    }
+}
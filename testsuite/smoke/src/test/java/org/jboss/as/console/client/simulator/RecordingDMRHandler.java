@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.simulator;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import org.jboss.dmr.client.dispatch.ActionHandler;
+import org.jboss.dmr.client.dispatch.DispatchRequest;
+import org.jboss.dmr.client.dispatch.impl.DMRAction;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Passes the operations on to another handler (usually the {@link org.jboss.as.console.client.TestDMRHandler}
+ * talking to a live server) and writes the operations and responses in the format read by
+ * {@link ManagementModel#replay(java.io.Reader)}.
+ */
+public class RecordingDMRHandler implements ActionHandler<DMRAction, DMRResponse> {
+
+    private final ActionHandler<DMRAction, DMRResponse> delegate;
+    private final Writer writer;
+
+    public RecordingDMRHandler(ActionHandler<DMRAction, DMRResponse> delegate, Writer writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public DispatchRequest execute(final DMRAction action, final AsyncCallback<DMRResponse> callback) {
+        return delegate.execute(action, new AsyncCallback<DMRResponse>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                callback.onFailure(caught);
+            }
+
+            @Override
+            public void onSuccess(DMRResponse result) {
+                try {
+                    synchronized (writer) {
+                        writer.write(action.getOperation().toBase64String());
+                        writer.write(' ');
+                        writer.write(result.getEncoded());
+                        writer.write('\n');
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    callback.onFailure(e);
+                    return;
+                }
+                callback.onSuccess(result);
+            }
+        });
+    }
+
+    @Override
+    public DispatchRequest undo(DMRAction action, DMRResponse result, AsyncCallback<Void> callback) {
+        return delegate.undo(action, result, callback);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.simulator;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.dispatch.ActionHandler;
+import org.jboss.dmr.client.dispatch.DispatchRequest;
+import org.jboss.dmr.client.dispatch.impl.DMRAction;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes the operations against a {@link ManagementModel} instead of the management endpoint.
+ * Operations and responses are base64 encoded like on the wire, so the measured times include the
+ * encoding and decoding.
+ * <p/>
+ * Without latency the callback is called synchronously, otherwise it's called from a timer thread
+ * after the given number of milliseconds.
+ */
+public class SimulatorDMRHandler implements ActionHandler<DMRAction, DMRResponse> {
+
+    private static final String APPLICATION_DMR_ENCODED = "application/dmr-encoded";
+
+    private final ManagementModel model;
+    private final int latencyMillis;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private ScheduledExecutorService timer;
+
+    public SimulatorDMRHandler(ManagementModel model) {
+        this(model, 0);
+    }
+
+    public SimulatorDMRHandler(ManagementModel model, int latencyMillis) {
+        this.model = model;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public DispatchRequest execute(DMRAction action, final AsyncCallback<DMRResponse> callback) {
+        final DMRResponse response;
+        try {
+            ModelNode operation = ModelNode.fromBase64(action.getOperation().toBase64String());
+            String encoded;
+            synchronized (model) {
+                encoded = model.execute(operation).toBase64String();
+            }
+            requests.incrementAndGet();
+            responseBytes.addAndGet(encoded.length());
+            response = new DMRResponse("POST", encoded, APPLICATION_DMR_ENCODED, false);
+        } catch (Exception e) {
+            callback.onFailure(e);
+            return new Request();
+        }
+
+        if(latencyMillis <= 0)
+        {
+            callback.onSuccess(response);
+            return new Request();
+        }
+
+        final Request request = new Request();
+        request.pending = true;
+        timer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                request.pending = false;
+                if(!request.cancelled)
+                    callback.onSuccess(response);
+            }
+        }, latencyMillis, TimeUnit.MILLISECONDS);
+        return request;
+    }
+
+    @Override
+    public DispatchRequest undo(DMRAction action, DMRResponse result, AsyncCallback<Void> callback) {
+        throw new RuntimeException("Undo not implemented");
+    }
+
+    public ManagementModel getModel() {
+        return model;
+    }
+
+    /**
+     * @return the number of operations executed so far
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of (base64) bytes sent back so far
+     */
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    private synchronized ScheduledExecutorService timer() {
+        if(timer == null)
+        {
+            timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "management-simulator");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return timer;
+    }
+
+    private static class Request implements DispatchRequest {
+
+        private volatile boolean pending;
+        private volatile boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isPending() {
+            return pending;
+        }
+    }
+}
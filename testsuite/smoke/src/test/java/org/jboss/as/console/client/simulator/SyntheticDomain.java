@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.simulator;
+
+import org.jboss.as.console.client.simulator.ManagementModel.Resource;
+import org.jboss.dmr.client.ModelNode;
+
+/**
+ * Builds the management model of a domain. The defaults resemble the domain shipped with the application server:
+ * a host "master" with the servers "server-one", "server-two" and "server-three", the server groups
+ * "main-server-group" and "other-server-group" and the datasource "ExampleDS" in every profile.
+ * <p/>
+ * Larger domains are created by raising the numbers, i.e. <code>new SyntheticDomain().hosts(20).servers(10).build()</code>.
+ */
+public class SyntheticDomain {
+
+    private static final String[] DEFAULT_SERVERS = {"server-one", "server-two", "server-three"};
+    private static final String[] PROFILES = {"default", "full"};
+    private static final String[][] SERVER_GROUPS = {
+            {"main-server-group", "default", "standard-sockets"},
+            {"other-server-group", "full", "full-sockets"}
+    };
+
+    private int hosts = 1;
+    private int servers = 3;
+    private int datasources = 1;
+    private int deployments = 0;
+
+    /**
+     * @param hosts the number of hosts, the first one is the domain controller
+     */
+    public SyntheticDomain hosts(int hosts) {
+        this.hosts = hosts;
+        return this;
+    }
+
+    /**
+     * @param servers the number of servers per host
+     */
+    public SyntheticDomain servers(int servers) {
+        this.servers = servers;
+        return this;
+    }
+
+    /**
+     * @param datasources the number of datasources per profile
+     */
+    public SyntheticDomain datasources(int datasources) {
+        this.datasources = datasources;
+        return this;
+    }
+
+    /**
+     * @param deployments the number of deployments, assigned to every server group
+     */
+    public SyntheticDomain deployments(int deployments) {
+        this.deployments = deployments;
+        return this;
+    }
+
+    public ManagementModel build() {
+        ManagementModel model = new ManagementModel();
+        model.getRoot()
+                .attribute("name", "Unnamed Domain")
+                .attribute("release-version", "8.0.0.Final")
+                .attribute("product-name", "WildFly")
+                .attribute("management-major-version", 2)
+                .attribute("management-minor-version", 0);
+
+        for(String profile : PROFILES)
+        {
+            model.add("profile", profile).attribute("name", profile);
+            for(int i = 0; i < datasources; i++)
+                datasource(model.add("profile", profile, "subsystem", "datasources", "data-source", datasourceName(i)), i);
+            model.add("profile", profile, "subsystem", "datasources", "jdbc-driver", "h2")
+                    .attribute("driver-name", "h2")
+                    .attribute("driver-module-name", "com.h2database.h2")
+                    .attribute("driver-xa-datasource-class-name", "org.h2.jdbcx.JdbcDataSource");
+        }
+
+        for(String group : new String[] {"standard-sockets", "full-sockets"})
+        {
+            model.add("socket-binding-group", group).attribute("name", group).attribute("default-interface", "public");
+        }
+        for(String name : new String[] {"management", "public", "unsecure"})
+        {
+            model.add("interface", name).attribute("name", name);
+        }
+
+        for(int i = 0; i < deployments; i++)
+        {
+            String name = "app-" + (i + 1) + ".war";
+            ModelNode content = new ModelNode();
+            content.add().get("hash").set("deployment-" + i);
+            model.add("deployment", name).attribute("name", name).attribute("runtime-name", name)
+                    .attribute("content", content);
+        }
+
+        for(String[] group : SERVER_GROUPS)
+        {
+            model.add("server-group", group[0])
+                    .attribute("profile", group[1])
+                    .attribute("socket-binding-group", group[2]);
+            model.add("server-group", group[0], "jvm", "default").attribute("heap-size", "64m").attribute("max-heap-size", "512m");
+            for(int i = 0; i < deployments; i++)
+            {
+                String name = "app-" + (i + 1) + ".war";
+                model.add("server-group", group[0], "deployment", name)
+                        .attribute("name", name).attribute("runtime-name", name).attribute("enabled", true);
+            }
+        }
+
+        for(int h = 0; h < hosts; h++)
+            host(model, h);
+
+        return model;
+    }
+
+    private void host(ManagementModel model, int index) {
+        String host = index == 0 ? "master" : "slave-" + index;
+        Resource resource = model.add("host", host)
+                .attribute("name", host)
+                .attribute("master", index == 0)
+                .attribute("release-version", "8.0.0.Final")
+                .attribute("host-state", "running");
+        if(index == 0)
+            resource.getAttributes().get("domain-controller", "local").setEmptyObject();
+        else
+            resource.getAttributes().get("domain-controller", "remote").get("host").set("127.0.0.1");
+
+        model.add("host", host, "jvm", "default").attribute("heap-size", "64m").attribute("max-heap-size", "256m");
+        for(String name : new String[] {"management", "public", "unsecure"})
+        {
+            model.add("host", host, "interface", name).attribute("name", name).attribute("inet-address", "127.0.0.1");
+        }
+
+        for(int i = 0; i < servers; i++)
+        {
+            String server = serverName(index, i);
+            String[] group = SERVER_GROUPS[i < 2 ? 0 : 1];
+            boolean started = i != 2 || index > 0;   // like the default domain: server-three is stopped
+
+            model.add("host", host, "server-config", server)
+                    .attribute("name", server)
+                    .attribute("group", group[0])
+                    .attribute("auto-start", started)
+                    .attribute("socket-binding-group", group[2])
+                    .attribute("socket-binding-port-offset", i * 100)
+                    .attribute("status", started ? "STARTED" : "DISABLED");
+
+            if(started)
+            {
+                model.add("host", host, "server", server)
+                        .attribute("name", server)
+                        .attribute("host", host)
+                        .attribute("server-group", group[0])
+                        .attribute("profile-name", group[1])
+                        .attribute("launch-type", "DOMAIN")
+                        .attribute("server-state", "running");
+                model.add("host", host, "server", server, "socket-binding-group", group[2])
+                        .attribute("name", group[2])
+                        .attribute("port-offset", i * 100);
+                for(String name : new String[] {"management", "public", "unsecure"})
+                {
+                    model.add("host", host, "server", server, "interface", name)
+                            .attribute("name", name)
+                            .attribute("resolved-address", "127.0.0.1");
+                }
+            }
+        }
+    }
+
+    private void datasource(Resource resource, int index) {
+        String name = datasourceName(index);
+        resource.attribute("name", name)
+                .attribute("jndi-name", "java:jboss/datasources/" + name)
+                .attribute("pool-name", name)
+                .attribute("connection-url", "jdbc:h2:mem:" + name.toLowerCase() + ";DB_CLOSE_DELAY=-1")
+                .attribute("driver-name", "h2")
+                .attribute("user-name", "sa")
+                .attribute("password", "sa")
+                .attribute("enabled", true)
+                .attribute("jta", true)
+                .attribute("use-java-context", true)
+                .attribute("min-pool-size", 0)
+                .attribute("max-pool-size", 20);
+    }
+
+    private static String datasourceName(int index) {
+        return index == 0 ? "ExampleDS" : "DataSource" + index;
+    }
+
+    private static String serverName(int host, int index) {
+        if(host == 0)
+            return index < DEFAULT_SERVERS.length ? DEFAULT_SERVERS[index] : "server-" + (index + 1);
+        return "slave-" + host + "-server-" + (index + 1);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.as.console.client.widgets.tables;
+
+import com.google.gwt.view.client.ListDataProvider;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FilterIndexTest {
+
+    private static final DataProviderFilter.Indexer<String> NAME = new DataProviderFilter.Indexer<String>() {
+        @Override
+        public String[] keysOf(String candidate) {
+            return new String[] {candidate};
+        }
+    };
+
+    // "java:jboss/exported/jms/queue/test" -> the name and each of its path segments
+    private static final DataProviderFilter.Indexer<String> TOKENS = new DataProviderFilter.Indexer<String>() {
+        @Override
+        public String[] keysOf(String candidate) {
+            List<String> keys = new ArrayList<String>();
+            keys.add(candidate);
+            keys.addAll(Arrays.asList(candidate.split("[:/]")));
+            return keys.toArray(new String[keys.size()]);
+        }
+    };
+
+    private static final DataProviderFilter.Predicate<String> STARTS_WITH = new DataProviderFilter.Predicate<String>() {
+        @Override
+        public boolean apply(String prefix, String candiate) {
+            return candiate.startsWith(prefix);
+        }
+    };
+
+    @Test
+    public void prefixMatchesKeepTheOriginalOrder() {
+        FilterIndex<String> index = new FilterIndex<String>(
+                Arrays.asList("queue/b", "topic/a", "queue/a", "queue/c"), NAME);
+
+        assertEquals(Arrays.asList("queue/b", "queue/a", "queue/c"), index.query("queue/"));
+        assertEquals(Arrays.asList("topic/a"), index.query("t"));
+        assertEquals(Collections.<String>emptyList(), index.query("x"));
+    }
+
+    @Test
+    public void narrowingAndWidening() {
+        FilterIndex<String> index = new FilterIndex<String>(Arrays.asList("ab", "abc", "abd", "b"), NAME);
+
+        assertEquals(Arrays.asList("ab", "abc", "abd"), index.query("a"));
+        assertEquals(Arrays.asList("abc"), index.query("abc"));
+        assertEquals(Collections.<String>emptyList(), index.query("abcd"));
+
+        // a shorter prefix searches all keys again
+        assertEquals(Arrays.asList("ab", "abc", "abd"), index.query("ab"));
+        assertEquals(Arrays.asList("b"), index.query("b"));
+    }
+
+    @Test
+    public void tokenMatchesAreReportedOnce() {
+        List<String> names = Arrays.asList(
+                "java:jboss/exported/jms/queue/test",
+                "java:/queue/test",
+                "java:jboss/datasources/ExampleDS");
+        FilterIndex<String> index = new FilterIndex<String>(names, TOKENS);
+
+        assertEquals(Arrays.asList("java:jboss/exported/jms/queue/test", "java:/queue/test"), index.query("queue"));
+        assertEquals(Arrays.asList("java:jboss/datasources/ExampleDS"), index.query("Example"));
+
+        // matches by name and by several tokens
+        assertEquals(names, index.query("java"));
+        assertEquals(names, index.query("j"));
+    }
+
+    @Test
+    public void indexAgreesWithPredicate() {
+        List<String> rows = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add("java:jboss/exported/jms/" + (i % 2 == 0 ? "queue/q-" : "topic/t-") + (i / 2));
+        }
+        DataProviderFilter<String> scan = new DataProviderFilter<String>(new ListDataProvider<String>(rows), STARTS_WITH);
+        DataProviderFilter<String> indexed = new DataProviderFilter<String>(new ListDataProvider<String>(rows), NAME);
+
+        String[] queries = {"java", "java:jboss/exported/jms/topic", "java:jboss/exported/jms/queue/q-4", "x", "java:jboss/d", "java:"};
+        for (String query : queries) {
+            assertEquals(query, scan.match(query), indexed.match(query));
+        }
+        assertEquals(500, indexed.match("java:jboss/exported/jms/queue").size());
+    }
+
+    @Test
+    public void indexFollowsTheSnapshotAfterSetList() {
+        ListDataProvider<String> provider = new ListDataProvider<String>(Arrays.asList("alpha", "beta"));
+        DataProviderFilter<String> filter = new DataProviderFilter<String>(provider, NAME);
+        assertEquals(Arrays.asList("alpha"), filter.match("a"));
+
+        provider.setList(Arrays.asList("gamma", "alpaca", "delta"));
+        assertEquals("stale until the next snapshot", Arrays.asList("alpha"), filter.match("al"));
+
+        filter.snapshot();
+        assertEquals(Arrays.asList("alpaca"), filter.match("al"));
+        assertEquals(Collections.<String>emptyList(), filter.match("beta"));
+        assertEquals(Arrays.asList("gamma"), filter.match("g"));
+    }
+}
@@ -23,6 +23,8 @@ import org.junit.Test;
 
 import static org.jboss.dmr.client.ModelDescriptionConstants.ADDRESS;
 import static org.jboss.dmr.client.ModelDescriptionConstants.OP;
+import static org.jboss.dmr.client.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.dmr.client.ModelDescriptionConstants.RESULT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -101,6 +103,47 @@ public class Base64Test {
         assertNotNull(modelNode);
     }
 
+    @Test
+    public void testLazyDecoding() throws Exception {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set("success");
+        ModelNode result = response.get(RESULT);
+        for (int i = 0; i < 10; i++) {
+            ModelNode ds = result.get("data-source").get("ds" + i);
+            ds.get("jndi-name").set("java:/ds" + i);
+            ds.get("enabled").set(i % 2 == 0);
+            ds.get("max-pool-size").set(20L + i);
+            ds.get("connection-properties").add("user", "sa");
+            ds.get("connection-properties").add("password", "sa");
+        }
+        response.get("response-headers").get("process-state").set("reload-required");
+        String base64 = response.toBase64String();
+
+        ModelNode lazy = ModelNode.fromBase64(base64, true);
+        assertEquals("success", lazy.get(OUTCOME).asString());
+        assertEquals("java:/ds7", lazy.get(RESULT, "data-source", "ds7", "jndi-name").asString());
+        assertEquals(2, lazy.get(RESULT, "data-source", "ds3", "connection-properties").asPropertyList().size());
+        assertEquals(ModelNode.fromBase64(base64), ModelNode.fromBase64(base64, true));
+        assertEquals(ModelNode.fromBase64(base64).toString(), ModelNode.fromBase64(base64, true).toString());
+        assertEquals(base64, ModelNode.fromBase64(base64, true).toBase64String());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyDecodingTruncated() throws Exception {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set("success");
+        response.get(RESULT).get("data-source").get("ExampleDS").get("jndi-name").set("java:jboss/datasources/ExampleDS");
+
+        DataOutput out = new DataOutput();
+        response.writeExternal(out);
+        byte[] bytes = out.getBytes();
+        byte[] truncated = new byte[bytes.length - 10];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        // fails right away, not when the result is accessed
+        ModelNode.fromBase64(Base64.encodeBytes(truncated), true);
+    }
+
     @Test
     public void testAS7912() throws Exception {
         String base64 = "bwAAAAMAB291dGNvbWVzAAdzdWNjZXNzAAZyZXN1bHRvAAAABAAKYWN0aXZhdGlvbnMABGxhenkA\n" +
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.dmr.client.ModelDescriptionConstants.RESULT;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the base64 codec (JVM code path) on recorded management responses: eager and lazy decoding must
+ * yield the same node, and encoding it again must not change it. See the JMH benchmarks in
+ * <code>testsuite/benchmarks</code> for timings.
+ */
+public class CodecRoundTripTest {
+
+    private static final Map<String, String> payloads = new LinkedHashMap<String, String>();
+
+    @BeforeClass
+    public static void loadPayloads() throws IOException {
+        payloads.put("ds-deletion", load("ds-deletion-response.b64"));
+        payloads.put("as7-912", load("as7-912-response.b64"));
+
+        // a large response made of recorded results, similar to a recursive read-resource
+        ModelNode large = new ModelNode();
+        large.get(OUTCOME).set("success");
+        for (int i = 0; i < 250; i++) {
+            large.get(RESULT, "server-" + i).set(ModelNode.fromBase64(payloads.get("as7-912")).get(RESULT));
+        }
+        payloads.put("large", large.toBase64String());
+    }
+
+    @Test
+    public void roundTrip() {
+        for (Map.Entry<String, String> payload : payloads.entrySet()) {
+            ModelNode node = ModelNode.fromBase64(payload.getValue());
+            assertEquals(payload.getKey(), node, ModelNode.fromBase64(node.toBase64String()));
+            assertEquals(payload.getKey(), node, ModelNode.fromBase64(payload.getValue(), true));
+        }
+    }
+
+    private static String load(String name) throws IOException {
+        InputStream in = CodecRoundTripTest.class.getResourceAsStream(name);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+        try {
+            StringBuilder builder = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.append(line).append('\n');
+            }
+            return builder.toString();
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * The read-only lookups must not add any children to the node they are called on.
+ */
+public class ModelNodeLookupTest {
+
+    @Test
+    public void lookupsDontModify() {
+        ModelNode node = new ModelNode();
+        node.get("name").set("ExampleDS");
+        node.get("pool", "max-size").set(20);
+        node.get("enabled").set(true);
+        String before = node.toString();
+
+        assertNull(node.getOrNull("jndi-name"));
+        assertNull(node.getOrNull("pool", "min-size"));
+        assertNull(node.getOrNull("name", "foo"));
+        assertSame(ModelNode.UNDEFINED, node.find("a", "b", "c"));
+        assertFalse(node.find("pool", "min-size").isDefined());
+        assertEquals(20, node.find("pool", "max-size").asInt());
+        assertFalse(node.hasDefined("jndi-name"));
+
+        assertEquals("ExampleDS", node.asString("name", "n/a"));
+        assertEquals("n/a", node.asString("jndi-name", "n/a"));
+        assertEquals(-1L, node.asLong("timeout", -1L));
+        assertEquals(0, node.asInt("min-size", 0));
+        assertTrue(node.asBoolean("enabled", false));
+
+        assertEquals(before, node.toString());
+        assertEquals(3, node.keys().size());
+    }
+
+    @Test
+    public void lookupsOnProperties() {
+        ModelNode node = new ModelNode();
+        node.set("server-one", new ModelNode().set("running"));
+
+        assertEquals("running", node.asString("server-one", null));
+        assertNull(node.getOrNull("server-two"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void undefinedIsProtected() {
+        new ModelNode().find("foo").get("bar");
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client.dispatch;
+
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.dispatch.impl.DMRResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DMRCacheTest {
+
+    private DMRCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new DMRCache(100);
+    }
+
+    @Test
+    public void hitAndMiss() {
+        ModelNode read = read("subsystem", "datasources");
+        cache.put(read.toString(), read, response(10));
+
+        assertNotNull(cache.get(read.toString()));
+        assertNull(cache.get(read("subsystem", "logging").toString()));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        ModelNode first = read("subsystem", "datasources");
+        ModelNode second = read("subsystem", "logging");
+        ModelNode third = read("subsystem", "web");
+        cache.put(first.toString(), first, response(40));
+        cache.put(second.toString(), second, response(40));
+        cache.get(first.toString());
+        cache.put(third.toString(), third, response(40));
+
+        assertEquals(2, cache.size());
+        assertEquals(80, cache.getBytes());
+        assertNotNull(cache.get(first.toString()));
+        assertNull(cache.get(second.toString()));
+    }
+
+    @Test
+    public void invalidateOverlappingAddresses() {
+        ModelNode root = new ModelNode();
+        root.get(OP).set(READ_CHILDREN_NAMES_OPERATION);
+        root.get(ADDRESS).setEmptyList();
+        ModelNode datasources = read("subsystem", "datasources");
+        ModelNode logging = read("subsystem", "logging");
+        cache.put(root.toString(), root, response(10));
+        cache.put(datasources.toString(), datasources, response(10));
+        cache.put(logging.toString(), logging, response(10));
+
+        ModelNode write = new ModelNode();
+        write.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        write.get(ADDRESS).add("subsystem", "datasources").add("data-source", "ExampleDS");
+        cache.invalidate(write);
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(logging.toString()));
+    }
+
+    @Test
+    public void keyIsNotModified() {
+        // no operation name: looking it up must not add it
+        ModelNode read = new ModelNode();
+        read.get(ADDRESS).add("subsystem", "logging");
+        String key = read.toString();
+        cache.put(key, read, response(10));
+
+        assertEquals(key, read.toString());
+        assertNotNull(cache.get(key));
+    }
+
+    private ModelNode read(String type, String name) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_OPERATION);
+        operation.get(ADDRESS).add(type, name);
+        return operation;
+    }
+
+    private DMRResponse response(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) text.append('A');
+        return new DMRResponse("POST", text.toString(), "application/dmr-encoded", false);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @author tags. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+
+package org.jboss.dmr.client.dispatch.impl;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import org.jboss.dmr.client.ModelNode;
+import org.jboss.dmr.client.dispatch.Action;
+import org.jboss.dmr.client.dispatch.ActionHandler;
+import org.jboss.dmr.client.dispatch.ActionType;
+import org.jboss.dmr.client.dispatch.CancelledException;
+import org.jboss.dmr.client.dispatch.DispatchRequest;
+import org.jboss.dmr.client.dispatch.HandlerMapping;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jboss.dmr.client.ModelDescriptionConstants.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DispatchAsyncImplTest {
+
+    private Handler handler;
+    private DispatchAsyncImpl dispatcher;
+
+    @Before
+    public void setUp() {
+        handler = new Handler();
+        dispatcher = new DispatchAsyncImpl(new HandlerMapping() {
+            @Override
+            public ActionHandler resolve(Action action) {
+                return handler;
+            }
+
+            @Override
+            public void register(ActionType actionType, ActionHandler handler) {
+            }
+        });
+    }
+
+    @Test
+    public void synchronousHandler() {
+        handler.synchronous = true;
+        Callback callback = new Callback();
+
+        DispatchRequest request = dispatcher.execute(read(), callback);
+
+        assertEquals(1, handler.executed);
+        assertEquals(1, callback.successes);
+        assertFalse(request.isPending());
+
+        // nothing is left in flight: the next read goes to the handler again
+        Callback next = new Callback();
+        dispatcher.execute(read(), next);
+        assertEquals(2, handler.executed);
+        assertEquals(1, next.successes);
+    }
+
+    @Test
+    public void shareInFlightRead() {
+        Callback first = new Callback();
+        Callback second = new Callback();
+
+        dispatcher.execute(read(), first);
+        dispatcher.execute(read(), second);
+        assertEquals(1, handler.executed);
+
+        handler.complete();
+        assertEquals(1, first.successes);
+        assertEquals(1, second.successes);
+    }
+
+    @Test
+    public void leaveScope() {
+        dispatcher.enterScope("datasources");
+        Callback scoped = new Callback();
+        Callback global = new Callback();
+
+        DMRAction view = read();
+        view.setScoped(true);
+        dispatcher.execute(view, scoped);
+        dispatcher.execute(read("logging"), global);
+
+        dispatcher.enterScope("logging");
+        assertEquals(1, scoped.failures);
+        assertTrue(scoped.caught instanceof CancelledException);
+        assertEquals(1, dispatcher.getCancelledRequests());
+
+        handler.complete();
+        assertEquals(0, scoped.successes);
+        assertEquals(1, global.successes);
+    }
+
+    private DMRAction read() {
+        return read("datasources");
+    }
+
+    private DMRAction read(String subsystem) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_OPERATION);
+        operation.get(ADDRESS).add("subsystem", subsystem);
+        return new DMRAction(operation, false);
+    }
+
+    static class Handler implements ActionHandler<DMRAction, DMRResponse> {
+
+        boolean synchronous;
+        int executed;
+        final List<AsyncCallback<DMRResponse>> pending = new ArrayList<AsyncCallback<DMRResponse>>();
+
+        @Override
+        public DispatchRequest execute(DMRAction action, AsyncCallback<DMRResponse> callback) {
+            executed++;
+            if(synchronous)
+                callback.onSuccess(response());
+            else
+                pending.add(callback);
+            return new DispatchRequest() {
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public boolean isPending() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public DispatchRequest undo(DMRAction action, DMRResponse result, AsyncCallback<Void> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        void complete() {
+            for(AsyncCallback<DMRResponse> callback : new ArrayList<AsyncCallback<DMRResponse>>(pending))
+                callback.onSuccess(response());
+            pending.clear();
+        }
+
+        private static DMRResponse response() {
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT).setEmptyObject();
+            return new DMRResponse("POST", response.toBase64String(), "application/dmr-encoded", false);
+        }
+    }
+
+    static class Callback implements AsyncCallback<DMRResponse> {
+
+        int successes;
+        int failures;
+        Throwable caught;
+
+        @Override
+        public void onSuccess(DMRResponse result) {
+            successes++;
+        }
+
+        @Override
+        public void onFailure(Throwable caught) {
+            failures++;
+            this.caught = caught;
+        }
+    }
+}